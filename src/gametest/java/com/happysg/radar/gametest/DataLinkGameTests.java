@@ -0,0 +1,115 @@
+package com.happysg.radar.gametest;
+
+import com.happysg.radar.CreateRadar;
+import com.happysg.radar.block.datalink.DataController;
+import com.happysg.radar.block.datalink.DataLinkBlockEntity;
+import com.happysg.radar.block.datalink.DataLinkContext;
+import com.happysg.radar.block.datalink.DataPeripheral;
+import com.happysg.radar.block.datalink.screens.AbstractDataLinkScreen;
+import com.happysg.radar.registry.AllDataBehaviors;
+import com.happysg.radar.registry.ModBlocks;
+import net.minecraft.core.BlockPos;
+import net.minecraft.gametest.framework.AfterBatch;
+import net.minecraft.gametest.framework.BeforeBatch;
+import net.minecraft.gametest.framework.GameTest;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraftforge.gametest.GameTestHolder;
+import net.minecraftforge.gametest.PrefixGameTestTemplate;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Data link transfer scheduling, run with {@code ./gradlew runGameTestServer}.
+ * <p>
+ * No shipped source reports a change version yet, so the link is fed by a probe that does,
+ * assigned to vanilla target blocks for the length of the batch. It targets a real monitor.
+ */
+@GameTestHolder(CreateRadar.MODID)
+@PrefixGameTestTemplate(false)
+public class DataLinkGameTests {
+
+    private static final String PLATFORM = "perf_platform";
+    private static final String BATCH = "create_radar_data_link";
+
+    /** Versioned source: a new version every tick while {@link #moving}, frozen otherwise. */
+    private static final class ProbeSource extends DataPeripheral {
+        boolean moving = true;
+        long frozenVersion;
+        int transfers;
+
+        @Override
+        protected AbstractDataLinkScreen getScreen(DataLinkBlockEntity be) {
+            return null;
+        }
+
+        @Override
+        protected void transferData(@NotNull DataLinkContext context, @NotNull DataController activeTarget) {
+            transfers++;
+        }
+
+        @Override
+        protected long getChangeVersion(@NotNull DataLinkContext context) {
+            return moving ? context.level().getGameTime() : frozenVersion;
+        }
+    }
+
+    private static final ProbeSource PROBE = new ProbeSource();
+
+    static {
+        // never put in the peripheral registry, the link only needs the id to save itself
+        PROBE.id = CreateRadar.asResource("gametest_probe");
+    }
+
+    /** Vanilla target blocks act as the probe for this batch only. */
+    @BeforeBatch(batch = BATCH)
+    public static void assignProbe(ServerLevel level) {
+        AllDataBehaviors.assignBlock(PROBE, Blocks.TARGET);
+    }
+
+    @AfterBatch(batch = BATCH)
+    public static void unassignProbe(ServerLevel level) {
+        AllDataBehaviors.unassignBlock(PROBE, Blocks.TARGET);
+    }
+
+    /** A source whose data changes every tick is transferred every tick, and not at all once it stops. */
+    @GameTest(template = PLATFORM, batch = BATCH, timeoutTicks = 100)
+    public static void versionedSourceTransfersEveryTick(GameTestHelper helper) {
+        PROBE.moving = true;
+
+        BlockPos source = new BlockPos(2, 1, 2);
+        BlockPos link = source.above();
+        BlockPos monitor = new BlockPos(5, 1, 2);
+        helper.setBlock(source, Blocks.TARGET);
+        helper.setBlock(link, ModBlocks.RADAR_LINK.getDefaultState());
+        helper.setBlock(monitor, ModBlocks.MONITOR.getDefaultState());
+
+        if (!(helper.getBlockEntity(link) instanceof DataLinkBlockEntity be)) {
+            helper.fail("no data link block entity", link);
+            return;
+        }
+        be.target(helper.absolutePos(monitor));
+
+        int[] start = new int[1];
+        helper.runAfterDelay(10, () -> start[0] = PROBE.transfers);
+        helper.runAfterDelay(30, () -> {
+            int moved = PROBE.transfers - start[0];
+            if (moved != 20) {
+                helper.fail("expected 20 transfers in 20 ticks of a changing source, got " + moved);
+                return;
+            }
+            PROBE.frozenVersion = helper.getLevel().getGameTime();
+            PROBE.moving = false;
+            start[0] = PROBE.transfers;
+        });
+        helper.runAfterDelay(60, () -> {
+            // depending on tick order the frozen version may still differ from the last moving one once
+            int idle = PROBE.transfers - start[0];
+            if (idle > 1) {
+                helper.fail("unchanged source was transferred " + idle + " times in 30 ticks");
+                return;
+            }
+            helper.succeed();
+        });
+    }
+}
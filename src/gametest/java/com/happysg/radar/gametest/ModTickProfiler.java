@@ -0,0 +1,165 @@
+package com.happysg.radar.gametest;
+
+import com.happysg.radar.CreateRadar;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.entity.BlockEntityType;
+import net.minecraft.world.phys.AABB;
+import net.minecraftforge.registries.ForgeRegistries;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Time spent ticking this mod's block entities, and bytes of block entity data they hand to the
+ * network, inside a box over a window of game ticks. Fed by the two perf mixins in
+ * {@code create_radar.gametest.mixins.json}, which only dev runs load; costs one list check per
+ * block entity tick while no session is open. Server thread only.
+ */
+public final class ModTickProfiler {
+
+    public static final class Session {
+        private final AABB bounds;
+        private final long startTick;
+        private final long[] nanosPerTick;
+        private long syncBytes;
+        private int syncPackets;
+        private long lastTick = -1;
+
+        private Session(AABB bounds, long startTick, int ticks) {
+            this.bounds = bounds;
+            this.startTick = startTick;
+            this.nanosPerTick = new long[ticks];
+        }
+
+        /** Game ticks that had any of our block entities tick in the box. */
+        public int ticksSeen() {
+            return lastTick < 0 ? 0 : (int) Math.min(nanosPerTick.length, lastTick - startTick + 1);
+        }
+
+        public double meanMicrosPerTick() {
+            int n = ticksSeen();
+            if (n == 0) return 0;
+            long sum = 0;
+            for (int i = 0; i < n; i++) sum += nanosPerTick[i];
+            return sum / 1000.0 / n;
+        }
+
+        public double percentileMicros(double p) {
+            int n = ticksSeen();
+            if (n == 0) return 0;
+            long[] sorted = Arrays.copyOf(nanosPerTick, n);
+            Arrays.sort(sorted);
+            return sorted[Math.min(n - 1, (int) Math.floor(p * n))] / 1000.0;
+        }
+
+        public double bytesPerTick() {
+            int n = ticksSeen();
+            return n == 0 ? 0 : (double) syncBytes / n;
+        }
+
+        public long syncBytes() {
+            return syncBytes;
+        }
+
+        public int syncPackets() {
+            return syncPackets;
+        }
+
+        private boolean covers(BlockEntity be, long tick) {
+            if (tick < startTick || tick >= startTick + nanosPerTick.length) return false;
+            return bounds.contains(be.getBlockPos().getCenter());
+        }
+    }
+
+    private static final List<Session> ACTIVE = new ArrayList<>();
+    private static final Map<BlockEntityType<?>, Boolean> OURS = new IdentityHashMap<>();
+
+    private static BlockEntity ticking;
+    private static long tickStartNanos;
+
+    private ModTickProfiler() {}
+
+    /** Opens a session over {@code ticks} game ticks starting at {@code startTick}. */
+    public static Session start(AABB bounds, long startTick, int ticks) {
+        Session session = new Session(bounds, startTick, ticks);
+        ACTIVE.add(session);
+        return session;
+    }
+
+    public static void stop(Session session) {
+        ACTIVE.remove(session);
+    }
+
+    public static void beginBlockEntity(BlockEntity be) {
+        if (ACTIVE.isEmpty() || be.getLevel() == null || be.getLevel().isClientSide || !isOurs(be)) return;
+        ticking = be;
+        tickStartNanos = System.nanoTime();
+    }
+
+    public static void endBlockEntity(BlockEntity be) {
+        if (ticking != be) return;
+        ticking = null;
+        long nanos = System.nanoTime() - tickStartNanos;
+
+        long tick = be.getLevel().getGameTime();
+        for (Session session : ACTIVE) {
+            if (!session.covers(be, tick)) continue;
+            session.nanosPerTick[(int) (tick - session.startTick)] += nanos;
+            session.lastTick = Math.max(session.lastTick, tick);
+        }
+    }
+
+    /** A data packet was built for {@code be}; whether or not a player is watching, this is what would go out. */
+    public static void recordSync(BlockEntity be, CompoundTag tag) {
+        if (ACTIVE.isEmpty() || tag == null || be.getLevel() == null || be.getLevel().isClientSide || !isOurs(be)) return;
+
+        long tick = be.getLevel().getGameTime();
+        long size = -1;
+        for (Session session : ACTIVE) {
+            if (!session.covers(be, tick)) continue;
+            if (size < 0) size = sizeOf(tag);
+            session.syncBytes += size;
+            session.syncPackets++;
+        }
+    }
+
+    private static boolean isOurs(BlockEntity be) {
+        return OURS.computeIfAbsent(be.getType(), type -> {
+            ResourceLocation id = ForgeRegistries.BLOCK_ENTITY_TYPES.getKey(type);
+            return id != null && CreateRadar.MODID.equals(id.getNamespace());
+        });
+    }
+
+    private static long sizeOf(CompoundTag tag) {
+        CountingStream counter = new CountingStream();
+        try {
+            NbtIo.write(tag, new DataOutputStream(counter));
+        } catch (IOException ignored) {
+            // counting stream never throws
+        }
+        return counter.count;
+    }
+
+    private static final class CountingStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
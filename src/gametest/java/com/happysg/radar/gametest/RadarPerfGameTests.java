@@ -0,0 +1,205 @@
+package com.happysg.radar.gametest;
+
+import com.happysg.radar.CreateRadar;
+import com.happysg.radar.block.behavior.networks.NetworkData;
+import com.happysg.radar.block.behavior.networks.WeaponNetworkData;
+import com.happysg.radar.block.behavior.networks.config.TargetingConfig;
+import com.happysg.radar.block.radar.bearing.RadarBearingBlockEntity;
+import com.happysg.radar.registry.ModBlocks;
+import com.simibubi.create.AllBlocks;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.gametest.framework.GameTest;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.projectile.Arrow;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.block.state.properties.BlockStateProperties;
+import net.minecraft.world.level.block.state.properties.Property;
+import net.minecraft.world.phys.Vec3;
+import net.minecraftforge.gametest.GameTestHolder;
+import net.minecraftforge.gametest.PrefixGameTestTemplate;
+import rbasamoyai.createbigcannons.index.CBCBlocks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Tick time and sync budget regression tests, run with {@code ./gradlew runGameTestServer}.
+ * <p>
+ * Each test builds an installation on a bare platform, lets it settle, then profiles this mod's
+ * block entities in the test's box for {@link #MEASURE_TICKS} ticks and fails if the mean or p99
+ * tick time, or the block entity data handed to the network per tick, goes over its budget. Every
+ * test has its own batch so they never run side by side.
+ * <p>
+ * Budgets are meant for a regular dev machine; {@code -Dcreate_radar.perfBudgetScale=2} loosens all
+ * of them on slow CI runners.
+ */
+@GameTestHolder(CreateRadar.MODID)
+@PrefixGameTestTemplate(false)
+public class RadarPerfGameTests {
+
+    private static final String PLATFORM = "perf_platform";
+    private static final int SETTLE_TICKS = 60;
+    private static final int MEASURE_TICKS = 200;
+    private static final int TIMEOUT = SETTLE_TICKS + MEASURE_TICKS + 100;
+
+    private static final double BUDGET_SCALE = Double.parseDouble(System.getProperty("create_radar.perfBudgetScale", "1"));
+
+    private record Budget(double meanMicros, double p99Micros, double bytesPerTick) {}
+
+    /** 20 spinning radar bearings, each with its own filterer and monitor. */
+    @GameTest(template = PLATFORM, batch = "create_radar_perf_radars", timeoutTicks = TIMEOUT)
+    public static void radarBearingsWithMonitors(GameTestHelper helper) {
+        for (int i = 0; i < 20; i++) {
+            BlockPos base = new BlockPos(2 + (i % 5) * 9, 1, 2 + (i / 5) * 11);
+            BlockPos bearing = placeRadarBearing(helper, base);
+            BlockPos filterer = base.offset(3, 0, 0);
+            BlockPos monitor = base.offset(3, 0, 3);
+            helper.setBlock(filterer, ModBlocks.NETWORK_FILTERER_BLOCK.getDefaultState());
+            helper.setBlock(monitor, ModBlocks.MONITOR.getDefaultState());
+            linkRadarNetwork(helper, filterer, List.of(bearing), List.of(monitor));
+        }
+        spawnHusks(helper, 60);
+
+        profile(helper, "radarBearingsWithMonitors", new Budget(4_000, 15_000, 48 * 1024));
+    }
+
+    /** One radar and filterer feeding 16 cannon mounts with yaw, pitch and fire controllers. */
+    @GameTest(template = PLATFORM, batch = "create_radar_perf_cannons", timeoutTicks = TIMEOUT)
+    public static void filtererWithSixteenCannons(GameTestHelper helper) {
+        BlockPos bearing = placeRadarBearing(helper, new BlockPos(44, 1, 44));
+        BlockPos filterer = new BlockPos(44, 1, 40);
+        BlockPos monitor = new BlockPos(40, 1, 44);
+        helper.setBlock(filterer, ModBlocks.NETWORK_FILTERER_BLOCK.getDefaultState());
+        helper.setBlock(monitor, ModBlocks.MONITOR.getDefaultState());
+        NetworkData.Group group = linkRadarNetwork(helper, filterer, List.of(bearing), List.of(monitor));
+
+        ServerLevel level = helper.getLevel();
+        NetworkData network = NetworkData.get(level);
+        network.setTargetingConfig(group, new TargetingConfig(false, false, true, true, false, true, true, false));
+        WeaponNetworkData weapons = WeaponNetworkData.get(level);
+
+        for (int i = 0; i < 16; i++) {
+            BlockPos mount = new BlockPos(4 + (i % 4) * 9, 2, 4 + (i / 4) * 9);
+            BlockPos yaw = mount.below();
+            BlockPos pitch = mount.east();
+            BlockPos fire = mount.west();
+            helper.setBlock(mount, CBCBlocks.CANNON_MOUNT.getDefaultState());
+            helper.setBlock(yaw, with(ModBlocks.AUTO_YAW_CONTROLLER_BLOCK.getDefaultState(), BlockStateProperties.FACING, Direction.UP));
+            helper.setBlock(pitch, with(ModBlocks.AUTO_PITCH_CONTROLLER_BLOCK.getDefaultState(), BlockStateProperties.HORIZONTAL_FACING, Direction.WEST));
+            helper.setBlock(fire, ModBlocks.FIRE_CONTROLLER_BLOCK.getDefaultState());
+
+            WeaponNetworkData.Group weaponGroup = weapons.getOrCreateGroup(level.dimension(), helper.absolutePos(mount));
+            weapons.tryMergeIntoGroup(weaponGroup, helper.absolutePos(yaw), helper.absolutePos(pitch), helper.absolutePos(fire));
+            network.attachWeaponEndpoint(group, helper.absolutePos(pitch), helper.absolutePos(mount));
+        }
+        spawnHusks(helper, 40);
+
+        profile(helper, "filtererWithSixteenCannons", new Budget(6_000, 20_000, 32 * 1024));
+    }
+
+    /** Two radars on one network watching 200 mobs and 100 projectiles. */
+    @GameTest(template = PLATFORM, batch = "create_radar_perf_swarm", timeoutTicks = TIMEOUT)
+    public static void mobAndProjectileSwarm(GameTestHelper helper) {
+        BlockPos first = placeRadarBearing(helper, new BlockPos(2, 1, 2));
+        BlockPos second = placeRadarBearing(helper, new BlockPos(44, 1, 44));
+        BlockPos filterer = new BlockPos(6, 1, 2);
+        BlockPos monitor = new BlockPos(6, 1, 6);
+        helper.setBlock(filterer, ModBlocks.NETWORK_FILTERER_BLOCK.getDefaultState());
+        helper.setBlock(monitor, ModBlocks.MONITOR.getDefaultState());
+        linkRadarNetwork(helper, filterer, List.of(first, second), List.of(monitor));
+
+        spawnHusks(helper, 200);
+        for (int i = 0; i < 100; i++) {
+            Arrow arrow = helper.spawn(EntityType.ARROW, new Vec3(8 + (i % 10) * 3.5, 6 + (i / 10) % 4, 8 + (i / 10) * 3.0));
+            // slow and weightless so they stay inside the box for the whole run
+            arrow.setNoGravity(true);
+            arrow.setDeltaMovement((i % 2 == 0 ? 0.02 : -0.02), 0, 0.01);
+        }
+
+        profile(helper, "mobAndProjectileSwarm", new Budget(5_000, 20_000, 64 * 1024));
+    }
+
+    // ---- installation helpers ----
+
+    /** Creative motor, radar bearing and receiver stacked at {@code base}; returns the bearing's relative pos. */
+    private static BlockPos placeRadarBearing(GameTestHelper helper, BlockPos base) {
+        BlockPos bearing = base.above();
+        helper.setBlock(base, with(AllBlocks.CREATIVE_MOTOR.getDefaultState(), BlockStateProperties.FACING, Direction.UP));
+        helper.setBlock(bearing, ModBlocks.RADAR_BEARING_BLOCK.getDefaultState());
+        helper.setBlock(bearing.above(), ModBlocks.RADAR_RECEIVER_BLOCK.getDefaultState());
+
+        // give the motor a few ticks to spin the bearing up, then assemble like a redstone pulse would
+        helper.runAfterDelay(10, () -> {
+            if (helper.getBlockEntity(bearing) instanceof RadarBearingBlockEntity radar && !radar.isRunning())
+                radar.assemble();
+        });
+        return bearing;
+    }
+
+    private static NetworkData.Group linkRadarNetwork(GameTestHelper helper, BlockPos filterer, List<BlockPos> radars, List<BlockPos> monitors) {
+        ServerLevel level = helper.getLevel();
+        NetworkData network = NetworkData.get(level);
+        NetworkData.Group group = network.getOrCreateGroup(level.dimension(), helper.absolutePos(filterer));
+        for (BlockPos radar : radars)
+            network.attachRadar(group, helper.absolutePos(radar), NetworkData.RadarKind.BEARING);
+        for (BlockPos monitor : monitors)
+            network.attachMonitor(level, group, helper.absolutePos(monitor));
+        return group;
+    }
+
+    private static void spawnHusks(GameTestHelper helper, int count) {
+        // husks don't burn in daylight and without free will they stay put
+        for (int i = 0; i < count; i++)
+            helper.spawnWithNoFreeWill(EntityType.HUSK, new Vec3(4 + (i % 20) * 2.1, 1, 4 + (i / 20) * 2.1));
+    }
+
+    private static <T extends Comparable<T>> BlockState with(BlockState state, Property<T> property, T value) {
+        return state.hasProperty(property) ? state.setValue(property, value) : state;
+    }
+
+    // ---- measurement ----
+
+    private static void profile(GameTestHelper helper, String name, Budget budget) {
+        long start = helper.getLevel().getGameTime() + SETTLE_TICKS;
+        ModTickProfiler.Session session = ModTickProfiler.start(helper.getBounds(), start, MEASURE_TICKS);
+
+        helper.runAfterDelay(SETTLE_TICKS + MEASURE_TICKS, () -> {
+            ModTickProfiler.stop(session);
+            check(helper, name, session, budget);
+        });
+    }
+
+    private static void check(GameTestHelper helper, String name, ModTickProfiler.Session session, Budget budget) {
+        double mean = session.meanMicrosPerTick();
+        double p99 = session.percentileMicros(0.99);
+        double bytes = session.bytesPerTick();
+
+        String summary = String.format(Locale.ROOT,
+                "%s: mean %.0fus p99 %.0fus over %d ticks, %.0f B/tick in %d packets",
+                name, mean, p99, session.ticksSeen(), bytes, session.syncPackets());
+        CreateRadar.getLogger().info("[perf] {}", summary);
+
+        if (session.ticksSeen() == 0) {
+            helper.fail(name + ": none of the installation's block entities ticked");
+            return;
+        }
+
+        List<String> over = new ArrayList<>();
+        if (mean > budget.meanMicros() * BUDGET_SCALE)
+            over.add(String.format(Locale.ROOT, "mean %.0fus > %.0fus", mean, budget.meanMicros() * BUDGET_SCALE));
+        if (p99 > budget.p99Micros() * BUDGET_SCALE)
+            over.add(String.format(Locale.ROOT, "p99 %.0fus > %.0fus", p99, budget.p99Micros() * BUDGET_SCALE));
+        if (bytes > budget.bytesPerTick() * BUDGET_SCALE)
+            over.add(String.format(Locale.ROOT, "sync %.0f B/tick > %.0f B/tick", bytes, budget.bytesPerTick() * BUDGET_SCALE));
+
+        if (!over.isEmpty()) {
+            helper.fail(name + " over budget: " + String.join(", ", over));
+            return;
+        }
+        helper.succeed();
+    }
+}
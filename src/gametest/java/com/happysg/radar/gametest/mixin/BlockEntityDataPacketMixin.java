@@ -0,0 +1,25 @@
+package com.happysg.radar.gametest.mixin;
+
+import com.happysg.radar.gametest.ModTickProfiler;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.network.protocol.game.ClientboundBlockEntityDataPacket;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import java.util.function.Function;
+
+// counts block entity sync bytes for the perf gametests, a no-op unless a profiler session is open
+@Mixin(ClientboundBlockEntityDataPacket.class)
+public abstract class BlockEntityDataPacketMixin {
+
+    @Inject(method = "create(Lnet/minecraft/world/level/block/entity/BlockEntity;Ljava/util/function/Function;)Lnet/minecraft/network/protocol/game/ClientboundBlockEntityDataPacket;",
+            at = @At("RETURN"))
+    private static void createRadar$recordSync(BlockEntity be, Function<BlockEntity, CompoundTag> tagGetter,
+                                               CallbackInfoReturnable<ClientboundBlockEntityDataPacket> cir) {
+        ClientboundBlockEntityDataPacket packet = cir.getReturnValue();
+        if (packet != null) ModTickProfiler.recordSync(be, packet.getTag());
+    }
+}
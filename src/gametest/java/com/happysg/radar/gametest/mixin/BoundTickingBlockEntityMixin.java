@@ -0,0 +1,29 @@
+package com.happysg.radar.gametest.mixin;
+
+import com.happysg.radar.gametest.ModTickProfiler;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+// times our block entity ticks for the perf gametests, a no-op unless a profiler session is open
+@Mixin(targets = "net.minecraft.world.level.chunk.LevelChunk$BoundTickingBlockEntity")
+public abstract class BoundTickingBlockEntityMixin {
+
+    @Shadow
+    @Final
+    private BlockEntity blockEntity;
+
+    @Inject(method = "tick", at = @At("HEAD"))
+    private void createRadar$beginTick(CallbackInfo ci) {
+        ModTickProfiler.beginBlockEntity(blockEntity);
+    }
+
+    @Inject(method = "tick", at = @At("RETURN"))
+    private void createRadar$endTick(CallbackInfo ci) {
+        ModTickProfiler.endBlockEntity(blockEntity);
+    }
+}
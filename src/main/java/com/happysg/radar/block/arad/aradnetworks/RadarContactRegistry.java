@@ -1,7 +1,12 @@
 package com.happysg.radar.block.arad.aradnetworks;
 
+import com.happysg.radar.CreateRadar;
 import net.minecraft.server.level.ServerLevel;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
 
+@Mod.EventBusSubscriber(modid = CreateRadar.MODID)
 public final class RadarContactRegistry {
     private RadarContactRegistry() {}
 
@@ -26,4 +31,20 @@ public final class RadarContactRegistry {
     public static void tickDecay(ServerLevel level) {
         RadarContactRegistryData.get(level).tickDecay();
     }
+
+    public static ShipRwrState subscribe(ServerLevel level, long shipId, ShipRwrState.Listener listener) {
+        return RadarContactRegistryData.get(level).subscribe(shipId, listener);
+    }
+
+    public static void unsubscribe(ServerLevel level, long shipId, ShipRwrState.Listener listener) {
+        RadarContactRegistryData.get(level).unsubscribe(shipId, listener);
+    }
+
+    // ttls have to run out for anything to ever leave range or lose its lock
+    @SubscribeEvent
+    public static void onLevelTick(TickEvent.LevelTickEvent event) {
+        if (event.phase != TickEvent.Phase.END) return;
+        if (!(event.level instanceof ServerLevel sl)) return;
+        tickDecay(sl);
+    }
 }
@@ -4,6 +4,7 @@ import net.minecraft.nbt.CompoundTag;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.level.saveddata.SavedData;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
@@ -15,6 +16,9 @@ public class RadarContactRegistryData extends SavedData {
 
     private final Map<Long, Entry> entries = new HashMap<>();
 
+    // not saved: receivers subscribe again when they load
+    private final Map<Long, ShipRwrState> rwrStates = new HashMap<>();
+
     // ===== access =====
 
     public static RadarContactRegistryData get(ServerLevel level) {
@@ -55,7 +59,7 @@ public class RadarContactRegistryData extends SavedData {
             e.inRangeTtl = Math.max(e.inRangeTtl, ttlTicks);
         }
 
-        setDirty();
+        publish(shipId);
     }
 
     // i call this any tick a target is actively locked
@@ -69,7 +73,7 @@ public class RadarContactRegistryData extends SavedData {
             e.lockedTtl = Math.max(e.lockedTtl, ttlTicks);
         }
 
-        setDirty();
+        publish(shipId);
     }
 
     public boolean isInRange(long shipId) {
@@ -95,12 +99,13 @@ public class RadarContactRegistryData extends SavedData {
     public void tickDecay() {
         if (entries.isEmpty()) return;
 
-        boolean changed = false;
         Iterator<Map.Entry<Long, Entry>> it = entries.entrySet().iterator();
 
         while (it.hasNext()) {
             Map.Entry<Long, Entry> me = it.next();
             Entry e = me.getValue();
+            boolean wasInRange = e.inRangeTtl > 0;
+            boolean wasLocked = e.lockedTtl > 0;
 
             if (e.inRangeTtl > 0) e.inRangeTtl--;
             if (e.lockedTtl > 0) e.lockedTtl--;
@@ -108,11 +113,31 @@ public class RadarContactRegistryData extends SavedData {
             if (e.inRangeTtl <= 0 && e.lockedTtl <= 0) {
                 it.remove();
             }
-
-            changed = true;
+            // only the tick a ttl runs out can flip a flag
+            if ((wasInRange && e.inRangeTtl <= 0) || (wasLocked && e.lockedTtl <= 0)) publish(me.getKey());
         }
+    }
+
+    // ===== RWR subscriptions =====
 
-        if (changed) setDirty();
+    /** Shared state for {@code shipId}; {@code listener} hears about every flip until it unsubscribes. */
+    public ShipRwrState subscribe(long shipId, ShipRwrState.Listener listener) {
+        ShipRwrState state = rwrStates.computeIfAbsent(shipId,
+                id -> new ShipRwrState(id, isInRange(id), isLocked(id)));
+        state.addListener(listener);
+        return state;
+    }
+
+    public void unsubscribe(long shipId, ShipRwrState.Listener listener) {
+        ShipRwrState state = rwrStates.get(shipId);
+        if (state == null) return;
+        state.removeListener(listener);
+        if (!state.hasListeners()) rwrStates.remove(shipId);
+    }
+
+    private void publish(long shipId) {
+        ShipRwrState state = rwrStates.get(shipId);
+        if (state != null) state.update(isInRange(shipId), isLocked(shipId));
     }
 
     // ===== LockRegistryData compatibility API =====
@@ -132,7 +157,7 @@ public class RadarContactRegistryData extends SavedData {
             if (e.inRangeTtl <= 0) {
                 entries.remove(shipId);
             }
-            setDirty();
+            publish(shipId);
         }
     }
 
@@ -141,10 +166,26 @@ public class RadarContactRegistryData extends SavedData {
     }
 
     // ===== persistence =====
+    // ttls are a second at most, so marking and decaying never dirty the file. whatever is live when
+    // something else gets it saved goes out as packed arrays; old string-keyed files load and are
+    // rewritten once.
 
     public static RadarContactRegistryData load(CompoundTag tag) {
         RadarContactRegistryData data = new RadarContactRegistryData();
 
+        if (tag.getInt("Format") >= 2) {
+            long[] ids = tag.getLongArray("Ids");
+            int[] inRange = tag.getIntArray("InRange");
+            int[] locked = tag.getIntArray("Locked");
+            int n = Math.min(ids.length, Math.min(inRange.length, locked.length));
+            for (int i = 0; i < n; i++) {
+                if (inRange[i] > 0 || locked[i] > 0)
+                    data.entries.put(ids[i], new Entry(inRange[i], locked[i]));
+            }
+            return data;
+        }
+        if (!tag.isEmpty()) data.setDirty();
+
         // New format: "Ships" -> shipId -> { InRange, Locked }
         CompoundTag shipsTag = tag.getCompound("Ships");
         for (String key : shipsTag.getAllKeys()) {
@@ -188,21 +229,25 @@ public class RadarContactRegistryData extends SavedData {
 
     @Override
     public CompoundTag save(CompoundTag tag) {
-        CompoundTag shipsTag = new CompoundTag();
+        int n = entries.size();
+        long[] ids = new long[n];
+        int[] inRange = new int[n];
+        int[] locked = new int[n];
 
+        int i = 0;
         for (var e : entries.entrySet()) {
             Entry entry = e.getValue();
             if (entry.inRangeTtl <= 0 && entry.lockedTtl <= 0) continue;
-
-            CompoundTag eTag = new CompoundTag();
-            eTag.putInt("InRange", entry.inRangeTtl);
-            eTag.putInt("Locked", entry.lockedTtl);
-            shipsTag.put(Long.toString(e.getKey()), eTag);
+            ids[i] = e.getKey();
+            inRange[i] = entry.inRangeTtl;
+            locked[i] = entry.lockedTtl;
+            i++;
         }
 
-        tag.put("Ships", shipsTag);
-
-        // Not saving legacy "LockedShips" anymore (one registry to rule them all).
+        tag.putInt("Format", 2);
+        tag.putLongArray("Ids", Arrays.copyOf(ids, i));
+        tag.putIntArray("InRange", Arrays.copyOf(inRange, i));
+        tag.putIntArray("Locked", Arrays.copyOf(locked, i));
         return tag;
     }
 }
@@ -0,0 +1,65 @@
+package com.happysg.radar.block.arad.aradnetworks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * What the contact registry currently says about one ship, shared by every warning receiver on it.
+ * <p>
+ * The registry only keeps one of these while something listens to the ship, and pushes to the
+ * listeners when the ship's in-range or locked flag flips; receivers never poll.
+ */
+public final class ShipRwrState {
+
+    public interface Listener {
+        /** Called on the server thread whenever either flag changes, and once on subscribe. */
+        void onRwrStateChanged(ShipRwrState state);
+    }
+
+    private final long shipId;
+    private final List<Listener> listeners = new ArrayList<>(2);
+    private boolean inRange;
+    private boolean locked;
+
+    ShipRwrState(long shipId, boolean inRange, boolean locked) {
+        this.shipId = shipId;
+        this.inRange = inRange;
+        this.locked = locked;
+    }
+
+    public long shipId() {
+        return shipId;
+    }
+
+    public boolean inRange() {
+        return inRange;
+    }
+
+    public boolean locked() {
+        return locked;
+    }
+
+    // returns true if anything changed, listeners have been told by then
+    boolean update(boolean inRange, boolean locked) {
+        if (this.inRange == inRange && this.locked == locked) return false;
+        this.inRange = inRange;
+        this.locked = locked;
+
+        // copy so a listener may unsubscribe from inside the callback
+        for (Listener listener : List.copyOf(listeners))
+            listener.onRwrStateChanged(this);
+        return true;
+    }
+
+    void addListener(Listener listener) {
+        if (!listeners.contains(listener)) listeners.add(listener);
+    }
+
+    void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    boolean hasListeners() {
+        return !listeners.isEmpty();
+    }
+}
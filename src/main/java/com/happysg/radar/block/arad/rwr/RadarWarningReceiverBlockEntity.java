@@ -1,13 +1,14 @@
 package com.happysg.radar.block.arad.rwr;
 
 import com.happysg.radar.block.arad.aradnetworks.RadarContactRegistry;
+import com.happysg.radar.block.arad.aradnetworks.ShipRwrState;
 import com.happysg.radar.compat.vs2.VS2Utils;
 import com.happysg.radar.registry.ModSounds;
-import com.mojang.logging.LogUtils;
 import com.simibubi.create.foundation.blockEntity.SmartBlockEntity;
 import com.simibubi.create.foundation.blockEntity.behaviour.BlockEntityBehaviour;
 import net.minecraft.core.BlockPos;
 import net.minecraft.server.level.ServerLevel;
+import net.minecraft.sounds.SoundEvent;
 import net.minecraft.sounds.SoundSource;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.entity.BlockEntityType;
@@ -19,14 +20,18 @@ import java.util.List;
 
 import static com.happysg.radar.block.arad.rwr.RadarWarningReceiverBlock.ON_SHIP;
 
-public class RadarWarningReceiverBlockEntity extends SmartBlockEntity {
-    boolean hasPlayed;
+public class RadarWarningReceiverBlockEntity extends SmartBlockEntity implements ShipRwrState.Listener {
     private static final int LOCK_BEEP_PERIOD_TICKS = 31;
+    // a ship that drifts in and out of a sweeping radar shouldn't chirp on every pass
+    private static final int IN_RANGE_COOLDOWN_TICKS = 100;
 
     private int inRangeCooldownTicks = 0;
     private int lockBeepTicks = 0;
 
-    private boolean wasInRange = false;
+    // i only know about my ship through the registry pushing its state at me
+    private long subscribedShipId = -1;
+    private boolean inRange = false;
+    private boolean locked = false;
 
     public RadarWarningReceiverBlockEntity(BlockEntityType<?> type, BlockPos pos, BlockState state) {
         super(type, pos, state);
@@ -41,107 +46,100 @@ public class RadarWarningReceiverBlockEntity extends SmartBlockEntity {
     public void tick() {
         super.tick();
 
-        if (level == null) return;
-
-        if (!level.isClientSide && level.getGameTime() % 20 == 0) {
-            refreshOnShip(level, worldPosition);
-        }
-
-        if (!(level instanceof ServerLevel sl)) return;
-        if (!getBlockState().getValue(ON_SHIP)) {
-            resetSoundState();
-            return;
-        }
+        if (!(level instanceof ServerLevel sl) || subscribedShipId < 0) return;
 
         if (inRangeCooldownTicks > 0) inRangeCooldownTicks--;
-        if (lockBeepTicks > 0) lockBeepTicks--;
-
-        Ship ship = VSGameUtilsKt.getShipManagingPos(level, worldPosition);
-        if (ship == null) {
-            resetSoundState();
-            return;
-        }
-
-        long key = ship.getId();
-
-        boolean locked = RadarContactRegistry.isLocked(sl, key);
-        if(locked) LogUtils.getLogger().warn("locked");
-        boolean inRange = RadarContactRegistry.isInRange(sl, key);
+        if (!locked) return;
 
         // locked always wins and completely ignores the in-range sound
-        if (locked) {
-            wasInRange = inRange;
-
-            if (lockBeepTicks == 0) {
-                sl.playSound(
-                        null,               // null = all nearby players hear it
-                        VS2Utils.getWorldPos(this),
-                        ModSounds.RWR_LOCK.get(),
-                        SoundSource.BLOCKS,
-                        1.0f,
-                        1.0f
-                );
-
-
-
-                lockBeepTicks = LOCK_BEEP_PERIOD_TICKS;
-            }
-
-            return;
+        if (lockBeepTicks > 0) lockBeepTicks--;
+        if (lockBeepTicks == 0) {
+            playSound(sl, ModSounds.RWR_LOCK.get());
+            lockBeepTicks = LOCK_BEEP_PERIOD_TICKS;
         }
+    }
 
-        lockBeepTicks = 0;
-
-        if (inRange && !hasPlayed) {
-            boolean firstSpotted = !wasInRange;
-
-            if (firstSpotted || inRangeCooldownTicks == 0) {
-                sl.playSound(
-                        null,               // null = all nearby players hear it
-                        VS2Utils.getWorldPos(this),
-                        ModSounds.RWR_IN_RANGE.get(),
-                        SoundSource.BLOCKS,
-                        1.0f,
-                        1.0f
-                );
-
+    @Override
+    public void lazyTick() {
+        super.lazyTick();
+        // the ship may not have been loaded yet when i was; shipyard check is only a coordinate test
+        if (subscribedShipId < 0 && level instanceof ServerLevel && VS2Utils.isBlockInShipyard(level, worldPosition))
+            subscribe();
+    }
 
-                hasPlayed = true;
-            }
-        } else {
-            inRangeCooldownTicks = 0;
+    @Override
+    public void onRwrStateChanged(ShipRwrState state) {
+        boolean wasInRange = inRange;
+        boolean wasLocked = locked;
+        inRange = state.inRange();
+        locked = state.locked();
+
+        // a fresh lock beeps on the next tick, a dropped one goes quiet right away
+        if (locked != wasLocked) lockBeepTicks = 0;
+
+        if (!locked && inRange && !wasInRange && inRangeCooldownTicks == 0 && level instanceof ServerLevel sl) {
+            playSound(sl, ModSounds.RWR_IN_RANGE.get());
+            inRangeCooldownTicks = IN_RANGE_COOLDOWN_TICKS;
         }
+    }
 
-        wasInRange = inRange;
+    private void playSound(ServerLevel sl, SoundEvent sound) {
+        sl.playSound(
+                null,               // null = all nearby players hear it
+                VS2Utils.getWorldPos(this),
+                sound,
+                SoundSource.BLOCKS,
+                1.0f,
+                1.0f
+        );
     }
 
-    private void resetSoundState() {
-        inRangeCooldownTicks = 0;
+    private void subscribe() {
+        if (!(level instanceof ServerLevel sl)) return;
+
+        Ship ship = VSGameUtilsKt.getShipManagingPos(level, worldPosition);
+        setOnShip(level, worldPosition, ship != null);
+        if (ship == null) return;
+
+        subscribedShipId = ship.getId();
+        ShipRwrState state = RadarContactRegistry.subscribe(sl, subscribedShipId, this);
+        // start from the ship's current picture without replaying sounds for it
+        inRange = state.inRange();
+        locked = state.locked();
         lockBeepTicks = 0;
-        wasInRange = false;
     }
 
-    private static boolean computeOnShip(Level level, BlockPos pos) {
-        return VSGameUtilsKt.getShipManagingPos(level, pos) != null;
+    private void unsubscribe() {
+        if (subscribedShipId < 0) return;
+        if (level instanceof ServerLevel sl)
+            RadarContactRegistry.unsubscribe(sl, subscribedShipId, this);
+        subscribedShipId = -1;
+        inRange = false;
+        locked = false;
     }
 
-    private static void refreshOnShip(Level level, BlockPos pos) {
+    private static void setOnShip(Level level, BlockPos pos, boolean onShip) {
         BlockState state = level.getBlockState(pos);
         if (!state.hasProperty(ON_SHIP)) return;
 
-        boolean onShip = computeOnShip(level, pos);
         if (state.getValue(ON_SHIP) != onShip) {
             level.setBlock(pos, state.setValue(ON_SHIP, onShip), 3);
         }
     }
+
     @Override
     public void onLoad() {
         super.onLoad();
         if (level == null || level.isClientSide) return;
-        refreshOnShip(level, worldPosition);
+        // a block only changes ship by being moved, and that makes a new block entity
+        subscribe();
 
         setLazyTickRate(10);
     }
 
-
+    @Override
+    public void invalidate() {
+        unsubscribe();
+        super.invalidate();
+    }
 }
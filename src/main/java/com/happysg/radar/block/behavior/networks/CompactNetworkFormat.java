@@ -0,0 +1,107 @@
+package com.happysg.radar.block.behavior.networks;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.LongArrayTag;
+import net.minecraft.nbt.Tag;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Shared bits of the compact save format used by {@link NetworkData} and {@link WeaponNetworkData}.
+ * <p>
+ * Version 2 stores groups under one compound per dimension, positions as packed longs in
+ * {@link LongArrayTag}s and string-keyed index pairs as flat long pairs. Files without a
+ * {@value #FORMAT_KEY} entry are the old per-position-compound layout; they load through the
+ * legacy reader and are written back compact on the next save.
+ */
+final class CompactNetworkFormat {
+
+    static final String FORMAT_KEY = "Format";
+    static final int VERSION = 2;
+    static final String DIMS_KEY = "Dims";
+
+    private CompactNetworkFormat() {}
+
+    static boolean isCompact(CompoundTag root) {
+        return root.getInt(FORMAT_KEY) >= VERSION;
+    }
+
+    static LongArrayTag positions(Collection<BlockPos> positions) {
+        long[] out = new long[positions.size()];
+        int i = 0;
+        for (BlockPos p : positions) out[i++] = p.asLong();
+        return new LongArrayTag(out);
+    }
+
+    static void readPositions(CompoundTag tag, String key, Consumer<BlockPos> sink) {
+        if (!tag.contains(key, Tag.TAG_LONG_ARRAY)) return;
+        for (long packed : tag.getLongArray(key)) sink.accept(BlockPos.of(packed));
+    }
+
+    /** Dimension part of a {@code "dim|posLong"} index key. */
+    static String dimOf(String key) {
+        int idx = key.indexOf('|');
+        return idx < 0 ? "" : key.substring(0, idx);
+    }
+
+    static long posOf(String key) {
+        return Long.parseLong(key.substring(key.indexOf('|') + 1));
+    }
+
+    /** Whether {@code live} holds exactly {@code saved}, in the same iteration order. */
+    static <T> boolean sameOrder(List<T> saved, Collection<T> live) {
+        if (saved.size() != live.size()) return false;
+        Iterator<T> it = saved.iterator();
+        for (T t : live)
+            if (!t.equals(it.next())) return false;
+        return true;
+    }
+
+    /**
+     * Encoded group tags from the last save, reused as long as the group still matches the copy of
+     * its state taken when it was encoded, so a save only re-encodes the groups that were actually
+     * touched. The state is a full copy compared by equality, never a hash, so no edit can go unsaved.
+     */
+    static final class GroupTagCache<S> {
+        private record Cached<S>(S state, CompoundTag tag) {}
+
+        private final Map<String, Cached<S>> cache = new HashMap<>();
+        private int encodedLastSave;
+
+        /**
+         * @param unchanged whether the group still matches a state from {@code snapshot}
+         * @param snapshot  copies everything {@code encoder} writes
+         */
+        CompoundTag get(String groupKey, Predicate<S> unchanged, Supplier<S> snapshot, Supplier<CompoundTag> encoder) {
+            Cached<S> cached = cache.get(groupKey);
+            if (cached != null && unchanged.test(cached.state)) return cached.tag;
+
+            CompoundTag tag = encoder.get();
+            cache.put(groupKey, new Cached<>(snapshot.get(), tag));
+            encodedLastSave++;
+            return tag;
+        }
+
+        /** Drops entries of groups that no longer exist; call once per save after encoding. */
+        void retain(Set<String> liveKeys) {
+            cache.keySet().retainAll(liveKeys);
+        }
+
+        void beginSave() {
+            encodedLastSave = 0;
+        }
+
+        int encodedLastSave() {
+            return encodedLastSave;
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.happysg.radar.block.behavior.networks.config.IdentificationConfig;
 import com.happysg.radar.block.behavior.networks.config.TargetingConfig;
 import com.happysg.radar.block.datalink.DataLinkBlock;
 import com.happysg.radar.block.monitor.MonitorBlockEntity;
+import com.happysg.radar.config.RadarConfig;
 import com.happysg.radar.registry.ModBlocks;
 import com.mojang.logging.LogUtils;
 import net.minecraft.core.BlockPos;
@@ -48,6 +49,9 @@ public class NetworkData extends SavedData {
         public @Nullable BlockPos radarPos;
         public @Nullable RadarKind radarKind;
 
+        /** More radars whose tracks get fused with the primary one's, see RadarTrackFusion. */
+        public final Map<BlockPos, RadarKind> auxRadars = new LinkedHashMap<>();
+
         /** Controllers linked into this filter group. */
         /** Controllers linked into this filter group. */
         public final Set<BlockPos> weaponEndpoints = new HashSet<>();
@@ -66,6 +70,20 @@ public class NetworkData extends SavedData {
         public Group(FilterKey key) {
             this.key = key;
         }
+
+        /** The primary radar first, then the auxiliary ones in the order they were linked. */
+        public List<BlockPos> allRadars() {
+            if (radarPos == null) return List.of();
+            if (auxRadars.isEmpty()) return List.of(radarPos);
+            List<BlockPos> out = new ArrayList<>(auxRadars.size() + 1);
+            out.add(radarPos);
+            out.addAll(auxRadars.keySet());
+            return out;
+        }
+
+        public boolean hasRadar(BlockPos pos) {
+            return pos.equals(radarPos) || auxRadars.containsKey(pos);
+        }
     }
 
 
@@ -88,6 +106,9 @@ public class NetworkData extends SavedData {
     // controllerPos -> weaponMountPos  (PERSISTED so cleanup works)
     private final Map<String, String> controllerToWeaponMount = new HashMap<>();
 
+    // encoded groups from the last save, see CompactNetworkFormat
+    private final CompactNetworkFormat.GroupTagCache<SavedGroup> groupTags = new CompactNetworkFormat.GroupTagCache<>();
+
 
     public static NetworkData get(ServerLevel level) {
         return level.getDataStorage().computeIfAbsent(
@@ -138,6 +159,10 @@ public class NetworkData extends SavedData {
             notifyNodeDisconnected(level, p);
         }
         notifyNodeDisconnected(level, group.radarPos);
+        for (BlockPos p : group.auxRadars.keySet()) {
+            notifyNodeDisconnected(level, p);
+            endpointToFilterer.remove(posKey(level.dimension(), p));
+        }
         //notifyNodeDisconnected(level, group.);
 
         for (BlockPos endpointPos : group.weaponEndpoints) {
@@ -205,6 +230,19 @@ public static BlockPos getFiltererPosFromGroupKey(@Nullable String filtererKey)
     // ------------------------------------------------------------
 
     public static NetworkData load(CompoundTag root) {
+        if (CompactNetworkFormat.isCompact(root))
+            return loadCompact(root);
+
+        NetworkData data = loadLegacy(root);
+        // i write it back in the compact layout on the next save
+        if (!data.groupsByFilterer.isEmpty()) {
+            LOGGER.info("Migrating {} radar network groups to save format {}", data.groupsByFilterer.size(), CompactNetworkFormat.VERSION);
+            data.setDirty();
+        }
+        return data;
+    }
+
+    private static NetworkData loadLegacy(CompoundTag root) {
         NetworkData data = new NetworkData();
 
         // Groups
@@ -245,6 +283,16 @@ public static BlockPos getFiltererPosFromGroupKey(@Nullable String filtererKey)
                 data.endpointToFilterer.put(key(dim, group.radarPos), groupKey);
             }
 
+            if (g.contains("AuxRadars", Tag.TAG_LIST)) {
+                ListTag list = g.getList("AuxRadars", Tag.TAG_COMPOUND);
+                for (int ai = 0; ai < list.size(); ai++) {
+                    CompoundTag a = list.getCompound(ai);
+                    BlockPos p = NbtUtils.readBlockPos(a.getCompound("Pos"));
+                    group.auxRadars.put(p, RadarKind.valueOf(a.getString("Kind")));
+                    data.endpointToFilterer.put(key(dim, p), groupKey);
+                }
+            }
+
             // weapon endpoints
             ListTag weapons = g.getList("WeaponEndpoints", Tag.TAG_COMPOUND);
             for (int w = 0; w < weapons.size(); w++) {
@@ -272,6 +320,12 @@ public static BlockPos getFiltererPosFromGroupKey(@Nullable String filtererKey)
             data.groupsByFilterer.put(groupKey, group);
         }
 
+        readLegacyPairs(root, data);
+        return data;
+    }
+
+    // string pair lists, the whole index in the old format and only cross-dimension leftovers in the new one
+    private static void readLegacyPairs(CompoundTag root, NetworkData data) {
         // dataLinkToEndpoint
         if (root.contains("DataLinkToEndpoint", Tag.TAG_LIST)) {
             ListTag list = root.getList("DataLinkToEndpoint", Tag.TAG_COMPOUND);
@@ -293,79 +347,208 @@ public static BlockPos getFiltererPosFromGroupKey(@Nullable String filtererKey)
                 if (!c.isEmpty() && !m.isEmpty()) data.controllerToWeaponMount.put(c, m);
             }
         }
+    }
+
+    private static NetworkData loadCompact(CompoundTag root) {
+        NetworkData data = new NetworkData();
+        CompoundTag dims = root.getCompound(CompactNetworkFormat.DIMS_KEY);
+
+        for (String dimId : dims.getAllKeys()) {
+            ResourceKey<Level> dim = ResourceKey.create(Registries.DIMENSION, new ResourceLocation(dimId));
+            CompoundTag dimTag = dims.getCompound(dimId);
+
+            ListTag groupsTag = dimTag.getList("Groups", Tag.TAG_COMPOUND);
+            for (int i = 0; i < groupsTag.size(); i++) {
+                Group group = decodeGroup(dim, groupsTag.getCompound(i));
+                data.addLoadedGroup(group);
+            }
+
+            readPairs(dimTag, "DataLinkToEndpoint", dimId, data.dataLinkToEndpoint);
+            readPairs(dimTag, "ControllerToWeaponMount", dimId, data.controllerToWeaponMount);
+        }
 
+        readLegacyPairs(root, data);
         return data;
     }
 
-    @Override
-    public CompoundTag save(CompoundTag root) {
-        ListTag groupsTag = new ListTag();
+    private static void readPairs(CompoundTag dimTag, String name, String dimId, Map<String, String> into) {
+        if (!dimTag.contains(name, Tag.TAG_LONG_ARRAY)) return;
+        long[] pairs = dimTag.getLongArray(name);
+        for (int i = 0; i + 1 < pairs.length; i += 2)
+            into.put(dimId + "|" + pairs[i], dimId + "|" + pairs[i + 1]);
+    }
+
+    private void addLoadedGroup(Group group) {
+        ResourceKey<Level> dim = group.key.dim();
+        String groupKey = key(dim, group.key.filtererPos());
 
-        for (Group group : groupsByFilterer.values()) {
+        for (BlockPos p : group.monitorEndpoints) endpointToFilterer.put(key(dim, p), groupKey);
+        for (BlockPos p : group.allRadars()) endpointToFilterer.put(key(dim, p), groupKey);
+        for (BlockPos p : group.weaponEndpoints) endpointToFilterer.put(key(dim, p), groupKey);
+        for (BlockPos p : group.usedWeaponMounts) weaponMountToFilterer.put(key(dim, p), groupKey);
+        for (BlockPos p : group.dataLinks) dataLinkToFilterer.put(key(dim, p), groupKey);
 
-            CompoundTag g = new CompoundTag();
-            g.putString("Dim", group.key.dim().location().toString());
-            g.put("FiltererPos", NbtUtils.writeBlockPos(group.key.filtererPos()));
+        groupsByFilterer.put(groupKey, group);
+    }
 
-            g.put("Targeting", group.targetingTag);
-            g.put("Identification", group.identificationTag);
-            g.put("Detection", group.detectionTag);
-            if (group.selectedTargetId != null)
-                g.putString("SelectedTargetId", group.selectedTargetId);
+    private static Group decodeGroup(ResourceKey<Level> dim, CompoundTag g) {
+        Group group = new Group(new FilterKey(dim, BlockPos.of(g.getLong("F"))));
 
-            if (!group.monitorEndpoints.isEmpty()) {
-                ListTag list = new ListTag();
-                for (BlockPos p : group.monitorEndpoints) {
-                    list.add(NbtUtils.writeBlockPos(p));
-                }
-                g.put("MonitorEndpoints", list);
-            }
+        group.targetingTag = g.contains("T", Tag.TAG_COMPOUND) ? g.getCompound("T") : defaultTargetingTag();
+        group.identificationTag = g.contains("I", Tag.TAG_COMPOUND) ? g.getCompound("I") : defaultIdentificationTag();
+        group.detectionTag = g.contains("D", Tag.TAG_COMPOUND) ? g.getCompound("D") : defaultDetectionTag();
+        group.selectedTargetId = g.contains("S", Tag.TAG_STRING) ? g.getString("S") : null;
 
-            if (group.radarPos != null && group.radarKind != null) {
-                g.put("RadarPos", NbtUtils.writeBlockPos(group.radarPos));
-                g.putString("RadarKind", group.radarKind.name());
-            }
+        CompactNetworkFormat.readPositions(g, "M", group.monitorEndpoints::add);
+
+        if (g.contains("R", Tag.TAG_LONG)) {
+            group.radarPos = BlockPos.of(g.getLong("R"));
+            group.radarKind = radarKind(g.getByte("RK"));
+        }
+
+        if (g.contains("A", Tag.TAG_LONG_ARRAY)) {
+            long[] aux = g.getLongArray("A");
+            byte[] kinds = g.getByteArray("AK");
+            for (int i = 0; i < aux.length; i++)
+                group.auxRadars.put(BlockPos.of(aux[i]), radarKind(i < kinds.length ? kinds[i] : 0));
+        }
 
-            ListTag weapons = new ListTag();
-            for (BlockPos ep : group.weaponEndpoints) weapons.add(NbtUtils.writeBlockPos(ep));
-            g.put("WeaponEndpoints", weapons);
+        CompactNetworkFormat.readPositions(g, "W", group.weaponEndpoints::add);
+        CompactNetworkFormat.readPositions(g, "U", group.usedWeaponMounts::add);
+        CompactNetworkFormat.readPositions(g, "L", group.dataLinks::add);
+        return group;
+    }
+
+    // kinds are stored by ordinal, so RadarKind may only ever be appended to
+    private static RadarKind radarKind(int ordinal) {
+        RadarKind[] kinds = RadarKind.values();
+        return ordinal >= 0 && ordinal < kinds.length ? kinds[ordinal] : RadarKind.BEARING;
+    }
+
+    private static CompoundTag encodeGroup(Group group) {
+        CompoundTag g = new CompoundTag();
+        g.putLong("F", group.key.filtererPos().asLong());
 
-            ListTag usedMounts = new ListTag();
-            for (BlockPos mp : group.usedWeaponMounts) usedMounts.add(NbtUtils.writeBlockPos(mp));
-            g.put("UsedWeaponMounts", usedMounts);
+        g.put("T", group.targetingTag);
+        g.put("I", group.identificationTag);
+        g.put("D", group.detectionTag);
+        if (group.selectedTargetId != null)
+            g.putString("S", group.selectedTargetId);
 
-            ListTag links = new ListTag();
-            for (BlockPos lp : group.dataLinks) links.add(NbtUtils.writeBlockPos(lp));
-            g.put("DataLinks", links);
+        if (!group.monitorEndpoints.isEmpty())
+            g.put("M", CompactNetworkFormat.positions(group.monitorEndpoints));
 
-            groupsTag.add(g);
+        if (group.radarPos != null && group.radarKind != null) {
+            g.putLong("R", group.radarPos.asLong());
+            g.putByte("RK", (byte) group.radarKind.ordinal());
         }
 
-        root.put("Groups", groupsTag);
+        if (!group.auxRadars.isEmpty()) {
+            g.put("A", CompactNetworkFormat.positions(group.auxRadars.keySet()));
+            byte[] kinds = new byte[group.auxRadars.size()];
+            int i = 0;
+            for (RadarKind kind : group.auxRadars.values()) kinds[i++] = (byte) kind.ordinal();
+            g.putByteArray("AK", kinds);
+        }
+
+        if (!group.weaponEndpoints.isEmpty()) g.put("W", CompactNetworkFormat.positions(group.weaponEndpoints));
+        if (!group.usedWeaponMounts.isEmpty()) g.put("U", CompactNetworkFormat.positions(group.usedWeaponMounts));
+        if (!group.dataLinks.isEmpty()) g.put("L", CompactNetworkFormat.positions(group.dataLinks));
+        return g;
+    }
+
+    // copy of everything encodeGroup writes, the key is implied by the cache entry
+    private record SavedGroup(@Nullable String selectedTargetId,
+                              CompoundTag targetingTag, CompoundTag identificationTag, CompoundTag detectionTag,
+                              @Nullable BlockPos radarPos, @Nullable RadarKind radarKind,
+                              List<BlockPos> auxRadars, List<RadarKind> auxKinds,
+                              Set<BlockPos> monitorEndpoints, Set<BlockPos> weaponEndpoints,
+                              Set<BlockPos> usedWeaponMounts, Set<BlockPos> dataLinks) {
+        static SavedGroup of(Group group) {
+            return new SavedGroup(group.selectedTargetId,
+                    group.targetingTag.copy(), group.identificationTag.copy(), group.detectionTag.copy(),
+                    group.radarPos, group.radarKind,
+                    new ArrayList<>(group.auxRadars.keySet()), new ArrayList<>(group.auxRadars.values()),
+                    new HashSet<>(group.monitorEndpoints), new HashSet<>(group.weaponEndpoints),
+                    new HashSet<>(group.usedWeaponMounts), new HashSet<>(group.dataLinks));
+        }
 
-        // Persist dataLinkToEndpoint
-        ListTag dl2ep = new ListTag();
-        for (var e : dataLinkToEndpoint.entrySet()) {
-            CompoundTag t = new CompoundTag();
-            t.putString("DL", e.getKey());
-            t.putString("EP", e.getValue());
-            dl2ep.add(t);
+        boolean matches(Group group) {
+            return Objects.equals(selectedTargetId, group.selectedTargetId)
+                    && Objects.equals(radarPos, group.radarPos)
+                    && radarKind == group.radarKind
+                    && targetingTag.equals(group.targetingTag)
+                    && identificationTag.equals(group.identificationTag)
+                    && detectionTag.equals(group.detectionTag)
+                    // aux radars are written in link order, so order counts here
+                    && CompactNetworkFormat.sameOrder(auxRadars, group.auxRadars.keySet())
+                    && CompactNetworkFormat.sameOrder(auxKinds, group.auxRadars.values())
+                    && monitorEndpoints.equals(group.monitorEndpoints)
+                    && weaponEndpoints.equals(group.weaponEndpoints)
+                    && usedWeaponMounts.equals(group.usedWeaponMounts)
+                    && dataLinks.equals(group.dataLinks);
         }
-        root.put("DataLinkToEndpoint", dl2ep);
+    }
 
-        // Persist controllerToWeaponMount
-        ListTag c2m = new ListTag();
-        for (var e : controllerToWeaponMount.entrySet()) {
-            CompoundTag t = new CompoundTag();
-            t.putString("C", e.getKey());
-            t.putString("M", e.getValue());
-            c2m.add(t);
+    @Override
+    public CompoundTag save(CompoundTag root) {
+        root.putInt(CompactNetworkFormat.FORMAT_KEY, CompactNetworkFormat.VERSION);
+        groupTags.beginSave();
+
+        Map<String, ListTag> groupsByDim = new HashMap<>();
+        for (Map.Entry<String, Group> e : groupsByFilterer.entrySet()) {
+            Group group = e.getValue();
+            groupsByDim.computeIfAbsent(group.key.dim().location().toString(), d -> new ListTag())
+                    .add(groupTags.get(e.getKey(), saved -> saved.matches(group), () -> SavedGroup.of(group), () -> encodeGroup(group)));
         }
-        root.put("ControllerToWeaponMount", c2m);
+        groupTags.retain(groupsByFilterer.keySet());
+
+        Map<String, List<Long>> dl2ep = new HashMap<>();
+        Map<String, List<Long>> c2m = new HashMap<>();
+        ListTag crossDimDl2ep = new ListTag();
+        ListTag crossDimC2m = new ListTag();
+        collectPairs(dataLinkToEndpoint, dl2ep, crossDimDl2ep, "DL", "EP");
+        collectPairs(controllerToWeaponMount, c2m, crossDimC2m, "C", "M");
+
+        Set<String> dimIds = new HashSet<>(groupsByDim.keySet());
+        dimIds.addAll(dl2ep.keySet());
+        dimIds.addAll(c2m.keySet());
+
+        CompoundTag dims = new CompoundTag();
+        for (String dimId : dimIds) {
+            CompoundTag dimTag = new CompoundTag();
+            dimTag.put("Groups", groupsByDim.getOrDefault(dimId, new ListTag()));
+            if (dl2ep.containsKey(dimId)) dimTag.putLongArray("DataLinkToEndpoint", dl2ep.get(dimId));
+            if (c2m.containsKey(dimId)) dimTag.putLongArray("ControllerToWeaponMount", c2m.get(dimId));
+            dims.put(dimId, dimTag);
+        }
+        root.put(CompactNetworkFormat.DIMS_KEY, dims);
+
+        // same-dimension pairs are all the code ever makes, but i keep anything else rather than lose it
+        if (!crossDimDl2ep.isEmpty()) root.put("DataLinkToEndpoint", crossDimDl2ep);
+        if (!crossDimC2m.isEmpty()) root.put("ControllerToWeaponMount", crossDimC2m);
 
+        LOGGER.debug("Saved radar networks, re-encoded {} of {} groups", groupTags.encodedLastSave(), groupsByFilterer.size());
         return root;
     }
 
+    private static void collectPairs(Map<String, String> index, Map<String, List<Long>> byDim, ListTag crossDim,
+                                     String keyName, String valueName) {
+        for (Map.Entry<String, String> e : index.entrySet()) {
+            String dimId = CompactNetworkFormat.dimOf(e.getKey());
+            if (dimId.equals(CompactNetworkFormat.dimOf(e.getValue()))) {
+                List<Long> pairs = byDim.computeIfAbsent(dimId, d -> new ArrayList<>());
+                pairs.add(CompactNetworkFormat.posOf(e.getKey()));
+                pairs.add(CompactNetworkFormat.posOf(e.getValue()));
+            } else {
+                CompoundTag t = new CompoundTag();
+                t.putString(keyName, e.getKey());
+                t.putString(valueName, e.getValue());
+                crossDim.add(t);
+            }
+        }
+    }
+
     // ------------------------------------------------------------
     // Accessors
     // ------------------------------------------------------------
@@ -409,8 +592,10 @@ public static BlockPos getFiltererPosFromGroupKey(@Nullable String filtererKey)
     }
 
     public boolean canAttachRadar(Group group, BlockPos radarPos, RadarKind kind) {
-        if (group.radarPos != null && !group.radarPos.equals(radarPos)) return false;
-        if (group.radarKind != null && group.radarKind != kind) return false;
+        if (group.radarPos != null && group.radarPos.equals(radarPos) && group.radarKind != null && group.radarKind != kind) return false;
+        // anything past the primary radar joins as an extra sensor, up to the configured count
+        if (group.radarPos != null && !group.hasRadar(radarPos)
+                && group.auxRadars.size() + 1 >= RadarConfig.server().maxRadarsPerNetwork.get()) return false;
         String endpointKey = key(group.key.dim(), radarPos);
         String existing = endpointToFilterer.get(endpointKey);
         String myKey = key(group.key.dim(), group.key.filtererPos());
@@ -462,8 +647,12 @@ public static BlockPos getFiltererPosFromGroupKey(@Nullable String filtererKey)
         ResourceKey<Level> dim = group.key.dim();
         String filtererKey = key(dim, group.key.filtererPos());
 
-        group.radarPos = radarPos;
-        group.radarKind = kind;
+        if (group.radarPos == null || group.radarPos.equals(radarPos)) {
+            group.radarPos = radarPos;
+            group.radarKind = kind;
+        } else {
+            group.auxRadars.put(radarPos, kind);
+        }
 
         endpointToFilterer.put(key(dim, radarPos), filtererKey);
 
@@ -512,6 +701,8 @@ public static BlockPos getFiltererPosFromGroupKey(@Nullable String filtererKey)
                 group.monitorEndpoints.add(newEndpoint);
             }
             if (oldEndpoint.equals(group.radarPos)) group.radarPos = newEndpoint;
+            RadarKind auxKind = group.auxRadars.remove(oldEndpoint);
+            if (auxKind != null) group.auxRadars.put(newEndpoint, auxKind);
 
             if (group.weaponEndpoints.remove(oldEndpoint)) {
                 group.weaponEndpoints.add(newEndpoint);
@@ -581,9 +772,7 @@ public static BlockPos getFiltererPosFromGroupKey(@Nullable String filtererKey)
                 // remove indices for both clicked endpoint and controller
                 endpointToFilterer.remove(endpointKey);
                 endpointToFilterer.remove(key(level.dimension(), controllerPos));
-            } else if (endpointPos.equals(group.radarPos)) {
-                group.radarPos = null;
-                group.radarKind = null;
+            } else if (removeRadar(group, endpointPos)) {
                 endpointToFilterer.remove(endpointKey);
 
             } else if (group.weaponEndpoints.remove(endpointPos)) {
@@ -606,6 +795,24 @@ public static BlockPos getFiltererPosFromGroupKey(@Nullable String filtererKey)
     }
 
 
+    /** Drops a radar from the group; when it was the primary one the oldest extra radar takes over. */
+    private static boolean removeRadar(Group group, BlockPos pos) {
+        if (group.auxRadars.remove(pos) != null) return true;
+        if (!pos.equals(group.radarPos)) return false;
+
+        group.radarPos = null;
+        group.radarKind = null;
+
+        Iterator<Map.Entry<BlockPos, RadarKind>> it = group.auxRadars.entrySet().iterator();
+        if (it.hasNext()) {
+            Map.Entry<BlockPos, RadarKind> next = it.next();
+            it.remove();
+            group.radarPos = next.getKey();
+            group.radarKind = next.getValue();
+        }
+        return true;
+    }
+
     private void cleanupIfEmpty(String filtererKey) {
         Group group = groupsByFilterer.get(filtererKey);
         if (group == null) return;
@@ -660,9 +867,7 @@ public static BlockPos getFiltererPosFromGroupKey(@Nullable String filtererKey)
         if (group.monitorEndpoints.remove(endpointPos)) {
             endpointToFilterer.remove(endpointKey);
 
-        } else if (endpointPos.equals(group.radarPos)) {
-            group.radarPos = null;
-            group.radarKind = null;
+        } else if (removeRadar(group, endpointPos)) {
             endpointToFilterer.remove(endpointKey);
 
         } else if (group.weaponEndpoints.remove(endpointPos)) {
@@ -768,147 +973,171 @@ public static BlockPos getFiltererPosFromGroupKey(@Nullable String filtererKey)
     public ValidationResult validateAllKnownPositions(ServerLevel level, boolean onlyIfChunkLoaded) {
         if (level == null) return new ValidationResult(0,0,0,0);
 
-        int groupsRemoved = 0;
-        int endpointsRemoved = 0;
-        int mountsRemoved = 0;
-        int dataLinksRemoved = 0;
-
         // i snapshot keys so i can mutate maps safely
-        List<String> groupKeys = new ArrayList<>(groupsByFilterer.keySet());
+        return validateGroups(level, new ArrayList<>(groupsByFilterer.keySet()), onlyIfChunkLoaded);
+    }
+
+    /** Filterer keys of every group in {@code dim}, for callers that validate a few at a time. */
+    public List<String> groupKeysIn(ResourceKey<Level> dim) {
+        List<String> out = new ArrayList<>();
+        for (Map.Entry<String, Group> e : groupsByFilterer.entrySet()) {
+            if (e.getValue().key.dim().equals(dim)) out.add(e.getKey());
+        }
+        return out;
+    }
+
+    /**
+     * Validates just the groups under {@code filtererKeys}. Keys that no longer exist or belong to
+     * another dimension are skipped, so a stale snapshot of keys is fine to pass.
+     */
+    public ValidationResult validateGroups(ServerLevel level, Collection<String> filtererKeys, boolean onlyIfChunkLoaded) {
+        ValidationTally tally = new ValidationTally();
+        for (String filtererKeyStr : filtererKeys) {
+            validateGroup(level, filtererKeyStr, onlyIfChunkLoaded, tally);
+        }
+
+        if (tally.groups != 0 || tally.endpoints != 0 || tally.mounts != 0 || tally.dataLinks != 0) {
+            setDirty();
+        }
+
+        return new ValidationResult(tally.groups, tally.endpoints, tally.mounts, tally.dataLinks);
+    }
+
+    private static final class ValidationTally {
+        int groups;
+        int endpoints;
+        int mounts;
+        int dataLinks;
+    }
+
+    private void validateGroup(ServerLevel level, String filtererKeyStr, boolean onlyIfChunkLoaded, ValidationTally tally) {
         ResourceKey<Level> levelDim = level.dimension();
 
-        for (String filtererKeyStr : groupKeys) {
-            Group group = groupsByFilterer.get(filtererKeyStr);
-            if (group == null) continue;
+        Group group = groupsByFilterer.get(filtererKeyStr);
+        if (group == null) return;
+
+        // i only validate groups in this dimension
+        if (!group.key.dim().equals(levelDim)) return;
 
-            // i only validate groups in this dimension
-            if (!group.key.dim().equals(levelDim)) continue;
+        // if the filterer is truly gone, dissolve the whole group
+        if (isDefinitelyMissing(level, group.key.filtererPos(), onlyIfChunkLoaded, true)) {
+            dissolveGroup(level, filtererKeyStr);
+            tally.groups++;
+            return;
+        }
 
-            // if the filterer is truly gone, dissolve the whole group
-            if (isDefinitelyMissing(level, group.key.filtererPos(), onlyIfChunkLoaded, true)) {
-                dissolveGroup(level, filtererKeyStr);
-                groupsRemoved++;
-                continue;
+        // monitor
+        if (!group.monitorEndpoints.isEmpty()) {
+            Iterator<BlockPos> it = group.monitorEndpoints.iterator();
+            while (it.hasNext()) {
+                BlockPos mp = it.next();
+                if (!isDefinitelyMissing(level, mp, onlyIfChunkLoaded, true))
+                    continue;
+
+                endpointToFilterer.remove(posKey(levelDim, mp));
+                it.remove();
+                tally.endpoints++;
             }
+        }
 
-            // monitor
-            if (!group.monitorEndpoints.isEmpty()) {
-                Iterator<BlockPos> it = group.monitorEndpoints.iterator();
-                while (it.hasNext()) {
-                    BlockPos mp = it.next();
-                    if (!isDefinitelyMissing(level, mp, onlyIfChunkLoaded, true))
-                        continue;
+        // radars
+        for (BlockPos rp : group.allRadars()) {
+            if (!isDefinitelyMissing(level, rp, onlyIfChunkLoaded, true))
+                continue;
+            endpointToFilterer.remove(posKey(levelDim, rp));
+            removeRadar(group, rp);
+            tally.endpoints++;
+        }
 
-                    endpointToFilterer.remove(posKey(levelDim, mp));
-                    it.remove();
-                    endpointsRemoved++;
-                }
-            }
+        // weapon endpoints
+        if (!group.weaponEndpoints.isEmpty()) {
+            Iterator<BlockPos> it = group.weaponEndpoints.iterator();
+            while (it.hasNext()) {
+                BlockPos controllerPos = it.next();
 
-            // radar
-            if (group.radarPos != null && isDefinitelyMissing(level, group.radarPos, onlyIfChunkLoaded, true)) {
-                endpointToFilterer.remove(posKey(levelDim, group.radarPos));
-                group.radarPos = null;
-                group.radarKind = null;
-                endpointsRemoved++;
-            }
+                if (!isDefinitelyMissing(level, controllerPos, onlyIfChunkLoaded, true)) {
+                    continue; // PRESENT or UNKNOWN => keep
+                }
 
-            // weapon endpoints
-            if (!group.weaponEndpoints.isEmpty()) {
-                Iterator<BlockPos> it = group.weaponEndpoints.iterator();
-                while (it.hasNext()) {
-                    BlockPos controllerPos = it.next();
+                boolean hasSpecialDL = hasMatchingDataLinkTargeting(
+                        level,
+                        group,
+                        controllerPos,
+                        onlyIfChunkLoaded,
+                        st -> {
+                            return st.is(ModBlocks.RADAR_LINK.get()) && st.getValue(DataLinkBlock.LINK_STYLE) == DataLinkBlock.LinkStyle.RADAR;
+                        }
+                );
 
-                    if (!isDefinitelyMissing(level, controllerPos, onlyIfChunkLoaded, true)) {
-                        continue; // PRESENT or UNKNOWN => keep
-                    }
+                if (hasSpecialDL) {
+                    continue; // don't remove this endpoint entry
+                }
 
-                    boolean hasSpecialDL = hasMatchingDataLinkTargeting(
-                            level,
-                            group,
-                            controllerPos,
-                            onlyIfChunkLoaded,
-                            st -> {
-                                return st.is(ModBlocks.RADAR_LINK.get()) && st.getValue(DataLinkBlock.LINK_STYLE) == DataLinkBlock.LinkStyle.RADAR;
-                            }
-                    );
-
-                    if (hasSpecialDL) {
-                        continue; // don't remove this endpoint entry
-                    }
+                it.remove();
+                endpointToFilterer.remove(posKey(levelDim, controllerPos));
+                tally.endpoints++;
 
-                    it.remove();
-                    endpointToFilterer.remove(posKey(levelDim, controllerPos));
-                    endpointsRemoved++;
-
-                    // free its mount if we have a mapping
-                    String mountKey = controllerToWeaponMount.remove(posKey(levelDim, controllerPos));
-                    if (mountKey != null) {
-                        weaponMountToFilterer.remove(mountKey);
-                        BlockPos mountPos = posFromKey(mountKey);
-                        group.usedWeaponMounts.remove(mountPos);
-                        mountsRemoved++;
-                    }
+                // free its mount if we have a mapping
+                String mountKey = controllerToWeaponMount.remove(posKey(levelDim, controllerPos));
+                if (mountKey != null) {
+                    weaponMountToFilterer.remove(mountKey);
+                    BlockPos mountPos = posFromKey(mountKey);
+                    group.usedWeaponMounts.remove(mountPos);
+                    tally.mounts++;
                 }
             }
+        }
 
-            // mounts safety sweep (only remove when definitely missing)
-            if (!group.usedWeaponMounts.isEmpty()) {
-                Iterator<BlockPos> it = group.usedWeaponMounts.iterator();
-                while (it.hasNext()) {
-                    BlockPos mountPos = it.next();
+        // mounts safety sweep (only remove when definitely missing)
+        if (!group.usedWeaponMounts.isEmpty()) {
+            Iterator<BlockPos> it = group.usedWeaponMounts.iterator();
+            while (it.hasNext()) {
+                BlockPos mountPos = it.next();
 
-                    if (!isDefinitelyMissing(level, mountPos, onlyIfChunkLoaded, true)) {
-                        continue; // PRESENT or UNKNOWN => keep
-                    }
+                if (!isDefinitelyMissing(level, mountPos, onlyIfChunkLoaded, true)) {
+                    continue; // PRESENT or UNKNOWN => keep
+                }
 
-                    it.remove();
-                    weaponMountToFilterer.remove(posKey(levelDim, mountPos));
-                    mountsRemoved++;
+                it.remove();
+                weaponMountToFilterer.remove(posKey(levelDim, mountPos));
+                tally.mounts++;
 
-                    // remove any controller->mount entries pointing at this mount
-                    String mk = posKey(levelDim, mountPos);
-                    controllerToWeaponMount.entrySet().removeIf(e -> mk.equals(e.getValue()));
-                }
+                // remove any controller->mount entries pointing at this mount
+                String mk = posKey(levelDim, mountPos);
+                controllerToWeaponMount.entrySet().removeIf(e -> mk.equals(e.getValue()));
             }
+        }
 
-            // datalinks
-            if (!group.dataLinks.isEmpty()) {
-                Iterator<BlockPos> it = group.dataLinks.iterator();
-                while (it.hasNext()) {
-                    BlockPos dlPos = it.next();
-                    String dlKey = posKey(levelDim, dlPos);
-
-                    // if datalink block is definitely gone, drop it
-                    if (isDefinitelyMissing(level, dlPos, onlyIfChunkLoaded, true)) {
-                        it.remove();
-                        dataLinkToFilterer.remove(dlKey);
-                        dataLinkToEndpoint.remove(dlKey);
-                        dataLinksRemoved++;
-                        continue;
-                    }
+        // datalinks
+        if (!group.dataLinks.isEmpty()) {
+            Iterator<BlockPos> it = group.dataLinks.iterator();
+            while (it.hasNext()) {
+                BlockPos dlPos = it.next();
+                String dlKey = posKey(levelDim, dlPos);
+
+                // if datalink block is definitely gone, drop it
+                if (isDefinitelyMissing(level, dlPos, onlyIfChunkLoaded, true)) {
+                    it.remove();
+                    dataLinkToFilterer.remove(dlKey);
+                    dataLinkToEndpoint.remove(dlKey);
+                    tally.dataLinks++;
+                    continue;
+                }
 
-                    // datalink still exists (or unknown), but its target endpoint might be gone
-                    String epKey = dataLinkToEndpoint.get(dlKey);
-                    if (epKey != null) {
-                        BlockPos epPos = posFromKey(epKey);
+                // datalink still exists (or unknown), but its target endpoint might be gone
+                String epKey = dataLinkToEndpoint.get(dlKey);
+                if (epKey != null) {
+                    BlockPos epPos = posFromKey(epKey);
 
-                        if (isDefinitelyMissing(level, epPos, onlyIfChunkLoaded, true)) {
-                            dataLinkToEndpoint.remove(dlKey);
-                        }
+                    if (isDefinitelyMissing(level, epPos, onlyIfChunkLoaded, true)) {
+                        dataLinkToEndpoint.remove(dlKey);
                     }
                 }
             }
-
-            // delete group if it becomes empty after scrub
-            cleanupIfEmpty(filtererKeyStr);
         }
 
-        if (groupsRemoved != 0 || endpointsRemoved != 0 || mountsRemoved != 0 || dataLinksRemoved != 0) {
-            setDirty();
-        }
-
-        return new ValidationResult(groupsRemoved, endpointsRemoved, mountsRemoved, dataLinksRemoved);
+        // delete group if it becomes empty after scrub
+        cleanupIfEmpty(filtererKeyStr);
     }
     @Nullable
     private Group findGroupByFiltererPosSlow(ResourceKey<Level> dim, BlockPos filtererPos) {
@@ -961,6 +1190,7 @@ public static BlockPos getFiltererPosFromGroupKey(@Nullable String filtererKey)
 
         newGroup.radarPos = oldGroup.radarPos;
         newGroup.radarKind = oldGroup.radarKind;
+        newGroup.auxRadars.putAll(oldGroup.auxRadars);
 
         // copy sets
         newGroup.weaponEndpoints.addAll(oldGroup.weaponEndpoints);
@@ -979,7 +1209,7 @@ public static BlockPos getFiltererPosFromGroupKey(@Nullable String filtererKey)
         for (BlockPos mp : newGroup.monitorEndpoints) {
             endpointToFilterer.put(key(dim, mp), newFiltererKey);
         }
-        if (newGroup.radarPos != null)   endpointToFilterer.put(key(dim, newGroup.radarPos), newFiltererKey);
+        for (BlockPos rp : newGroup.allRadars()) endpointToFilterer.put(key(dim, rp), newFiltererKey);
         for (BlockPos ep : newGroup.weaponEndpoints) endpointToFilterer.put(key(dim, ep), newFiltererKey);
         endpointToFilterer.values().removeIf(v -> v.equals(oldFiltererKey));
 
@@ -1091,7 +1321,7 @@ public static BlockPos getFiltererPosFromGroupKey(@Nullable String filtererKey)
         for (Group g : groupsByFilterer.values()) {
             if (!g.key.dim().equals(dim))
                 continue;
-            if (radarPos.equals(g.radarPos))
+            if (g.hasRadar(radarPos))
                 return g;
         }
         return null;
@@ -1131,7 +1361,7 @@ public static BlockPos getFiltererPosFromGroupKey(@Nullable String filtererKey)
 
             // rebuild index entries for this group
             for (BlockPos mp : g.monitorEndpoints) endpointToFilterer.put(key(dim, mp), filtererKey);
-            if (g.radarPos != null) endpointToFilterer.put(key(dim, g.radarPos), filtererKey);
+            for (BlockPos rp : g.allRadars()) endpointToFilterer.put(key(dim, rp), filtererKey);
             for (BlockPos ep : g.weaponEndpoints) endpointToFilterer.put(key(dim, ep), filtererKey);
         }
 
@@ -1195,7 +1425,7 @@ public static BlockPos getFiltererPosFromGroupKey(@Nullable String filtererKey)
 
             // rebuild index entries for this group
             for (BlockPos mp : g.monitorEndpoints) endpointToFilterer.put(key(dim, mp), filtererKey);
-            if (g.radarPos != null) endpointToFilterer.put(key(dim, g.radarPos), filtererKey);
+            for (BlockPos rp : g.allRadars()) endpointToFilterer.put(key(dim, rp), filtererKey);
             for (BlockPos ep : g.weaponEndpoints) endpointToFilterer.put(key(dim, ep), filtererKey);
         }
 
@@ -1206,11 +1436,15 @@ public static BlockPos getFiltererPosFromGroupKey(@Nullable String filtererKey)
             return false;
         }
 
-        // verify we're actually moving the radar
-        if (g.radarPos == null || !oldPos.equals(g.radarPos))
-            return false;
-
-        g.radarPos = newPos;
+        // verify we're actually moving one of the radars
+        if (oldPos.equals(g.radarPos)) {
+            g.radarPos = newPos;
+        } else {
+            RadarKind auxKind = g.auxRadars.remove(oldPos);
+            if (auxKind == null)
+                return false;
+            g.auxRadars.put(newPos, auxKind);
+        }
 
         // update index
         endpointToFilterer.remove(oldKey);
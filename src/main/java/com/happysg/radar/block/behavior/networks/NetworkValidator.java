@@ -0,0 +1,117 @@
+package com.happysg.radar.block.behavior.networks;
+
+import com.happysg.radar.CreateRadar;
+import com.happysg.radar.config.RadarConfig;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Background version of {@code /radar debug validate_networks}.
+ * <p>
+ * Each level walks its radar and weapon groups a few per tick, in loaded chunks only, and drops
+ * whatever the full scrub would have dropped. A sweep snapshots the group keys when it starts;
+ * groups created mid-sweep wait for the next one. Totals are kept per level for the debug command.
+ */
+@Mod.EventBusSubscriber(modid = CreateRadar.MODID)
+public final class NetworkValidator {
+
+    public static final class Progress {
+        private final ArrayDeque<String> radarPending = new ArrayDeque<>();
+        private final ArrayDeque<String> weaponPending = new ArrayDeque<>();
+        private int sweepSize;
+        private long sweeps;
+        private long groupsChecked;
+
+        private long radarGroupsRemoved;
+        private long endpointsRemoved;
+        private long mountsRemoved;
+        private long radarDataLinksRemoved;
+        private long weaponGroupsRemoved;
+        private long controllersCleared;
+        private long weaponDataLinksRemoved;
+
+        public int sweepSize() { return sweepSize; }
+        public int sweepRemaining() { return radarPending.size() + weaponPending.size(); }
+        public long sweeps() { return sweeps; }
+        public long groupsChecked() { return groupsChecked; }
+        public long radarGroupsRemoved() { return radarGroupsRemoved; }
+        public long endpointsRemoved() { return endpointsRemoved; }
+        public long mountsRemoved() { return mountsRemoved; }
+        public long radarDataLinksRemoved() { return radarDataLinksRemoved; }
+        public long weaponGroupsRemoved() { return weaponGroupsRemoved; }
+        public long controllersCleared() { return controllersCleared; }
+        public long weaponDataLinksRemoved() { return weaponDataLinksRemoved; }
+
+        public long repairs() {
+            return radarGroupsRemoved + endpointsRemoved + mountsRemoved + radarDataLinksRemoved
+                    + weaponGroupsRemoved + controllersCleared + weaponDataLinksRemoved;
+        }
+    }
+
+    private static final Map<ServerLevel, Progress> PROGRESS = new WeakHashMap<>();
+
+    private NetworkValidator() {}
+
+    /** Validator state for {@code level}, or null if it hasn't ticked yet. */
+    @Nullable
+    public static Progress progress(ServerLevel level) {
+        return PROGRESS.get(level);
+    }
+
+    @SubscribeEvent
+    public static void onLevelTick(TickEvent.LevelTickEvent event) {
+        if (event.phase != TickEvent.Phase.END) return;
+        if (!(event.level instanceof ServerLevel sl)) return;
+
+        int budget = RadarConfig.server().networkValidationPerTick.get();
+        if (budget <= 0) return;
+        tick(sl, budget);
+    }
+
+    private static void tick(ServerLevel level, int budget) {
+        Progress p = PROGRESS.computeIfAbsent(level, l -> new Progress());
+        NetworkData radar = NetworkData.get(level);
+        WeaponNetworkData weapons = WeaponNetworkData.get(level);
+
+        if (p.radarPending.isEmpty() && p.weaponPending.isEmpty()) {
+            // previous sweep done (or first tick), start over from whatever exists now
+            if (p.sweepSize > 0) p.sweeps++;
+            p.radarPending.addAll(radar.groupKeysIn(level.dimension()));
+            p.weaponPending.addAll(weapons.groupKeysIn(level.dimension()));
+            p.sweepSize = p.sweepRemaining();
+            if (p.sweepSize == 0) return;
+        }
+
+        int radarCount = Math.min(budget, p.radarPending.size());
+        if (radarCount > 0) {
+            var r = radar.validateGroups(level, drain(p.radarPending, radarCount), true);
+            p.radarGroupsRemoved += r.groupsRemoved();
+            p.endpointsRemoved += r.endpointsRemoved();
+            p.mountsRemoved += r.mountsRemoved();
+            p.radarDataLinksRemoved += r.dataLinksRemoved();
+        }
+
+        int weaponCount = Math.min(budget - radarCount, p.weaponPending.size());
+        if (weaponCount > 0) {
+            var w = weapons.validateGroups(level, drain(p.weaponPending, weaponCount), true);
+            p.weaponGroupsRemoved += w.groupsRemoved();
+            p.controllersCleared += w.controllersCleared();
+            p.weaponDataLinksRemoved += w.dataLinksRemoved();
+        }
+
+        p.groupsChecked += radarCount + weaponCount;
+    }
+
+    private static ArrayDeque<String> drain(ArrayDeque<String> queue, int count) {
+        ArrayDeque<String> out = new ArrayDeque<>(count);
+        for (int i = 0; i < count; i++) out.add(queue.poll());
+        return out;
+    }
+}
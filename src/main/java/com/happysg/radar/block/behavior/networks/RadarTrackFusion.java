@@ -0,0 +1,145 @@
+package com.happysg.radar.block.behavior.networks;
+
+import com.happysg.radar.CreateRadar;
+import com.happysg.radar.block.radar.behavior.IRadar;
+import com.happysg.radar.block.radar.track.RadarTrack;
+import com.happysg.radar.compat.vs2.PhysicsHandler;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.phys.Vec3;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * One track picture for a network group with several radars.
+ * <p>
+ * Tracks from every running radar in the group are merged by track id (entity UUID or ship id), so
+ * a target seen by two sensors shows up once. The sample with the newest scan time wins and the
+ * sensors that currently see each track are recorded. The picture is built at most once per tick
+ * per group, however many monitors, filterers and cannons ask for it.
+ * <p>
+ * Pictures only hold positions and track samples, never block entities, and a level's cache only
+ * keeps the current tick's pictures; it's dropped outright when the level unloads or the server stops.
+ */
+@Mod.EventBusSubscriber(modid = CreateRadar.MODID)
+public final class RadarTrackFusion {
+
+    /** A loaded radar of the group: its block pos, world-space position and range at build time. */
+    public record Sensor(BlockPos pos, Vec3 worldPos, double range) {}
+
+    public record Picture(long tick, List<RadarTrack> tracks, Map<String, Set<BlockPos>> sensors, List<Sensor> radars) {
+        /** Radars that saw {@code trackId} in their last scan, empty when it's unknown. */
+        public Set<BlockPos> sensorsFor(String trackId) {
+            return sensors.getOrDefault(trackId, Set.of());
+        }
+    }
+
+    private static final Picture EMPTY = new Picture(Long.MIN_VALUE, List.of(), Map.of(), List.of());
+
+    private static final class LevelPictures {
+        long tick = Long.MIN_VALUE;
+        // groups are replaced rather than mutated when a filterer moves, so identity is a fine key
+        final Map<NetworkData.Group, Picture> byGroup = new HashMap<>();
+    }
+
+    // server thread only
+    private static final Map<ResourceKey<Level>, LevelPictures> PICTURES = new HashMap<>();
+
+    private RadarTrackFusion() {}
+
+    /**
+     * Tracks for a consumer whose own radar is {@code primary}. Without extra sensors in the group this
+     * is just {@code primary.getTracks()}, so single-radar networks behave exactly like before.
+     */
+    public static Collection<RadarTrack> tracks(ServerLevel level, @Nullable NetworkData.Group group, IRadar primary) {
+        if (group == null || group.auxRadars.isEmpty()) return primary.getTracks();
+        return picture(level, group).tracks();
+    }
+
+    public static Picture picture(ServerLevel level, NetworkData.Group group) {
+        long now = level.getGameTime();
+        LevelPictures pictures = PICTURES.computeIfAbsent(level.dimension(), k -> new LevelPictures());
+        if (pictures.tick != now) {
+            pictures.tick = now;
+            pictures.byGroup.clear();
+        }
+        return pictures.byGroup.computeIfAbsent(group, g -> build(level, g, now));
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel() instanceof ServerLevel sl) PICTURES.remove(sl.dimension());
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        PICTURES.clear();
+    }
+
+    /**
+     * Furthest distance from {@code origin} any radar of the group can see, i.e. range plus distance to
+     * the radar. 0 when the group has no loaded radar.
+     */
+    public static double maxReachFrom(ServerLevel level, @Nullable NetworkData.Group group, Vec3 origin) {
+        if (group == null || group.radarPos == null) return 0.0;
+
+        // single radar: no picture needed, just ask it
+        if (group.auxRadars.isEmpty()) {
+            if (!level.isLoaded(group.radarPos)) return 0.0;
+            BlockEntity be = level.getBlockEntity(group.radarPos);
+            if (!(be instanceof IRadar radar)) return 0.0;
+            return radar.getRange() + origin.distanceTo(PhysicsHandler.getWorldVec(be));
+        }
+
+        double best = 0.0;
+        for (Sensor sensor : picture(level, group).radars()) {
+            double reach = sensor.range() + origin.distanceTo(sensor.worldPos());
+            if (reach > best) best = reach;
+        }
+        return best;
+    }
+
+    private static Picture build(ServerLevel level, NetworkData.Group group, long now) {
+        List<BlockPos> positions = group.allRadars();
+        if (positions.isEmpty()) return EMPTY;
+
+        List<Sensor> radars = new ArrayList<>(positions.size());
+        Map<String, RadarTrack> fused = new LinkedHashMap<>();
+        Map<String, Set<BlockPos>> sensors = new HashMap<>();
+
+        for (BlockPos pos : positions) {
+            // never pull a chunk in just to ask its radar
+            if (!level.isLoaded(pos)) continue;
+            BlockEntity be = level.getBlockEntity(pos);
+            if (!(be instanceof IRadar radar)) continue;
+            radars.add(new Sensor(pos, PhysicsHandler.getWorldVec(be), radar.getRange()));
+            if (!radar.isRunning()) continue;
+
+            for (RadarTrack track : radar.getTracks()) {
+                if (track == null || track.id() == null) continue;
+
+                fused.merge(track.id(), track, (a, b) -> b.scannedTime() > a.scannedTime() ? b : a);
+                sensors.computeIfAbsent(track.id(), k -> new LinkedHashSet<>()).add(pos);
+            }
+        }
+
+        for (Map.Entry<String, Set<BlockPos>> e : sensors.entrySet()) e.setValue(Collections.unmodifiableSet(e.getValue()));
+        return new Picture(now, List.copyOf(fused.values()), Collections.unmodifiableMap(sensors), List.copyOf(radars));
+    }
+}
@@ -1,11 +1,15 @@
 package com.happysg.radar.block.behavior.networks;
 
+import com.happysg.radar.block.behavior.networks.config.SafeZoneSet;
 import com.happysg.radar.block.behavior.networks.config.TargetingConfig;
 import com.happysg.radar.block.controller.firing.FireControllerBlockEntity;
 import com.happysg.radar.block.controller.pitch.AutoPitchControllerBlockEntity;
 import com.happysg.radar.block.controller.yaw.AutoYawControllerBlockEntity;
+import com.happysg.radar.block.radar.behavior.LevelRadarWorldView;
+import com.happysg.radar.block.radar.behavior.RadarWorldView;
 import com.happysg.radar.block.radar.track.RadarTrack;
 import com.happysg.radar.block.radar.track.RadarTrackUtil;
+import com.happysg.radar.block.radar.track.TargetHandle;
 import com.happysg.radar.block.radar.track.TrackCategory;
 import com.happysg.radar.compat.Mods;
 import com.happysg.radar.compat.cbc.*;
@@ -19,11 +23,9 @@ import net.minecraft.core.BlockPos;
 import net.minecraft.core.particles.DustParticleOptions;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.entity.Entity;
-import net.minecraft.world.level.ClipContext;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.phys.AABB;
-import net.minecraft.world.phys.HitResult;
 import net.minecraft.world.phys.Vec3;
 import org.joml.Vector3f;
 import org.slf4j.Logger;
@@ -58,9 +60,13 @@ public class WeaponFiringControl {
     public FireControllerBlockEntity fireController;
     public WeaponNetworkData.WeaponGroupView view;
     public final Level level;
+    private RadarWorldView worldView;
     private RadarTrack activetrack;
     private Entity targetEntity;
     private Ship targetShip;
+    @Nullable private TargetHandle targetHandle;
+    // a mount in a shipyard never changes ship, and the mount unloads with it
+    @Nullable private Ship mountShip;
     private BlockPos binoTargetPos;
     private boolean binoMode;
     private long targetShipId = -1;
@@ -69,6 +75,8 @@ public class WeaponFiringControl {
     private List<List<Double>> cachedVS2Angles = null;
     private Vec3 cachedVS2AimTarget = null;
     private long cachedVS2SolveTick = -1;
+    // last successful ship-mount solution, survives target changes so the solver can warm start
+    private List<Double> lastVS2Solution = null;
     private static final int VS2_SOLVE_INTERVAL = 3;
     private static final double VS2_AIM_CHANGE_THRESHOLD = 0.3;
 
@@ -138,7 +146,8 @@ public class WeaponFiringControl {
         c.hasFrac = true;
     }
 
-    public List<AABB> safeZones = new ArrayList<>();
+    // shared with the filterer and the other cannons of the network, never mutated
+    public SafeZoneSet safeZones = SafeZoneSet.EMPTY;
     private long lastTargetTick = -1;   // server-time when we last got a target update
     private enum RayResult {
         CLEAR,
@@ -158,39 +167,23 @@ public class WeaponFiringControl {
 
         LOGGER.debug("FiringControlBlockEntity.<init>() → controller={} mountPos={}", controller, cannonMount.getBlockPos());
     }
+    private RadarWorldView worldView() {
+        if (worldView == null) worldView = new LevelRadarWorldView(level, cannonMount.getBlockPos());
+        return worldView;
+    }
+
     private RayResult rayClear(Vec3 start, Vec3 end) {
 
         RayResult result = RayResult.CLEAR;
 
 
-        if (!safeZones.isEmpty()) {
-            for (AABB zone : safeZones) {
-                if (zone == null) continue;
-                if (zone.contains(start) || zone.contains(end) || zone.clip(start, end).isPresent()) {
-                    return RayResult.BLOCKED_SAFEZONE;
-                }
-            }
+        if (safeZones.intersectsSegment(start, end)) {
+            return RayResult.BLOCKED_SAFEZONE;
         }
 
 
-        if (result == RayResult.CLEAR) {
-            ClipContext ctx = new ClipContext(
-                    start, end,
-                    ClipContext.Block.COLLIDER,
-                    ClipContext.Fluid.NONE,
-                    null
-            );
-
-            HitResult hit = level.clip(ctx);
-
-            if (hit.getType() != HitResult.Type.MISS) {
-                double hitDist = hit.getLocation().distanceTo(start);
-                double targetDist = end.distanceTo(start);
-
-                if (hitDist < targetDist) {
-                    result = RayResult.BLOCKED_BLOCK;
-                }
-            }
+        if (!worldView().isClear(start, end)) {
+            result = RayResult.BLOCKED_BLOCK;
         }
 
 
@@ -541,13 +534,10 @@ public class WeaponFiringControl {
                             track.trackCategory() == TrackCategory.ANIMAL ||
                             track.trackCategory() == TrackCategory.PROJECTILE;
 
-            Entity e = null;
-            try {
-                UUID uuid = UUID.fromString(track.getId());
-                e = sl.getEntity(uuid);
-            } catch (Throwable ignored) {}
+            TargetHandle handle = TargetHandle.resolve(sl, track);
+            Entity e = handle != null ? handle.entity(sl) : null;
 
-            if (e != null && e.isAlive()) {
+            if (e != null) {
                 return getCachedVisiblePoint(e) != null;
             }
 
@@ -615,10 +605,17 @@ public class WeaponFiringControl {
         stopFireCannon();
     }
 
-    public void setSafeZones(List<AABB> safeZones) {
+    public void setSafeZones(SafeZoneSet safeZones) {
+        if (this.safeZones == safeZones) return;
         LOGGER.debug("setSafeZones() → {} zones", safeZones.size());
         this.safeZones = safeZones;
     }
+    @Nullable
+    private Ship getMountShip() {
+        if (mountShip == null) mountShip = VSGameUtilsKt.getShipManagingPos(level, cannonMount.getBlockPos());
+        return mountShip;
+    }
+
     public  Entity getEntityByUUID(ServerLevel level, UUID uuid) {
         return level.getEntity(uuid);
     }
@@ -631,8 +628,14 @@ public class WeaponFiringControl {
      */
     public void refreshControllers() {
 
-        if (!(level instanceof ServerLevel serverLevel)) return;
-        this.view = WeaponNetworkData.get(serverLevel).getWeaponGroupViewFromEndpoint(level.dimension(), pitchController.getBlockPos());
+        if (!(level instanceof ServerLevel)) return;
+        if (pitchController == null) return;
+
+        // the pitch controller keeps the binding cached, so this is a field read unless the links changed
+        WeaponNetworkData.WeaponGroupView bound = pitchController.getWeaponGroup();
+        if (bound == null) return;
+        if (bound == view && controllersStillLoaded()) return;
+        this.view = bound;
         if (view.yawPos() != null && level.getBlockEntity(view.yawPos()) instanceof AutoYawControllerBlockEntity autoyaw) {
             this.yawController = autoyaw;
         } else {
@@ -650,6 +653,14 @@ public class WeaponFiringControl {
         }
     }
 
+    // same binding as last tick and every endpoint still has a live block entity
+    private boolean controllersStillLoaded() {
+        if (view.yawPos() != null && (yawController == null || yawController.isRemoved())) return false;
+        if (view.pitchPos() != null && (pitchController == null || pitchController.isRemoved())) return false;
+        if (view.firingPos() != null && (fireController == null || fireController.isRemoved())) return false;
+        return true;
+    }
+
     private boolean isOutOfKnownRange(@Nullable Vec3 point) {
         if (point == null) return true; // no point to test
 
@@ -679,43 +690,19 @@ public class WeaponFiringControl {
         }
 
         if (!binoMode && activetrack != null && level instanceof ServerLevel sl) {
+            // resolved once per assignment and shared with every cannon on the same target
+            if (targetHandle == null || !targetHandle.id().equals(activetrack.id()) || !targetHandle.isValid(sl))
+                targetHandle = TargetHandle.resolve(sl, activetrack);
 
-            boolean isVsShip = Mods.VALKYRIENSKIES.isLoaded() && "VS2:ship".equals(activetrack.entityType());
-
-            if (isVsShip) {
-                long id;
-                try {
-                    id = Long.parseLong(activetrack.id());
-                } catch (NumberFormatException ignored) {
-                    LOGGER.warn("WFC: invalid VS2 ship id={}, stopping fire", activetrack.id());
-                    stopFireCannon();
-                    return;
-                }
-                if (targetShip == null || targetShipId != id) {
-                    targetShip = getShipByUUID(sl, activetrack.id());
-                    targetShipId = id;
-                    if (targetShip == null) {
-                        LOGGER.warn("WFC: VS2 ship id={} not loaded, stopping fire", id);
-                        stopFireCannon();
-                        return;
-                    }
-                }
-                targetEntity = null;
-            } else {
-                Entity e = null;
-                try {
-                    e = getEntityByUUID(sl, UUID.fromString(activetrack.id()));
-                } catch (Throwable ignored) {}
-
-                if (e == null || !e.isAlive()) {
-                    LOGGER.warn("WFC: entity id={} not loaded/alive, stopping fire", activetrack.id());
-                    stopFireCannon();
-                    return;
-                }
-
-                targetEntity = e;
-                targetShip = null;
+            if (targetHandle == null) {
+                LOGGER.warn("WFC: target id={} not loaded/alive, stopping fire", activetrack.id());
+                stopFireCannon();
+                return;
             }
+
+            targetEntity = targetHandle.entity(sl);
+            targetShip = targetHandle.ship();
+            targetShipId = targetHandle.shipId();
         }
 
         if (!binoMode && activetrack != null && targetEntity == null && targetShip == null) {
@@ -744,42 +731,13 @@ public class WeaponFiringControl {
         } else return;
         if (!(level instanceof ServerLevel serverLevel)) return;
 
-        if (targetEntity != null) {
-            if (!targetEntity.isAlive()) {
-                LOGGER.warn("WFC: target entity died mid-tick, stopping fire (id={})", targetEntity.getUUID());
-                stopFireCannon();
-                return;
-            }
-        }
-        if (targetShip != null && !binoMode) {
-            long id;
-            try {
-                id = Long.parseLong(activetrack.id());
-            } catch (NumberFormatException ignored) {
-                LOGGER.warn("WFC: invalid VS2 ship id on recheck={}, stopping fire", activetrack.id());
-                stopFireCannon();
-                return;
-            }
-
-            Ship live = VSGameUtilsKt.getShipObjectWorld(serverLevel).getLoadedShips().getById(id);
-            if (live == null) {
-                LOGGER.warn("WFC: VS2 ship id={} unloaded mid-tick, stopping fire", id);
-                stopFireCannon();
-                return;
-            }
-
-            targetShip = live;
-        }
-
-
-
         Vec3 shooterVel;
         Vec3 shooterAccel;
         Vec3 targetVel;
         Vec3 targetAccel;
         boolean lag;
         if(Mods.VALKYRIENSKIES.isLoaded() && VS2Utils.isBlockInShipyard(level,cannonMount.getBlockPos())){
-            Ship mountship = VSGameUtilsKt.getShipManagingPos(level,cannonMount.getBlockPos());
+            Ship mountship = getMountShip();
             if(mountship ==null){
                 shooterVel = Vec3.ZERO;
                 shooterAccel = Vec3.ZERO;
@@ -845,10 +803,16 @@ public class WeaponFiringControl {
         WeaponNetworkData wnd = WeaponNetworkData.get(serverLevel);
         WeaponNetworkData.Group grp = (wnd != null && pitchController != null) ? wnd.getGroupForController(serverLevel.dimension(), pitchController.getBlockPos()) : null;
 
-        if (grp != null && !grp.dataLinks.isEmpty()) {
-            Vec3 cannonOrigin = getCannonRayStart();
-            double best = 0.0;
+        Vec3 cannonOrigin = getCannonRayStart();
+        double best = 0.0;
+
+        // every radar of the filterer network counts, not just one
+        if (pitchController != null) {
+            NetworkData.Group netGroup = NetworkData.get(serverLevel).getGroupForEndpoint(serverLevel.dimension(), pitchController.getBlockPos());
+            best = RadarTrackFusion.maxReachFrom(serverLevel, netGroup, cannonOrigin);
+        }
 
+        if (grp != null && !grp.dataLinks.isEmpty()) {
             for (BlockPos dlPos : grp.dataLinks) {
                 BlockEntity be = serverLevel.getBlockEntity(dlPos);
                 if (!(be instanceof com.happysg.radar.block.datalink.DataLinkBlockEntity dl)) continue;
@@ -864,9 +828,8 @@ public class WeaponFiringControl {
                     if (cap > best) best = cap;
                 }
             }
-
-            if (best > 0.0) maxSimDistanceBlocks = best;
         }
+        if (best > 0.0) maxSimDistanceBlocks = best;
 
         boolean hasLeadSolution = (lead != null && lead.aimPoint != null);
         // Laser cannons don't need lead solutions (instantaneous beam)
@@ -893,9 +856,10 @@ public class WeaponFiringControl {
                     || cachedVS2AimTarget.distanceToSqr(offsetAim) > VS2_AIM_CHANGE_THRESHOLD * VS2_AIM_CHANGE_THRESHOLD;
 
             if (needSolve) {
-                cachedVS2Angles = VS2CannonTargeting.calculatePitchAndYawVS2(cannonMount, offsetAim, serverLevel);
+                cachedVS2Angles = VS2CannonTargeting.calculatePitchAndYawVS2(cannonMount, offsetAim, serverLevel, lastVS2Solution);
                 cachedVS2AimTarget = offsetAim;
                 cachedVS2SolveTick = now;
+                if (cachedVS2Angles != null && !cachedVS2Angles.isEmpty()) lastVS2Solution = cachedVS2Angles.get(0);
             }
 
             List<List<Double>> angles = cachedVS2Angles;
@@ -911,8 +875,13 @@ public class WeaponFiringControl {
             double yawDeg = Math.toDegrees(Math.atan2(dz, dx)) + 90.0;
             desiredYaw = yawDeg + 180.0;
 
-            List<Double> pitchRoots = CannonTargeting.calculatePitch(cannonMount, origin, offsetAim, serverLevel);
-            if (pitchRoots != null && !pitchRoots.isEmpty()) desiredPitch = pitchRoots.get(0);
+            if (hasLeadSolution && lead.analytic) {
+                // the closed-form lead already solved the pitch for this aim point
+                desiredPitch = lead.pitchDeg;
+            } else {
+                List<Double> pitchRoots = CannonTargeting.calculatePitch(cannonMount, origin, offsetAim, serverLevel);
+                if (pitchRoots != null && !pitchRoots.isEmpty()) desiredPitch = pitchRoots.get(0);
+            }
         }
 
         if (desiredPitch != null && pitchController != null) {
@@ -962,6 +931,7 @@ public class WeaponFiringControl {
         this.activetrack =null;
         this.targetEntity = null;
         this.targetShip   = null;
+        this.targetHandle = null;
         this.targetShipId = -1;
 
         lastAimPoint = null;
@@ -982,6 +952,7 @@ public class WeaponFiringControl {
             this.activetrack = null;
             this.targetEntity = null;
             this.targetShip = null;
+            this.targetHandle = null;
             this.targetShipId = -1;
 
             lastAimPoint = null;
@@ -1004,6 +975,7 @@ public class WeaponFiringControl {
         this.activetrack = track;
         this.targetEntity = null;
         this.targetShip = null;
+        this.targetHandle = null;
     }
 
     public void setBinoTarget(@Nullable BlockPos binoTarget, TargetingConfig config,
@@ -1027,25 +999,12 @@ public class WeaponFiringControl {
     }
 
     private boolean passesSafeZone() {
-        if (safeZones == null || safeZones.isEmpty()) return false;
+        if (safeZones.isEmpty()) return false;
 
         Vec3 aim = (lastAimPoint != null) ? lastAimPoint : target;
         if (aim == null) return false;
 
-        Vec3 start = getCannonRayStart();
-        for (AABB zone : safeZones) {
-            if (zone == null) continue;
-
-            if (zone.contains(start) || zone.contains(aim)) {
-                return true;
-            }
-
-            if (zone.clip(start, aim).isPresent()) {
-                return true;
-            }
-        }
-
-        return false;
+        return safeZones.intersectsSegment(getCannonRayStart(), aim);
     }
 
     private boolean hasCorrectYawPitch(boolean lag) {
@@ -1062,12 +1021,12 @@ public class WeaponFiringControl {
 
     private void stopFireCannon() {
         if(this.fireController == null) return;
-        fireController.setPowered(false);
+        fireController.setPowered(false, cannonMount);
     }
 
     private void tryFireCannon() {
         if(this.fireController == null) return;
-        fireController.setPowered(true);
+        fireController.setPowered(true, cannonMount);
         LOGGER.debug("firing!");
 
     }
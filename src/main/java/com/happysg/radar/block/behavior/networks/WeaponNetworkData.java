@@ -1,6 +1,7 @@
 package com.happysg.radar.block.behavior.networks;
 
 import com.happysg.radar.block.behavior.networks.config.TargetingConfig;
+import com.mojang.logging.LogUtils;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.registries.Registries;
 import net.minecraft.nbt.CompoundTag;
@@ -13,11 +14,14 @@ import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.saveddata.SavedData;
 import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
 
 import java.util.*;
 
 public class WeaponNetworkData extends SavedData {
 
+    private static final Logger LOGGER = LogUtils.getLogger();
+
     /** A group is uniquely identified by its mount location (dim + pos). */
     public record MountKey(ResourceKey<Level> dim, BlockPos mountPos) {}
 
@@ -128,6 +132,26 @@ public class WeaponNetworkData extends SavedData {
     // index controller position -> mount key string (fast lookup)
     private final Map<String, String> controllerToMount = new HashMap<>();
 
+    // encoded groups from the last save, see CompactNetworkFormat
+    private final CompactNetworkFormat.GroupTagCache<SavedGroup> groupTags = new CompactNetworkFormat.GroupTagCache<>();
+
+    // bumped on every link / unlink / move of a yaw, pitch or firing endpoint in this level.
+    // controllers keep their group view next to this instance and the epoch they read it at, so a
+    // tick with no topology change doesn't have to look anything up. server thread only.
+    private long bindingEpoch = 0;
+
+    /**
+     * Changes whenever an endpoint binding in this level may have changed. Only meaningful against a
+     * value read from the same instance; a reload hands out a fresh one.
+     */
+    public long bindingEpoch() {
+        return bindingEpoch;
+    }
+
+    private void bindingsChanged() {
+        bindingEpoch++;
+    }
+
     // -------------------------
     // SavedData plumbing
     // -------------------------
@@ -147,6 +171,22 @@ public class WeaponNetworkData extends SavedData {
     // -------------------------
 
     public static WeaponNetworkData load(CompoundTag tag) {
+        WeaponNetworkData data;
+        if (CompactNetworkFormat.isCompact(tag)) {
+            data = loadCompact(tag);
+        } else {
+            data = loadLegacy(tag);
+            // i write it back in the compact layout on the next save
+            if (!data.groupsByMount.isEmpty()) {
+                LOGGER.info("Migrating {} weapon mount groups to save format {}", data.groupsByMount.size(), CompactNetworkFormat.VERSION);
+                data.setDirty();
+            }
+        }
+
+        return data;
+    }
+
+    private static WeaponNetworkData loadLegacy(CompoundTag tag) {
         WeaponNetworkData data = new WeaponNetworkData();
 
         ListTag groups = tag.getList("Groups", Tag.TAG_COMPOUND);
@@ -185,38 +225,94 @@ public class WeaponNetworkData extends SavedData {
 
             data.groupsByMount.put(mountKey, group);
         }
-
         return data;
     }
 
-    @Override
-    public CompoundTag save(CompoundTag tag) {
-        ListTag groups = new ListTag();
+    private static WeaponNetworkData loadCompact(CompoundTag tag) {
+        WeaponNetworkData data = new WeaponNetworkData();
+        CompoundTag dims = tag.getCompound(CompactNetworkFormat.DIMS_KEY);
+
+        for (String dimId : dims.getAllKeys()) {
+            ResourceKey<Level> dim = ResourceKey.create(Registries.DIMENSION, new ResourceLocation(dimId));
+            ListTag groups = dims.getCompound(dimId).getList("Groups", Tag.TAG_COMPOUND);
 
-        for (Group group : groupsByMount.values()) {
-            CompoundTag g = new CompoundTag();
-            g.putString("Dim", group.key.dim().location().toString());
-            g.put("MountPos", NbtUtils.writeBlockPos(group.key.mountPos()));
+            for (int i = 0; i < groups.size(); i++) {
+                CompoundTag g = groups.getCompound(i);
+                BlockPos mountPos = BlockPos.of(g.getLong("P"));
+                String mountKey = key(dim, mountPos);
+                Group group = new Group(new MountKey(dim, mountPos));
 
-            if (group.yawPos != null) g.put("YawPos", NbtUtils.writeBlockPos(group.yawPos));
-            if (group.pitchPos != null) g.put("PitchPos", NbtUtils.writeBlockPos(group.pitchPos));
-            if (group.firingPos != null) g.put("FiringPos", NbtUtils.writeBlockPos(group.firingPos));
+                if (g.contains("Y", Tag.TAG_LONG)) group.yawPos = BlockPos.of(g.getLong("Y"));
+                if (g.contains("Pi", Tag.TAG_LONG)) group.pitchPos = BlockPos.of(g.getLong("Pi"));
+                if (g.contains("Fi", Tag.TAG_LONG)) group.firingPos = BlockPos.of(g.getLong("Fi"));
+                if (g.contains("T", Tag.TAG_COMPOUND)) group.targetingTag = g.getCompound("T");
 
-            g.put("Targeting", group.targetingTag);
+                if (group.yawPos != null)   data.controllerToMount.put(key(dim, group.yawPos), mountKey);
+                if (group.pitchPos != null) data.controllerToMount.put(key(dim, group.pitchPos), mountKey);
+                if (group.firingPos != null)data.controllerToMount.put(key(dim, group.firingPos), mountKey);
 
-            ListTag links = new ListTag();
-            for (BlockPos p : group.dataLinks) {
-                links.add(NbtUtils.writeBlockPos(p));
+                CompactNetworkFormat.readPositions(g, "L", lp -> {
+                    group.dataLinks.add(lp);
+                    data.dataLinkToMount.put(key(dim, lp), mountKey);
+                });
+
+                data.groupsByMount.put(mountKey, group);
             }
-            g.put("DataLinks", links);
+        }
+        return data;
+    }
 
-            groups.add(g);
+    @Override
+    public CompoundTag save(CompoundTag tag) {
+        tag.putInt(CompactNetworkFormat.FORMAT_KEY, CompactNetworkFormat.VERSION);
+        groupTags.beginSave();
+
+        Map<String, ListTag> groupsByDim = new HashMap<>();
+        for (Map.Entry<String, Group> e : groupsByMount.entrySet()) {
+            Group group = e.getValue();
+            groupsByDim.computeIfAbsent(group.key.dim().location().toString(), d -> new ListTag())
+                    .add(groupTags.get(e.getKey(), saved -> saved.matches(group), () -> SavedGroup.of(group), () -> encodeGroup(group)));
         }
+        groupTags.retain(groupsByMount.keySet());
 
-        tag.put("Groups", groups);
+        CompoundTag dims = new CompoundTag();
+        for (Map.Entry<String, ListTag> e : groupsByDim.entrySet()) {
+            CompoundTag dimTag = new CompoundTag();
+            dimTag.put("Groups", e.getValue());
+            dims.put(e.getKey(), dimTag);
+        }
+        tag.put(CompactNetworkFormat.DIMS_KEY, dims);
         return tag;
     }
 
+    private static CompoundTag encodeGroup(Group group) {
+        CompoundTag g = new CompoundTag();
+        g.putLong("P", group.key.mountPos().asLong());
+        if (group.yawPos != null) g.putLong("Y", group.yawPos.asLong());
+        if (group.pitchPos != null) g.putLong("Pi", group.pitchPos.asLong());
+        if (group.firingPos != null) g.putLong("Fi", group.firingPos.asLong());
+        g.put("T", group.targetingTag);
+        if (!group.dataLinks.isEmpty()) g.put("L", CompactNetworkFormat.positions(group.dataLinks));
+        return g;
+    }
+
+    // copy of everything encodeGroup writes, the key is implied by the cache entry
+    private record SavedGroup(@Nullable BlockPos yawPos, @Nullable BlockPos pitchPos, @Nullable BlockPos firingPos,
+                              CompoundTag targetingTag, Set<BlockPos> dataLinks) {
+        static SavedGroup of(Group group) {
+            return new SavedGroup(group.yawPos, group.pitchPos, group.firingPos,
+                    group.targetingTag.copy(), new HashSet<>(group.dataLinks));
+        }
+
+        boolean matches(Group group) {
+            return Objects.equals(yawPos, group.yawPos)
+                    && Objects.equals(pitchPos, group.pitchPos)
+                    && Objects.equals(firingPos, group.firingPos)
+                    && targetingTag.equals(group.targetingTag)
+                    && dataLinks.equals(group.dataLinks);
+        }
+    }
+
     // -------------------------
     // Accessors
     // -------------------------
@@ -282,6 +378,7 @@ public class WeaponNetworkData extends SavedData {
             controllerToMount.put(key(dim, firing), mountKey);
         }
 
+        bindingsChanged();
         setDirty();
         return true;
     }
@@ -312,6 +409,7 @@ public class WeaponNetworkData extends SavedData {
         // Auto-delete if empty (no links + no controllers)
         cleanupIfEmpty(dim, mountKey, group);
 
+        bindingsChanged();
         setDirty();
     }
     public boolean removeDataLink(ResourceKey<Level> dim, BlockPos dataLinkPos) {
@@ -362,6 +460,7 @@ public class WeaponNetworkData extends SavedData {
             }
 
             groupsByMount.remove(mountKey);
+            bindingsChanged();
         } else {
             cleanupIfEmpty(dim, mountKey, group);
         }
@@ -430,6 +529,7 @@ public class WeaponNetworkData extends SavedData {
         controllerToMount.remove(oldKey);
         controllerToMount.put(newKey, mountKey);
 
+        bindingsChanged();
         setDirty();
         return true;
     }
@@ -481,74 +581,96 @@ public class WeaponNetworkData extends SavedData {
     public ValidationResult validateAllKnownPositions(ServerLevel level, boolean onlyIfChunkLoaded) {
         if (level == null) return new ValidationResult(0,0,0);
 
-        int groupsRemoved = 0;
-        int controllersCleared = 0;
-        int dataLinksRemoved = 0;
-
-        ResourceKey<Level> levelDim = level.dimension();
-
         // i snapshot keys so i can mutate safely
-        List<String> mountKeys = new ArrayList<>(groupsByMount.keySet());
+        return validateGroups(level, new ArrayList<>(groupsByMount.keySet()), onlyIfChunkLoaded);
+    }
 
+    /** Mount keys of every group in {@code dim}, for callers that validate a few at a time. */
+    public List<String> groupKeysIn(ResourceKey<Level> dim) {
+        List<String> out = new ArrayList<>();
+        for (Map.Entry<String, Group> e : groupsByMount.entrySet()) {
+            if (e.getValue().key.dim().equals(dim)) out.add(e.getKey());
+        }
+        return out;
+    }
+
+    /** Validates just the groups under {@code mountKeys}; missing or foreign-dimension keys are skipped. */
+    public ValidationResult validateGroups(ServerLevel level, Collection<String> mountKeys, boolean onlyIfChunkLoaded) {
+        ValidationTally tally = new ValidationTally();
         for (String mountKey : mountKeys) {
-            Group group = groupsByMount.get(mountKey);
-            if (group == null) continue;
+            validateGroup(level, mountKey, onlyIfChunkLoaded, tally);
+        }
 
-            if (!group.key.dim().equals(levelDim)) continue;
+        if (tally.groups != 0 || tally.controllers != 0) {
+            bindingsChanged();
+        }
+        if (tally.groups != 0 || tally.controllers != 0 || tally.dataLinks != 0) {
+            setDirty();
+        }
 
-            // if the mount is definitely gone, remove the whole group + indexes
-            if (isDefinitelyMissing(level, group.key.mountPos(), onlyIfChunkLoaded, true)) {
-                removeGroupFully(levelDim, mountKey, group);
-                groupsRemoved++;
-                continue;
-            }
+        return new ValidationResult(tally.groups, tally.controllers, tally.dataLinks);
+    }
 
-            // yaw
-            if (group.yawPos != null && isDefinitelyMissing(level, group.yawPos, onlyIfChunkLoaded, true)) {
-                controllerToMount.remove(key(levelDim, group.yawPos));
-                group.yawPos = null;
-                controllersCleared++;
-            }
+    private static final class ValidationTally {
+        int groups;
+        int controllers;
+        int dataLinks;
+    }
 
-            // pitch
-            if (group.pitchPos != null && isDefinitelyMissing(level, group.pitchPos, onlyIfChunkLoaded, true)) {
-                controllerToMount.remove(key(levelDim, group.pitchPos));
-                group.pitchPos = null;
-                controllersCleared++;
-            }
+    private void validateGroup(ServerLevel level, String mountKey, boolean onlyIfChunkLoaded, ValidationTally tally) {
+        ResourceKey<Level> levelDim = level.dimension();
 
-            // firing
-            if (group.firingPos != null && isDefinitelyMissing(level, group.firingPos, onlyIfChunkLoaded, true)) {
-                controllerToMount.remove(key(levelDim, group.firingPos));
-                group.firingPos = null;
-                controllersCleared++;
-            }
+        Group group = groupsByMount.get(mountKey);
+        if (group == null) return;
 
-            // datalinks
-            if (!group.dataLinks.isEmpty()) {
-                Iterator<BlockPos> it = group.dataLinks.iterator();
-                while (it.hasNext()) {
-                    BlockPos dlPos = it.next();
+        if (!group.key.dim().equals(levelDim)) return;
 
-                    if (!isDefinitelyMissing(level, dlPos, onlyIfChunkLoaded, true)) {
-                        continue; // PRESENT or UNKNOWN => keep
-                    }
+        // if the mount is definitely gone, remove the whole group + indexes
+        if (isDefinitelyMissing(level, group.key.mountPos(), onlyIfChunkLoaded, true)) {
+            removeGroupFully(levelDim, mountKey, group);
+            tally.groups++;
+            return;
+        }
 
-                    it.remove();
-                    dataLinkToMount.remove(key(levelDim, dlPos));
-                    dataLinksRemoved++;
-                }
-            }
+        // yaw
+        if (group.yawPos != null && isDefinitelyMissing(level, group.yawPos, onlyIfChunkLoaded, true)) {
+            controllerToMount.remove(key(levelDim, group.yawPos));
+            group.yawPos = null;
+            tally.controllers++;
+        }
 
-            // delete group if empty (no links + no controllers)
-            cleanupIfEmpty(levelDim, mountKey, group);
+        // pitch
+        if (group.pitchPos != null && isDefinitelyMissing(level, group.pitchPos, onlyIfChunkLoaded, true)) {
+            controllerToMount.remove(key(levelDim, group.pitchPos));
+            group.pitchPos = null;
+            tally.controllers++;
         }
 
-        if (groupsRemoved != 0 || controllersCleared != 0 || dataLinksRemoved != 0) {
-            setDirty();
+        // firing
+        if (group.firingPos != null && isDefinitelyMissing(level, group.firingPos, onlyIfChunkLoaded, true)) {
+            controllerToMount.remove(key(levelDim, group.firingPos));
+            group.firingPos = null;
+            tally.controllers++;
+        }
+
+        // datalinks
+        if (!group.dataLinks.isEmpty()) {
+            Iterator<BlockPos> it = group.dataLinks.iterator();
+            while (it.hasNext()) {
+                BlockPos dlPos = it.next();
+
+                if (!isDefinitelyMissing(level, dlPos, onlyIfChunkLoaded, true)) {
+                    continue; // PRESENT or UNKNOWN => keep
+                }
+
+                it.remove();
+                dataLinkToMount.remove(key(levelDim, dlPos));
+                tally.dataLinks++;
+            }
         }
 
-        return new ValidationResult(groupsRemoved, controllersCleared, dataLinksRemoved);
+        // delete group if empty (no links + no controllers)
+        cleanupIfEmpty(levelDim, mountKey, group);
     }
 
 
@@ -0,0 +1,332 @@
+package com.happysg.radar.block.behavior.networks;
+
+import com.happysg.radar.block.behavior.networks.config.EngageCheck;
+import com.happysg.radar.block.behavior.networks.config.RaycastBudget;
+import com.happysg.radar.block.controller.pitch.AutoPitchControllerBlockEntity;
+import com.happysg.radar.block.controller.yaw.AutoYawControllerBlockEntity;
+import com.happysg.radar.block.radar.track.RadarTrack;
+import com.happysg.radar.compat.cbc.CBCMuzzleUtil;
+import com.happysg.radar.compat.cbc.CannonUtil;
+import com.happysg.radar.compat.vs2.PhysicsHandler;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.phys.Vec3;
+import rbasamoyai.createbigcannons.cannon_control.contraption.AbstractMountedCannonContraption;
+import rbasamoyai.createbigcannons.cannon_control.contraption.PitchOrientedContraptionEntity;
+
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * Spreads a network group's cannons over several tracks instead of stacking them all on one.
+ * <p>
+ * Each targeting cycle builds a cannon x track cost matrix (time-to-intercept + slew time, with
+ * range and yaw limits as hard constraints) and solves it with the Hungarian method. The heavy
+ * per-cannon check ({@link AutoPitchControllerBlockEntity#canEngageTrack}, which does the pitch
+ * solve and LOS) only runs on pairs the solver actually picks; rejected pairs become infeasible
+ * and the matrix is re-solved. The previous pairing gets a small bonus so cannons don't thrash
+ * between near-equal tracks. A cannon whose check is deferred because the budget ran out keeps
+ * last cycle's track if that's still a candidate.
+ */
+public final class WeaponTargetAssigner {
+
+    static final double INFEASIBLE = 1.0e9;
+
+    // cost is in ticks, so this is "how many ticks better a new track has to be before i switch"
+    private static final double STICKY_BONUS_TICKS = 10.0;
+    private static final int MAX_SOLVE_ROUNDS = 4;
+    private static final double SNAP_RPM = 256.0;
+
+    // cannon pos -> track id it was given last cycle
+    private final Map<BlockPos, String> lastAssignment = new HashMap<>();
+
+    private static final class CannonRow {
+        final AutoPitchControllerBlockEntity pitch;
+        final Vec3 origin;
+        final Vec3 forward;
+        final double maxRange;
+        final double speedPerTick;
+        final double slewDegPerTick;
+        final boolean laser;
+
+        CannonRow(AutoPitchControllerBlockEntity pitch, Vec3 origin, Vec3 forward, double maxRange,
+                  double speedPerTick, double slewDegPerTick, boolean laser) {
+            this.pitch = pitch;
+            this.origin = origin;
+            this.forward = forward;
+            this.maxRange = maxRange;
+            this.speedPerTick = speedPerTick;
+            this.slewDegPerTick = slewDegPerTick;
+            this.laser = laser;
+        }
+    }
+
+    public void clear() {
+        lastAssignment.clear();
+    }
+
+    /**
+     * Returns the track each cannon should engage. Cannons that can't reach any candidate are
+     * left out of the map; the caller decides what they get.
+     */
+    public Map<AutoPitchControllerBlockEntity, RadarTrack> assign(ServerLevel sl,
+                                                                List<AutoPitchControllerBlockEntity> cannons,
+                                                                List<RadarTrack> tracks,
+                                                                boolean requireLos,
+                                                                RaycastBudget budget) {
+        Map<AutoPitchControllerBlockEntity, RadarTrack> out = new HashMap<>();
+        if (cannons.isEmpty() || tracks.isEmpty()) {
+            lastAssignment.clear();
+            return out;
+        }
+
+        List<CannonRow> rows = new ArrayList<>(cannons.size());
+        for (AutoPitchControllerBlockEntity pitch : cannons) {
+            CannonRow row = buildRow(sl, pitch);
+            if (row != null) rows.add(row);
+        }
+        if (rows.isEmpty()) {
+            lastAssignment.clear();
+            return out;
+        }
+
+        int n = rows.size();
+        int m = tracks.size();
+        double[][] cost = new double[n][m];
+        for (int i = 0; i < n; i++) {
+            CannonRow row = rows.get(i);
+            String last = lastAssignment.get(row.pitch.getBlockPos());
+            for (int j = 0; j < m; j++) {
+                RadarTrack t = tracks.get(j);
+                double c = cost(row, t);
+                if (c < INFEASIBLE && last != null && last.equals(t.getId())) c -= STICKY_BONUS_TICKS;
+                cost[i][j] = c;
+            }
+        }
+
+        // 0 = unchecked, 1 = engageable, -1 = rejected
+        byte[][] verified = new byte[n][m];
+        boolean[] deferred = new boolean[n];
+        int[] rowToCol = new int[n];
+        Arrays.fill(rowToCol, -1);
+
+        for (int round = 0; round < MAX_SOLVE_ROUNDS; round++) {
+            rowToCol = solve(cost);
+            boolean rejectedAny = false;
+
+            for (int i = 0; i < n; i++) {
+                int j = rowToCol[i];
+                if (j < 0 || cost[i][j] >= INFEASIBLE) {
+                    rowToCol[i] = -1;
+                    continue;
+                }
+                EngageCheck check = verify(rows.get(i), tracks.get(j), i, j, verified, requireLos, budget);
+                if (check == EngageCheck.CLEAR) continue;
+
+                rowToCol[i] = -1;
+                if (check == EngageCheck.DEFERRED) {
+                    deferred[i] = true;
+                    continue;
+                }
+                cost[i][j] = INFEASIBLE;
+                rejectedAny = true;
+            }
+            if (!rejectedAny || budget.isExhausted()) break;
+        }
+
+        // leftover cannons (more cannons than tracks, or their pair got rejected) double up on
+        // whatever is cheapest for them instead of sitting idle
+        for (int i = 0; i < n; i++) {
+            if (rowToCol[i] >= 0) continue;
+            if (!deferred[i]) {
+                rowToCol[i] = cheapestEngageable(rows.get(i), tracks, cost[i], i, verified, requireLos, budget);
+                if (rowToCol[i] >= 0 || !budget.isExhausted()) continue;
+            }
+            rowToCol[i] = keptColumn(rows.get(i), tracks, verified[i]);
+        }
+
+        lastAssignment.clear();
+        for (int i = 0; i < n; i++) {
+            int j = rowToCol[i];
+            if (j < 0) continue;
+            CannonRow row = rows.get(i);
+            RadarTrack t = tracks.get(j);
+            out.put(row.pitch, t);
+            lastAssignment.put(row.pitch.getBlockPos(), t.getId());
+        }
+        return out;
+    }
+
+    @Nullable
+    private static CannonRow buildRow(ServerLevel sl, AutoPitchControllerBlockEntity pitch) {
+        pitch.getFiringControl();
+        WeaponFiringControl control = pitch.firingControl;
+        if (control == null || control.cannonMount == null) return null;
+
+        Vec3 origin = pitch.getRayStart();
+        if (origin == null) return null;
+
+        PitchOrientedContraptionEntity poce = control.cannonMount.getContraption();
+        if (poce == null || !(poce.getContraption() instanceof AbstractMountedCannonContraption cannon)) return null;
+
+        Vec3 forward = CBCMuzzleUtil.getForwardWorld(poce);
+        if (PhysicsHandler.isBlockInShipyard(sl, control.cannonMount.getBlockPos())) {
+            // forward comes back in shipyard space
+            forward = PhysicsHandler.getWorldVecDirectionTransform(forward, control.cannonMount);
+            forward = forward.lengthSqr() < 1e-8 ? Vec3.ZERO : forward.normalize();
+        }
+
+        boolean laser = CannonUtil.isLaserCannon(cannon);
+        double speed = laser ? 0.0 : CannonUtil.getInitialVelocity(cannon, sl);
+
+        double rpm = Math.abs(pitch.getSpeed());
+        AutoYawControllerBlockEntity yaw = pitch.autoyaw;
+        if (yaw != null) rpm = Math.min(rpm, Math.abs(yaw.getSpeed()));
+        double slewRate = rpm >= SNAP_RPM ? 360.0 : Math.max(0.05, rpm / 24.0);
+
+        return new CannonRow(pitch, origin, forward, pitch.getMaxEngagementRangeBlocks(), speed, slewRate, laser);
+    }
+
+    /** Estimated ticks until this cannon could put a round on the track: slew time + flight time. */
+    private static double cost(CannonRow row, RadarTrack track) {
+        Vec3 p = track.position();
+        if (p == null) return INFEASIBLE;
+
+        Vec3 d = p.subtract(row.origin);
+        double dist = d.length();
+        if (row.maxRange > 0.0 && dist > row.maxRange) return INFEASIBLE;
+
+        AutoYawControllerBlockEntity yaw = row.pitch.autoyaw;
+        if (yaw != null && !yaw.canPossiblyAimAt(row.origin, p)) return INFEASIBLE;
+
+        double tti;
+        if (row.laser) tti = 0.0;
+        else if (row.speedPerTick > 1e-6) tti = dist / row.speedPerTick;
+        else tti = dist;
+
+        double slewDeg = 0.0;
+        if (dist > 1e-6 && row.forward.lengthSqr() > 1e-8) {
+            double cos = row.forward.dot(d) / dist;
+            slewDeg = Math.toDegrees(Math.acos(Math.max(-1.0, Math.min(1.0, cos))));
+        }
+
+        return tti + slewDeg / row.slewDegPerTick;
+    }
+
+    /** One budget unit per pair actually checked; deferred (and left unchecked) once it's spent. */
+    private static EngageCheck verify(CannonRow row, RadarTrack track, int i, int j, byte[][] verified,
+                                      boolean requireLos, RaycastBudget budget) {
+        if (verified[i][j] != 0) return EngageCheck.of(verified[i][j] > 0);
+        if (!budget.tryConsume()) return EngageCheck.DEFERRED;
+
+        boolean ok = row.pitch.canEngageTrack(track, requireLos);
+        verified[i][j] = (byte) (ok ? 1 : -1);
+        return EngageCheck.of(ok);
+    }
+
+    private static int cheapestEngageable(CannonRow row, List<RadarTrack> tracks, double[] costRow, int i,
+                                          byte[][] verified, boolean requireLos, RaycastBudget budget) {
+        Integer[] order = new Integer[costRow.length];
+        for (int j = 0; j < order.length; j++) order[j] = j;
+        Arrays.sort(order, Comparator.comparingDouble(j -> costRow[j]));
+
+        for (int j : order) {
+            if (costRow[j] >= INFEASIBLE) break;
+            EngageCheck check = verify(row, tracks.get(j), i, j, verified, requireLos, budget);
+            if (check == EngageCheck.CLEAR) return j;
+            if (check == EngageCheck.DEFERRED) break;
+        }
+        return -1;
+    }
+
+    /** Last cycle's track for a cannon we ran out of budget on, unless it was actually rejected this cycle. */
+    private int keptColumn(CannonRow row, List<RadarTrack> tracks, byte[] verifiedRow) {
+        String last = lastAssignment.get(row.pitch.getBlockPos());
+        if (last == null) return -1;
+        for (int j = 0; j < tracks.size(); j++) {
+            if (last.equals(tracks.get(j).getId())) return verifiedRow[j] < 0 ? -1 : j;
+        }
+        return -1;
+    }
+
+    /**
+     * Min-cost assignment (Hungarian method with potentials, O(n^2 m)).
+     * Returns the column for every row, or -1 when a row was left out (more rows than columns).
+     */
+    static int[] solve(double[][] cost) {
+        int rows = cost.length;
+        int cols = rows == 0 ? 0 : cost[0].length;
+        int[] rowToCol = new int[rows];
+        Arrays.fill(rowToCol, -1);
+        if (rows == 0 || cols == 0) return rowToCol;
+
+        if (rows > cols) {
+            double[][] t = new double[cols][rows];
+            for (int i = 0; i < rows; i++)
+                for (int j = 0; j < cols; j++)
+                    t[j][i] = cost[i][j];
+
+            int[] colToRow = solve(t);
+            for (int j = 0; j < cols; j++) {
+                if (colToRow[j] >= 0) rowToCol[colToRow[j]] = j;
+            }
+            return rowToCol;
+        }
+
+        int n = rows, m = cols;
+        double[] u = new double[n + 1];
+        double[] v = new double[m + 1];
+        int[] p = new int[m + 1];
+        int[] way = new int[m + 1];
+        double[] minv = new double[m + 1];
+        boolean[] used = new boolean[m + 1];
+
+        for (int i = 1; i <= n; i++) {
+            p[0] = i;
+            int j0 = 0;
+            Arrays.fill(minv, Double.POSITIVE_INFINITY);
+            Arrays.fill(used, false);
+
+            do {
+                used[j0] = true;
+                int i0 = p[j0];
+                int j1 = 0;
+                double delta = Double.POSITIVE_INFINITY;
+
+                for (int j = 1; j <= m; j++) {
+                    if (used[j]) continue;
+                    double cur = cost[i0 - 1][j - 1] - u[i0] - v[j];
+                    if (cur < minv[j]) {
+                        minv[j] = cur;
+                        way[j] = j0;
+                    }
+                    if (minv[j] < delta) {
+                        delta = minv[j];
+                        j1 = j;
+                    }
+                }
+
+                for (int j = 0; j <= m; j++) {
+                    if (used[j]) {
+                        u[p[j]] += delta;
+                        v[j] -= delta;
+                    } else {
+                        minv[j] -= delta;
+                    }
+                }
+                j0 = j1;
+            } while (p[j0] != 0);
+
+            do {
+                int j1 = way[j0];
+                p[j0] = p[j1];
+                j0 = j1;
+            } while (j0 != 0);
+        }
+
+        for (int j = 1; j <= m; j++) {
+            if (p[j] != 0) rowToCol[p[j] - 1] = j - 1;
+        }
+        return rowToCol;
+    }
+}
@@ -1,13 +1,12 @@
 package com.happysg.radar.block.behavior.networks.config;
 
+import com.happysg.radar.block.radar.behavior.LevelRadarWorldView;
+import com.happysg.radar.block.radar.behavior.RadarWorldView;
 import com.happysg.radar.block.radar.track.RadarTrack;
 import com.happysg.radar.block.radar.track.TrackCategory;
 import com.mojang.logging.LogUtils;
 import net.minecraft.core.BlockPos;
 import net.minecraft.server.level.ServerLevel;
-import net.minecraft.world.level.ClipContext;
-import net.minecraft.world.phys.AABB;
-import net.minecraft.world.phys.HitResult;
 import net.minecraft.world.phys.Vec3;
 import org.slf4j.Logger;
 
@@ -32,13 +31,8 @@ public final class AutoTargetingHelper {
         return null;
     }
 
-    public static boolean isInSafeZone(Vec3 pos, List<AABB> safeZones) {
-        if (safeZones == null || safeZones.isEmpty()) return false;
-        for (AABB zone : safeZones) {
-            if (zone.contains(pos))
-                return true;
-        }
-        return false;
+    public static boolean isInSafeZone(Vec3 pos, @Nullable SafeZoneSet safeZones) {
+        return safeZones != null && safeZones.contains(pos);
     }
 
 
@@ -47,21 +41,56 @@ public final class AutoTargetingHelper {
             TargetingConfig targetingConfig,
             Vec3 origin,
             Collection<RadarTrack> tracks,
-            List<AABB> safeZones,
+            SafeZoneSet safeZones,
             IdentificationConfig identificationConfig,
             @Nullable ServerLevel serverLevel) {
+        return pickAutoTarget(targetingConfig, origin, tracks, safeZones, identificationConfig, serverLevel,
+                null, RaycastBudget.fromConfig());
+    }
+
+    /**
+     * Nearest valid track. Cheap filters run up front, survivors go into a distance heap and the
+     * identification + LOS checks only run on candidates popped from it, until one passes or the
+     * check budget is spent. {@code warmStartId} is the previous winner, kept if the budget runs dry.
+     */
+    @Nullable
+    public static RadarTrack pickAutoTarget(
+            TargetingConfig targetingConfig,
+            Vec3 origin,
+            Collection<RadarTrack> tracks,
+            SafeZoneSet safeZones,
+            IdentificationConfig identificationConfig,
+            @Nullable ServerLevel serverLevel,
+            @Nullable String warmStartId,
+            RaycastBudget budget) {
+        return pickAutoTarget(targetingConfig, origin, tracks, safeZones, identificationConfig, serverLevel,
+                serverLevel == null ? null : new LevelRadarWorldView(serverLevel, BlockPos.containing(origin)),
+                warmStartId, budget);
+    }
+
+    /** Same as above with line of sight asked from {@code world}, which is how the simulator runs it. */
+    @Nullable
+    public static RadarTrack pickAutoTarget(
+            TargetingConfig targetingConfig,
+            Vec3 origin,
+            Collection<RadarTrack> tracks,
+            SafeZoneSet safeZones,
+            IdentificationConfig identificationConfig,
+            @Nullable ServerLevel serverLevel,
+            @Nullable RadarWorldView world,
+            @Nullable String warmStartId,
+            RaycastBudget budget) {
 
         if (targetingConfig == null) targetingConfig = TargetingConfig.DEFAULT;
         if (!targetingConfig.autoTarget()) return null;
+        if (tracks == null || origin == null) return null;
 
         if (identificationConfig == null) identificationConfig = IdentificationConfig.DEFAULT;
 
-        Set<String> ignoreList = buildIgnoreList(identificationConfig);
-
-        double best = Double.MAX_VALUE;
-        RadarTrack bestTrack = null;
+        TargetCandidateQueue queue = new TargetCandidateQueue(warmStartId, tracks.size());
 
         for (RadarTrack track : tracks) {
+            if (track == null) continue;
             if (!targetingConfig.test(track.trackCategory()))
                 continue;
 
@@ -69,57 +98,52 @@ public final class AutoTargetingHelper {
             if (pos == null)
                 continue;
 
-            if (isIgnoredByIdentification(track, serverLevel, ignoreList))
-                continue;
-
             if (isInSafeZone(pos, safeZones))
                 continue;
 
-
-            if (targetingConfig.lineOfSight() && serverLevel != null && origin != null) {
-                if (!hasLineOfSight(serverLevel, origin, track)) {
-                    continue;
-                }
-            }
-
-            double d = pos.distanceTo(origin);
-            if (d >= best)
+            if (!projectileApproaching(track, origin))
                 continue;
 
-            if (projectileApproaching(track, origin)) {
-                best = d;
-                bestTrack = track;
-            }
+            queue.offer(track, pos.distanceToSqr(origin));
         }
 
-        return bestTrack;
+        if (queue.isEmpty()) return null;
+
+        Set<String> ignoreList = buildIgnoreList(identificationConfig);
+        boolean requireLos = targetingConfig.lineOfSight() && world != null;
+
+        return queue.pollFirstValid(budget, (track, b) -> {
+            if (isIgnoredByIdentification(track, serverLevel, ignoreList))
+                return EngageCheck.BLOCKED;
+            return requireLos ? checkLineOfSight(world, origin, track, b) : EngageCheck.CLEAR;
+        });
     }
 
     public static boolean hasLineOfSight(ServerLevel level, Vec3 start, RadarTrack track) {
-        if (level == null || start == null || track == null || track.position() == null) return false;
+        if (level == null) return false;
+        return checkLineOfSight(new LevelRadarWorldView(level, BlockPos.containing(start)), start, track,
+                RaycastBudget.unlimited()).isClear();
+    }
+
+    /**
+     * LOS from {@code start} to any block-high slice of the track. The whole test spends one unit of
+     * {@code budget}; with nothing left it comes back {@link EngageCheck#DEFERRED} without casting.
+     */
+    public static EngageCheck checkLineOfSight(RadarWorldView world, Vec3 start, RadarTrack track, RaycastBudget budget) {
+        if (world == null || start == null || track == null || track.position() == null) return EngageCheck.BLOCKED;
+        if (!budget.tryConsume()) return EngageCheck.DEFERRED;
 
         float height = track.getEnityHeight();
         int blocksHigh = (int) Math.ceil(height);
 
-        Vec3 from = start;
-
         for (int h = blocksHigh - 1; h >= 0; h--) {
             Vec3 to = track.position().add(0, h + 0.5, 0);
-
-            ClipContext ctx = new ClipContext(
-                    from, to,
-                    ClipContext.Block.COLLIDER,
-                    ClipContext.Fluid.NONE,
-                    null
-            );
-
-            HitResult hit = level.clip(ctx);
-            if (hit.getType() == HitResult.Type.MISS) {
-                return true; // at least one clear point
+            if (world.isClear(start, to)) {
+                return EngageCheck.CLEAR; // at least one clear point
             }
         }
 
-        return false;
+        return EngageCheck.BLOCKED;
     }
 
     private static boolean projectileApproaching(RadarTrack track, Vec3 origin) {
@@ -151,32 +175,25 @@ public final class AutoTargetingHelper {
         if (track.trackCategory() == TrackCategory.PLAYER) {
             if (sl == null) return false;
 
-            try {
-                UUID uuid = UUID.fromString(track.getId());
-                var p = sl.getPlayerByUUID(uuid);
-                if (p == null) return false;
-                String name = p.getGameProfile().getName();
-                return name != null && ignoreList.contains(name.toLowerCase(Locale.ROOT));
-            } catch (IllegalArgumentException ignored) {
-                return false;
-            }
+            UUID uuid = track.uuid();
+            if (uuid == null) return false;
+            var p = sl.getPlayerByUUID(uuid);
+            if (p == null) return false;
+            String name = p.getGameProfile().getName();
+            return name != null && ignoreList.contains(name.toLowerCase(Locale.ROOT));
         }
 
         // VS2 → transponder / name via IDManager
         if (track.trackCategory() == TrackCategory.VS2) {
-            try {
-                long shipId = Long.parseLong(track.getId());
-                var rec = com.happysg.radar.block.controller.id.IDManager.getIDRecordByShipId(shipId);
-                if (rec == null) return false;
-
-                String key = (rec.secretID() != null && !rec.secretID().isBlank())
-                        ? rec.secretID()
-                        : rec.name();
-
-                return key != null && !key.isBlank() && ignoreList.contains(key.toLowerCase(Locale.ROOT));
-            } catch (NumberFormatException ignored) {
-                return false;
-            }
+            if (sl == null) return false;
+
+            long shipId = track.shipId();
+            if (shipId < 0) return false;
+            var rec = com.happysg.radar.block.controller.id.IDManager.get(sl.getServer()).getIDRecordByShipId(shipId);
+            if (rec == null) return false;
+
+            // the record keeps its lowercase key, no string work per track
+            return !rec.iffKey().isEmpty() && ignoreList.contains(rec.iffKey());
         }
 
         return false;
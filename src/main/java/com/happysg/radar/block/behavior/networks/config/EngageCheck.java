@@ -0,0 +1,20 @@
+package com.happysg.radar.block.behavior.networks.config;
+
+/**
+ * Outcome of one budgeted line-of-sight / engagement check.
+ * {@link #DEFERRED} means the {@link RaycastBudget} ran out before the check could run, so nothing
+ * was learned about the track; callers keep whatever target or assignment they already had.
+ */
+public enum EngageCheck {
+    CLEAR,
+    BLOCKED,
+    DEFERRED;
+
+    public static EngageCheck of(boolean clear) {
+        return clear ? CLEAR : BLOCKED;
+    }
+
+    public boolean isClear() {
+        return this == CLEAR;
+    }
+}
@@ -0,0 +1,40 @@
+package com.happysg.radar.block.behavior.networks.config;
+
+import com.happysg.radar.config.RadarConfig;
+
+/**
+ * Check allowance for one auto-target selection pass.
+ * One unit is one shooter-to-track check: a cannon's engagement check, or the LOS test from the
+ * selection origin to one track however many clips that takes. Once it hits zero further checks
+ * come back {@link EngageCheck#DEFERRED} and the selector keeps its warm start.
+ */
+public final class RaycastBudget {
+    private int remaining;
+
+    public RaycastBudget(int checks) {
+        this.remaining = Math.max(0, checks);
+    }
+
+    public static RaycastBudget fromConfig() {
+        return new RaycastBudget(RadarConfig.server().autoTargetRaycastBudget.get());
+    }
+
+    public static RaycastBudget unlimited() {
+        return new RaycastBudget(Integer.MAX_VALUE);
+    }
+
+    /** Spends one check. Returns false (and spends nothing) when the budget is already empty. */
+    public boolean tryConsume() {
+        if (remaining <= 0) return false;
+        remaining--;
+        return true;
+    }
+
+    public boolean isExhausted() {
+        return remaining <= 0;
+    }
+
+    public int remaining() {
+        return remaining;
+    }
+}
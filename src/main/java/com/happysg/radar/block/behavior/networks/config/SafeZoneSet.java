@@ -0,0 +1,257 @@
+package com.happysg.radar.block.behavior.networks.config;
+
+import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.Vec3;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Immutable set of no-fire zones, shared by reference between a network filterer and all of its cannons.
+ * <p>
+ * Zones sit in a bounding volume tree (median split on the longest axis, stored in flat arrays), so
+ * point and segment queries only reach the few leaves whose boxes the query actually touches. The
+ * leaves still use {@link AABB#contains} and {@link AABB#clip}, so answers match the old linear scans.
+ * Each distinct set gets a new {@link #version()}; comparing versions replaces rehashing the zone list.
+ */
+public final class SafeZoneSet {
+
+    private static final AtomicLong VERSIONS = new AtomicLong();
+    public static final SafeZoneSet EMPTY = new SafeZoneSet(List.of());
+
+    private static final int LEAF_SIZE = 2;
+    // node boxes are padded a hair so the prune never disagrees with AABB.clip on an edge
+    private static final double PAD = 1e-7;
+
+    private final List<AABB> zones;
+    private final long version;
+
+    // node i: bounds, then either children (left/right) or a leaf range [start, start + count) into order
+    private final double[] minX, minY, minZ, maxX, maxY, maxZ;
+    private final int[] left, right, start, count;
+    private final int[] order;
+    private int nodeCount;
+
+    private SafeZoneSet(List<AABB> zones) {
+        this.zones = zones;
+        this.version = VERSIONS.incrementAndGet();
+
+        int n = zones.size();
+        int maxNodes = Math.max(1, 2 * n);
+        minX = new double[maxNodes];
+        minY = new double[maxNodes];
+        minZ = new double[maxNodes];
+        maxX = new double[maxNodes];
+        maxY = new double[maxNodes];
+        maxZ = new double[maxNodes];
+        left = new int[maxNodes];
+        right = new int[maxNodes];
+        start = new int[maxNodes];
+        count = new int[maxNodes];
+        order = new int[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+
+        if (n > 0) build(0, n);
+    }
+
+    public static SafeZoneSet of(Collection<AABB> zones) {
+        if (zones == null || zones.isEmpty()) return EMPTY;
+        List<AABB> copy = new ArrayList<>(zones.size());
+        for (AABB zone : zones) {
+            if (zone != null) copy.add(zone);
+        }
+        return copy.isEmpty() ? EMPTY : new SafeZoneSet(Collections.unmodifiableList(copy));
+    }
+
+    /** This set when {@code zones} holds the same boxes in the same order, otherwise a freshly built one. */
+    public SafeZoneSet withZones(Collection<AABB> zones) {
+        if (zones == null || zones.isEmpty()) return EMPTY;
+        if (zones.size() == this.zones.size()) {
+            int i = 0;
+            boolean same = true;
+            for (AABB zone : zones) {
+                if (!this.zones.get(i++).equals(zone)) {
+                    same = false;
+                    break;
+                }
+            }
+            if (same) return this;
+        }
+        return of(zones);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public boolean isEmpty() {
+        return zones.isEmpty();
+    }
+
+    public int size() {
+        return zones.size();
+    }
+
+    public List<AABB> zones() {
+        return zones;
+    }
+
+    /** True when any zone contains {@code pos}. */
+    public boolean contains(Vec3 pos) {
+        if (zones.isEmpty() || pos == null) return false;
+        return containsFrom(0, pos.x, pos.y, pos.z, pos);
+    }
+
+    /** True when the segment starts in, ends in or passes through any zone. */
+    public boolean intersectsSegment(Vec3 from, Vec3 to) {
+        if (zones.isEmpty() || from == null || to == null) return false;
+
+        double dx = to.x - from.x, dy = to.y - from.y, dz = to.z - from.z;
+        double invX = 1.0 / dx, invY = 1.0 / dy, invZ = 1.0 / dz;
+        return segmentFrom(0, from, to, invX, invY, invZ);
+    }
+
+    // -------------------------
+    // traversal
+    // -------------------------
+
+    private boolean containsFrom(int node, double x, double y, double z, Vec3 pos) {
+        if (x < minX[node] || x > maxX[node] || y < minY[node] || y > maxY[node] || z < minZ[node] || z > maxZ[node])
+            return false;
+
+        int c = count[node];
+        if (c > 0) {
+            for (int i = start[node], end = start[node] + c; i < end; i++) {
+                if (zones.get(order[i]).contains(pos)) return true;
+            }
+            return false;
+        }
+        return containsFrom(left[node], x, y, z, pos) || containsFrom(right[node], x, y, z, pos);
+    }
+
+    private boolean segmentFrom(int node, Vec3 from, Vec3 to, double invX, double invY, double invZ) {
+        if (!slab(node, from, invX, invY, invZ)) return false;
+
+        int c = count[node];
+        if (c > 0) {
+            for (int i = start[node], end = start[node] + c; i < end; i++) {
+                AABB zone = zones.get(order[i]);
+                if (zone.contains(from) || zone.contains(to) || zone.clip(from, to).isPresent()) return true;
+            }
+            return false;
+        }
+        return segmentFrom(left[node], from, to, invX, invY, invZ) || segmentFrom(right[node], from, to, invX, invY, invZ);
+    }
+
+    /** Segment (parameter 0..1) against the node box. */
+    private boolean slab(int node, Vec3 from, double invX, double invY, double invZ) {
+        double tMin = 0.0, tMax = 1.0;
+
+        double t1 = (minX[node] - from.x) * invX, t2 = (maxX[node] - from.x) * invX;
+        if (Double.isNaN(t1) || Double.isNaN(t2)) {
+            // zero-length axis with the origin exactly on a face
+            if (from.x < minX[node] || from.x > maxX[node]) return false;
+        } else {
+            tMin = Math.max(tMin, Math.min(t1, t2));
+            tMax = Math.min(tMax, Math.max(t1, t2));
+        }
+
+        t1 = (minY[node] - from.y) * invY;
+        t2 = (maxY[node] - from.y) * invY;
+        if (Double.isNaN(t1) || Double.isNaN(t2)) {
+            if (from.y < minY[node] || from.y > maxY[node]) return false;
+        } else {
+            tMin = Math.max(tMin, Math.min(t1, t2));
+            tMax = Math.min(tMax, Math.max(t1, t2));
+        }
+
+        t1 = (minZ[node] - from.z) * invZ;
+        t2 = (maxZ[node] - from.z) * invZ;
+        if (Double.isNaN(t1) || Double.isNaN(t2)) {
+            if (from.z < minZ[node] || from.z > maxZ[node]) return false;
+        } else {
+            tMin = Math.max(tMin, Math.min(t1, t2));
+            tMax = Math.min(tMax, Math.max(t1, t2));
+        }
+
+        return tMin <= tMax;
+    }
+
+    // -------------------------
+    // build
+    // -------------------------
+
+    private int build(int from, int to) {
+        int node = nodeCount++;
+
+        double bx0 = Double.POSITIVE_INFINITY, by0 = Double.POSITIVE_INFINITY, bz0 = Double.POSITIVE_INFINITY;
+        double bx1 = Double.NEGATIVE_INFINITY, by1 = Double.NEGATIVE_INFINITY, bz1 = Double.NEGATIVE_INFINITY;
+        for (int i = from; i < to; i++) {
+            AABB z = zones.get(order[i]);
+            bx0 = Math.min(bx0, z.minX);
+            by0 = Math.min(by0, z.minY);
+            bz0 = Math.min(bz0, z.minZ);
+            bx1 = Math.max(bx1, z.maxX);
+            by1 = Math.max(by1, z.maxY);
+            bz1 = Math.max(bz1, z.maxZ);
+        }
+        minX[node] = bx0 - PAD;
+        minY[node] = by0 - PAD;
+        minZ[node] = bz0 - PAD;
+        maxX[node] = bx1 + PAD;
+        maxY[node] = by1 + PAD;
+        maxZ[node] = bz1 + PAD;
+
+        int n = to - from;
+        if (n <= LEAF_SIZE) {
+            start[node] = from;
+            count[node] = n;
+            return node;
+        }
+
+        // split at the median centre along the longest axis of the node
+        double ex = bx1 - bx0, ey = by1 - by0, ez = bz1 - bz0;
+        int axis = ex >= ey && ex >= ez ? 0 : (ey >= ez ? 1 : 2);
+        int mid = (from + to) >>> 1;
+        select(from, to - 1, mid, axis);
+
+        count[node] = 0;
+        left[node] = build(from, mid);
+        right[node] = build(mid, to);
+        return node;
+    }
+
+    private double centre(int zoneIndex, int axis) {
+        AABB z = zones.get(zoneIndex);
+        return switch (axis) {
+            case 0 -> z.minX + z.maxX;
+            case 1 -> z.minY + z.maxY;
+            default -> z.minZ + z.maxZ;
+        };
+    }
+
+    /** Quickselect on {@link #order} so index k holds the median and everything is partitioned around it. */
+    private void select(int lo, int hi, int k, int axis) {
+        while (lo < hi) {
+            double pivot = centre(order[(lo + hi) >>> 1], axis);
+            int i = lo, j = hi;
+            while (i <= j) {
+                while (centre(order[i], axis) < pivot) i++;
+                while (centre(order[j], axis) > pivot) j--;
+                if (i <= j) {
+                    int t = order[i];
+                    order[i] = order[j];
+                    order[j] = t;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) hi = j;
+            else if (k >= i) lo = i;
+            else return;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.happysg.radar.block.behavior.networks.config;
+
+import com.happysg.radar.block.radar.track.RadarTrack;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+
+/**
+ * Min-heap of auto-target candidates ordered by score (distance squared, or a threat score).
+ * Callers only offer tracks that already passed the cheap filters (category, safe zone, ...);
+ * the expensive check (identification, LOS, cannon engagement) runs lazily on poll, so a
+ * selection stops at the first valid track instead of testing every contact.
+ */
+public final class TargetCandidateQueue {
+
+    private record Entry(RadarTrack track, double score) {}
+
+    private final PriorityQueue<Entry> heap;
+    private final @Nullable String warmStartId;
+    private @Nullable RadarTrack warmStart;
+
+    public TargetCandidateQueue(@Nullable String warmStartId, int expectedSize) {
+        this.heap = new PriorityQueue<>(Math.max(1, expectedSize), Comparator.comparingDouble(Entry::score));
+        this.warmStartId = warmStartId;
+    }
+
+    public void offer(RadarTrack track, double score) {
+        if (track == null) return;
+        heap.add(new Entry(track, score));
+        if (warmStartId != null && warmStartId.equals(track.getId())) {
+            warmStart = track;
+        }
+    }
+
+    public boolean isEmpty() {
+        return heap.isEmpty();
+    }
+
+    public int size() {
+        return heap.size();
+    }
+
+    /**
+     * Pops candidates best-first and returns the first one whose {@code check} comes back clear.
+     * As soon as a check is deferred (budget spent) the previous winner is returned instead, as long
+     * as it survived the cheap filters this pass and wasn't blocked by the expensive one.
+     */
+    @Nullable
+    public RadarTrack pollFirstValid(RaycastBudget budget, BiFunction<RadarTrack, RaycastBudget, EngageCheck> check) {
+        while (!heap.isEmpty()) {
+            RadarTrack track = heap.poll().track();
+            EngageCheck result = check.apply(track, budget);
+            if (result == EngageCheck.CLEAR) return track;
+            if (result == EngageCheck.DEFERRED) return warmStart;
+
+            if (track == warmStart) warmStart = null;
+        }
+        return null;
+    }
+
+    /** Pops up to {@code limit} candidates passing {@code check}, best first. */
+    public List<RadarTrack> pollValid(int limit, Predicate<RadarTrack> check) {
+        List<RadarTrack> out = new ArrayList<>(Math.min(Math.max(0, limit), heap.size()));
+        while (!heap.isEmpty() && out.size() < limit) {
+            RadarTrack track = heap.poll().track();
+            if (check.test(track)) out.add(track);
+        }
+        return out;
+    }
+}
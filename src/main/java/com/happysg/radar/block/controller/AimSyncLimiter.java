@@ -0,0 +1,51 @@
+package com.happysg.radar.block.controller;
+
+import com.happysg.radar.config.RadarConfig;
+
+/**
+ * Rate limit for sending an aim angle (degrees) to clients.
+ * <p>
+ * A change goes out right away when the running flag flips. Otherwise changes are held back until
+ * {@code controllerSyncInterval} ticks have passed since the last send, and then only sent if they
+ * exceed the deadband. Changes smaller than the deadband still go out, but only after a few intervals,
+ * so the client settles on the final value. In between, clients slew toward the last value they got.
+ */
+public class AimSyncLimiter {
+    // small leftover drift is flushed after this many intervals
+    private static final int SETTLE_INTERVALS = 5;
+
+    private double lastSent = Double.NaN;
+    private boolean lastRunning;
+    private long lastSentTick = Long.MIN_VALUE / 2;
+
+    public boolean shouldSend(double angle, boolean running, long gameTime) {
+        if (Double.isNaN(lastSent) || running != lastRunning) {
+            mark(angle, running, gameTime);
+            return true;
+        }
+
+        double delta = Math.abs(Math.IEEEremainder(angle - lastSent, 360.0));
+        if (delta == 0) return false;
+
+        int interval = RadarConfig.server().controllerSyncInterval.get();
+        long since = gameTime - lastSentTick;
+        if (since < interval) return false;
+
+        if (delta < RadarConfig.server().controllerSyncDeadband.get() && since < (long) interval * SETTLE_INTERVALS)
+            return false;
+
+        mark(angle, running, gameTime);
+        return true;
+    }
+
+    /** Forces the next {@link #shouldSend} through, e.g. after the block entity was (re)loaded. */
+    public void reset() {
+        lastSent = Double.NaN;
+    }
+
+    private void mark(double angle, boolean running, long gameTime) {
+        lastSent = angle;
+        lastRunning = running;
+        lastSentTick = gameTime;
+    }
+}
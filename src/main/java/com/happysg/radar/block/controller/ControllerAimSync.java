@@ -0,0 +1,57 @@
+package com.happysg.radar.block.controller;
+
+import com.happysg.radar.compat.Mods;
+import com.simibubi.create.foundation.blockEntity.SmartBlockEntity;
+import net.minecraft.world.level.Level;
+import rbasamoyai.createbigcannons.cannon_control.cannon_mount.CannonMountBlockEntity;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Client sync for an auto yaw / pitch controller's aim.
+ * <p>
+ * The aim is transient: the controller's commanded angle and the CBC mount's own angle are each sent
+ * to clients through an {@link AimSyncLimiter}, and neither ever marks the chunk dirty. Between those
+ * bounded updates the client keeps slewing the mount toward the last synced angle at the same rate the
+ * server does ({@link #slewClient}), so the cannon moves smoothly instead of jumping.
+ */
+public class ControllerAimSync {
+    private final AimSyncLimiter aim = new AimSyncLimiter();
+    private final AimSyncLimiter mount = new AimSyncLimiter();
+
+    /** Server side: sends the controller when its aim moved enough, and always when it starts or stops. */
+    public void syncAim(SmartBlockEntity controller, double angle, boolean running) {
+        Level level = controller.getLevel();
+        if (level == null || level.isClientSide) return;
+        if (aim.shouldSend(angle, running, level.getGameTime()))
+            controller.sendData();
+    }
+
+    /** Server side: sends the mount after the controller turned it, rate limited the same way. */
+    public void syncMount(CannonMountBlockEntity cbc, double angle) {
+        Level level = cbc.getLevel();
+        if (level == null || level.isClientSide) return;
+        if (mount.shouldSend(angle, true, level.getGameTime()))
+            cbc.notifyUpdate();
+    }
+
+    /**
+     * Client side: rotates the controller's CBC mount one step toward the last synced angle.
+     *
+     * @param cbcMount  the controller's mount if it is a CBC one, otherwise null
+     * @param mountGone called instead when that mount has been removed, to drop the cached one
+     */
+    public static void slewClient(boolean running, Supplier<CannonMountBlockEntity> cbcMount,
+                                  Runnable mountGone, Consumer<CannonMountBlockEntity> rotate) {
+        if (!running || !Mods.CREATEBIGCANNONS.isLoaded()) return;
+
+        CannonMountBlockEntity cbc = cbcMount.get();
+        if (cbc == null) return;
+        if (cbc.isRemoved()) {
+            mountGone.run();
+            return;
+        }
+        rotate.accept(cbc);
+    }
+}
@@ -36,7 +36,10 @@ public class FireControllerBlock extends Block implements EntityBlock {
     }
     @Override
     public int getSignal(BlockState pBlockState, BlockGetter pBlockAccess, BlockPos pPos, Direction pSide) {
-        return pBlockState.getValue(POWERED) ? 15 : 0;
+        if (!pBlockState.getValue(POWERED)) return 0;
+        // a directly triggered cannon must not also see the lamp as a redstone signal
+        if (pBlockAccess.getBlockEntity(pPos) instanceof FireControllerBlockEntity be && be.isSilencingRedstone()) return 0;
+        return 15;
     }
     @Override
     public int getDirectSignal(BlockState pBlockState, BlockGetter pBlockAccess, BlockPos pPos, Direction pSide) {
@@ -1,6 +1,9 @@
 package com.happysg.radar.block.controller.firing;
 
 import com.happysg.radar.block.behavior.networks.WeaponNetworkData;
+import com.happysg.radar.compat.cbc.CannonUtil;
+import com.happysg.radar.compat.computercraft.RadarEvents;
+import com.happysg.radar.config.RadarConfig;
 import com.mojang.logging.LogUtils;
 import com.simibubi.create.foundation.blockEntity.SmartBlockEntity;
 import com.simibubi.create.foundation.blockEntity.behaviour.BlockEntityBehaviour;
@@ -11,11 +14,16 @@ import net.minecraft.nbt.Tag;
 import net.minecraft.resources.ResourceKey;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.RepeaterBlock;
 import net.minecraft.world.level.block.entity.BlockEntityType;
 import net.minecraft.world.level.block.state.BlockState;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
+import rbasamoyai.createbigcannons.cannon_control.cannon_mount.CannonMountBlockEntity;
+import rbasamoyai.createbigcannons.cannon_control.contraption.AbstractMountedCannonContraption;
+import rbasamoyai.createbigcannons.cannon_control.contraption.PitchOrientedContraptionEntity;
 
 import java.util.List;
 
@@ -34,6 +42,16 @@ public class FireControllerBlockEntity extends SmartBlockEntity {
     private long nextPulseTick = -1;
     private long pulseOffTick = -1;
 
+    // direct trigger: i drive the cbc cannon through its own api instead of pulsing redstone at it.
+    // none of this is saved, the weapon control binds the mount again on its first tick after load.
+    // only the position is kept, the mount is looked up again whenever it's needed
+    @Nullable
+    private BlockPos directMountPos;
+    private boolean directFiring = false;
+    private boolean directTriggerHigh = false;
+    private long nextDirectEdgeTick = -1;
+    private long lastVisualTick = Long.MIN_VALUE;
+
     public FireControllerBlockEntity(BlockEntityType<?> pType, BlockPos pPos, BlockState pBlockState) {
         super(pType, pPos, pBlockState);
     }
@@ -55,6 +73,8 @@ public class FireControllerBlockEntity extends SmartBlockEntity {
             return;
         }
 
+        if (directMountPos != null) tickDirect(now);
+
         // i run pulse train timing
         if (pulsing) {
             // i turn off after a 1-tick "on" window
@@ -89,16 +109,39 @@ public class FireControllerBlockEntity extends SmartBlockEntity {
     }
 
     public boolean isPowered() {
-        return powered;
+        return powered || directFiring;
+    }
+
+    /**
+     * True while this controller fires its cannon directly and keeps its redstone output quiet, the
+     * lit blockstate is only a visual then.
+     */
+    public boolean isSilencingRedstone() {
+        return directMountPos != null && !RadarConfig.server().fireControllerRedstoneOutput.get();
     }
 
     public void setPowered(boolean powered) {
+        setPowered(powered, null);
+    }
+
+    /**
+     * Commands the controller. With a mount that carries a CBC cannon and direct triggering enabled,
+     * the cannon is fired through its own redstone entry point and no neighbour updates happen;
+     * otherwise the controller falls back to its redstone output.
+     */
+    public void setPowered(boolean powered, @Nullable CannonMountBlockEntity mount) {
         if (level == null || level.isClientSide)
             return;
 
         // i treat every call as a command input, and remember when it happened
         lastCommandTick = level.getGameTime();
 
+        if (mount != null && RadarConfig.server().fireControllerDirectTrigger.get() && mountedCannon(mount) != null) {
+            setDirect(powered, mount);
+            return;
+        }
+        if (directMountPos != null) stopDirect();
+
         if (powered && hasRepeaterAbove()) {
             // i enter pulsing mode; pulses keep coming as long as i'm being commanded (failsafe handles dropout)
             pulsing = true;
@@ -147,7 +190,150 @@ public class FireControllerBlockEntity extends SmartBlockEntity {
         return Math.max(1, delaySteps) * 2;
     }
 
+    private void setDirect(boolean firing, CannonMountBlockEntity mount) {
+        if (!mount.getBlockPos().equals(directMountPos)) {
+            if (directMountPos != null) stopDirect();
+
+            // i drop whatever the redstone path was doing so the mount doesn't see a second trigger
+            pulsing = false;
+            nextPulseTick = -1;
+            pulseOffTick = -1;
+            setPoweredInternal(false);
+            directMountPos = mount.getBlockPos().immutable();
+        }
+
+        if (firing == directFiring) return;
+        directFiring = firing;
+
+        long now = level.getGameTime();
+        if (firing) {
+            raiseDirectTrigger(mount, now);
+        } else {
+            lowerDirectTrigger(mount);
+            nextDirectEdgeTick = -1;
+        }
+        updateIndicator(now);
+    }
+
+    private void tickDirect(long now) {
+        CannonMountBlockEntity mount = directMount();
+        if (mount == null || mountedCannon(mount) == null) {
+            stopDirect();
+            return;
+        }
+
+        if (directFiring) {
+            // big cannons only fire on a rising edge, so i re-arm them at the repeater cadence
+            if (directTriggerHigh && nextDirectEdgeTick >= 0 && now >= nextDirectEdgeTick - 1)
+                lowerDirectTrigger(mount);
+            if (!directTriggerHigh && nextDirectEdgeTick >= 0 && now >= nextDirectEdgeTick)
+                raiseDirectTrigger(mount, now);
+        }
+
+        // catches up on a visual change the throttle held back
+        updateIndicator(now);
+    }
+
+    @Nullable
+    private CannonMountBlockEntity directMount() {
+        // never pull a chunk in just to find the mount
+        if (directMountPos == null || level == null || !level.isLoaded(directMountPos)) return null;
+        return level.getBlockEntity(directMountPos) instanceof CannonMountBlockEntity mount && !mount.isRemoved() ? mount : null;
+    }
+
+    private void raiseDirectTrigger(CannonMountBlockEntity mount, long now) {
+        AbstractMountedCannonContraption cannon = mountedCannon(mount);
+        if (cannon == null) return;
+
+        sendDirectTrigger(mount, cannon, 15);
+        directTriggerHigh = true;
+        RadarEvents.post(level, worldPosition, RadarEvents.Type.FIRE_CONTROLLER_FIRED, null, now);
+
+        // autocannons keep firing at their own rate while the trigger is held, so they never get re-edged
+        nextDirectEdgeTick = CannonUtil.isAutocannonFamily(cannon) || !hasRepeaterAbove()
+                ? -1
+                : now + getRepeaterPeriodTicks();
+    }
+
+    private void lowerDirectTrigger(@Nullable CannonMountBlockEntity mount) {
+        if (!directTriggerHigh) return;
+        directTriggerHigh = false;
+
+        AbstractMountedCannonContraption cannon = mount == null ? null : mountedCannon(mount);
+        if (cannon != null) sendDirectTrigger(mount, cannon, 0);
+    }
+
+    private void sendDirectTrigger(CannonMountBlockEntity mount, AbstractMountedCannonContraption cannon, int power) {
+        if (!(level instanceof ServerLevel serverLevel)) return;
+        PitchOrientedContraptionEntity entity = mount.getContraption();
+        if (entity == null) return;
+
+        // same call the mount makes when its own fire input toggles
+        cannon.onRedstoneUpdate(serverLevel, entity, true, power, mount);
+    }
+
+    private void stopDirect() {
+        releaseDirect();
+
+        // i put the lamp out with a real update, the redstone path may take over from here
+        setPoweredInternal(false);
+    }
+
+    /**
+     * Lowers a held trigger and forgets the mount without touching this block. The mount's own
+     * redstone never changed, so an autocannon would otherwise stay latched firing.
+     */
+    private void releaseDirect() {
+        if (directMountPos != null) lowerDirectTrigger(directMount());
+        directMountPos = null;
+        directFiring = false;
+        directTriggerHigh = false;
+        nextDirectEdgeTick = -1;
+    }
+
+    @Override
+    public void invalidate() {
+        super.invalidate();
+        if (level != null && !level.isClientSide) releaseDirect();
+    }
+
+    @Override
+    public void onChunkUnloaded() {
+        super.onChunkUnloaded();
+        if (level != null && !level.isClientSide) releaseDirect();
+    }
+
+    /** Brings the lit blockstate in line with {@link #directFiring}, at most once per visual interval. */
+    private void updateIndicator(long now) {
+        if (!isSilencingRedstone()) {
+            // the trigger edge already posted the fired event
+            setPoweredInternal(directFiring, false);
+            return;
+        }
+
+        BlockState state = getBlockState();
+        if (!(state.getBlock() instanceof FireControllerBlock)) return;
+        if (state.getValue(FireControllerBlock.POWERED) == directFiring) return;
+        if (now - lastVisualTick < RadarConfig.server().fireControllerVisualInterval.get()) return;
+
+        lastVisualTick = now;
+        // clients only, the output is silenced so nothing around me needs to hear about it
+        level.setBlock(worldPosition, state.setValue(FireControllerBlock.POWERED, directFiring),
+                Block.UPDATE_CLIENTS | Block.UPDATE_KNOWN_SHAPE);
+    }
+
+    @Nullable
+    private static AbstractMountedCannonContraption mountedCannon(CannonMountBlockEntity mount) {
+        PitchOrientedContraptionEntity entity = mount.getContraption();
+        if (entity == null || !entity.isAlive()) return null;
+        return entity.getContraption() instanceof AbstractMountedCannonContraption cannon ? cannon : null;
+    }
+
     private void setPoweredInternal(boolean powered) {
+        setPoweredInternal(powered, true);
+    }
+
+    private void setPoweredInternal(boolean powered, boolean postEvent) {
         if (level == null || level.isClientSide)
             return;
 
@@ -170,6 +356,8 @@ public class FireControllerBlockEntity extends SmartBlockEntity {
 
         setChanged();
         sendData();
+
+        if (powered && postEvent) RadarEvents.post(level, worldPosition, RadarEvents.Type.FIRE_CONTROLLER_FIRED, null, level.getGameTime());
     }
 
     @Override
@@ -221,6 +409,7 @@ public class FireControllerBlockEntity extends SmartBlockEntity {
         pulseOffTick = -1;
 
         if (level != null && !level.isClientSide) {
+            releaseDirect();
             setPoweredInternal(false);
         }
     }
@@ -0,0 +1,41 @@
+package com.happysg.radar.block.controller.id;
+
+import com.happysg.radar.CreateRadar;
+import net.minecraft.client.Minecraft;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.client.event.ClientPlayerNetworkEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import javax.annotation.Nullable;
+
+/**
+ * The client's copy of the server's IFF records, filled by {@code IDRecordSyncPacket}. Names only,
+ * secret IDs are never synced. Client thread only; dropped on disconnect so the next server starts clean.
+ */
+@Mod.EventBusSubscriber(value = Dist.CLIENT, modid = CreateRadar.MODID)
+public final class ClientIDRecords {
+
+    private static final IDRecordTable RECORDS = new IDRecordTable();
+
+    private ClientIDRecords() {}
+
+    @Nullable
+    public static IDManager.IDRecord get(long shipId) {
+        return RECORDS.get(shipId);
+    }
+
+    public static IDRecordTable table() {
+        return RECORDS;
+    }
+
+    /** Secret ID the server sent for a transponder screen, see {@code IDSecretPacket}. */
+    public static void onSecretReceived(long shipId, String secretID) {
+        if (Minecraft.getInstance().screen instanceof IDBlockScreen screen) screen.secretReceived(shipId, secretID);
+    }
+
+    @SubscribeEvent
+    public static void onLoggingOut(ClientPlayerNetworkEvent.LoggingOut event) {
+        RECORDS.clear();
+    }
+}
@@ -3,6 +3,7 @@ package com.happysg.radar.block.controller.id;
 import com.happysg.radar.CreateRadar;
 import com.happysg.radar.networking.ModMessages;
 import com.happysg.radar.networking.packets.IDRecordPacket;
+import com.happysg.radar.networking.packets.IDSecretRequestPacket;
 import com.happysg.radar.registry.ModGuiTextures;
 import net.createmod.catnip.gui.AbstractSimiScreen;
 import com.simibubi.create.foundation.gui.AllIcons;
@@ -22,15 +23,24 @@ public class IDBlockScreen extends AbstractSimiScreen {
     Ship ship;
     String id = "";
     String name = "";
+    // the secret isn't synced, it arrives on request; until then closing leaves it alone
+    boolean idKnown = false;
+    EditBox idField;
 
     public IDBlockScreen(Ship ship) {
         this.ship = ship;
-        IDManager.IDRecord record = IDManager.getIDRecordByShip(ship);
+        IDManager.IDRecord record = ClientIDRecords.get(ship.getId());
         if (record != null) {
-            this.id = record.secretID();
             this.name = record.name();// this will now be the slug
         }
+        ModMessages.sendToServer(new IDSecretRequestPacket(ship.getId()));
+    }
 
+    void secretReceived(long shipId, String secretID) {
+        if (shipId != ship.getId() || idKnown) return;
+        id = secretID;
+        idKnown = true;
+        if (idField != null) idField.setValue(secretID);
     }
 
     @Override
@@ -48,11 +58,14 @@ public class IDBlockScreen extends AbstractSimiScreen {
         nameField.setResponder(s -> name = s);
         addRenderableWidget(nameField);
 
-        EditBox idField = new EditBox(font, x + 85, y + 48, 100, 18, Component.translatable(CreateRadar.MODID + ".id_block.id_input"));
+        idField = new EditBox(font, x + 85, y + 48, 100, 18, Component.translatable(CreateRadar.MODID + ".id_block.id_input"));
         idField.setBordered(false);
         idField.setValue(id);
         idField.setMaxLength(10);
-        idField.setResponder(s -> id = s);
+        idField.setResponder(s -> {
+            id = s;
+            idKnown = true;
+        });
         addRenderableWidget(idField);
 
         IconButton confirmButton = new IconButton(x + BACKGROUND.width - 33, y + BACKGROUND.height - 23, AllIcons.I_CONFIRM);
@@ -70,7 +83,7 @@ public class IDBlockScreen extends AbstractSimiScreen {
     @Override
     public void onClose() {
         super.onClose();
-        ModMessages.sendToServer(new IDRecordPacket(ship.getId(), ship.getSlug(), id,name));
+        ModMessages.sendToServer(new IDRecordPacket(ship.getId(), ship.getSlug(), idKnown ? id : null, name));
     }
 
 
@@ -1,47 +1,92 @@
 package com.happysg.radar.block.controller.id;
 
+import com.happysg.radar.CreateRadar;
+import com.happysg.radar.networking.ModMessages;
+import com.happysg.radar.networking.packets.IDRecordSyncPacket;
 import net.minecraft.nbt.*;
 import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.level.saveddata.SavedData;
-import org.valkyrienskies.core.api.ships.Ship;
+import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
 
-import java.util.HashMap;
+import javax.annotation.Nullable;
+import java.util.Locale;
 import java.util.Map;
-
+import java.util.Set;
+
+/**
+ * Server-side IFF records, one set per server, saved with the overworld.
+ * <p>
+ * Every change is pushed to connected clients as a delta and players get the full table on login,
+ * names only; client code reads {@link ClientIDRecords} and never this class. Secret IDs stay on the
+ * server except for the one a player asks for from their own ship's transponder.
+ */
+@Mod.EventBusSubscriber(modid = CreateRadar.MODID)
 public class IDManager extends SavedData {
 
-    public static final IDManager INSTANCE = new IDManager();
+    private static final String DATA_NAME = "create_radar_vs2_ids";
 
-    // i key records by ship ID (long)
-    public static final Map<Long, IDRecord> ID_RECORDS = new HashMap<>();
+    /**
+     * @param iffKey lowercase secret ID, or the name if there's no secret; what identification lists
+     *               are matched against
+     */
+    public record IDRecord(String name, String secretID, String iffKey) {
+        public IDRecord(String name, String secretID) {
+            this(name, secretID, iffKeyOf(name, secretID));
+        }
 
-    public record IDRecord(String name, String secretID) {}
+        private static String iffKeyOf(@Nullable String name, @Nullable String secretID) {
+            String key = secretID != null && !secretID.isBlank() ? secretID : name;
+            return key == null ? "" : key.toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final IDRecordTable records = new IDRecordTable();
+
+    public static IDManager get(MinecraftServer server) {
+        return server.overworld()
+                .getDataStorage()
+                .computeIfAbsent(IDManager::load, IDManager::new, DATA_NAME);
+    }
 
     // i save secretID to shipId, and i store the slug as the name
-    public static void addIDRecord(long shipId, String secretID, String shipSlugAsName) {
-        ID_RECORDS.put(shipId, new IDRecord(shipSlugAsName, secretID));
-        INSTANCE.setDirty();
+    public void addIDRecord(long shipId, String secretID, String shipSlugAsName) {
+        IDRecord record = new IDRecord(shipSlugAsName, secretID);
+        if (!records.put(shipId, record)) return;
+        setDirty();
+        ModMessages.sendToClients(IDRecordSyncPacket.put(shipId, record));
+    }
+
+    public void removeIDRecord(long shipId) {
+        if (records.remove(shipId) == null) return;
+        setDirty();
+        ModMessages.sendToClients(IDRecordSyncPacket.remove(shipId));
     }
 
-    public static void registerIDRecord(Ship ship, String secretID) {
-        addIDRecord(ship.getId(), secretID, ship.getSlug());
+    @Nullable
+    public IDRecord getIDRecordByShipId(long shipId) {
+        return records.get(shipId);
     }
 
-    public static void removeIDRecord(Ship ship) {
-        ID_RECORDS.remove(ship.getId());
-        INSTANCE.setDirty();
+    public Set<Long> getShipIdsByName(String name) {
+        return records.idsNamed(name);
     }
 
-    public static IDRecord getIDRecordByShip(Ship ship) {
-        return ID_RECORDS.get(ship.getId());
+    public Map<Long, IDRecord> records() {
+        return records.view();
     }
 
-    public static IDRecord getIDRecordByShipId(long shipId) {
-        return ID_RECORDS.get(shipId);
+    @SubscribeEvent
+    public static void onPlayerLoggedIn(PlayerEvent.PlayerLoggedInEvent event) {
+        if (!(event.getEntity() instanceof ServerPlayer player)) return;
+        ModMessages.sendToPlayer(IDRecordSyncPacket.full(get(player.server).records), player);
     }
 
     public static IDManager load(CompoundTag tag) {
-        if (!tag.contains("idRecords")) return INSTANCE;
+        IDManager manager = new IDManager();
+        if (!tag.contains("idRecords")) return manager;
 
         ListTag list = tag.getList("idRecords", Tag.TAG_COMPOUND);
         for (int i = 0; i < list.size(); i++) {
@@ -52,7 +97,7 @@ public class IDManager extends SavedData {
                 long shipId = c.getLong("shipId");
                 String name = c.getString("name");       // now slug
                 String secretID = c.getString("secretID");
-                ID_RECORDS.put(shipId, new IDRecord(name, secretID));
+                manager.records.put(shipId, new IDRecord(name, secretID));
                 continue;
             }
             String legacySlug = c.getString("shipSlug");
@@ -60,17 +105,17 @@ public class IDManager extends SavedData {
             String secretID = c.getString("secretID");
 
             long legacyKey = legacySlug.hashCode();
-            ID_RECORDS.put(legacyKey, new IDRecord(name.isEmpty() ? legacySlug : name, secretID));
+            manager.records.put(legacyKey, new IDRecord(name.isEmpty() ? legacySlug : name, secretID));
         }
 
-        return INSTANCE;
+        return manager;
     }
 
     @Override
     public CompoundTag save(CompoundTag tag) {
         ListTag list = new ListTag();
 
-        for (Map.Entry<Long, IDRecord> e : ID_RECORDS.entrySet()) {
+        for (Map.Entry<Long, IDRecord> e : records.view().entrySet()) {
             CompoundTag c = new CompoundTag();
             c.putLong("shipId", e.getKey());
             c.putString("name", e.getValue().name());         // slug stored here
@@ -81,10 +126,4 @@ public class IDManager extends SavedData {
         tag.put("idRecords", list);
         return tag;
     }
-
-    public static void load(MinecraftServer server) {
-        server.overworld()
-                .getDataStorage()
-                .computeIfAbsent(IDManager::load, () -> INSTANCE, "create_radar_vs2_ids");
-    }
 }
@@ -0,0 +1,78 @@
+package com.happysg.radar.block.controller.id;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * IFF records keyed by ship id, with a second index by lowercase name.
+ * <p>
+ * Backs both the server's {@link IDManager} and the client's {@link ClientIDRecords}; the two never
+ * share an instance, so an integrated server and its client each keep their own copy.
+ */
+public final class IDRecordTable {
+
+    private final Map<Long, IDManager.IDRecord> byShip = new HashMap<>();
+    private final Map<String, Set<Long>> byName = new HashMap<>();
+
+    @Nullable
+    public IDManager.IDRecord get(long shipId) {
+        return byShip.get(shipId);
+    }
+
+    /** Ship ids whose record carries {@code name}, ignoring case. */
+    public Set<Long> idsNamed(String name) {
+        Set<Long> ids = byName.get(nameKey(name));
+        return ids == null ? Set.of() : Collections.unmodifiableSet(ids);
+    }
+
+    public Map<Long, IDManager.IDRecord> view() {
+        return Collections.unmodifiableMap(byShip);
+    }
+
+    public int size() {
+        return byShip.size();
+    }
+
+    public boolean isEmpty() {
+        return byShip.isEmpty();
+    }
+
+    /** Returns false if the ship already had exactly this record. */
+    public boolean put(long shipId, IDManager.IDRecord record) {
+        IDManager.IDRecord previous = byShip.put(shipId, record);
+        if (record.equals(previous)) return false;
+
+        if (previous != null) unindex(shipId, previous);
+        byName.computeIfAbsent(nameKey(record.name()), k -> new HashSet<>(2)).add(shipId);
+        return true;
+    }
+
+    @Nullable
+    public IDManager.IDRecord remove(long shipId) {
+        IDManager.IDRecord previous = byShip.remove(shipId);
+        if (previous != null) unindex(shipId, previous);
+        return previous;
+    }
+
+    public void clear() {
+        byShip.clear();
+        byName.clear();
+    }
+
+    private void unindex(long shipId, IDManager.IDRecord record) {
+        String key = nameKey(record.name());
+        Set<Long> ids = byName.get(key);
+        if (ids == null) return;
+        ids.remove(shipId);
+        if (ids.isEmpty()) byName.remove(key);
+    }
+
+    private static String nameKey(@Nullable String name) {
+        return name == null ? "" : name.toLowerCase(Locale.ROOT);
+    }
+}
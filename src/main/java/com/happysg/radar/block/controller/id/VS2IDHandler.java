@@ -6,6 +6,7 @@ import net.minecraft.client.player.LocalPlayer;
 import net.minecraft.core.BlockPos;
 import net.minecraft.network.chat.Component;
 import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.InteractionHand;
 import net.minecraft.world.InteractionResult;
 import net.minecraft.world.entity.player.Player;
@@ -20,6 +21,8 @@ import org.valkyrienskies.core.api.ships.Ship;
 
 // Done to avoid loading vs2 classes when the mod is not loaded
 public class VS2IDHandler {
+    // how close to a ship's hull a player has to be to read or change its transponder
+    private static final double EDIT_REACH = 8.0;
 
     public static @NotNull InteractionResult use(BlockState pState, Level pLevel, BlockPos pPos, @NotNull Player pPlayer, InteractionHand pHand, BlockHitResult pHit) {
         Ship ship = VS2Utils.getShipManagingPos(pLevel, pPos);
@@ -39,11 +42,23 @@ public class VS2IDHandler {
         ScreenOpener.open(new IDBlockScreen(ship));
     }
 
+    /**
+     * Whether {@code player} may read or change the IFF record of {@code shipId}: operators always,
+     * anyone else only while standing at that ship, like they would to open its transponder.
+     */
+    public static boolean mayEdit(ServerPlayer player, long shipId) {
+        if (player.hasPermissions(2)) return true;
+        for (Ship ship : VS2Utils.getLoadedShips(player.level(), player.getBoundingBox().inflate(EDIT_REACH))) {
+            if (ship.getId() == shipId) return true;
+        }
+        return false;
+    }
+
     public static void onRemove(BlockState pState, Level pLevel, BlockPos pPos, BlockState pNewState, boolean pMovedByPiston) {
+        if (!(pLevel instanceof ServerLevel serverLevel)) return;
         Ship ship = VS2Utils.getShipManagingPos(pLevel, pPos);
         if (ship != null) {
-            // uses ship.getId() internally now
-            IDManager.removeIDRecord(ship);
+            IDManager.get(serverLevel.getServer()).removeIDRecord(ship.getId());
         }
     }
 }
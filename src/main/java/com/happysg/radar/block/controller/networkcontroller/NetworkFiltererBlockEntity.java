@@ -2,17 +2,26 @@ package com.happysg.radar.block.controller.networkcontroller;
 
 import com.happysg.radar.block.arad.aradnetworks.RadarContactRegistry;
 import com.happysg.radar.block.behavior.networks.NetworkData;
+import com.happysg.radar.block.behavior.networks.RadarTrackFusion;
 import com.happysg.radar.block.behavior.networks.WeaponFiringControl;
 import com.happysg.radar.block.behavior.networks.WeaponNetworkData;
+import com.happysg.radar.block.behavior.networks.WeaponTargetAssigner;
 import com.happysg.radar.block.behavior.networks.config.AutoTargetingHelper;
 import com.happysg.radar.block.behavior.networks.config.DetectionConfig;
+import com.happysg.radar.block.behavior.networks.config.EngageCheck;
 import com.happysg.radar.block.behavior.networks.config.IdentificationConfig;
+import com.happysg.radar.block.behavior.networks.config.RaycastBudget;
+import com.happysg.radar.block.behavior.networks.config.SafeZoneSet;
+import com.happysg.radar.block.behavior.networks.config.TargetCandidateQueue;
 import com.happysg.radar.block.behavior.networks.config.TargetingConfig;
 import com.happysg.radar.block.controller.pitch.AutoPitchControllerBlockEntity;
 import com.happysg.radar.block.radar.behavior.RadarScanningBlockBehavior;
 import com.happysg.radar.block.radar.track.RadarTrack;
+import com.happysg.radar.block.radar.track.TargetHandle;
 import com.happysg.radar.compat.Mods;
+import com.happysg.radar.compat.computercraft.RadarEvents;
 import com.happysg.radar.compat.vs2.PhysicsHandler;
+import com.happysg.radar.config.RadarConfig;
 import com.happysg.radar.item.binos.Binoculars;
 import com.happysg.radar.block.radar.behavior.IRadar;
 import com.happysg.radar.block.radar.track.TrackCategory;
@@ -65,11 +74,10 @@ public class NetworkFiltererBlockEntity extends BlockEntity {
     private long suppressAutoUntilTick = 0L;
     private static final int MANUAL_CLEAR_COOLDOWN_TICKS = 20;
 
-    private long vsLoadedCacheUntilTick = -1;
-    private final Map<Long, Boolean> vsLoadedCache = new HashMap<>();
 
     private  TargetingConfig targeting = TargetingConfig.DEFAULT;
-    private List<AABB> safeZones = new ArrayList<>();
+    // immutable and handed to every cannon as-is; replaced (new version) only when the monitor's zones change
+    private SafeZoneSet safeZones = SafeZoneSet.EMPTY;
     private BlockPos lastKnownPos = BlockPos.ZERO;
     private RadarTrack currenttrack;
     private @Nullable BlockPos radarPosCache;
@@ -83,8 +91,13 @@ public class NetworkFiltererBlockEntity extends BlockEntity {
 
 
     private @Nullable String lastPushedTrackId = null;
+    private @Nullable String lastAutoWinnerId = null;
+
+    // per-cannon targets when auto-targeting spreads the group over several tracks
+    private final WeaponTargetAssigner weaponAssigner = new WeaponTargetAssigner();
+    private final Map<BlockPos, String> pushedAssignment = new HashMap<>();
     private int lastPushedCfgHash = 0;
-    private long lastPushedSafeZonesHash = 0;
+    private long lastPushedSafeZonesVersion = 0;
 
     public static void tick(Level level, BlockPos pos, BlockState state, NetworkFiltererBlockEntity be) {
         if (!(level instanceof ServerLevel sl)) return;
@@ -111,34 +124,10 @@ public class NetworkFiltererBlockEntity extends BlockEntity {
         if (!Mods.VALKYRIENSKIES.isLoaded()) return true;
         if (track == null) return true;
         if (track.trackCategory() != TrackCategory.VS2) return true;
+        if (track.shipId() < 0) return false;
 
-        final long shipId;
-        try {
-            shipId = Long.parseLong(track.getId());
-        } catch (NumberFormatException ignored) {
-            return false;
-        }
-
-        long now = sl.getGameTime();
-
-        // refresh cache
-        if (now > vsLoadedCacheUntilTick) {
-            vsLoadedCache.clear();
-            vsLoadedCacheUntilTick = now + 10;
-        }
-
-        Boolean cached = vsLoadedCache.get(shipId);
-        if (cached != null) return cached;
-
-        boolean loaded;
-        try {
-            loaded = VSGameUtilsKt.getShipObjectWorld(sl).getLoadedShips().getById(shipId) != null;
-        } catch (Throwable t) {
-            loaded = false;
-        }
-
-        vsLoadedCache.put(shipId, loaded);
-        return loaded;
+        // same handle the cannons on this ship hold, so it's one loaded-ship lookup per tick at most
+        return TargetHandle.resolve(sl, track) != null;
     }
 
     private void headlessTick(ServerLevel sl) {
@@ -148,12 +137,15 @@ public class NetworkFiltererBlockEntity extends BlockEntity {
 
         targeting = readTargetingFromSlot();
 
+        // one check budget for the whole cycle: picking, rechecking and assigning all draw from it,
+        // and a deferred recheck keeps the current target
+        RaycastBudget budget = RaycastBudget.fromConfig();
+
         // sync radar position + detection
         BlockPos netRadar = group.radarPos;
         if (!Objects.equals(netRadar, radarPosCache)) {
             radarPosCache = netRadar;
             radarCache = null;
-            vsLoadedCacheUntilTick = -1;
         }
 
         detectionCache = DetectionConfig.fromTag(group.detectionTag);
@@ -166,21 +158,21 @@ public class NetworkFiltererBlockEntity extends BlockEntity {
 
             if (group.selectedTargetId != null) {
                 selectedWasAuto = false;
-                applySelectedTarget(sl, data, group, null, false);
+                applySelectedTarget(sl, data, group, null, false, budget);
             }
             return;
         }
 
         // rebuild track cache filtered
 
-        cachedTracks = radar.getTracks().stream().filter(detectionCache::test).toList();
+        cachedTracks = RadarTrackFusion.tracks(sl, group, radar).stream().filter(detectionCache::test).toList();
 
         // resolve current selected track from group.selectedTargetId
         RadarTrack selected = resolveSelectedTrack(group.selectedTargetId);
         if (selected != null && !isVsShipStillLoaded(sl, selected)) {
             selectedWasAuto = false;
 
-            applySelectedTarget(sl, data, group, null, false);
+            applySelectedTarget(sl, data, group, null, false, budget);
             selected = null;
         }
 
@@ -188,7 +180,7 @@ public class NetworkFiltererBlockEntity extends BlockEntity {
         if (group.selectedTargetId != null && selected == null) {
             selectedWasAuto = false;
 
-            applySelectedTarget(sl, data, group, null, false);
+            applySelectedTarget(sl, data, group, null, false, budget);
             return;
         }
 
@@ -197,13 +189,13 @@ public class NetworkFiltererBlockEntity extends BlockEntity {
 
             if (selectedWasAuto && !cfg.test(selected.trackCategory())) {
                 selectedWasAuto = false;
-                applySelectedTarget(sl, data, group, null, false);
+                applySelectedTarget(sl, data, group, null, false, budget);
                 return;
             }
 
             if (selectedWasAuto && !cfg.autoTarget()) {
                 selectedWasAuto = false;
-                applySelectedTarget(sl, data, group, null, false);
+                applySelectedTarget(sl, data, group, null, false, budget);
                 return;
             }
         }
@@ -216,10 +208,10 @@ public class NetworkFiltererBlockEntity extends BlockEntity {
                 return;
             }
 
-            RadarTrack picked = pickAutoTarget_PerCannon(sl, cachedTracks, safeZones);
+            RadarTrack picked = pickAutoTarget_PerCannon(sl, cachedTracks, safeZones, budget);
             if (picked != null) {
                 selectedWasAuto = true;
-                applySelectedTarget(sl, data, group, picked, true);
+                applySelectedTarget(sl, data, group, picked, true, budget);
             }
             return;
         }
@@ -228,8 +220,8 @@ public class NetworkFiltererBlockEntity extends BlockEntity {
         boolean requireLos = cfg.lineOfSight();
 
         // Only auto-selections should be affected by cannon engagement checks
-        if (selectedWasAuto && !anyCannonCanEngage(sl, selected, requireLos)) {
-            dropOrReselectAuto(sl, data, group);
+        if (selectedWasAuto && anyCannonCanEngage(sl, selected, requireLos, budget) == EngageCheck.BLOCKED) {
+            dropOrReselectAuto(sl, data, group, budget);
             return;
         }
 
@@ -237,19 +229,25 @@ public class NetworkFiltererBlockEntity extends BlockEntity {
 
         String newId = selected == null ? null : selected.getId();
         int newCfgHash = cfgHash(cfg2);
-        long newZonesHash = safeZonesHash(safeZones);
+        long newZonesVersion = safeZones.version();
 
         boolean changed =
                 !Objects.equals(lastPushedTrackId, newId) ||
                         lastPushedCfgHash != newCfgHash ||
-                        lastPushedSafeZonesHash != newZonesHash;
+                        lastPushedSafeZonesVersion != newZonesVersion;
 
         activeTrackCache = selected;
 
+        if (selectedWasAuto && shouldDistributeTargets(sl)) {
+            // re-solved every cycle, only cannons whose track changed get pushed
+            pushAssignedTargets(sl, selected, budget);
+            return;
+        }
+
         if (changed) {
             lastPushedTrackId = newId;
             lastPushedCfgHash = newCfgHash;
-            lastPushedSafeZonesHash = newZonesHash;
+            lastPushedSafeZonesVersion = newZonesVersion;
             pushToEndpoints(selected);
         }
     }
@@ -279,46 +277,68 @@ public class NetworkFiltererBlockEntity extends BlockEntity {
     }
 
     private void applySelectedTarget(ServerLevel sl, NetworkData data, NetworkData.Group group,
-                                     @Nullable RadarTrack track, boolean wasAuto) {
+                                     @Nullable RadarTrack track, boolean wasAuto, RaycastBudget budget) {
         String prev = data.getSelectedTargetId(group);
+        String next = track == null ? null : track.getId();
+        boolean changed = !Objects.equals(prev, next);
 
         this.selectedWasAuto = wasAuto;
 
-        data.setSelectedTargetId(group, track == null ? null : track.getId());
+        data.setSelectedTargetId(group, next);
+        if (changed) postToMonitors(sl, group, RadarEvents.Type.TARGET_SELECTED, track, next, wasAuto);
 
         if (Mods.VALKYRIENSKIES.isLoaded()) {
-            if (prev != null && track == null) {
+            // any change releases the previous ship, not just dropping the target
+            if (prev != null && changed) {
                 long prevShipId = parseShipIdOrNeg(prev);
                 if (prevShipId != -1L) {
                     RadarContactRegistry.unLock(sl, prevShipId);
+                    postToMonitors(sl, group, RadarEvents.Type.LOCK, null, prev, false);
                 }
             }
 
             if (track != null && track.trackCategory() == TrackCategory.VS2) {
-                long shipId = parseShipIdOrNeg(track.getId());
+                long shipId = track.shipId();
                 if (shipId != -1L) {
                     RadarContactRegistry.markLocked(sl, shipId, 10);
+                    // the lock is refreshed every pass, computers only hear about it when it's new
+                    if (changed) postToMonitors(sl, group, RadarEvents.Type.LOCK, track, next, true);
                 }
             }
         }
 
         activeTrackCache = track;
-        pushToEndpoints(track);
+        if (wasAuto && track != null && shouldDistributeTargets(sl)) {
+            pushAssignedTargets(sl, track, budget);
+        } else {
+            pushToEndpoints(track);
+        }
 
         data.setDirty();
     }
 
-    private double distSqFromFilterer(Vec3 pos) {
+    private void postToMonitors(ServerLevel sl, NetworkData.Group group, RadarEvents.Type type,
+                                @Nullable RadarTrack track, Object... args) {
+        for (BlockPos monitor : group.monitorEndpoints) {
+            RadarEvents.post(sl, monitor, type, track, args);
+        }
+    }
+
+    private Vec3 filtererWorldCenter() {
         Vec3 filtererPos = worldPosition.getCenter();
         if (Mods.VALKYRIENSKIES.isLoaded() && level != null && PhysicsHandler.isBlockInShipyard(level, worldPosition)) {
             filtererPos = PhysicsHandler.getWorldVec(level, filtererPos);
         }
-        return filtererPos.distanceToSqr(pos);
+        return filtererPos;
     }
 
-    private boolean anyCannonCanEngage(ServerLevel sl, RadarTrack track, boolean requireLos) {
+    /**
+     * Each cannon actually checked spends one unit of {@code budget}. Deferred when the budget ran
+     * out before any cannon came back clear, blocked only if every reachable cannon said no.
+     */
+    private EngageCheck anyCannonCanEngage(ServerLevel sl, RadarTrack track, boolean requireLos, RaycastBudget budget) {
         Vec3 target = track != null ? track.position() : null;
-        if (target == null) return false;
+        if (target == null) return EngageCheck.BLOCKED;
 
         for (AutoPitchControllerBlockEntity pitch : getWeaponEndpointsCached(sl)) {
             pitch.getFiringControl();
@@ -330,16 +350,20 @@ public class NetworkFiltererBlockEntity extends BlockEntity {
                 continue;
             }
 
+            if (!budget.tryConsume()) return EngageCheck.DEFERRED;
+
             // existing heavier check
-            if (pitch.canEngageTrack(track, requireLos)) return true;
+            if (pitch.canEngageTrack(track, requireLos)) return EngageCheck.CLEAR;
         }
-        return false;
+        return EngageCheck.BLOCKED;
     }
 
 
     private void pushToEndpoints(@Nullable RadarTrack track) {
         TargetingConfig cfg = targeting != null ? targeting : TargetingConfig.DEFAULT;
         this.activeTrackCache = track;
+        pushedAssignment.clear();
+        weaponAssigner.clear();
         List<AutoPitchControllerBlockEntity> entities = (level instanceof ServerLevel sl) ? getWeaponEndpointsCached(sl) : List.of();
         for (AutoPitchControllerBlockEntity pitch : entities) {
 
@@ -348,6 +372,60 @@ public class NetworkFiltererBlockEntity extends BlockEntity {
         }
     }
 
+    private boolean shouldDistributeTargets(ServerLevel sl) {
+        return RadarConfig.server().distributeAutoTargets.get() && getWeaponEndpointsCached(sl).size() > 1;
+    }
+
+    /**
+     * Auto mode with several cannons: the group keeps {@code primary} as its selected target (that's
+     * what monitors show and what gets locked), but each cannon is pushed the track the assigner gave it.
+     * Cannons the assigner couldn't place fall back to the primary.
+     */
+    private void pushAssignedTargets(ServerLevel sl, RadarTrack primary, RaycastBudget budget) {
+        TargetingConfig cfg = targeting != null ? targeting : TargetingConfig.DEFAULT;
+        List<AutoPitchControllerBlockEntity> cannons = getWeaponEndpointsCached(sl);
+
+        List<RadarTrack> candidates = collectAssignmentCandidates(sl, primary, cannons.size() * 2);
+        Map<AutoPitchControllerBlockEntity, RadarTrack> plan =
+                weaponAssigner.assign(sl, cannons, candidates, cfg.lineOfSight(), budget);
+
+        int newCfgHash = cfgHash(cfg);
+        long newZonesVersion = safeZones.version();
+        boolean cfgChanged = lastPushedCfgHash != newCfgHash || lastPushedSafeZonesVersion != newZonesVersion;
+
+        lastPushedTrackId = primary.getId();
+        lastPushedCfgHash = newCfgHash;
+        lastPushedSafeZonesVersion = newZonesVersion;
+
+        for (AutoPitchControllerBlockEntity pitch : cannons) {
+            RadarTrack track = plan.getOrDefault(pitch, primary);
+            String prev = pushedAssignment.put(pitch.getBlockPos(), track.getId());
+            if (!cfgChanged && track.getId().equals(prev)) continue;
+
+            pitch.setAndAcquireTrack(track, cfg);
+            pitch.setSafeZones(safeZones);
+        }
+    }
+
+    /** Nearest valid tracks (same filters as auto selection, minus the cannon checks), primary always included. */
+    private List<RadarTrack> collectAssignmentCandidates(ServerLevel sl, RadarTrack primary, int limit) {
+        TargetingConfig cfg = targeting != null ? targeting : TargetingConfig.DEFAULT;
+        TargetCandidateQueue queue = buildCandidateQueue(cfg, cachedTracks, safeZones, null);
+
+        IdentificationConfig ident = readIdentificationFromSlot();
+        if (ident == null) ident = IdentificationConfig.DEFAULT;
+        Set<String> ignoreList = buildIgnoreList(ident);
+
+        List<RadarTrack> out = queue.pollValid(limit, t ->
+                !AutoTargetingHelper.isIgnoredByIdentification(t, sl, ignoreList) && isVsShipStillLoaded(sl, t));
+
+        if (!out.contains(primary)) {
+            if (out.size() >= limit && !out.isEmpty()) out.remove(out.size() - 1);
+            out.add(0, primary);
+        }
+        return out;
+    }
+
     private final ItemStackHandler inventory = new ItemStackHandler(3) {
         @Override
         protected void onContentsChanged(int slot) {
@@ -403,8 +481,7 @@ public class NetworkFiltererBlockEntity extends BlockEntity {
 
         endpointCacheUntilTick = -1;
 
-        this.safeZones.clear();
-        if (safeZones != null) this.safeZones.addAll(safeZones);
+        this.safeZones = this.safeZones.withZones(safeZones);
 
         selectedWasAuto = false;
 
@@ -413,7 +490,7 @@ public class NetworkFiltererBlockEntity extends BlockEntity {
 
 
         // sets canonical selectedTargetId + pushes to endpoints
-        applySelectedTarget(sl, data, group, track, false);
+        applySelectedTarget(sl, data, group, track, false, RaycastBudget.fromConfig());
 
         long now = sl.getGameTime();
         if (track == null) {
@@ -567,46 +644,51 @@ public class NetworkFiltererBlockEntity extends BlockEntity {
 //    }
 
     @Nullable
-    private RadarTrack pickAutoTarget_PerCannon(ServerLevel sl, Collection<RadarTrack> tracks, List<AABB> safeZones) {
+    private RadarTrack pickAutoTarget_PerCannon(ServerLevel sl, Collection<RadarTrack> tracks, SafeZoneSet safeZones,
+                                                RaycastBudget budget) {
         TargetingConfig cfg = targeting != null ? targeting : TargetingConfig.DEFAULT;
         if (!cfg.autoTarget()) return null;
 
+        boolean requireLos = cfg.lineOfSight();
+
+        // cheap filters first, survivors go into a heap ordered by distance to the FILTERER
+        TargetCandidateQueue queue = buildCandidateQueue(cfg, tracks, safeZones, lastAutoWinnerId);
+        if (queue.isEmpty()) return null;
+
         IdentificationConfig ident = readIdentificationFromSlot();
         if (ident == null) ident = IdentificationConfig.DEFAULT;
         Set<String> ignoreList = buildIgnoreList(ident);
 
-        boolean requireLos = cfg.lineOfSight();
+        // per-cannon gating (range + angle + safezone segment + LOS if enabled), nearest first, stops at the first hit
+        RadarTrack picked = queue.pollFirstValid(budget, (t, checks) -> {
+            if (AutoTargetingHelper.isIgnoredByIdentification(t, sl, ignoreList)) return EngageCheck.BLOCKED;
+            if (!isVsShipStillLoaded(sl, t)) return EngageCheck.BLOCKED;
+            return anyCannonCanEngage(sl, t, requireLos, checks);
+        });
+
+        if (picked != null) lastAutoWinnerId = picked.getId();
+        return picked;
+    }
 
-        // Build list of candidates sorted by distance to FILTERER
-        ArrayList<RadarTrack> candidates = new ArrayList<>();
+    private TargetCandidateQueue buildCandidateQueue(TargetingConfig cfg, Collection<RadarTrack> tracks,
+                                                    SafeZoneSet safeZones, @Nullable String warmStartId) {
+        Vec3 filtererPos = filtererWorldCenter();
+        TargetCandidateQueue queue = new TargetCandidateQueue(warmStartId, tracks.size());
         for (RadarTrack track : tracks) {
             if (track == null) continue;
 
             if (!cfg.test(track.trackCategory())) continue;
-            if (!isVsShipStillLoaded(sl, track)) continue;
 
             Vec3 pos = track.position();
             if (pos == null) continue;
 
-            if (AutoTargetingHelper.isIgnoredByIdentification(track, sl, ignoreList)) continue;
-            if (AutoTargetingHelper.isInSafeZone(pos, safeZones)) continue;
+            if (safeZones.contains(pos)) continue;
 
-            candidates.add(track);
-        }
-
-        candidates.sort(Comparator.comparingDouble(t -> distSqFromFilterer(t.position())));
-
-        // per-cannon gating (range + angle + safezone segment + LOS if enabled)
-        for (RadarTrack t : candidates) {
-            if (anyCannonCanEngage(sl, t, requireLos)) {
-                return t;
-            }
+            queue.offer(track, filtererPos.distanceToSqr(pos));
         }
-
-        return null;
+        return queue;
     }
 
-
     private void saveSlotNbt(CompoundTag nbt) {
         ListTag list = new ListTag();
 
@@ -740,16 +822,16 @@ public class NetworkFiltererBlockEntity extends BlockEntity {
     }
 
     private void applyDetectionToRadar(ServerLevel sl, NetworkData.Group group, DetectionConfig detection) {
-        // group needs to know where the radar is
-        if (group.radarPos == null) return;
-
-        BlockEntity be = sl.getBlockEntity(group.radarPos);
-        if (!(be instanceof SmartBlockEntity sbe)) return;
+        // every radar in the group scans with the same flags
+        for (BlockPos radarPos : group.allRadars()) {
+            BlockEntity be = sl.getBlockEntity(radarPos);
+            if (!(be instanceof SmartBlockEntity sbe)) continue;
 
-        RadarScanningBlockBehavior scan = BlockEntityBehaviour.get(sbe, RadarScanningBlockBehavior.TYPE);
-        if (scan == null) return;
+            RadarScanningBlockBehavior scan = BlockEntityBehaviour.get(sbe, RadarScanningBlockBehavior.TYPE);
+            if (scan == null) continue;
 
-        scan.applyDetectionConfig(detection);
+            scan.applyDetectionConfig(detection);
+        }
     }
 
     private DetectionConfig readDetectionFromSlot() {
@@ -865,14 +947,16 @@ public class NetworkFiltererBlockEntity extends BlockEntity {
         }
     }
 
-    private void dropOrReselectAuto(ServerLevel sl, NetworkData data, NetworkData.Group group) {
-        RadarTrack picked = pickAutoTarget_PerCannon(sl, cachedTracks, safeZones);
+    private void dropOrReselectAuto(ServerLevel sl, NetworkData data, NetworkData.Group group, RaycastBudget budget) {
+        // the current winner just failed its engagement check, so it can't be the warm start
+        lastAutoWinnerId = null;
+        RadarTrack picked = pickAutoTarget_PerCannon(sl, cachedTracks, safeZones, budget);
         if (picked != null) {
             selectedWasAuto = true;
-            applySelectedTarget(sl, data, group, picked, true);
+            applySelectedTarget(sl, data, group, picked, true, budget);
         } else {
             selectedWasAuto = false;
-            applySelectedTarget(sl, data, group, null, false);
+            applySelectedTarget(sl, data, group, null, false, budget);
         }
     }
 
@@ -887,17 +971,4 @@ public class NetworkFiltererBlockEntity extends BlockEntity {
                 cfg.contraption()
         );
     }
-
-    private static long safeZonesHash(List<AABB> zones) {
-        long h = 1469598103934665603L;
-        for (AABB a : zones) {
-            h ^= Double.doubleToLongBits(a.minX); h *= 1099511628211L;
-            h ^= Double.doubleToLongBits(a.minY); h *= 1099511628211L;
-            h ^= Double.doubleToLongBits(a.minZ); h *= 1099511628211L;
-            h ^= Double.doubleToLongBits(a.maxX); h *= 1099511628211L;
-            h ^= Double.doubleToLongBits(a.maxY); h *= 1099511628211L;
-            h ^= Double.doubleToLongBits(a.maxZ); h *= 1099511628211L;
-        }
-        return h;
-    }
 }
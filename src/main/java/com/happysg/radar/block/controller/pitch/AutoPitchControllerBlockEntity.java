@@ -2,7 +2,9 @@ package com.happysg.radar.block.controller.pitch;
 
 import com.happysg.radar.block.behavior.networks.WeaponFiringControl;
 import com.happysg.radar.block.behavior.networks.WeaponNetworkData;
+import com.happysg.radar.block.behavior.networks.config.SafeZoneSet;
 import com.happysg.radar.block.behavior.networks.config.TargetingConfig;
+import com.happysg.radar.block.controller.ControllerAimSync;
 import com.happysg.radar.block.controller.yaw.AutoYawControllerBlockEntity;
 import com.happysg.radar.block.radar.track.RadarTrack;
 import com.happysg.radar.compat.Mods;
@@ -10,6 +12,7 @@ import com.happysg.radar.compat.cbc.CannonTargeting;
 import com.happysg.radar.compat.cbc.CannonUtil;
 import com.happysg.radar.compat.cbc.VS2CannonTargeting;
 import com.happysg.radar.compat.vs2.PhysicsHandler;
+import com.happysg.radar.compat.vs2.ShipTransformCache;
 import com.happysg.radar.compat.vs2.VS2Utils;
 import com.mojang.logging.LogUtils;
 import com.simibubi.create.content.kinetics.base.KineticBlockEntity;
@@ -25,15 +28,10 @@ import net.minecraft.world.level.block.HorizontalDirectionalBlock;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.entity.BlockEntityType;
 import net.minecraft.world.level.block.state.BlockState;
-import net.minecraft.world.phys.AABB;
 import net.minecraft.world.phys.Vec3;
-import org.joml.Matrix4dc;
-import org.joml.Vector3d;
 import org.slf4j.Logger;
 import org.valkyrienskies.clockwork.content.contraptions.phys.bearing.PhysBearingBlockEntity;
 import org.valkyrienskies.clockwork.platform.api.ContraptionController;
-import org.valkyrienskies.core.api.ships.Ship;
-import org.valkyrienskies.mod.common.VSGameUtilsKt;
 import rbasamoyai.createbigcannons.cannon_control.cannon_mount.CannonMountBlockEntity;
 import rbasamoyai.createbigcannons.cannon_control.contraption.AbstractMountedCannonContraption;
 import rbasamoyai.createbigcannons.cannon_control.contraption.PitchOrientedContraptionEntity;
@@ -91,6 +89,13 @@ public class AutoPitchControllerBlockEntity extends KineticBlockEntity {
     @Nullable
     private Vec3 smoothedTarget = null;
     private int mountRecheckCooldown = 0;
+    // group binding, only re-read when the cached WeaponNetworkData's binding epoch changes or on invalidate
+    @Nullable private WeaponNetworkData.WeaponGroupView cachedGroupView = null;
+    @Nullable private WeaponNetworkData groupBindingData = null;
+    private long groupBindingEpoch = -1;
+    private final ControllerAimSync aimSync = new ControllerAimSync();
+    // last VS2 (pitch, yaw) solution, the next solve starts from it like WeaponFiringControl's does
+    @Nullable private List<Double> lastVS2Solution = null;
     // cached mount
     private PhysBearingBlockEntity currentMount;
 
@@ -121,11 +126,15 @@ public class AutoPitchControllerBlockEntity extends KineticBlockEntity {
     @Override
     public void tick() {
         super.tick();
-        if (level == null || level.isClientSide())
+        if (level == null)
+            return;
+        if (level.isClientSide()) {
+            tickClientSlew();
             return;
-        if(level instanceof ServerLevel serverLevel){
-            if ( WeaponNetworkData.get(serverLevel).getWeaponGroupViewFromEndpoint(serverLevel.dimension(), worldPosition) == null ) return;
         }
+        // before the group check, so a controller that gets unlinked still tells clients it stopped
+        aimSync.syncAim(this, targetAngle, isRunning);
+        if (getWeaponGroup() == null) return;
         if (firingControl == null){
             getFiringControl();
         }
@@ -173,18 +182,50 @@ public class AutoPitchControllerBlockEntity extends KineticBlockEntity {
         this.desiredTarget = null;
         this.smoothedTarget = null;
         this.lastCommandedDeg = Double.NaN;
+    }
 
-        notifyUpdate();
-        setChanged();
-
+    private void tickClientSlew() {
+        ControllerAimSync.slewClient(isRunning, () -> {
+            Mount m = resolveMount();
+            return m != null && m.kind == MountKind.CBC ? m.cbc : null;
+        }, () -> mountDirty = true, this::rotateCBC);
     }
+    /**
+     * The group this controller is linked into, or null. Cached along with the level's
+     * {@link WeaponNetworkData}; link, unlink and move events there bump its binding epoch, which
+     * (or this block entity being invalidated) is the only thing that makes this re-resolve.
+     */
     @Nullable
-    private WeaponNetworkData.WeaponGroupView getWeaponGroup() {
+    public WeaponNetworkData.WeaponGroupView getWeaponGroup() {
         if (level == null || level.isClientSide) return null;
         if (!(level instanceof ServerLevel sl)) return null;
 
-        WeaponNetworkData data = WeaponNetworkData.get(sl);
-        return data.getWeaponGroupViewFromEndpoint(sl.dimension(), worldPosition);
+        WeaponNetworkData data = groupBindingData != null ? groupBindingData : WeaponNetworkData.get(sl);
+        long epoch = data.bindingEpoch();
+        if (data != groupBindingData || epoch != groupBindingEpoch) {
+            WeaponNetworkData.WeaponGroupView view = data.getWeaponGroupViewFromEndpoint(sl.dimension(), worldPosition);
+
+            // moved to another mount (or unlinked): the old firing control points at the wrong cannon
+            if (firingControl != null && (view == null || cachedGroupView == null || !view.mountPos().equals(cachedGroupView.mountPos()))) {
+                firingControl = null;
+            }
+            cachedGroupView = view;
+            groupBindingData = data;
+            groupBindingEpoch = epoch;
+        }
+        return cachedGroupView;
+    }
+
+    private void clearGroupBinding() {
+        cachedGroupView = null;
+        groupBindingData = null;
+        groupBindingEpoch = -1;
+    }
+
+    @Override
+    public void invalidate() {
+        super.invalidate();
+        clearGroupBinding();
     }
 
     public static Entity getEntityByUUID(ServerLevel level, UUID uuid) {
@@ -286,9 +327,6 @@ public class AutoPitchControllerBlockEntity extends KineticBlockEntity {
             desiredTarget = null;
             smoothedTarget = null;
             lastCommandedDeg = Double.NaN;
-
-            notifyUpdate();
-            setChanged();
             return;
         }
         Mount mount = resolveMount();
@@ -302,8 +340,8 @@ public class AutoPitchControllerBlockEntity extends KineticBlockEntity {
 
         if (mount.kind == MountKind.PHYS && Mods.VS_CLOCKWORK.isLoaded()) {
 
-            Ship ship = getShipIfPresent();
-            Vec3 desired = (ship != null) ? toShipSpace(ship, targetPos) : targetPos;
+            ShipTransformCache.Snapshot ship = getShipIfPresent();
+            Vec3 desired = (ship != null) ? ship.toShip(targetPos) : targetPos;
 
             desiredTarget = desired;
             if (smoothedTarget == null)
@@ -311,9 +349,6 @@ public class AutoPitchControllerBlockEntity extends KineticBlockEntity {
 
             isRunning = true;
             lastCommandedDeg = Double.NaN;
-
-            notifyUpdate();
-            setChanged();
         }
     }
 
@@ -416,7 +451,7 @@ public class AutoPitchControllerBlockEntity extends KineticBlockEntity {
     }
 
 
-    public void setSafeZones(List<AABB> safeZones) {
+    public void setSafeZones(SafeZoneSet safeZones) {
         if (firingControl == null)
             return;
         firingControl.setSafeZones(safeZones);
@@ -468,7 +503,7 @@ public class AutoPitchControllerBlockEntity extends KineticBlockEntity {
         if (Math.abs(diff) <= nearDeadbandDeg) {
             double clamped = clampToLimitsCBC(targetAngle);
             mount.setPitch((float) clamped);
-            mount.notifyUpdate();
+            aimSync.syncMount(mount, clamped);
             return;
         }
 
@@ -479,7 +514,7 @@ public class AutoPitchControllerBlockEntity extends KineticBlockEntity {
             double desiredContraptionPitch = targetAngle;
 
             mount.setPitch((float) desiredContraptionPitch);
-            mount.notifyUpdate();
+            aimSync.syncMount(mount, desiredContraptionPitch);
             return;
         }
 
@@ -492,9 +527,7 @@ public class AutoPitchControllerBlockEntity extends KineticBlockEntity {
 
 
         mount.setPitch((float) nextCtl);
-
-
-        mount.notifyUpdate();
+        aimSync.syncMount(mount, nextCtl);
     }
     public boolean snapping(){
         double rpm = Math.abs(getSpeed());
@@ -506,11 +539,12 @@ public class AutoPitchControllerBlockEntity extends KineticBlockEntity {
 
 
         if (PhysicsHandler.isBlockInShipyard(level, this.getBlockPos())) {
-            List<List<Double>> angles = VS2CannonTargeting.calculatePitchAndYawVS2(mount, targetPos, serverLevel);
+            List<List<Double>> angles = VS2CannonTargeting.calculatePitchAndYawVS2(mount, targetPos, serverLevel, lastVS2Solution);
             if (angles == null || angles.isEmpty() || angles.get(0).isEmpty()){
                 LOGGER.warn("ping-3"+angles);
                 return;
             }
+            lastVS2Solution = angles.get(0);
 
             // pitch
             this.targetAngle = clampToLimitsCBC(angles.get(0).get(0));
@@ -521,8 +555,6 @@ public class AutoPitchControllerBlockEntity extends KineticBlockEntity {
 //            }
             LOGGER.warn("ping");
             isRunning = true;
-            notifyUpdate();
-            setChanged();
             return;
         }
 
@@ -560,8 +592,6 @@ public class AutoPitchControllerBlockEntity extends KineticBlockEntity {
         LOGGER.debug("PITCH.solve targetAngle={}", targetAngle);
 
         isRunning = true;
-        notifyUpdate();
-        setChanged();
     }
 
 
@@ -697,8 +727,8 @@ public class AutoPitchControllerBlockEntity extends KineticBlockEntity {
             lastCommandedDeg = Double.NaN;
         }
 
-        setChanged();
-        notifyUpdate();
+        if (!level.isClientSide)
+            notifyUpdate();
     }
 
     public void onRelevantNeighborChanged(BlockPos fromPos) {
@@ -913,20 +943,13 @@ public class AutoPitchControllerBlockEntity extends KineticBlockEntity {
 
     // VS helpers (PhysBearing target space)
     @Nullable
-    private Ship getShipIfPresent() {
+    private ShipTransformCache.Snapshot getShipIfPresent() {
         if (level == null) return null;
 
         if (!Mods.VALKYRIENSKIES.isLoaded())
             return null;
 
-        return VSGameUtilsKt.getShipManagingPos(level, worldPosition);
-    }
-
-    private static Vec3 toShipSpace(Ship ship, Vec3 worldPos) {
-        Matrix4dc worldToShip = ship.getTransform().getWorldToShip();
-        Vector3d v = new Vector3d(worldPos.x, worldPos.y, worldPos.z);
-        worldToShip.transformPosition(v);
-        return new Vec3(v.x, v.y, v.z);
+        return ShipTransformCache.get(level, worldPosition);
     }
 
     public boolean canEngageTrack(@Nullable RadarTrack track, boolean requireLos) {
@@ -961,7 +984,8 @@ public class AutoPitchControllerBlockEntity extends KineticBlockEntity {
             Vec3 mountPos = mount.cbc.getBlockPos().getCenter();
             if (Mods.VALKYRIENSKIES.isLoaded() && PhysicsHandler.isBlockInShipyard(level, this.getBlockPos())) {
                 mountPos = VS2Utils.getWorldVec(level, mountPos);
-                List<List<Double>> angles = VS2CannonTargeting.calculatePitchAndYawVS2(mount.cbc, p, sl);
+                // only a starting guess for a different target, so it isn't stored back
+                List<List<Double>> angles = VS2CannonTargeting.calculatePitchAndYawVS2(mount.cbc, p, sl, lastVS2Solution);
                 if (angles == null || angles.isEmpty() || angles.get(0).isEmpty()) return false;
             } else {
                 Vec3 origin = getRayStart();
@@ -1,6 +1,7 @@
 package com.happysg.radar.block.controller.track;
 
 import com.happysg.radar.compat.Mods;
+import com.happysg.radar.compat.vs2.ShipTransformCache;
 import com.happysg.radar.compat.vs2.VS2Utils;
 import com.simibubi.create.content.kinetics.transmission.SplitShaftBlockEntity;
 import net.minecraft.core.BlockPos;
@@ -9,8 +10,6 @@ import net.minecraft.nbt.CompoundTag;
 import net.minecraft.world.level.block.entity.BlockEntityType;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.phys.Vec3;
-import org.joml.Quaterniondc;
-import org.valkyrienskies.core.api.ships.LoadedShip;
 
 import static com.simibubi.create.content.kinetics.base.HorizontalKineticBlock.HORIZONTAL_FACING;
 
@@ -109,23 +108,10 @@ public class TrackControllerBlockEntity extends SplitShaftBlockEntity {
     private double getAngleOffsetToWorld() {
         if (!Mods.VALKYRIENSKIES.isLoaded())
             return 0;
-        LoadedShip ship = VS2Utils.getShipManagingPos(this);
+        ShipTransformCache.Snapshot ship = ShipTransformCache.get(this);
         if (ship == null)
             return 0;
-        Quaterniondc quaterniondc = ship.getTransform().getShipToWorldRotation();
-        // Extract yaw directly from quaternion
-        double qw = quaterniondc.w();
-        double qx = quaterniondc.x();
-        double qy = quaterniondc.y();
-        double qz = quaterniondc.z();
-
-        // Calculate yaw in radians
-        double yaw = Math.atan2(2.0 * (qw * qy + qx * qz), 1.0 - 2.0 * (qy * qy + qz * qz));
-
-        // Convert to degrees and normalize to range [-180, 180]
-        yaw = Math.toDegrees(yaw);
-        yaw = (yaw + 360) % 360; // Normalize to range [0, 360)
-        return yaw;
+        return (ship.yawDeg() + 360) % 360; // Normalize to range [0, 360)
     }
 
     private double toYRot() {
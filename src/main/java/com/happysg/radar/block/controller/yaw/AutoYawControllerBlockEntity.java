@@ -1,9 +1,11 @@
 package com.happysg.radar.block.controller.yaw;
 
 import com.happysg.radar.block.behavior.networks.WeaponNetworkData;
+import com.happysg.radar.block.controller.ControllerAimSync;
 import com.happysg.radar.compat.Mods;
 import com.happysg.radar.compat.cbc.VS2CannonTargeting;
 import com.happysg.radar.compat.vs2.PhysicsHandler;
+import com.happysg.radar.compat.vs2.ShipTransformCache;
 import com.happysg.radar.config.RadarConfig;
 import com.mojang.logging.LogUtils;
 import com.simibubi.create.content.kinetics.base.DirectionalKineticBlock;
@@ -19,11 +21,8 @@ import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.entity.BlockEntityType;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.phys.Vec3;
-import org.joml.Vector3d;
 import org.valkyrienskies.clockwork.content.contraptions.phys.bearing.PhysBearingBlockEntity;
 import org.valkyrienskies.clockwork.platform.api.ContraptionController;
-import org.valkyrienskies.core.api.ships.Ship;
-import org.valkyrienskies.mod.common.VSGameUtilsKt;
 import rbasamoyai.createbigcannons.cannon_control.cannon_mount.CannonMountBlockEntity;
 import rbasamoyai.createbigcannons.cannon_control.contraption.AbstractMountedCannonContraption;
 import rbasamoyai.createbigcannons.cannon_control.contraption.PitchOrientedContraptionEntity;
@@ -60,6 +59,9 @@ public class AutoYawControllerBlockEntity extends KineticBlockEntity{
     private boolean hasYawZeroOffset = false;
     private double lastYawZeroOffsetDeg = 0.0;
     private MountKind currentmount;
+    private final ControllerAimSync aimSync = new ControllerAimSync();
+    // last VS2 (pitch, yaw) solution, the next solve starts from it like WeaponFiringControl's does
+    @Nullable private List<Double> lastVS2Solution = null;
 
 
 
@@ -72,8 +74,14 @@ public class AutoYawControllerBlockEntity extends KineticBlockEntity{
     public void tick() {
         super.tick();
 
-        if (level == null || level.isClientSide())
+        if (level == null)
+            return;
+        if (level.isClientSide()) {
+            tickClientSlew();
             return;
+        }
+        aimSync.syncAim(this, targetAngle, isRunning);
+
         Mount mount = resolveMount();
         if (mount == null) return;
 
@@ -119,8 +127,13 @@ public class AutoYawControllerBlockEntity extends KineticBlockEntity{
     public void setTargetAngle(float targetAngle) {
         this.targetAngle = clampYawToLimits(targetAngle);
         this.isRunning = true;
-        notifyUpdate();
-        setChanged();
+    }
+
+    private void tickClientSlew() {
+        ControllerAimSync.slewClient(isRunning, () -> {
+            Mount mount = resolveMount();
+            return mount != null && mount.kind == MountKind.CBC ? mount.cbc : null;
+        }, this::markMountDirty, this::rotateCBC);
     }
 
 
@@ -134,26 +147,21 @@ public class AutoYawControllerBlockEntity extends KineticBlockEntity{
 
         if (targetPos == null) {
             isRunning = false;
-
-            notifyUpdate();
-            setChanged();
+            lastVS2Solution = null;
             return;
         }
         BlockPos abovepos = worldPosition.above();
         Vec3 mountpos = Vec3.ZERO;
         if(level.getBlockEntity(abovepos) instanceof CannonMountBlockEntity mountBlock) {
             if (PhysicsHandler.isBlockInShipyard(level, this.getBlockPos())) {
-                List<List<Double>> angles = VS2CannonTargeting.calculatePitchAndYawVS2(mountBlock, targetPos, (ServerLevel) level);
+                List<List<Double>> angles = VS2CannonTargeting.calculatePitchAndYawVS2(mountBlock, targetPos, (ServerLevel) level, lastVS2Solution);
                 if (angles == null || angles.isEmpty() || angles.get(0).isEmpty())
                     return;
+                lastVS2Solution = angles.get(0);
 
                 // yaw
                 this.targetAngle = clampYawToLimits(angles.get(0).get(1));
-
-
                 isRunning = true;
-                notifyUpdate();
-                setChanged();
                 return;
             }
         }
@@ -172,8 +180,6 @@ public class AutoYawControllerBlockEntity extends KineticBlockEntity{
         }
 
         this.targetAngle = clampYawToLimits(newAngle);
-        notifyUpdate();
-        setChanged();
     }
     private long lastCbcYawWrittenTick = -1;
     /** Works for either mount type */
@@ -237,7 +243,7 @@ public class AutoYawControllerBlockEntity extends KineticBlockEntity{
             lastCbcYawWritten = wrap360(desiredYaw);
             hasLastCbcYawWritten = true;
 
-            mount.notifyUpdate();
+            aimSync.syncMount(mount, desiredYaw);
 
             // isRunning = false;
             return;
@@ -249,7 +255,7 @@ public class AutoYawControllerBlockEntity extends KineticBlockEntity{
             mount.setYaw((float) desiredYaw);
             lastCbcYawWritten = wrap360(desiredYaw);
             hasLastCbcYawWritten = true;
-            mount.notifyUpdate();
+            aimSync.syncMount(mount, desiredYaw);
             return;
         }
         double speedFactor = rpm / 24.0;
@@ -264,7 +270,7 @@ public class AutoYawControllerBlockEntity extends KineticBlockEntity{
         mount.setYaw((float) nextYaw);
         lastCbcYawWritten = wrap360(nextYaw);
         hasLastCbcYawWritten = true;
-        mount.notifyUpdate();
+        aimSync.syncMount(mount, nextYaw);
     }
     private void rotatePhysBearing(PhysBearingBlockEntity mount) {
         ScrollOptionBehaviour<ContraptionController.LockedMode> mode = mount.getMovementMode();
@@ -455,15 +461,15 @@ public class AutoYawControllerBlockEntity extends KineticBlockEntity{
 
     // ===== VS2 ship-space yaw helper =====
     private double computeYawToTargetDeg(Vec3 cannonCenterWorld, Vec3 targetWorld) {
-        Ship ship = getShipIfPresent();
+        ShipTransformCache.Snapshot ship = getShipIfPresent();
 
         Vec3 cannonCenter = cannonCenterWorld;
         Vec3 target = targetWorld;
 
         // i'm converting both points into ship-space so ship rotation is automatically accounted for
-        if (Mods.VALKYRIENSKIES.isLoaded() && ship != null) {
-            cannonCenter = toShipSpace(ship, cannonCenterWorld);
-            target = toShipSpace(ship, targetWorld);
+        if (ship != null) {
+            cannonCenter = ship.toShip(cannonCenterWorld);
+            target = ship.toShip(targetWorld);
         }
 
         double dx = target.x - cannonCenter.x;
@@ -472,12 +478,6 @@ public class AutoYawControllerBlockEntity extends KineticBlockEntity{
         return Math.toDegrees(Math.atan2(dz, dx)) + 90.0;
     }
 
-    private Vec3 toShipSpace(Ship ship, Vec3 worldPos) {
-        Vector3d tmp = new Vector3d(worldPos.x, worldPos.y, worldPos.z);
-        ship.getTransform().getWorldToShip().transformPosition(tmp);
-        return new Vec3(tmp.x, tmp.y, tmp.z);
-    }
-
     @Override
     protected void read(CompoundTag compound, boolean clientPacket) {
         super.read(compound, clientPacket);
@@ -598,8 +598,8 @@ public class AutoYawControllerBlockEntity extends KineticBlockEntity{
             hasYawZeroOffset = false;
         }
 
-        setChanged();
-        notifyUpdate();
+        if (!level.isClientSide)
+            notifyUpdate();
     }
     public void onRelevantNeighborChanged(BlockPos fromPos) {
         // i only care if the neighbor that changed is the one i mount to
@@ -609,13 +609,13 @@ public class AutoYawControllerBlockEntity extends KineticBlockEntity{
         markMountDirty();
     }
     @Nullable
-    private Ship getShipIfPresent() {
+    private ShipTransformCache.Snapshot getShipIfPresent() {
         if (level == null) return null;
 
         if (!(Mods.VALKYRIENSKIES.isLoaded()))
             return null;
 
-        return VSGameUtilsKt.getShipManagingPos(level, worldPosition);
+        return ShipTransformCache.get(level, worldPosition);
     }
 
     private static double wrap360(double deg) {
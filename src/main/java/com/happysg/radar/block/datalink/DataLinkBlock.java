@@ -92,6 +92,13 @@ public class DataLinkBlock extends WrenchableDirectionalBlock implements IBE<Dat
         return ModBlockEntityTypes.RADAR_LINK.get();
     }
 
+    @Override
+    public void neighborChanged(BlockState state, Level level, BlockPos pos, Block block, BlockPos fromPos, boolean isMoving) {
+        super.neighborChanged(state, level, pos, block, fromPos, isMoving);
+        if (!level.isClientSide)
+            withBlockEntityDo(level, pos, DataLinkBlockEntity::invalidateEndpoints);
+    }
+
     @Override
     public void onRemove(BlockState state, Level level, BlockPos pos, BlockState newState, boolean isMoving) {
         if (!level.isClientSide && level instanceof ServerLevel serverLevel) {
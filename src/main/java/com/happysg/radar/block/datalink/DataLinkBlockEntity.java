@@ -1,6 +1,8 @@
 package com.happysg.radar.block.datalink;
 
 import com.happysg.radar.block.datalink.screens.AbstractDataLinkScreen;
+import com.happysg.radar.compat.vs2.ShipTransformCache;
+import com.happysg.radar.config.RadarConfig;
 import com.happysg.radar.registry.AllDataBehaviors;
 import com.simibubi.create.foundation.blockEntity.SmartBlockEntity;
 import com.simibubi.create.foundation.blockEntity.behaviour.BlockEntityBehaviour;
@@ -12,8 +14,6 @@ import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.level.block.entity.BlockEntityType;
 import net.minecraft.world.level.block.state.BlockState;
-import org.joml.Matrix4dc;
-import org.joml.Vector3d;
 
 import javax.annotation.Nullable;
 import java.util.List;
@@ -34,6 +34,16 @@ public class DataLinkBlockEntity extends SmartBlockEntity {
 
     private BlockPos linkedMonitorPos;
 
+    // source/target are resolved once and kept until something invalidates them; the periodic
+    // refresh covers far-away targets and ship moves that no neighbour update reports
+    private static final int RESOLVE_REFRESH_TICKS = 40;
+    private boolean endpointsDirty = true;
+    private boolean endpointsLoaded = false;
+    private long lastResolveTick;
+    private boolean forceTransfer = true;
+    private long lastTransferTick;
+    private long lastSourceVersion = DataPeripheral.UNVERSIONED;
+
     public DataLinkBlockEntity(BlockEntityType<?> type, BlockPos pos, BlockState state) {
         super(type, pos, state);
     }
@@ -46,14 +56,42 @@ public class DataLinkBlockEntity extends SmartBlockEntity {
     @Override
     public void tick() {
         super.tick();
-        updateGatheredData();
+        if (level == null || level.isClientSide)
+            return;
+
+        long now = level.getGameTime();
+        if (endpointsDirty || now - lastResolveTick >= RESOLVE_REFRESH_TICKS)
+            resolveEndpoints();
+
+        transferIfChanged(now);
     }
 
+    /**
+     * Re-resolves source and target and pushes data straight away. Used after the link was configured;
+     * normal ticks only re-resolve when {@link #invalidateEndpoints()} was called.
+     */
     public void updateGatheredData() {
+        if (level == null || level.isClientSide)
+            return;
+        resolveEndpoints();
+        forceTransfer = true;
+        transferIfChanged(level.getGameTime());
+    }
+
+    /** Called when a neighbour, our own block state or the link target changed. */
+    public void invalidateEndpoints() {
+        endpointsDirty = true;
+    }
+
+    private void resolveEndpoints() {
+        endpointsDirty = false;
+        lastResolveTick = level.getGameTime();
+
         BlockPos sourcePosition = getSourcePosition();
         BlockPos targetPosition = getTargetPosition();
 
-        if (!level.isLoaded(targetPosition) || !level.isLoaded(sourcePosition))
+        endpointsLoaded = level.isLoaded(targetPosition) && level.isLoaded(sourcePosition);
+        if (!endpointsLoaded)
             return;
 
         DataController target = AllDataBehaviors.targetOf(level, targetPosition);
@@ -71,19 +109,50 @@ public class DataLinkBlockEntity extends SmartBlockEntity {
             notify = true;
         }
 
-        if (notify)
+        if (notify) {
+            forceTransfer = true;
+            lastSourceVersion = DataPeripheral.UNVERSIONED;
             notifyUpdate();
-        if (activeSource == null || activeTarget == null) {
-            ledState = false;
+        }
+    }
+
+    private void transferIfChanged(long now) {
+        if (!endpointsLoaded)
             return;
+
+        boolean active = activeSource != null && activeTarget != null;
+        if (active != ledState) {
+            ledState = active;
+            sendData();
         }
+        if (!active)
+            return;
 
-        ledState = true;
-        activeSource.transferData(new DataLinkContext(level, this), activeTarget);
-        sendData();
+        DataLinkContext context = new DataLinkContext(level, this);
+        long version = activeSource.getChangeVersion(context);
+
+        // versioned sources transfer when they changed, the rest are polled at the configured interval
+        boolean due = version != DataPeripheral.UNVERSIONED
+                ? version != lastSourceVersion
+                : now - lastTransferTick >= RadarConfig.server().dataLinkTransferInterval.get();
+        if (!due && !forceTransfer)
+            return;
+
+        forceTransfer = false;
+        lastSourceVersion = version;
+        lastTransferTick = now;
+        activeSource.transferData(context, activeTarget);
         //TODO implement advancement
     }
 
+    @Override
+    @SuppressWarnings("deprecation")
+    public void setBlockState(BlockState state) {
+        super.setBlockState(state);
+        // facing decides where the source is
+        invalidateEndpoints();
+    }
+
     @Override
     public void writeSafe(CompoundTag tag) {
         super.writeSafe(tag);
@@ -148,18 +217,19 @@ public class DataLinkBlockEntity extends SmartBlockEntity {
             return;
         }
 
-        var ship = org.valkyrienskies.mod.common.VSGameUtilsKt.getShipManagingPos(sl, worldPosition);
-        var targetShip = org.valkyrienskies.mod.common.VSGameUtilsKt.getShipManagingPos(sl, targetPosition);
+        var ship = ShipTransformCache.get(sl, worldPosition);
+        var targetShip = ShipTransformCache.get(sl, targetPosition);
 
-        if (ship != null && targetShip != null && ship.getId() == targetShip.getId()) {
-            linkedShipId = ship.getId();
+        if (ship != null && targetShip != null && ship.shipId() == targetShip.shipId()) {
+            linkedShipId = ship.shipId();
 
-            BlockPos selfShipPos   = toShipBlockPos(ship, worldPosition);
-            BlockPos targetShipPos = toShipBlockPos(ship, targetPosition);
+            BlockPos selfShipPos   = ship.toShip(worldPosition);
+            BlockPos targetShipPos = ship.toShip(targetPosition);
 
             targetOffsetShip = targetShipPos.subtract(selfShipPos);
 
             targetOffset = targetPosition.subtract(worldPosition);
+            invalidateEndpoints();
             setChanged();
             return;
         }
@@ -167,6 +237,7 @@ public class DataLinkBlockEntity extends SmartBlockEntity {
         linkedShipId = null;
         targetOffsetShip = BlockPos.ZERO;
         this.targetOffset = targetPosition.subtract(worldPosition);
+        invalidateEndpoints();
         setChanged();
     }
 
@@ -174,15 +245,15 @@ public class DataLinkBlockEntity extends SmartBlockEntity {
         if (!(level instanceof ServerLevel sl) || linkedShipId == null)
             return worldPosition.relative(getDirection());
 
-        var ship = org.valkyrienskies.mod.common.VSGameUtilsKt.getShipManagingPos(sl, worldPosition);
-        if (ship == null || ship.getId() != linkedShipId) {
+        var ship = ShipTransformCache.get(sl, worldPosition);
+        if (ship == null || ship.shipId() != linkedShipId) {
             linkedShipId = null;
             return worldPosition.relative(getDirection());
         }
 
-        BlockPos selfShipPos = toShipBlockPos(ship, worldPosition);
+        BlockPos selfShipPos = ship.toShip(worldPosition);
         BlockPos sourceShipPos = selfShipPos.relative(getDirection());
-        return toWorldBlockPos(ship, sourceShipPos);
+        return ship.toWorld(sourceShipPos);
     }
 
     public CompoundTag getSourceConfig() {
@@ -204,34 +275,16 @@ public class DataLinkBlockEntity extends SmartBlockEntity {
             return worldPosition.offset(targetOffset);
         }
 
-        var ship = org.valkyrienskies.mod.common.VSGameUtilsKt.getShipManagingPos(sl, worldPosition);
-        if (ship == null || ship.getId() != linkedShipId) {
+        var ship = ShipTransformCache.get(sl, worldPosition);
+        if (ship == null || ship.shipId() != linkedShipId) {
             // ship changed / disassembled; fall back
             linkedShipId = null;
             return worldPosition.offset(targetOffset);
         }
 
-        BlockPos selfShipPos = toShipBlockPos(ship, worldPosition);
+        BlockPos selfShipPos = ship.toShip(worldPosition);
         BlockPos targetShipPos = selfShipPos.offset(targetOffsetShip);
 
-        return toWorldBlockPos(ship, targetShipPos);
-    }
-
-    private static BlockPos toShipBlockPos(org.valkyrienskies.core.api.ships.ServerShip ship, BlockPos worldPos) {
-        Vector3d v = new Vector3d(worldPos.getX() + 0.5, worldPos.getY() + 0.5, worldPos.getZ() + 0.5);
-
-        Matrix4dc worldToShip = ship.getWorldToShip();
-        worldToShip.transformPosition(v);
-
-        return BlockPos.containing(v.x, v.y, v.z);
-    }
-
-    private static BlockPos toWorldBlockPos(org.valkyrienskies.core.api.ships.ServerShip ship, BlockPos shipPos) {
-        Vector3d v = new Vector3d(shipPos.getX() + 0.5, shipPos.getY() + 0.5, shipPos.getZ() + 0.5);
-
-        Matrix4dc shipToWorld = ship.getShipToWorld();
-        shipToWorld.transformPosition(v);
-
-        return BlockPos.containing(v.x, v.y, v.z);
+        return ship.toWorld(targetShipPos);
     }
 }
\ No newline at end of file
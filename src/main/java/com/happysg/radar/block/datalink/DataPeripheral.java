@@ -9,9 +9,20 @@ import javax.annotation.Nullable;
 
 public abstract class DataPeripheral extends DataLinkBehavior {
 
+    public static final long UNVERSIONED = Long.MIN_VALUE;
+
     @Nullable
     @OnlyIn(value = Dist.CLIENT)
     protected abstract AbstractDataLinkScreen getScreen(DataLinkBlockEntity be);
 
     protected abstract void transferData(@NotNull DataLinkContext context, @NotNull DataController activeTarget);
+
+    /**
+     * Something that changes whenever the data this source would transfer changes, so the link can
+     * skip transfers that would push the same thing again. Sources that can't tell return
+     * {@link #UNVERSIONED} and get polled every {@code dataLinkTransferInterval} ticks instead.
+     */
+    protected long getChangeVersion(@NotNull DataLinkContext context) {
+        return UNVERSIONED;
+    }
 }
@@ -1,9 +1,9 @@
 package com.happysg.radar.block.guidance;
 
-import com.happysg.radar.block.behavior.networks.config.TargetingConfig;
-import com.happysg.radar.block.monitor.MonitorBlockEntity;
+import com.happysg.radar.config.RadarConfig;
 import net.minecraft.core.BlockPos;
 import net.minecraft.nbt.CompoundTag;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.entity.BlockEntityType;
 import net.minecraft.world.level.block.state.BlockState;
@@ -29,45 +29,58 @@ public class RadarGuidanceBlockEntity extends GuidanceBlockEntity {
         return target != null;
     }
 
-    private void checkForTarget(Level server) {
-        if (monitorPos == null) return;
-        if (server.getBlockEntity(monitorPos) instanceof MonitorBlockEntity monitor) {
-            target = monitor.getController().getTargetPos(TargetingConfig.DEFAULT);
-        }
+    @Nullable
+    private RadarGuidanceService.TargetSnapshot checkForTarget(Level level) {
+        if (!(level instanceof ServerLevel sl)) return null;
+        RadarGuidanceService.TargetSnapshot snapshot = RadarGuidanceService.snapshot(sl, monitorPos);
+        target = snapshot == null ? null : snapshot.position();
+        return snapshot;
     }
 
     public void tickMissileGuidance(MunitionsPhysicsContraptionEntity missile) {
         if (missile.level().isClientSide) return;
-        checkForTarget(missile.level());
-        if (target == null) return;
-        Vec3 missilePos = missile.position();
-        Vec3 targetPos = target;
-        Vec3 targetVelocity = Vec3.ZERO;
+        RadarGuidanceService.TargetSnapshot snapshot = checkForTarget(missile.level());
+        if (snapshot == null) return;
+
         Vec3 missileVelocity = missile.getDeltaMovement();
-        Vec3 relativePos = targetPos.subtract(missilePos);
-        Vec3 relativeVelocity = targetVelocity.subtract(missileVelocity);
         double missileSpeed = missileVelocity.length();
-        double a = relativeVelocity.lengthSqr() - missileSpeed * missileSpeed;
-        double b = 2.0 * relativePos.dot(relativeVelocity);
-        double c = relativePos.lengthSqr();
-        double discriminant = b * b - 4.0 * a * c;
-        double timeToIntercept;
-        double distance;
-        if (discriminant > 0.0 && a != 0.0) {
-            distance = (-b + Math.sqrt(discriminant)) / (2.0 * a);
-            double t2 = (-b - Math.sqrt(discriminant)) / (2.0 * a);
-            timeToIntercept = Math.min(distance, t2) > 0.0 ? Math.min(distance, t2) : Math.max(distance, t2);
-        } else {
-            distance = missile.position().distanceTo(target);
-            timeToIntercept = distance / missileSpeed;
-        }
+        if (missileSpeed < 1.0e-6) return;
 
-        Vec3 interceptPoint = targetPos.add(targetVelocity.scale(timeToIntercept));
-        Vec3 directionToIntercept = interceptPoint.subtract(missilePos).normalize();
-        Vec3 currentDirection = missileVelocity.normalize();
-        currentDirection.dot(directionToIntercept);
+        Vec3 currentDirection = missileVelocity.scale(1.0 / missileSpeed);
         double turningRate = this.calculateTurningSpeed(missile.getContraption().getBlocks().size(), missileSpeed, getBlockState());
-        Vec3 adjustedDirection = currentDirection.lerp(directionToIntercept, turningRate).normalize();
+
+        Vec3 relativePos = snapshot.position().subtract(missile.position());
+        Vec3 relativeVelocity = snapshot.velocity().subtract(missileVelocity);
+        double rangeSqr = relativePos.lengthSqr();
+        if (rangeSqr < 1.0e-6) return;
+        double range = Math.sqrt(rangeSqr);
+        Vec3 los = relativePos.scale(1.0 / range);
+        double closingSpeed = -relativePos.dot(relativeVelocity) / range;
+
+        Vec3 adjustedDirection;
+        if (closingSpeed <= 0.0) {
+            // not closing yet (fresh off the rail or overshot), i swing toward the lead point first
+            double timeToIntercept = range / missileSpeed;
+            Vec3 interceptPoint = snapshot.position().add(snapshot.velocity().scale(timeToIntercept));
+            Vec3 directionToIntercept = interceptPoint.subtract(missile.position()).normalize();
+            adjustedDirection = currentDirection.lerp(directionToIntercept, turningRate).normalize();
+        } else {
+            // augmented proportional navigation: a = N * Vc * (omega x los) + N/2 * target accel across the los
+            double navigationConstant = RadarConfig.server().radarGuidanceNavigationConstant.getF();
+            Vec3 losRate = relativePos.cross(relativeVelocity).scale(1.0 / rangeSqr);
+            Vec3 command = losRate.cross(los).scale(navigationConstant * closingSpeed);
+
+            Vec3 targetAccel = snapshot.acceleration();
+            Vec3 targetAccelAcross = targetAccel.subtract(los.scale(targetAccel.dot(los)));
+            command = command.add(targetAccelAcross.scale(navigationConstant * 0.5));
+
+            // the airframe only turns so hard, the same limit the old lerp law had per tick
+            double maxLateral = turningRate * missileSpeed;
+            if (command.lengthSqr() > maxLateral * maxLateral)
+                command = command.normalize().scale(maxLateral);
+
+            adjustedDirection = missileVelocity.add(command).normalize();
+        }
         missile.setContraptionMotion(adjustedDirection.scale(missileSpeed));
     }
 
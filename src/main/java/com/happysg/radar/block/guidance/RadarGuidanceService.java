@@ -0,0 +1,96 @@
+package com.happysg.radar.block.guidance;
+
+import com.happysg.radar.block.behavior.networks.config.TargetingConfig;
+import com.happysg.radar.block.monitor.MonitorBlockEntity;
+import com.happysg.radar.block.radar.track.RadarTrack;
+import com.happysg.radar.block.radar.track.TargetHandle;
+import com.happysg.radar.block.radar.track.TrackCategory;
+import com.happysg.radar.compat.cbc.VelocityTracker;
+import com.happysg.radar.compat.vs2.VS2ShipVelocityTracker;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.phys.Vec3;
+
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * One target picture per monitor controller per tick, shared by every radar-guided missile linked
+ * to it.
+ * <p>
+ * Position comes from the monitor's selection (safe zones applied), velocity from the same trackers
+ * the cannons lead with. Acceleration is differenced from this service's own previous snapshot
+ * rather than {@code AccelerationTracker}, whose update path would step twice a tick when a cannon
+ * is engaging the same target. All values are per tick. Server thread only.
+ */
+public final class RadarGuidanceService {
+
+    public record TargetSnapshot(String id, Vec3 position, Vec3 velocity, Vec3 acceleration) {}
+
+    private static final class Entry {
+        long tick = Long.MIN_VALUE;
+        @Nullable TargetSnapshot snapshot;
+    }
+
+    private static final Map<ServerLevel, Map<BlockPos, Entry>> ENTRIES = new WeakHashMap<>();
+
+    private RadarGuidanceService() {}
+
+    /** This tick's target for the monitor at {@code monitorPos}, or null if it has none. */
+    @Nullable
+    public static TargetSnapshot snapshot(ServerLevel level, @Nullable BlockPos monitorPos) {
+        if (monitorPos == null) return null;
+        if (!(level.getBlockEntity(monitorPos) instanceof MonitorBlockEntity monitor)) return null;
+
+        MonitorBlockEntity controller = monitor.getController();
+        Entry entry = ENTRIES.computeIfAbsent(level, l -> new HashMap<>())
+                .computeIfAbsent(controller.getBlockPos(), p -> new Entry());
+
+        long now = level.getGameTime();
+        if (entry.tick == now) return entry.snapshot;
+
+        TargetSnapshot previous = entry.tick == now - 1 ? entry.snapshot : null;
+        entry.tick = now;
+        entry.snapshot = resolve(level, controller, previous);
+        return entry.snapshot;
+    }
+
+    @Nullable
+    private static TargetSnapshot resolve(ServerLevel level, MonitorBlockEntity controller, @Nullable TargetSnapshot previous) {
+        // i go through getTargetPos first, it drops selections that vanished or sit in a safe zone
+        Vec3 position = controller.getTargetPos(TargetingConfig.DEFAULT);
+        if (position == null) return null;
+
+        RadarTrack track = controller.resolveActiveTrack();
+        if (track == null || track.id() == null) return null;
+
+        Vec3 velocity;
+        boolean tracked = true;
+        TargetHandle handle = TargetHandle.resolve(level, track);
+        Entity entity = handle != null ? handle.entity(level) : null;
+        if (handle != null && handle.ship() != null) {
+            velocity = VS2ShipVelocityTracker.getShipVelocityPerTick(handle.ship());
+            position = handle.position(level);
+        } else if (entity != null) {
+            velocity = VelocityTracker.getEstimatedVelocityPerTick(entity);
+            position = entity.position();
+        } else {
+            // out of loaded range, the radar picture is all there is. its position only moves once a
+            // scan, so i take the velocity the radar recorded rather than differencing it, and leave
+            // acceleration out since that velocity is just as stepped
+            tracked = false;
+            Vec3 scanned = track.velocity() != null ? track.velocity() : Vec3.ZERO;
+            // VS2 reports ships in blocks/second, entities are already per tick
+            velocity = track.trackCategory() == TrackCategory.VS2 ? scanned.scale(1 / 20.0) : scanned;
+        }
+
+        Vec3 acceleration = tracked && previous != null && previous.id().equals(track.id())
+                ? velocity.subtract(previous.velocity())
+                : Vec3.ZERO;
+
+        return new TargetSnapshot(track.id(), position, velocity, acceleration);
+    }
+}
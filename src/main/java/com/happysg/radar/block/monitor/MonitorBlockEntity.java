@@ -2,6 +2,7 @@ package com.happysg.radar.block.monitor;
 
 import com.happysg.radar.block.behavior.networks.INetworkNode;
 import com.happysg.radar.block.behavior.networks.NetworkData;
+import com.happysg.radar.block.behavior.networks.RadarTrackFusion;
 import com.happysg.radar.block.behavior.networks.config.DetectionConfig;
 import com.happysg.radar.block.behavior.networks.config.TargetingConfig;
 import com.happysg.radar.block.controller.networkcontroller.NetworkFiltererBlockEntity;
@@ -9,8 +10,10 @@ import com.happysg.radar.block.radar.behavior.IRadar;
 import com.happysg.radar.block.radar.track.RadarTrack;
 import com.happysg.radar.block.radar.track.RadarTrackUtil;
 import com.happysg.radar.block.radar.track.TrackCategory;
+import com.happysg.radar.block.radar.track.TrackSnapshot;
 import com.happysg.radar.compat.Mods;
 import com.happysg.radar.compat.vs2.PhysicsHandler;
+import com.happysg.radar.compat.vs2.ShipTransformCache;
 import com.happysg.radar.block.behavior.networks.config.AutoTargetingHelper;
 import com.mojang.logging.LogUtils;
 import com.simibubi.create.api.equipment.goggles.IHaveHoveringInformation;
@@ -59,6 +62,9 @@ public class MonitorBlockEntity extends SmartBlockEntity implements IHaveHoverin
 
     /** Client renders from this list (synced via packet). */
     protected Collection<RadarTrack> cachedTracks = new ArrayList<>();
+    private TrackSnapshot trackSnapshot = TrackSnapshot.EMPTY;
+    /** Controller's snapshot as of this monitor's last server tick, read by computercraft off the server thread. */
+    private volatile TrackSnapshot controllerSnapshot = TrackSnapshot.EMPTY;
 
     /** Keep as field because renderer uses it (coloring). */
     protected DetectionConfig filter = DetectionConfig.DEFAULT;
@@ -102,6 +108,7 @@ public class MonitorBlockEntity extends SmartBlockEntity implements IHaveHoverin
                 MonitorBlockEntity controllerBe = getController();
                 if (controllerBe != null) {
                     controllerBe.activetrack = controllerBe.resolveActiveTrackFromCache();
+                    controllerSnapshot = controllerBe.trackSnapshot;
                 }
 
                 sendData();
@@ -268,7 +275,7 @@ public class MonitorBlockEntity extends SmartBlockEntity implements IHaveHoverin
     // -------------------------------------------------
 
     @Nullable
-    private RadarTrack resolveActiveTrack() {
+    public RadarTrack resolveActiveTrack() {
         if (selectedEntity == null)
             return null;
 
@@ -299,6 +306,7 @@ public class MonitorBlockEntity extends SmartBlockEntity implements IHaveHoverin
         Optional<IRadar> r = getRadar();
         if (r.isEmpty()) {
             cachedTracks = List.of();
+            trackSnapshot = TrackSnapshot.update(trackSnapshot, cachedTracks, level.getGameTime());
             activetrack = null;
             selectedEntity = null;
             return;
@@ -306,7 +314,12 @@ public class MonitorBlockEntity extends SmartBlockEntity implements IHaveHoverin
 
         IRadar radar = r.get();
         DetectionConfig det = this.filter; // already synced from network (or legacy)
-        cachedTracks = radar.getTracks().stream().filter(det::test).toList();
+        // networks with several radars show the fused picture of all of them
+        Collection<RadarTrack> source = level instanceof ServerLevel sl
+                ? RadarTrackFusion.tracks(sl, getNetworkGroup(sl), radar)
+                : radar.getTracks();
+        cachedTracks = source.stream().filter(det::test).toList();
+        trackSnapshot = TrackSnapshot.update(trackSnapshot, cachedTracks, level.getGameTime());
 
         if (!level.isClientSide) {
             activetrack = resolveActiveTrack();
@@ -411,6 +424,11 @@ public class MonitorBlockEntity extends SmartBlockEntity implements IHaveHoverin
         return cachedTracks;
     }
 
+    /** The controller's tracks as of the last scan; safe to read from any thread. */
+    public TrackSnapshot getTrackSnapshot() {
+        return controllerSnapshot;
+    }
+
     public float getRange() {
         return getRadar().map(IRadar::getRange).orElse(0f);
     }
@@ -437,7 +455,7 @@ public class MonitorBlockEntity extends SmartBlockEntity implements IHaveHoverin
 
         if (targetPos.get() == null)
             selectedEntity = null;
-        else if (AutoTargetingHelper.isInSafeZone(targetPos.get(), safeZones))
+        else if (isInSafeZone(targetPos.get()))
             return null;
 
         return targetPos.get();
@@ -447,7 +465,11 @@ public class MonitorBlockEntity extends SmartBlockEntity implements IHaveHoverin
 
 
     public boolean isInSafeZone(Vec3 pos) {
-        return AutoTargetingHelper.isInSafeZone(pos, safeZones);
+        for (AABB zone : safeZones) {
+            if (zone.contains(pos))
+                return true;
+        }
+        return false;
     }
 
     public void addSafeZone(BlockPos startPos, BlockPos endPos) {
@@ -570,9 +592,19 @@ public class MonitorBlockEntity extends SmartBlockEntity implements IHaveHoverin
 
     public Ship getShip(){
         if(!Mods.VALKYRIENSKIES.isLoaded())return null;
-        Ship ship = VSGameUtilsKt.getShipManagingPos(level,worldPosition);
-        return ship;
+        ShipTransformCache.Snapshot ship = ShipTransformCache.get(level, worldPosition);
+        return ship == null ? null : ship.ship();
+
+    }
 
+    /**
+     * Yaw of the ship this monitor sits on, relative to world north (-Z), in radians.
+     * 0 when not on a ship.
+     */
+    public double getShipYawRad() {
+        ShipTransformCache.Snapshot ship = ShipTransformCache.get(level, worldPosition);
+        // snapshot yaw is measured from south, this screen math wants it from north
+        return ship == null ? 0 : Math.PI - ship.yawRad();
     }
 
 
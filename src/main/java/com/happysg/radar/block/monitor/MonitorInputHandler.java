@@ -15,8 +15,6 @@ import net.minecraft.world.level.Level;
 import net.minecraft.world.phys.BlockHitResult;
 import net.minecraft.world.phys.Vec3;
 import net.minecraftforge.event.TickEvent;
-import org.joml.Quaterniond;
-import org.joml.Vector3d;
 import org.valkyrienskies.core.api.ships.Ship;
 
 public class MonitorInputHandler {
@@ -72,7 +70,7 @@ public class MonitorInputHandler {
         var radarOpt = controller.getRadar();
         if (radarOpt.isPresent() && radarOpt.get().renderRelativeToMonitor()) {
             if (ship != null) {
-                selectedRelative = rotateAroundY(selectedRelative, getShipYawRad(ship) + Math.PI);
+                selectedRelative = rotateAroundY(selectedRelative, controller.getShipYawRad() + Math.PI);
             }
         }
         Vec3 selected = RadarPos.add(selectedRelative);
@@ -101,21 +99,6 @@ public class MonitorInputHandler {
         return new Vec3(x, v.y, z);
     }
 
-    private static double getShipYawRad(Ship ship) {
-        var transform = ship.getTransform();
-
-        Quaterniond shipToWorld = new Quaterniond();
-        try {
-            shipToWorld.set(transform.getShipToWorldRotation());
-        } catch (Throwable ignored) {
-            shipToWorld.set(transform.getRotation()).invert();
-        }
-
-        Vector3d fwd = new Vector3d(0, 0, 1);
-        shipToWorld.transform(fwd);
-        return Math.atan2(fwd.x, -fwd.z);
-    }
-
     public static void monitorPlayerHovering(TickEvent.PlayerTickEvent event) {
 
         Player player = event.player;
@@ -1,6 +1,7 @@
 package com.happysg.radar.block.monitor;
 
 import com.happysg.radar.block.behavior.networks.config.DetectionConfig;
+import com.happysg.radar.block.controller.id.ClientIDRecords;
 import com.happysg.radar.block.controller.id.IDManager;
 import com.happysg.radar.block.radar.behavior.IRadar;
 import com.happysg.radar.block.radar.track.RadarTrack;
@@ -261,7 +262,7 @@ public class MonitorRenderer extends SmartBlockEntityRenderer<MonitorBlockEntity
             Ship ship = monitor.getShip();
             if (ship != null) {
                 // i keep the cone "north-up" by counter-rotating track vectors by the ship yaw
-                double shipYawRad = getShipYawRad(ship);
+                double shipYawRad = monitor.getShipYawRad();
                 relativePos = rotateAroundY(relativePos, -(shipYawRad + Math.PI));
 
             }
@@ -343,30 +344,6 @@ public class MonitorRenderer extends SmartBlockEntityRenderer<MonitorBlockEntity
         return new Vec3(x, v.y, z);
     }
 
-    /**
-     * i compute ship yaw only (around world Y) relative to world NORTH (-Z).
-     * result is radians, where 0 means ship forward points toward north ( -Z ).
-     */
-    private  double getShipYawRad(Ship ship) {
-        var transform = ship.getTransform();
-
-        Quaterniond shipToWorld = new Quaterniond();
-        try {
-            shipToWorld.set(transform.getShipToWorldRotation());
-        } catch (Throwable ignored) {
-            // if mappings differ, fall back to the inverse of worldToShip
-            shipToWorld.set(transform.getRotation()).invert();
-        }
-
-        // i ask: "where does the ship's local +Z (forward) point in the world?"
-        Vector3d fwd = new Vector3d(0, 0, 1);
-        shipToWorld.transform(fwd);
-
-        // yaw relative to north (-Z):
-        // when fwd is (0,0,-1) => atan2(0, 1) = 0 rad  (north)
-        // when fwd is (1,0,0)  => atan2(1, 0) = +pi/2 (east)
-        return Math.atan2(fwd.x, -fwd.z);
-    }
     private  Vec3 rotateWorldVecIntoShipFrame(Ship ship, Vec3 worldVec) {
         var transform = ship.getTransform();
 
@@ -672,14 +649,10 @@ public class MonitorRenderer extends SmartBlockEntityRenderer<MonitorBlockEntity
         if (mon.getLevel() == null) return null;
 
         if ("VS2:ship".equals(track.entityType())) {
-            long shipId;
-            try {
-                shipId = Long.parseLong(track.id());
-            } catch (NumberFormatException ignored) {
-                return null;
-            }
+            long shipId = track.shipId();
+            if (shipId < 0) return null;
 
-            IDManager.IDRecord rec = IDManager.getIDRecordByShipId(shipId);
+            IDManager.IDRecord rec = ClientIDRecords.get(shipId);
             if (rec != null) {
                 String storedName = rec.name();
                 if (storedName != null && !storedName.isBlank())
@@ -691,12 +664,8 @@ public class MonitorRenderer extends SmartBlockEntityRenderer<MonitorBlockEntity
 
         // Players: null-safe
         if (track.trackCategory() == TrackCategory.PLAYER) {
-            UUID uuid;
-            try {
-                uuid = UUID.fromString(track.getId());
-            } catch (IllegalArgumentException ignored) {
-                return null;
-            }
+            UUID uuid = track.uuid();
+            if (uuid == null) return null;
 
             Player sp = mon.getLevel().getPlayerByUUID(uuid);
 
@@ -2,6 +2,7 @@ package com.happysg.radar.block.monitor;
 
 import com.happysg.radar.CreateRadar;
 import com.happysg.radar.block.behavior.networks.config.DetectionConfig;
+import com.happysg.radar.block.controller.id.ClientIDRecords;
 import com.happysg.radar.block.controller.id.IDManager;
 import com.happysg.radar.block.radar.behavior.IRadar;
 import com.happysg.radar.block.radar.track.RadarTrack;
@@ -271,7 +272,7 @@ public class MonitorScreen extends Screen {
 
         if (radar.renderRelativeToMonitor() && monitor.getController().getShip() != null
                 && radar.getRadarType().equals("spinning")) {
-            float shipYawDeg = (float) Math.toDegrees(getShipYawRad(monitor.getController().getShip()));
+            float shipYawDeg = (float) Math.toDegrees(monitor.getController().getShipYawRad());
             screenAngle += -(shipYawDeg + 180f);
         }
 
@@ -349,22 +350,6 @@ public class MonitorScreen extends Screen {
         return new Vec3(x, v.y, z);
     }
 
-    private double getShipYawRad(org.valkyrienskies.core.api.ships.Ship ship) {
-        var transform = ship.getTransform();
-
-        org.joml.Quaterniond shipToWorld = new org.joml.Quaterniond();
-        try {
-            shipToWorld.set(transform.getShipToWorldRotation());
-        } catch (Throwable ignored) {
-            shipToWorld.set(transform.getRotation()).invert();
-        }
-
-        org.joml.Vector3d fwd = new org.joml.Vector3d(0, 0, 1);
-        shipToWorld.transform(fwd);
-
-        return Math.atan2(fwd.x, -fwd.z);
-    }
-
     private void renderTracks(GuiGraphics gg, MonitorBlockEntity monitor, IRadar radar) {
         Collection<RadarTrack> tracks = monitor.getTracks();
         if (tracks == null || tracks.isEmpty())
@@ -382,7 +367,7 @@ public class MonitorScreen extends Screen {
 
             Vec3 rel = track.position().subtract(radarPos);
             if (radar.renderRelativeToMonitor() && monitor.getController().getShip() != null) {
-                float shipYawDeg = (float) Math.toDegrees(getShipYawRad(monitor.getController().getShip()));
+                float shipYawDeg = (float) Math.toDegrees(monitor.getController().getShipYawRad());
                 rel = rotateAroundYDeg(rel, -(shipYawDeg + 180f));
             }
 
@@ -466,7 +451,7 @@ public class MonitorScreen extends Screen {
         for (RadarTrack track : monitor.cachedTracks) {
             Vec3 rel = track.position().subtract(radarPos);
             if (radar.renderRelativeToMonitor() && monitor.getController().getShip() != null) {
-                float shipYawDeg = (float) Math.toDegrees(getShipYawRad(monitor.getController().getShip()));
+                float shipYawDeg = (float) Math.toDegrees(monitor.getController().getShipYawRad());
                 rel = rotateAroundYDeg(rel, -(shipYawDeg + 180f));
             }
 
@@ -576,7 +561,7 @@ public class MonitorScreen extends Screen {
         if ("VS2:ship".equals(track.entityType())) {
             try {
                 long shipId = Long.parseLong(track.id());
-                IDManager.IDRecord rec = IDManager.getIDRecordByShipId(shipId);
+                IDManager.IDRecord rec = ClientIDRecords.get(shipId);
                 if (rec != null && rec.name() != null && !rec.name().isBlank())
                     return rec.name();
             } catch (NumberFormatException ignored) {
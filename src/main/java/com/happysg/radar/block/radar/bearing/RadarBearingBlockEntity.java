@@ -8,6 +8,7 @@ import com.happysg.radar.block.behavior.networks.config.DetectionConfig;
 import com.happysg.radar.block.radar.behavior.IRadar;
 import com.happysg.radar.block.radar.behavior.RadarScanningBlockBehavior;
 import com.happysg.radar.block.radar.track.RadarTrack;
+import com.happysg.radar.block.radar.track.TrackSnapshot;
 import com.happysg.radar.compat.Mods;
 import com.happysg.radar.compat.vs2.PhysicsHandler;
 import com.happysg.radar.compat.vs2.VS2Utils;
@@ -45,6 +46,10 @@ public class RadarBearingBlockEntity extends MechanicalBearingBlockEntity implem
     private RadarScanningBlockBehavior scanningBehavior;
     private Collection<RadarTrack> networkFilteredTracks = List.of();
     private long lastFilterTick = -1;
+    // published for computercraft, read off the server thread
+    private volatile TrackSnapshot trackSnapshot = TrackSnapshot.EMPTY;
+    // world-space center of the bearing when the snapshot was taken (the block pos is shipyard space on a ship)
+    private volatile Vec3 snapshotOrigin;
 
 
     public RadarBearingBlockEntity(BlockEntityType<?> type, BlockPos pos, BlockState state) {
@@ -78,6 +83,8 @@ public class RadarBearingBlockEntity extends MechanicalBearingBlockEntity implem
             if (gt % 5 == 0 && gt != lastFilterTick) {
                 lastFilterTick = gt;
                 recomputeNetworkFilteredTracks();
+                trackSnapshot = TrackSnapshot.update(trackSnapshot, getTracks(), gt);
+                snapshotOrigin = PhysicsHandler.getWorldVec(level, worldPosition.getCenter());
             }
         }
         if (!level.isClientSide && level.getGameTime() % 40 == 0) {
@@ -258,6 +265,18 @@ public class RadarBearingBlockEntity extends MechanicalBearingBlockEntity implem
             }
             return real;
     }
+
+    /** Tracks as of the last scan, same content as {@link #getTracks()} but safe to read from any thread. */
+    public TrackSnapshot getTrackSnapshot() {
+        return trackSnapshot;
+    }
+
+    /** World-space center of the radar as of the last snapshot; safe to read from any thread. */
+    public Vec3 getSnapshotOrigin() {
+        Vec3 origin = snapshotOrigin;
+        return origin != null ? origin : worldPosition.getCenter();
+    }
+
     @Nullable
     private NetworkData.Group getNetworkGroup() {
         if (level == null || level.isClientSide) return null;
@@ -0,0 +1,126 @@
+package com.happysg.radar.block.radar.behavior;
+
+import com.happysg.radar.block.radar.track.RadarTrackUtil;
+import com.happysg.radar.block.radar.track.TrackCategory;
+import com.happysg.radar.compat.Mods;
+import com.happysg.radar.compat.vs2.VS2Utils;
+import com.simibubi.create.content.contraptions.AbstractContraptionEntity;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.entity.animal.Animal;
+import net.minecraft.world.entity.item.ItemEntity;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.entity.projectile.Projectile;
+import net.minecraft.world.level.ClipContext;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.HitResult;
+import net.minecraft.world.phys.Vec3;
+import org.valkyrienskies.core.api.ships.Ship;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * {@link RadarWorldView} over a real level: entity queries in 256 block chunks of the scan box, plus
+ * VS2 ships when Valkyrien Skies is installed. The ship carrying {@code owner} is never reported.
+ */
+public class LevelRadarWorldView implements RadarWorldView {
+    private static final double QUERY_CHUNK = 256;
+
+    private final Level level;
+    private final BlockPos owner;
+
+    public LevelRadarWorldView(Level level, BlockPos owner) {
+        this.level = level;
+        this.owner = owner;
+    }
+
+    @Override
+    public long getGameTime() {
+        return level.getGameTime();
+    }
+
+    @Override
+    public void collectContacts(Vec3 center, double horizontalRange, double verticalRange, ScanFlags flags, Consumer<RadarContact> out) {
+        AABB box = scanBox(center, horizontalRange, verticalRange);
+
+        // one entity can match several class queries (and chunks), each is reported once
+        Set<Entity> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (AABB aabb : RadarScanningBlockBehavior.splitAABB(box, QUERY_CHUNK)) {
+            if (flags.all()) {
+                seen.addAll(level.getEntities((Entity) null, aabb));
+                continue;
+            }
+
+            if (flags.players())
+                seen.addAll(level.getEntitiesOfClass(Player.class, aabb));
+
+            if (flags.projectiles())
+                seen.addAll(level.getEntitiesOfClass(Projectile.class, aabb));
+
+            if (flags.items())
+                seen.addAll(level.getEntitiesOfClass(ItemEntity.class, aabb));
+
+            if (flags.contraptions())
+                seen.addAll(level.getEntitiesOfClass(AbstractContraptionEntity.class, aabb));
+
+            if (flags.animals())
+                seen.addAll(level.getEntitiesOfClass(Animal.class, aabb));
+
+            if (flags.mobs())
+                seen.addAll(level.getEntitiesOfClass(Mob.class, aabb, e -> !(e instanceof Animal)));
+        }
+
+        for (Entity entity : seen) {
+            if (!entity.isAlive()) continue;
+            out.accept(new RadarContact(entity.getUUID().toString(), entity.position(), entity.getDeltaMovement(),
+                    TrackCategory.get(entity), entity.getType().toString(), entity.getBbHeight(), -1, entity));
+        }
+
+        if (flags.vs2() && Mods.VALKYRIENSKIES.isLoaded())
+            collectShips(box, out);
+    }
+
+    private void collectShips(AABB box, Consumer<RadarContact> out) {
+        Ship own = VS2Utils.getShipManagingPos(level, owner);
+        Set<Ship> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        for (AABB aabb : RadarScanningBlockBehavior.splitAABB(box, QUERY_CHUNK)) {
+            for (Ship ship : VS2Utils.getLoadedShips(level, aabb)) {
+                if (ship == own || (own != null && ship.getId() == own.getId()) || !seen.add(ship)) continue;
+
+                out.accept(new RadarContact(String.valueOf(ship.getId()), RadarTrackUtil.getPosition(ship),
+                        RadarTrackUtil.getVelocity(ship), TrackCategory.VS2, "VS2:ship",
+                        RadarTrackUtil.getShipSize(ship), ship.getId(), ship));
+            }
+        }
+    }
+
+    @Override
+    public boolean stillExists(RadarContact contact) {
+        if (contact.handle() instanceof Entity entity) return entity.isAlive();
+
+        if (contact.isShip()) {
+            if (!Mods.VALKYRIENSKIES.isLoaded()) return false;
+            var shipWorld = org.valkyrienskies.mod.common.VSGameUtilsKt.getShipObjectWorld(level);
+            return shipWorld != null && shipWorld.getLoadedShips().getById(contact.shipId()) != null;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isClear(Vec3 from, Vec3 to) {
+        HitResult hit = level.clip(new ClipContext(from, to, ClipContext.Block.COLLIDER, ClipContext.Fluid.NONE, null));
+        return hit.getType() == HitResult.Type.MISS;
+    }
+
+    private AABB scanBox(Vec3 center, double range, double yRange) {
+        double minY = Math.max(center.y - yRange, level.getMinBuildHeight());
+        double maxY = Math.min(center.y + yRange, level.getMaxBuildHeight());
+        return new AABB(center.x - range, minY, center.z - range, center.x + range, maxY, center.z + range);
+    }
+}
@@ -0,0 +1,21 @@
+package com.happysg.radar.block.radar.behavior;
+
+import com.happysg.radar.block.radar.track.TrackCategory;
+import net.minecraft.world.phys.Vec3;
+
+import javax.annotation.Nullable;
+
+/**
+ * One thing a {@link RadarWorldView} found in a scan volume, sampled at scan time.
+ *
+ * @param shipId the VS2 ship id, or -1 for anything that isn't a ship
+ * @param handle whatever the view needs to recognise the contact again (the entity, the ship), never
+ *               looked at by the scanner
+ */
+public record RadarContact(String id, Vec3 position, Vec3 velocity, TrackCategory category, String entityType,
+                           float height, long shipId, @Nullable Object handle) {
+
+    public boolean isShip() {
+        return shipId >= 0;
+    }
+}
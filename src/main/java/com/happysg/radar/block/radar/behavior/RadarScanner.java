@@ -0,0 +1,129 @@
+package com.happysg.radar.block.radar.behavior;
+
+import com.happysg.radar.block.radar.track.RadarTrack;
+import net.minecraft.world.phys.Vec3;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+/**
+ * The scan itself: which contacts a sweeping radar sees and how its tracks age out.
+ * <p>
+ * Only talks to the world through a {@link RadarWorldView}, so it runs the same in game (behind
+ * {@link RadarScanningBlockBehavior}) and in the headless simulator.
+ */
+public class RadarScanner {
+
+    private int trackExpiration = 100;
+    private int fov = 90;
+    private int yRange = 20;
+    private double range = 20;
+    private double angle;
+    private boolean running = false;
+    private Vec3 scanPos = Vec3.ZERO;
+    private RadarWorldView.ScanFlags flags = RadarWorldView.ScanFlags.ALL;
+
+    private final HashMap<String, RadarTrack> radarTracks = new HashMap<>();
+    // what the last scan saw, checked for despawns on the next one
+    private List<RadarContact> lastContacts = new ArrayList<>();
+    private List<RadarContact> nextContacts = new ArrayList<>();
+
+    /**
+     * One sweep: drops tracks whose contact is gone or that weren't refreshed within the expiration,
+     * then, while running, refreshes or opens a track for everything in range and field of view.
+     *
+     * @param verticalRange how far above and below the radar it can see
+     * @param shipInRange   told the id of every ship that ended up in view
+     */
+    public void scan(RadarWorldView world, double verticalRange, @Nullable LongConsumer shipInRange) {
+        long now = world.getGameTime();
+        removeDeadTracks(world, now);
+        if (!running) return;
+
+        List<RadarContact> contacts = nextContacts;
+        contacts.clear();
+        world.collectContacts(scanPos, range, verticalRange, flags, contacts::add);
+
+        for (RadarContact contact : contacts) {
+            if (!isInFovAndRange(contact.position(), verticalRange)) continue;
+
+            RadarTrack track = radarTracks.get(contact.id());
+            if (track == null) {
+                radarTracks.put(contact.id(), new RadarTrack(contact.id(), contact.position(), contact.velocity(), now,
+                        contact.category(), contact.entityType(), contact.height()));
+            } else {
+                track.setPosition(contact.position());
+                track.setVelocity(contact.velocity());
+                track.setScannedTime(now);
+            }
+
+            if (contact.isShip() && shipInRange != null) shipInRange.accept(contact.shipId());
+        }
+
+        nextContacts = lastContacts;
+        lastContacts = contacts;
+    }
+
+    private void removeDeadTracks(RadarWorldView world, long now) {
+        for (RadarContact contact : lastContacts) {
+            if (!world.stillExists(contact))
+                radarTracks.remove(contact.id());
+        }
+
+        // ttl expiration (works for everything: entities, ships, projectiles)
+        radarTracks.values().removeIf(track -> now - track.scannedTime() > trackExpiration);
+    }
+
+    public boolean isInFovAndRange(Vec3 target, double verticalRange) {
+        double dx = target.x() - scanPos.x(), dz = target.z() - scanPos.z();
+        double horizontalDistance = Math.sqrt(dx * dx + dz * dz);
+        double verticalDistance = Math.abs(target.y() - scanPos.y());
+
+        if (horizontalDistance > range || verticalDistance > verticalRange)
+            return false;
+
+        if (horizontalDistance < 2)
+            return true;
+
+        double angleToEntity = Math.toDegrees(Math.atan2(dx, dz));
+        angleToEntity = (angleToEntity + 360) % 360;
+        double angleDiff = Math.abs(angleToEntity - angle);
+        if (angleDiff > 180) angleDiff = 360 - angleDiff;
+
+        return angleDiff <= fov / 2.0;
+    }
+
+    /** Switches categories on or off; tracks of categories that just got switched off are dropped at once. */
+    public void setFlags(RadarWorldView.ScanFlags flags) {
+        if (flags.equals(this.flags)) return;
+        this.flags = flags;
+        radarTracks.values().removeIf(track -> !flags.allows(track.trackCategory()));
+    }
+
+    public RadarWorldView.ScanFlags getFlags() { return flags; }
+
+    public Map<String, RadarTrack> getTrackMap() { return radarTracks; }
+
+    public Collection<RadarTrack> getRadarTracks() { return radarTracks.values(); }
+
+    public int getFov() { return fov; }
+    public int getYRange() { return yRange; }
+    public double getRange() { return range; }
+    public double getAngle() { return angle; }
+    public Vec3 getScanPos() { return scanPos; }
+    public boolean isRunning() { return running; }
+    public int getTrackExpiration() { return trackExpiration; }
+
+    public void setFov(int fov) { this.fov = fov; }
+    public void setYRange(int yRange) { this.yRange = yRange; }
+    public void setRange(double range) { this.range = range; }
+    public void setAngle(double angle) { this.angle = angle; }
+    public void setScanPos(Vec3 scanPos) { this.scanPos = scanPos; }
+    public void setRunning(boolean running) { this.running = running; }
+    public void setTrackExpiration(int trackExpiration) { this.trackExpiration = trackExpiration; }
+}
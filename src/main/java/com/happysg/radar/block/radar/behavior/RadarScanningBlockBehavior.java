@@ -1,57 +1,39 @@
 package com.happysg.radar.block.radar.behavior;
 
 import com.happysg.radar.block.arad.aradnetworks.RadarContactRegistry;
-import com.happysg.radar.block.radar.bearing.RadarBearingBlockEntity;
-
 import com.happysg.radar.block.radar.track.RadarTrack;
-import com.happysg.radar.block.radar.track.RadarTrackUtil;
-import com.happysg.radar.block.radar.track.TrackCategory;
-import com.happysg.radar.compat.Mods;
+import com.happysg.radar.compat.computercraft.RadarEvents;
 import com.happysg.radar.compat.vs2.PhysicsHandler;
-import com.happysg.radar.compat.vs2.VS2Utils;
 import com.happysg.radar.config.RadarConfig;
-import com.simibubi.create.content.contraptions.AbstractContraptionEntity;
 import com.simibubi.create.foundation.blockEntity.SmartBlockEntity;
 import com.simibubi.create.foundation.blockEntity.behaviour.BehaviourType;
 import com.simibubi.create.foundation.blockEntity.behaviour.BlockEntityBehaviour;
 import com.happysg.radar.block.behavior.networks.config.DetectionConfig;
 import net.minecraft.core.BlockPos;
 import net.minecraft.nbt.CompoundTag;
-import net.minecraft.world.entity.Entity;
-import net.minecraft.world.entity.animal.Animal;
-import net.minecraft.world.entity.item.ItemEntity;
-import net.minecraft.world.entity.player.Player;
-import net.minecraft.world.entity.projectile.Projectile;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.phys.AABB;
 import net.minecraft.world.phys.Vec3;
-import org.valkyrienskies.core.api.ships.Ship;
 
-import java.lang.reflect.Method;
 import java.util.*;
 
 public class RadarScanningBlockBehavior extends BlockEntityBehaviour {
 
     public static final BehaviourType<RadarScanningBlockBehavior> TYPE = new BehaviourType<>();
 
-    private int trackExpiration = 100;
-    private int fov = RadarConfig.server().radarFOV.get();
-    private int yRange = 20;
-    private double range = RadarConfig.server().radarBaseRange.get();
-    private double angle;
-    private boolean running = false;
-    private SmartBlockEntity bearingEntity;
-    private RadarBearingBlockEntity radarBearing;
-    Vec3 scanPos = Vec3.ZERO;
-
-    private final Set<Entity> scannedEntities = new HashSet<>();
-    private final Set<Ship> scannedShips = new HashSet<>();
-    private final Set<Projectile> scannedProjectiles = new HashSet<>();
-    private final HashMap<String, RadarTrack> radarTracks = new HashMap<>();
+    private final SmartBlockEntity bearingEntity;
+    // the scan logic lives in RadarScanner so the headless simulator can drive it too
+    private final RadarScanner scanner = new RadarScanner();
+    private RadarWorldView worldView;
+    // contacts as of the last scan that computers were told about, null while nobody is subscribed
+    private Map<String, RadarTrack> reportedContacts;
 
     public RadarScanningBlockBehavior(SmartBlockEntity be) {
         super(be);
         this.bearingEntity = be;
+        scanner.setFov(RadarConfig.server().radarFOV.get());
+        scanner.setRange(RadarConfig.server().radarBaseRange.get());
     }
 
     public void applyDetectionConfig(DetectionConfig cfg) {
@@ -67,223 +49,50 @@ public class RadarScanningBlockBehavior extends BlockEntityBehaviour {
         );
     }
 
-
-    private boolean scanPlayers = true;
-    private boolean scanVS2 = true;
-    private boolean scanContraptions = true;
-    private boolean scanMobs = true;
-    private boolean scanAnimals = true;
-    private boolean scanProjectiles = true;
-    private boolean scanItems = true;
-
-    private boolean allowCategory(TrackCategory c) {
-        return switch (c) {
-            case PLAYER -> scanPlayers;
-            case VS2 -> scanVS2;
-            case CONTRAPTION -> scanContraptions;
-            case PROJECTILE -> scanProjectiles;
-            case ITEM -> scanItems;
-
-            case ANIMAL -> scanAnimals;
-            case HOSTILE, MOB -> scanMobs;
-
-            default -> true;
-        };
-    }
-
-    private void pruneDisabledTracksNow() {
-        radarTracks.entrySet().removeIf(e -> !allowCategory(e.getValue().trackCategory()));
-    }
-
     public void setScanFlags(boolean players, boolean vs2, boolean contraptions, boolean mobs, boolean animals, boolean projectiles, boolean items) {
-        boolean changed = players != scanPlayers || vs2 != scanVS2 || contraptions != scanContraptions || mobs != scanMobs || animals != scanAnimals || projectiles != scanProjectiles || items != scanItems;
-
-        this.scanPlayers = players;
-        this.scanVS2 = vs2;
-        this.scanContraptions = contraptions;
-        this.scanMobs = mobs;
-        this.scanAnimals = animals;
-        this.scanProjectiles = projectiles;
-        this.scanItems = items;
-
-        if (changed) {
-            pruneDisabledTracksNow();
-        }
+        scanner.setFlags(new RadarWorldView.ScanFlags(players, vs2, contraptions, mobs, animals, projectiles, items));
     }
 
     @Override
     public void tick() {
         super.tick();
-        if (blockEntity.getLevel() == null || blockEntity.getLevel().isClientSide)
+        Level level = blockEntity.getLevel();
+        if (level == null || level.isClientSide)
             return;
-        if(blockEntity.getLevel().getGameTime() %5!=1)return;
-        removeDeadTracks();
-        if (running)
-            updateRadarTracks();
-        if (running) {
-            scannedEntities.clear();
-            scannedShips.clear();
-            scannedProjectiles.clear();
+        if (level.getGameTime() % 5 != 1) return;
 
-            scanForEntityTracks();
-            if (Mods.VALKYRIENSKIES.isLoaded() && scanVS2)
-                scanForVSTracks();
-        }
+        if (worldView == null) worldView = new LevelRadarWorldView(level, blockEntity.getBlockPos());
+        scanner.setScanPos(PhysicsHandler.getWorldPos(bearingEntity).getCenter());
+        scanner.scan(worldView, RadarConfig.server().radarYScanRange.get(),
+                level instanceof ServerLevel sl ? shipId -> RadarContactRegistry.markInRange(sl, shipId, 20) : null);
+        postContactEvents();
     }
 
-
-    private void updateRadarTracks() {
-        scanPos = PhysicsHandler.getWorldPos(bearingEntity).getCenter();
+    /** Diffs this scan's tracks against the last one and tells subscribed computers about the difference. */
+    private void postContactEvents() {
         Level level = blockEntity.getLevel();
-        boolean isServer = level instanceof net.minecraft.server.level.ServerLevel;
-        net.minecraft.server.level.ServerLevel sl = isServer ? (net.minecraft.server.level.ServerLevel) level : null;
-        if (level == null )return;
-
-
-        for (Entity entity : scannedEntities) {
-            if (entity.isAlive() && isInFovAndRange(entity.position())) {
-                radarTracks.compute(entity.getUUID().toString(), (id, track) -> {
-                    if (track == null) return new RadarTrack(entity);
-                    track.updateRadarTrack(entity);
-                    return track;
-                });
-
-                if (entity instanceof Projectile)
-                    scannedProjectiles.add((Projectile) entity);
-            }
-        }
-
-        for (Ship ship : scannedShips) {
-            Vec3 pos = RadarTrackUtil.getPosition(ship);
-            if (isInFovAndRange(pos)) {
-
-                long key = ship.getId();
-
-                radarTracks.compute(ship.getSlug(), (id, track) -> {
-                    if (track == null) return RadarTrackUtil.getRadarTrack(ship, level);
-                    track.updateRadarTrack(ship, level);
-                    return track;
-                });
-                if (isServer) {
-                    RadarContactRegistry.markInRange(sl, key, 20);
-                }
-            }
-        }
-    }
-
-    private boolean isInFovAndRange(Vec3 target) {
-        double horizontalDistance = Math.sqrt(Math.pow(target.x() - scanPos.x(), 2) + Math.pow(target.z() - scanPos.z(), 2));
-        double verticalDistance = Math.abs(target.y() - scanPos.y());
-        double yScanRange = RadarConfig.server().radarYScanRange.get();
-
-        if (horizontalDistance > range || verticalDistance > yScanRange)
-            return false;
-
-        if (horizontalDistance < 2)
-            return true;
-
-        double angleToEntity = Math.toDegrees(Math.atan2(target.x() - scanPos.x(), target.z() - scanPos.z()));
-        angleToEntity = (angleToEntity + 360) % 360;
-        double angleDiff = Math.abs(angleToEntity - angle);
-        if (angleDiff > 180) angleDiff = 360 - angleDiff;
-
-        return angleDiff <= fov / 2.0;
-    }
-
-    private void removeDeadTracks() {
-        // entities
-        for (Entity entity : scannedEntities) {
-            if (!entity.isAlive())
-                radarTracks.remove(entity.getUUID().toString());
-        }
-
-        // vs2 ships
-        if (Mods.VALKYRIENSKIES.isLoaded()) {
-            assert blockEntity.getLevel() != null;
-
-            var shipWorld = org.valkyrienskies.mod.common.VSGameUtilsKt.getShipObjectWorld(blockEntity.getLevel());
-            // i remove ship tracks if the ship id no longer resolves (unloaded/despawned)
-            scannedShips.removeIf(ship -> {
-                boolean dead = shipWorld == null || shipWorld.getLoadedShips().getById(ship.getId()) == null;
-                if (dead) radarTracks.remove(String.valueOf(ship.getId()));
-                return dead;
-            });
-        }
-
-        // ttl expiration (works for everything: entities, ships, projectiles)
-        List<String> toRemove = new ArrayList<>();
-        assert blockEntity.getLevel() != null;
-        long currentTime = blockEntity.getLevel().getGameTime();
-        for (RadarTrack track : radarTracks.values()) {
-            if (currentTime - track.scannedTime() > trackExpiration)
-                toRemove.add(track.id());
+        BlockPos pos = blockEntity.getBlockPos();
+        if (!RadarEvents.isListening(level, pos)) {
+            reportedContacts = null;
+            return;
         }
-        toRemove.forEach(radarTracks::remove);
-
-        // projectiles
-        scannedProjectiles.removeIf(p -> {
-            boolean dead = !p.isAlive();
-            if (dead) radarTracks.remove(p.getUUID().toString());
-            return dead;
-        });
-    }
-    private void scanForEntityTracks() {
-        Level level = blockEntity.getLevel();
-        if (level == null) return;
-
-        boolean scanAll =
-                scanPlayers && scanContraptions && scanMobs && scanAnimals && scanProjectiles && scanItems;
 
-        for (AABB aabb : splitAABB(getRadarAABB(), 256)) {
-            if (scanAll) {
-                scannedEntities.addAll(level.getEntities(null, aabb));
-                continue;
+        Map<String, RadarTrack> radarTracks = scanner.getTrackMap();
+        // the first scan after someone subscribed is only the baseline, getTracks() covers what's already there
+        if (reportedContacts != null) {
+            for (Map.Entry<String, RadarTrack> e : radarTracks.entrySet()) {
+                if (!reportedContacts.containsKey(e.getKey()))
+                    RadarEvents.post(level, pos, RadarEvents.Type.CONTACT_NEW, e.getValue());
             }
-
-            if (scanPlayers)
-                scannedEntities.addAll(level.getEntitiesOfClass(Player.class, aabb));
-
-            if (scanProjectiles)
-                scannedEntities.addAll(level.getEntitiesOfClass(Projectile.class, aabb));
-
-            if (scanItems)
-                scannedEntities.addAll(level.getEntitiesOfClass(ItemEntity.class, aabb));
-
-            if (scanContraptions)
-                scannedEntities.addAll(level.getEntitiesOfClass(AbstractContraptionEntity.class, aabb));
-
-            if (scanAnimals)
-                scannedEntities.addAll(level.getEntitiesOfClass(Animal.class, aabb));
-
-            if (scanMobs) {
-                scannedEntities.addAll(level.getEntitiesOfClass(net.minecraft.world.entity.Mob.class, aabb,
-                        e -> !(e instanceof Animal)));
+            for (Map.Entry<String, RadarTrack> e : reportedContacts.entrySet()) {
+                if (!radarTracks.containsKey(e.getKey()))
+                    RadarEvents.post(level, pos, RadarEvents.Type.CONTACT_LOST, e.getValue());
             }
+            reportedContacts.clear();
+        } else {
+            reportedContacts = new HashMap<>();
         }
-    }
-
-    private void scanForVSTracks() {
-        if (blockEntity.getLevel() == null || !Mods.VALKYRIENSKIES.isLoaded()) return;
-        splitAABB(getRadarAABB(), 256).forEach(aabb ->
-                VS2Utils.getLoadedShips(blockEntity.getLevel(), aabb).forEach(scannedShips::add));
-
-        scannedShips.remove(VS2Utils.getShipManagingPos(blockEntity));
-    }
-    private AABB getRadarAABB() {
-        BlockPos radarPos = PhysicsHandler.getWorldPos(blockEntity);
-        double x = radarPos.getX() + 0.5;
-        double y = radarPos.getY() + 0.5;
-        double z = radarPos.getZ() + 0.5;
-
-        double yScan = RadarConfig.server().radarYScanRange.get();
-        Level level = blockEntity.getLevel();
-        double minY = level != null ? Math.max(y - yScan, level.getMinBuildHeight()) : y - yScan;
-        double maxY = level != null ? Math.min(y + yScan, level.getMaxBuildHeight()) : y + yScan;
-
-        return new AABB(
-                x - range, minY, z - range,
-                x + range, maxY, z + range
-        );
+        reportedContacts.putAll(radarTracks);
     }
 
     public static List<AABB> splitAABB(AABB aabb, double maxSize) {
@@ -306,39 +115,40 @@ public class RadarScanningBlockBehavior extends BlockEntityBehaviour {
     @Override
     public void read(CompoundTag nbt, boolean clientPacket) {
         super.read(nbt, clientPacket);
-        if (nbt.contains("fov")) fov = nbt.getInt("fov");
-        if (nbt.contains("yRange")) yRange = nbt.getInt("yRange");
-        if (nbt.contains("range")) range = nbt.getDouble("range");
-        if (nbt.contains("angle")) angle = nbt.getDouble("angle");
-        if (nbt.contains("scanPosX")) scanPos = new Vec3(nbt.getDouble("scanPosX"), nbt.getDouble("scanPosY"), nbt.getDouble("scanPosZ"));
-        if (nbt.contains("running")) running = nbt.getBoolean("running");
-        if (nbt.contains("trackExpiration")) trackExpiration = nbt.getInt("trackExpiration");
+        if (nbt.contains("fov")) scanner.setFov(nbt.getInt("fov"));
+        if (nbt.contains("yRange")) scanner.setYRange(nbt.getInt("yRange"));
+        if (nbt.contains("range")) scanner.setRange(nbt.getDouble("range"));
+        if (nbt.contains("angle")) scanner.setAngle(nbt.getDouble("angle"));
+        if (nbt.contains("scanPosX")) scanner.setScanPos(new Vec3(nbt.getDouble("scanPosX"), nbt.getDouble("scanPosY"), nbt.getDouble("scanPosZ")));
+        if (nbt.contains("running")) scanner.setRunning(nbt.getBoolean("running"));
+        if (nbt.contains("trackExpiration")) scanner.setTrackExpiration(nbt.getInt("trackExpiration"));
     }
 
     @Override
     public void write(CompoundTag nbt, boolean clientPacket) {
         super.write(nbt, clientPacket);
-        nbt.putInt("fov", fov);
-        nbt.putInt("yRange", yRange);
-        nbt.putDouble("range", range);
-        nbt.putDouble("angle", angle);
+        Vec3 scanPos = scanner.getScanPos();
+        nbt.putInt("fov", scanner.getFov());
+        nbt.putInt("yRange", scanner.getYRange());
+        nbt.putDouble("range", scanner.getRange());
+        nbt.putDouble("angle", scanner.getAngle());
         nbt.putDouble("scanPosX", scanPos.x);
         nbt.putDouble("scanPosY", scanPos.y);
         nbt.putDouble("scanPosZ", scanPos.z);
-        nbt.putBoolean("running", running);
-        nbt.putInt("trackExpiration", trackExpiration);
+        nbt.putBoolean("running", scanner.isRunning());
+        nbt.putInt("trackExpiration", scanner.getTrackExpiration());
     }
 
-    public void setFov(int fov) { this.fov = fov; }
-    public void setYRange(int yRange) { this.yRange = yRange; }
-    public void setRange(double range) { this.range = range; }
-    public void setAngle(double angle) { this.angle = angle; }
-    public void setScanPos(Vec3 scanPos) { this.scanPos = scanPos; }
-    public void setRunning(boolean running) { this.running = running; }
-    public void setTrackExpiration(int trackExpiration) { this.trackExpiration = trackExpiration; }
+    public void setFov(int fov) { scanner.setFov(fov); }
+    public void setYRange(int yRange) { scanner.setYRange(yRange); }
+    public void setRange(double range) { scanner.setRange(range); }
+    public void setAngle(double angle) { scanner.setAngle(angle); }
+    public void setScanPos(Vec3 scanPos) { scanner.setScanPos(scanPos); }
+    public void setRunning(boolean running) { scanner.setRunning(running); }
+    public void setTrackExpiration(int trackExpiration) { scanner.setTrackExpiration(trackExpiration); }
 
     public Collection<RadarTrack> getRadarTracks() {
-        return radarTracks.values();
+        return scanner.getRadarTracks();
     }
 
     @Override
@@ -347,6 +157,6 @@ public class RadarScanningBlockBehavior extends BlockEntityBehaviour {
     }
 
     public float getAngle() {
-        return (float) angle;
+        return (float) scanner.getAngle();
     }
 }
@@ -0,0 +1,56 @@
+package com.happysg.radar.block.radar.behavior;
+
+import com.happysg.radar.block.radar.track.TrackCategory;
+import net.minecraft.world.phys.Vec3;
+
+import java.util.function.Consumer;
+
+/**
+ * Everything the scan, targeting and firing code needs to ask the world about contacts.
+ * <p>
+ * In game this is {@link LevelRadarWorldView} over a level and the VS2 ship world; the load test
+ * simulator plugs in scripted targets instead, so the same scanner code runs without a server.
+ */
+public interface RadarWorldView {
+
+    /** Which track categories a scan should report. */
+    record ScanFlags(boolean players, boolean vs2, boolean contraptions, boolean mobs, boolean animals,
+                     boolean projectiles, boolean items) {
+
+        public static final ScanFlags ALL = new ScanFlags(true, true, true, true, true, true, true);
+
+        public boolean allows(TrackCategory c) {
+            return switch (c) {
+                case PLAYER -> players;
+                case VS2 -> vs2;
+                case CONTRAPTION -> contraptions;
+                case PROJECTILE -> projectiles;
+                case ITEM -> items;
+
+                case ANIMAL -> animals;
+                case HOSTILE, MOB -> mobs;
+
+                default -> true;
+            };
+        }
+
+        public boolean all() {
+            return players && vs2 && contraptions && mobs && animals && projectiles && items;
+        }
+    }
+
+    long getGameTime();
+
+    /**
+     * Reports every contact the flags allow inside the box around {@code center} that reaches
+     * {@code horizontalRange} out and {@code verticalRange} up and down. The box is coarse, the caller
+     * still does the exact range and field of view test.
+     */
+    void collectContacts(Vec3 center, double horizontalRange, double verticalRange, ScanFlags flags, Consumer<RadarContact> out);
+
+    /** False once a contact from an earlier scan is gone for good (dead entity, unloaded ship). */
+    boolean stillExists(RadarContact contact);
+
+    /** True when no block is in the way between the two points. */
+    boolean isClear(Vec3 from, Vec3 to);
+}
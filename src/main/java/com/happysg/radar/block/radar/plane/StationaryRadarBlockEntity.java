@@ -5,6 +5,7 @@ import com.happysg.radar.block.radar.behavior.RadarScanningBlockBehavior;
 import com.happysg.radar.block.radar.track.RadarTrack;
 import com.happysg.radar.compat.Mods;
 import com.happysg.radar.compat.vs2.PhysicsHandler;
+import com.happysg.radar.compat.vs2.ShipTransformCache;
 import com.happysg.radar.compat.vs2.VS2Utils;
 import com.happysg.radar.config.RadarConfig;
 import com.simibubi.create.foundation.blockEntity.SmartBlockEntity;
@@ -14,8 +15,6 @@ import net.minecraft.core.Direction;
 import net.minecraft.world.level.block.entity.BlockEntityType;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.phys.Vec3;
-import org.valkyrienskies.core.api.ships.Ship;
-import org.valkyrienskies.mod.common.VSGameUtilsKt;
 
 import java.util.Collection;
 import java.util.List;
@@ -89,14 +88,11 @@ public class StationaryRadarBlockEntity extends SmartBlockEntity implements IRad
     @Override
     public float getGlobalAngle() {
         if(!Mods.VALKYRIENSKIES.isLoaded())return 0;
-        Ship ship = VSGameUtilsKt.getShipManagingPos(level,getBlockPos());
+        ShipTransformCache.Snapshot ship = ShipTransformCache.get(level, getBlockPos());
         if(ship == null) return 0;
 
         // get yaw for rotating correctly for plane radar
-        org.joml.Quaterniondc shipRot = ship.getTransform().getShipToWorldRotation();
-        org.joml.Vector3d fwd = new org.joml.Vector3d(0, 0, 1);
-        shipRot.transform(fwd);
-        float rot = (float) -Math.toDegrees(Math.atan2(fwd.x, fwd.z));
+        float rot = (float) -ship.yawDeg();
 
         Direction facing = this.getBlockState().getValue(StationaryRadarBlock.FACING);
         int fOffset;
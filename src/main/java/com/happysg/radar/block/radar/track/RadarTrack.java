@@ -27,6 +27,11 @@ public class RadarTrack {
 
     private Vec3 vector;
 
+    // ids are parsed at most once per track, the track object lives as long as the contact
+    private long parsedShipId = Long.MIN_VALUE;
+    private UUID parsedUuid;
+    private boolean uuidParsed;
+
     public RadarTrack(String id, Vec3 position, Vec3 velocity, long scannedTime, TrackCategory trackCategory, String entityType, float entityheight) {
         this.id = id;
         this.position = position;
@@ -148,6 +153,34 @@ public class RadarTrack {
 
 
 
+    /** The VS2 ship id for ship tracks, -1 for anything else. */
+    public long shipId() {
+        if (parsedShipId == Long.MIN_VALUE) {
+            long parsed = -1;
+            if (trackCategory == TrackCategory.VS2 || "VS2:ship".equals(entityType)) {
+                try {
+                    parsed = Long.parseLong(id);
+                } catch (NumberFormatException ignored) {}
+            }
+            parsedShipId = parsed;
+        }
+        return parsedShipId;
+    }
+
+    /** The entity UUID for entity tracks, null for ships or malformed ids. */
+    @Nullable
+    public UUID uuid() {
+        if (!uuidParsed) {
+            uuidParsed = true;
+            if (shipId() < 0) {
+                try {
+                    parsedUuid = UUID.fromString(id);
+                } catch (IllegalArgumentException ignored) {}
+            }
+        }
+        return parsedUuid;
+    }
+
     // This is a bit of a jank quick fix, since ive migrated from a record.
     public String id() {
         return getId();
@@ -0,0 +1,178 @@
+package com.happysg.radar.block.radar.track;
+
+import com.happysg.radar.CreateRadar;
+import com.happysg.radar.compat.Mods;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.phys.Vec3;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import org.valkyrienskies.core.api.ships.Ship;
+import org.valkyrienskies.mod.common.VSGameUtilsKt;
+
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The live entity or ship behind a track id, resolved once when a target is assigned.
+ * <p>
+ * Handles are shared per level by track id, so every cannon engaging the same target uses one
+ * object and at most one lookup happens per target per tick. Entities are kept as their network id
+ * plus uuid and looked up by id (a map read) when asked for, so a handle never holds on to an entity
+ * or its level. Ships re-fetch their loaded instance once per tick since VS swaps them on reload.
+ * Handles are dropped with their level and when the server stops.
+ */
+@Mod.EventBusSubscriber(modid = CreateRadar.MODID)
+public final class TargetHandle {
+    // a handle nobody asked for in this many ticks is forgotten, so dead references don't pile up
+    private static final int IDLE_TICKS = 100;
+
+    private static final class LevelHandles {
+        final Map<String, TargetHandle> byId = new HashMap<>();
+        long lastPurge = Long.MIN_VALUE;
+    }
+
+    // server thread only
+    private static final Map<ResourceKey<Level>, LevelHandles> HANDLES = new HashMap<>();
+
+    private final String id;
+    private final long shipId;
+    private final int entityId;
+    @Nullable private final UUID entityUuid;
+    @Nullable private Ship ship;
+
+    private long checkedTick = Long.MIN_VALUE;
+    private boolean valid;
+    private long lastUsedTick;
+
+    private TargetHandle(String id, long shipId, @Nullable Entity entity, @Nullable Ship ship) {
+        this.id = id;
+        this.shipId = shipId;
+        this.entityId = entity == null ? -1 : entity.getId();
+        this.entityUuid = entity == null ? null : entity.getUUID();
+        this.ship = ship;
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel() instanceof ServerLevel sl) HANDLES.remove(sl.dimension());
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        HANDLES.clear();
+    }
+
+    /**
+     * Shared handle for {@code track}, or null if its entity/ship isn't loaded right now. A handle
+     * that went stale is dropped and resolved again, so a respawned ship or re-loaded entity is
+     * picked up.
+     */
+    @Nullable
+    public static TargetHandle resolve(ServerLevel level, @Nullable RadarTrack track) {
+        if (track == null || track.id() == null) return null;
+
+        long now = level.getGameTime();
+        LevelHandles levelHandles = HANDLES.computeIfAbsent(level.dimension(), k -> new LevelHandles());
+        purgeIdle(levelHandles, now);
+        Map<String, TargetHandle> handles = levelHandles.byId;
+
+        TargetHandle handle = handles.get(track.id());
+        if (handle != null && handle.isValid(level)) {
+            handle.lastUsedTick = now;
+            return handle;
+        }
+
+        handle = create(level, track);
+        if (handle == null) {
+            handles.remove(track.id());
+            return null;
+        }
+        handle.checkedTick = now;
+        handle.valid = true;
+        handle.lastUsedTick = now;
+        handles.put(track.id(), handle);
+        return handle;
+    }
+
+    @Nullable
+    private static TargetHandle create(ServerLevel level, RadarTrack track) {
+        long shipId = track.shipId();
+        if (shipId >= 0) {
+            Ship ship = loadedShip(level, shipId);
+            return ship == null ? null : new TargetHandle(track.id(), shipId, null, ship);
+        }
+
+        if (track.uuid() == null) return null;
+        Entity entity = level.getEntity(track.uuid());
+        if (entity == null || !entity.isAlive()) return null;
+        return new TargetHandle(track.id(), -1, entity, null);
+    }
+
+    @Nullable
+    private static Ship loadedShip(ServerLevel level, long shipId) {
+        if (!Mods.VALKYRIENSKIES.isLoaded()) return null;
+        var shipWorld = VSGameUtilsKt.getShipObjectWorld(level);
+        return shipWorld == null ? null : shipWorld.getLoadedShips().getById(shipId);
+    }
+
+    private static void purgeIdle(LevelHandles handles, long now) {
+        if (now - handles.lastPurge < IDLE_TICKS) return;
+        handles.lastPurge = now;
+        handles.byId.values().removeIf(h -> now - h.lastUsedTick > IDLE_TICKS);
+    }
+
+    /** Cheap liveness check, the ship lookup runs at most once per tick per handle. */
+    public boolean isValid(ServerLevel level) {
+        if (entityUuid != null) return entity(level) != null;
+
+        long now = level.getGameTime();
+        if (checkedTick != now) {
+            checkedTick = now;
+            ship = loadedShip(level, shipId);
+            valid = ship != null;
+        }
+        return valid;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public boolean isShip() {
+        return shipId >= 0;
+    }
+
+    public long shipId() {
+        return shipId;
+    }
+
+    /** The target entity if it's still loaded and alive in {@code level}, null for ships. */
+    @Nullable
+    public Entity entity(ServerLevel level) {
+        if (entityUuid == null) return null;
+        // network ids get reused, the uuid check makes sure it's still the same entity
+        Entity entity = level.getEntity(entityId);
+        if (entity == null || !entityUuid.equals(entity.getUUID()) || entity.isRemoved() || !entity.isAlive()) return null;
+        return entity;
+    }
+
+    @Nullable
+    public Ship ship() {
+        return ship;
+    }
+
+    /** Current position of the target, or null if it has gone since the handle was resolved. */
+    @Nullable
+    public Vec3 position(ServerLevel level) {
+        if (ship != null) return RadarTrackUtil.getPosition(ship);
+        Entity entity = entity(level);
+        return entity == null ? null : entity.position();
+    }
+}
@@ -0,0 +1,103 @@
+package com.happysg.radar.block.radar.track;
+
+import net.minecraft.world.phys.Vec3;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Frozen copy of a radar's tracks, taken once per scan on the server thread.
+ * <p>
+ * {@link RadarTrack} is mutated in place by the scanner, so anything that wants to read tracks off the
+ * main thread (ComputerCraft queries) reads one of these instead. Entries are sorted by id so paging
+ * through a snapshot is stable, and a snapshot is only replaced when the tracks actually changed, so
+ * {@link #version()} doubles as a change counter for caches built on top of it.
+ */
+public final class TrackSnapshot {
+
+    public record Entry(String id, Vec3 position, Vec3 velocity, long scannedTime,
+                        @Nullable TrackCategory category, String entityType) {
+
+        public static Entry of(RadarTrack track) {
+            return new Entry(
+                    track.id() == null ? "" : track.id(),
+                    track.position() == null ? Vec3.ZERO : track.position(),
+                    track.velocity() == null ? Vec3.ZERO : track.velocity(),
+                    track.scannedTime(),
+                    track.trackCategory(),
+                    track.entityType() == null ? "" : track.entityType());
+        }
+    }
+
+    private static final AtomicLong VERSIONS = new AtomicLong();
+    public static final TrackSnapshot EMPTY = new TrackSnapshot(List.of(), 0);
+
+    private final List<Entry> entries;
+    private final Map<String, Integer> indexById;
+    private final long tick;
+    private final long version;
+
+    private TrackSnapshot(List<Entry> entries, long tick) {
+        this.entries = entries;
+        this.tick = tick;
+        this.version = VERSIONS.incrementAndGet();
+
+        Map<String, Integer> index = new HashMap<>(Math.max(4, entries.size() * 2));
+        for (int i = 0; i < entries.size(); i++) index.put(entries.get(i).id(), i);
+        this.indexById = index;
+    }
+
+    /**
+     * Snapshot of {@code tracks} at {@code tick}, or {@code previous} itself when nothing in the tracks
+     * changed since it was taken.
+     */
+    public static TrackSnapshot update(@Nullable TrackSnapshot previous, @Nullable Collection<RadarTrack> tracks, long tick) {
+        if (tracks == null || tracks.isEmpty())
+            return previous != null && previous.entries.isEmpty() ? previous : new TrackSnapshot(List.of(), tick);
+
+        List<Entry> list = new ArrayList<>(tracks.size());
+        for (RadarTrack track : tracks) {
+            if (track != null) list.add(Entry.of(track));
+        }
+        list.sort(Comparator.comparing(Entry::id));
+
+        if (previous != null && previous.entries.equals(list)) return previous;
+        return new TrackSnapshot(Collections.unmodifiableList(list), tick);
+    }
+
+    public List<Entry> entries() {
+        return entries;
+    }
+
+    @Nullable
+    public Entry get(String id) {
+        Integer i = id == null ? null : indexById.get(id);
+        return i == null ? null : entries.get(i);
+    }
+
+    /** Position of {@code id} in {@link #entries()}, or -1. */
+    public int indexOf(String id) {
+        Integer i = id == null ? null : indexById.get(id);
+        return i == null ? -1 : i;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /** Game time the snapshot was taken at. */
+    public long tick() {
+        return tick;
+    }
+
+    public long version() {
+        return version;
+    }
+}
@@ -49,7 +49,9 @@ public enum Mods {
      * @return a boolean of whether the mod is loaded or not based on mod id
      */
     public boolean isLoaded() {
-        return ModList.get().isLoaded(id);
+        // no mod list outside of fml, e.g. in the headless simulator
+        ModList list = ModList.get();
+        return list != null && list.isLoaded(id);
     }
 
     /**
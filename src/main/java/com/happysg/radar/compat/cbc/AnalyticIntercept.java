@@ -0,0 +1,282 @@
+package com.happysg.radar.compat.cbc;
+
+import javax.annotation.Nullable;
+
+/**
+ * Closed-form intercept for projectiles without quadratic drag: flight time and launch direction
+ * straight from the ballistics, so the lead solver doesn't have to scan pitches or run the sim.
+ * <p>
+ * Everything is relative to the launch point and in tick units, and follows the same discrete
+ * per-tick model as {@link CannonLead#simulateFlightTicks}: each tick {@code vy -= g}, then
+ * {@code v *= k} with {@code k = 1 - drag}, then {@code p += v}. After t ticks a launch velocity
+ * {@code w} has therefore moved {@code w E(t) - (g k / d)(t - E(t))} with
+ * {@code E(t) = k (1 - k^t) / d} (the geometric series of {@code k^i}), or
+ * {@code w t - g t (t + 1) / 2} without drag. The target moves as {@code R + V t + A t²/2}, and the
+ * shell leaves with the shooter's velocity added to the barrel's.
+ * <p>
+ * Without drag the intercept is the smallest positive root of a quartic. With drag only the scalar
+ * equation "the barrel velocity that reaches the target at t has magnitude u" is left; it's
+ * bracketed from the drag-free time and closed in a bounded number of regula falsi steps.
+ */
+public final class AnalyticIntercept {
+
+    private AnalyticIntercept() {}
+
+    private static final double DRAG_EPS = 1e-6;
+    private static final double TIME_EPS = 1e-6;
+    private static final int MAX_BRACKET_STEPS = 24;
+    private static final int MAX_REFINE_STEPS = 32;
+
+    /** Low-arc intercept: flight time in ticks and the barrel velocity (without the shooter's) in blocks/tick. */
+    public record Solution(double ticks, double launchX, double launchY, double launchZ) {
+        public double yawRad() {
+            return Math.atan2(launchZ, launchX);
+        }
+
+        public double pitchRad() {
+            return Math.atan2(launchY, Math.sqrt(launchX * launchX + launchZ * launchZ));
+        }
+    }
+
+    /**
+     * @param r     target position relative to the launch point
+     * @param v     target velocity relative to the shooter
+     * @param a     target acceleration
+     * @param s     shooter velocity, which the shell inherits
+     * @param g     gravity magnitude (blocks/tick², positive)
+     * @param drag  per-tick damping as used by the simulator, 0 for none; anything outside [0, 1) has
+     *              no closed form here
+     * @return the low-arc intercept, or null when the target can't be reached within {@code maxTicks}
+     */
+    @Nullable
+    public static Solution solve(double rx, double ry, double rz,
+                                 double vx, double vy, double vz,
+                                 double ax, double ay, double az,
+                                 double sx, double sy, double sz,
+                                 double speed, double g, double drag, double maxTicks) {
+        if (speed <= 0 || drag < 0 || drag >= 1) return null;
+        g = Math.abs(g);
+
+        // drag-free, in the shooter's frame: |R + V t + (A + g)t²/2 + g t/2|² - u² t² = 0, gravity
+        // folded into the target motion (the g t/2 is the discrete sum's extra half step)
+        double hx = 0.5 * ax, hy = 0.5 * (ay + g), hz = 0.5 * az;
+        double wy = vy + 0.5 * g;
+        double c4 = hx * hx + hy * hy + hz * hz;
+        double c3 = 2 * (vx * hx + wy * hy + vz * hz);
+        double c2 = vx * vx + wy * wy + vz * vz + 2 * (rx * hx + ry * hy + rz * hz) - speed * speed;
+        double c1 = 2 * (rx * vx + ry * wy + rz * vz);
+        double c0 = rx * rx + ry * ry + rz * rz;
+
+        double t = smallestPositiveRoot(c4, c3, c2, c1, c0);
+        if (Double.isNaN(t)) return null;
+
+        // with drag the shell slows down in the world frame, so from here on the target moves absolutely
+        double wvx = vx + sx, wvy = vy + sy, wvz = vz + sz;
+        if (drag > DRAG_EPS) {
+            t = refineDrag(t, rx, ry, rz, wvx, wvy, wvz, ax, ay, az, sx, sy, sz, speed, g, drag, maxTicks);
+            if (Double.isNaN(t)) return null;
+        }
+        if (t > maxTicks) return null;
+
+        double e = effectiveTime(t, drag);
+        double px = rx + wvx * t + 0.5 * ax * t * t;
+        double py = ry + wvy * t + 0.5 * ay * t * t;
+        double pz = rz + wvz * t + 0.5 * az * t * t;
+        return new Solution(t, px / e - sx, launchVertical(py, t, g, drag) - sy, pz / e - sz);
+    }
+
+    /** k (1 - k^t) / d: how far a unit horizontal launch velocity carries in t ticks. */
+    private static double effectiveTime(double t, double drag) {
+        if (drag <= DRAG_EPS) return t;
+        double k = 1.0 - drag;
+        return -k * Math.expm1(t * Math.log(k)) / drag;
+    }
+
+    /** Vertical launch speed that puts the shot at height y after t ticks. */
+    private static double launchVertical(double y, double t, double g, double drag) {
+        if (drag <= DRAG_EPS) return y / t + 0.5 * g * (t + 1);
+        double e = effectiveTime(t, drag);
+        return (y + g * (1.0 - drag) / drag * (t - e)) / e;
+    }
+
+    /** Required barrel speed² minus u². Positive before the low-arc intercept, negative between the arcs. */
+    private static double speedExcess(double t, double rx, double ry, double rz, double vx, double vy, double vz,
+                                      double ax, double ay, double az, double sx, double sy, double sz,
+                                      double speed, double g, double drag) {
+        double px = rx + vx * t + 0.5 * ax * t * t;
+        double py = ry + vy * t + 0.5 * ay * t * t;
+        double pz = rz + vz * t + 0.5 * az * t * t;
+
+        double e = effectiveTime(t, drag);
+        double lx = px / e - sx;
+        double ly = launchVertical(py, t, g, drag) - sy;
+        double lz = pz / e - sz;
+        return lx * lx + ly * ly + lz * lz - speed * speed;
+    }
+
+    private static double refineDrag(double t0, double rx, double ry, double rz, double vx, double vy, double vz,
+                                     double ax, double ay, double az, double sx, double sy, double sz,
+                                     double speed, double g, double drag, double maxTicks) {
+        // drag only ever slows the shot, so the drag-free time is a lower bound; walk up until the sign flips
+        double lo = Math.max(TIME_EPS, t0);
+        double fLo = speedExcess(lo, rx, ry, rz, vx, vy, vz, ax, ay, az, sx, sy, sz, speed, g, drag);
+        if (fLo <= 0) return lo;
+
+        double step = Math.max(1.0, lo * 0.25);
+        double hi = lo, fHi = fLo;
+        for (int i = 0; i < MAX_BRACKET_STEPS && fHi > 0; i++) {
+            lo = hi;
+            fLo = fHi;
+            hi = lo + step;
+            if (hi > maxTicks) return Double.NaN;
+            fHi = speedExcess(hi, rx, ry, rz, vx, vy, vz, ax, ay, az, sx, sy, sz, speed, g, drag);
+
+            // if the excess starts rising again we walked past the closest approach: out of range
+            if (fHi > fLo) return Double.NaN;
+            step *= 1.5;
+        }
+        if (fHi > 0) return Double.NaN;
+
+        // illinois variant of regula falsi
+        int side = 0;
+        double t = hi;
+        for (int i = 0; i < MAX_REFINE_STEPS; i++) {
+            t = (lo * fHi - hi * fLo) / (fHi - fLo);
+            double f = speedExcess(t, rx, ry, rz, vx, vy, vz, ax, ay, az, sx, sy, sz, speed, g, drag);
+            if (Math.abs(f) < 1e-9 || hi - lo < 1e-4) break;
+
+            if (f > 0) {
+                lo = t;
+                fLo = f;
+                if (side == -1) fHi *= 0.5;
+                side = -1;
+            } else {
+                hi = t;
+                fHi = f;
+                if (side == 1) fLo *= 0.5;
+                side = 1;
+            }
+        }
+        return t;
+    }
+
+    // -------------------------
+    // polynomial roots
+    // -------------------------
+
+    /** Smallest root > 0 of c4 t⁴ + c3 t³ + c2 t² + c1 t + c0, or NaN. */
+    static double smallestPositiveRoot(double c4, double c3, double c2, double c1, double c0) {
+        double[] roots = new double[4];
+        int n;
+        if (Math.abs(c4) < 1e-14) {
+            n = solveCubic(c3, c2, c1, c0, roots);
+        } else {
+            n = solveQuartic(c3 / c4, c2 / c4, c1 / c4, c0 / c4, roots);
+        }
+
+        double best = Double.NaN;
+        for (int i = 0; i < n; i++) {
+            double r = polish(roots[i], c4, c3, c2, c1, c0);
+            if (r > TIME_EPS && (Double.isNaN(best) || r < best)) best = r;
+        }
+        return best;
+    }
+
+    /** A couple of Newton steps on the original polynomial to clean up Ferrari's rounding. */
+    private static double polish(double t, double c4, double c3, double c2, double c1, double c0) {
+        for (int i = 0; i < 3; i++) {
+            double f = (((c4 * t + c3) * t + c2) * t + c1) * t + c0;
+            double df = ((4 * c4 * t + 3 * c3) * t + 2 * c2) * t + c1;
+            if (Math.abs(df) < 1e-14) break;
+            t -= f / df;
+        }
+        return t;
+    }
+
+    /** Real roots of t⁴ + a t³ + b t² + c t + d (Ferrari). */
+    static int solveQuartic(double a, double b, double c, double d, double[] out) {
+        double a2 = a * a;
+        double p = b - 3.0 * a2 / 8.0;
+        double q = c - a * b / 2.0 + a2 * a / 8.0;
+        double r = d - a * c / 4.0 + a2 * b / 16.0 - 3.0 * a2 * a2 / 256.0;
+        double shift = -a / 4.0;
+
+        int n = 0;
+        if (Math.abs(q) < 1e-12) {
+            // biquadratic: z² + p z + r = 0, y = ±√z
+            double[] z = new double[2];
+            int nz = solveQuadratic(1.0, p, r, z);
+            for (int i = 0; i < nz; i++) {
+                if (z[i] < 0) continue;
+                double s = Math.sqrt(z[i]);
+                out[n++] = s + shift;
+                out[n++] = -s + shift;
+            }
+            return n;
+        }
+
+        // resolvent cubic m³ + p m² + (p²/4 - r) m - q²/8 = 0, any positive root works
+        double[] m = new double[3];
+        int nm = solveCubic(1.0, p, p * p / 4.0 - r, -q * q / 8.0, m);
+        double mPos = -1;
+        for (int i = 0; i < nm; i++) mPos = Math.max(mPos, m[i]);
+        if (mPos <= 0) return 0;
+
+        double s = Math.sqrt(2.0 * mPos);
+        double[] y = new double[2];
+
+        int ny = solveQuadratic(1.0, s, p / 2.0 + mPos - q / (2.0 * s), y);
+        for (int i = 0; i < ny; i++) out[n++] = y[i] + shift;
+
+        ny = solveQuadratic(1.0, -s, p / 2.0 + mPos + q / (2.0 * s), y);
+        for (int i = 0; i < ny; i++) out[n++] = y[i] + shift;
+
+        return n;
+    }
+
+    /** Real roots of a t³ + b t² + c t + d (falls through to quadratic when a ~ 0). */
+    static int solveCubic(double a, double b, double c, double d, double[] out) {
+        if (Math.abs(a) < 1e-14) return solveQuadratic(b, c, d, out);
+
+        double A = b / a, B = c / a, C = d / a;
+        double Q = (A * A - 3.0 * B) / 9.0;
+        double R = (2.0 * A * A * A - 9.0 * A * B + 27.0 * C) / 54.0;
+        double Q3 = Q * Q * Q;
+
+        if (R * R < Q3) {
+            double theta = Math.acos(Math.max(-1.0, Math.min(1.0, R / Math.sqrt(Q3))));
+            double sq = -2.0 * Math.sqrt(Q);
+            out[0] = sq * Math.cos(theta / 3.0) - A / 3.0;
+            out[1] = sq * Math.cos((theta + 2.0 * Math.PI) / 3.0) - A / 3.0;
+            out[2] = sq * Math.cos((theta - 2.0 * Math.PI) / 3.0) - A / 3.0;
+            return 3;
+        }
+
+        double e = -Math.signum(R) * Math.cbrt(Math.abs(R) + Math.sqrt(R * R - Q3));
+        double f = e == 0 ? 0 : Q / e;
+        out[0] = (e + f) - A / 3.0;
+        return 1;
+    }
+
+    /** Real roots of a t² + b t + c (linear when a ~ 0). */
+    static int solveQuadratic(double a, double b, double c, double[] out) {
+        if (Math.abs(a) < 1e-14) {
+            if (Math.abs(b) < 1e-14) return 0;
+            out[0] = -c / b;
+            return 1;
+        }
+        double disc = b * b - 4 * a * c;
+        if (disc < 0) return 0;
+
+        // numerically stable form
+        double sq = Math.sqrt(disc);
+        double k = -0.5 * (b + Math.copySign(sq, b));
+        if (k == 0) {
+            out[0] = 0;
+            return 1;
+        }
+        out[0] = k / a;
+        out[1] = c / k;
+        return 2;
+    }
+}
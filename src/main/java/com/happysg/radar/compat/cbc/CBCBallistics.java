@@ -46,45 +46,49 @@ public final class CBCBallistics {
         if (targetRangeXZ < 1e-6) return new Result(0, 0.0, 0.0);
 
 
-        Vec3 vel = aimDir.scale(muzzleSpeedBlocksPerTick);
         double gravity = props.gravity(); // CBC defaults negative (e.g. -0.05)
         double drag = props.drag();
         boolean quad = props.isQuadraticDrag();
 
+// same profile + pitch means same arc, so read it from the shared table when possible
+        double aimH = Math.sqrt(aimDir.x * aimDir.x + aimDir.z * aimDir.z);
+        if (aimH > 1e-9) {
+            double speed = muzzleSpeedBlocksPerTick * aimDir.length();
+            double pitchDeg = Math.toDegrees(Math.atan2(aimDir.y, aimH));
+            Result cached = TrajectoryCache.lookupMoveFirst(
+                    TrajectoryCache.get(speed, gravity, drag, quad, pitchDeg), targetRangeXZ, maxTicks);
+            if (cached != null) return cached;
+        }
+
+        double vx = aimDir.x * muzzleSpeedBlocksPerTick;
+        double vy = aimDir.y * muzzleSpeedBlocksPerTick;
+        double vz = aimDir.z * muzzleSpeedBlocksPerTick;
 
         double x = 0.0;
         double y = 0.0;
         double z = 0.0;
 
-
         double traveledXZ = 0.0;
-        double lastXZ = 0.0;
-
 
         int t = 0;
         for (; t < maxTicks; t++) {
 // integrate position
-            x += vel.x;
-            y += vel.y;
-            z += vel.z;
-
-
-// compute horizontal traveled
-            double nowXZ = Math.sqrt(x * x + z * z);
-            traveledXZ = nowXZ;
-
+            x += vx;
+            y += vy;
+            z += vz;
 
 // stop once we've reached the desired horizontal range
-            if (nowXZ >= targetRangeXZ) break;
-            lastXZ = nowXZ;
-
-
-// gravity
-            vel = vel.add(0.0, gravity, 0.0);
-
-
-// drag (approx; stable)
-            vel = applyDrag(vel, drag, quad);
+            traveledXZ = Math.sqrt(x * x + z * z);
+            if (traveledXZ >= targetRangeXZ) break;
+
+// gravity + drag (approx; stable)
+            vy += gravity;
+            double f = quad
+                    ? TrajectoryCache.dragFactor(Math.sqrt(vx * vx + vz * vz), vy, drag, true)
+                    : TrajectoryCache.dragFactor(0.0, 0.0, drag, false);
+            vx *= f;
+            vy *= f;
+            vz *= f;
         }
 
 
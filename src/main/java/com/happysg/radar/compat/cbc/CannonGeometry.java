@@ -0,0 +1,151 @@
+package com.happysg.radar.compat.cbc;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.world.phys.Vec3;
+import rbasamoyai.createbigcannons.cannon_control.contraption.AbstractMountedCannonContraption;
+import rbasamoyai.createbigcannons.cannon_control.contraption.MountedAutocannonContraption;
+import rbasamoyai.createbigcannons.cannon_control.contraption.MountedBigCannonContraption;
+import rbasamoyai.createbigcannons.cannon_control.contraption.PitchOrientedContraptionEntity;
+import rbasamoyai.createbigcannons.cannons.autocannon.IAutocannonBlockEntity;
+import rbasamoyai.createbigcannons.cannons.big_cannons.IBigCannonBlockEntity;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Contraption-local layout of an assembled cannon, worked out once instead of walking the barrel
+ * every time aiming or line of sight code needs the muzzle.
+ * <p>
+ * Descriptors are cached per contraption instance, so disassembling drops them with the contraption
+ * and reassembling builds a fresh one. A cannon that lost or gained blocks while assembled (barrel
+ * burst, squib) is noticed by its block count and rebuilt. World positions come from a single
+ * transform of the cached local values.
+ */
+public final class CannonGeometry {
+
+    private static final Map<AbstractMountedCannonContraption, CannonGeometry> CACHE =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final Direction forward;
+    @Nullable private final BlockPos muzzleExitLocal;
+    private final Vec3 spawnAnchorLocal;
+    private final Vec3 pivotLocal;
+    private final Vec3 forwardLocal;
+    private final int barrelLength;
+    private final int autocannonBarrels;
+    private final int blockCount;
+
+    private CannonGeometry(Direction forward, @Nullable BlockPos muzzleExitLocal, Vec3 spawnAnchorLocal,
+                           int barrelLength, int autocannonBarrels, int blockCount) {
+        this.forward = forward;
+        this.muzzleExitLocal = muzzleExitLocal;
+        this.spawnAnchorLocal = spawnAnchorLocal;
+        this.pivotLocal = Vec3.atCenterOf(BlockPos.ZERO);
+        this.forwardLocal = Vec3.atLowerCornerOf(forward.getNormal());
+        this.barrelLength = barrelLength;
+        this.autocannonBarrels = autocannonBarrels;
+        this.blockCount = blockCount;
+    }
+
+    /** Cached descriptor for {@code cannon}, or null if it has no orientation yet. */
+    @Nullable
+    public static CannonGeometry of(@Nullable AbstractMountedCannonContraption cannon) {
+        if (cannon == null || cannon.initialOrientation() == null) return null;
+
+        int blocks = blockCount(cannon);
+        CannonGeometry cached = CACHE.get(cannon);
+        if (cached != null && cached.blockCount == blocks && cached.forward == cannon.initialOrientation())
+            return cached;
+
+        CannonGeometry built = build(cannon, blocks);
+        CACHE.put(cannon, built);
+        return built;
+    }
+
+    @Nullable
+    public static CannonGeometry of(@Nullable PitchOrientedContraptionEntity poce) {
+        if (poce == null) return null;
+        return poce.getContraption() instanceof AbstractMountedCannonContraption cannon ? of(cannon) : null;
+    }
+
+    /** Forces a rebuild on next use, for callers that know the cannon changed. */
+    public static void invalidate(AbstractMountedCannonContraption cannon) {
+        CACHE.remove(cannon);
+    }
+
+    private static int blockCount(AbstractMountedCannonContraption cannon) {
+        return cannon.getBlocks().size() + cannon.presentBlockEntities.size();
+    }
+
+    private static CannonGeometry build(AbstractMountedCannonContraption cannon, int blockCount) {
+        Direction dir = cannon.initialOrientation();
+        BlockPos start = cannon.getStartPos();
+        if (start == null) start = BlockPos.ZERO;
+
+        // a plain autocannon run from the breech forward, shupapium's speed bonus counts the same barrels
+        int acBarrels = 0;
+        BlockPos cur = start.relative(dir);
+        while (cannon.presentBlockEntities.get(cur) instanceof IAutocannonBlockEntity) {
+            acBarrels++;
+            cur = cur.relative(dir);
+        }
+
+        BlockPos exit = null;
+        if (cannon instanceof MountedBigCannonContraption) {
+            exit = start.immutable();
+            while (cannon.presentBlockEntities.get(exit) instanceof IBigCannonBlockEntity)
+                exit = exit.relative(dir);
+        } else if (cannon instanceof MountedAutocannonContraption) {
+            exit = start.relative(dir, acBarrels + 1);
+        }
+
+        // CBC spawns at centerOf(outside.relative(dir))
+        Vec3 anchor = exit == null ? Vec3.atCenterOf(BlockPos.ZERO) : Vec3.atCenterOf(exit.relative(dir));
+
+        return new CannonGeometry(dir, exit, anchor, CannonUtil.getBarrelLength(cannon), acBarrels, blockCount);
+    }
+
+    /** First local block outside the muzzle, null for cannon types CBC doesn't expose a barrel walk for. */
+    @Nullable
+    public BlockPos muzzleExitLocal() {
+        return muzzleExitLocal;
+    }
+
+    public Vec3 spawnAnchorLocal() {
+        return spawnAnchorLocal;
+    }
+
+    public Vec3 pivotLocal() {
+        return pivotLocal;
+    }
+
+    public Direction forward() {
+        return forward;
+    }
+
+    public int barrelLength() {
+        return barrelLength;
+    }
+
+    /** Consecutive autocannon barrels in front of the breech. */
+    public int autocannonBarrels() {
+        return autocannonBarrels;
+    }
+
+    public Vec3 spawnAnchorWorld(PitchOrientedContraptionEntity poce) {
+        return poce.toGlobalVector(spawnAnchorLocal, 0);
+    }
+
+    public Vec3 pivotWorld(PitchOrientedContraptionEntity poce, float partialTicks) {
+        return poce.toGlobalVector(pivotLocal, partialTicks);
+    }
+
+    /** Unit barrel direction in the contraption's global frame (shipyard space on a ship). */
+    public Vec3 forwardWorld(PitchOrientedContraptionEntity poce) {
+        Vec3 v = poce.applyRotation(forwardLocal, 0);
+        return v.lengthSqr() < 1e-8 ? Vec3.ZERO : v.normalize();
+    }
+}
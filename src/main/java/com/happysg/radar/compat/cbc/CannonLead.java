@@ -9,6 +9,7 @@ import rbasamoyai.createbigcannons.cannon_control.cannon_mount.CannonMountBlockE
 import rbasamoyai.createbigcannons.cannon_control.contraption.AbstractMountedCannonContraption;
 import rbasamoyai.createbigcannons.munitions.config.components.BallisticPropertiesComponent;
 
+import javax.annotation.Nullable;
 import java.util.List;
 
 public class CannonLead {
@@ -16,17 +17,27 @@ public class CannonLead {
     private static final double VEL_EPS_SQR = VEL_EPS * VEL_EPS;
     private static final Logger LOGGER = LogUtils.getLogger();
 
+    // linear/no drag solves that had no closed-form intercept and went to the iterative loop
+    private static long analyticFallbacks;
+
     public static class LeadSolution {
         public final Vec3 aimPoint;
         public final double pitchDeg;    // pitch solution for the aimPoint
         public final double yawRad;      // yaw solution for the aimPoint
         public final int flightTicks;    // predicted time-of-flight in ticks
+        // pitch came straight from AnalyticIntercept, callers can use it without another pitch solve
+        public final boolean analytic;
 
         public LeadSolution(Vec3 aimPoint, double pitchDeg, double yawRad, int flightTicks) {
+            this(aimPoint, pitchDeg, yawRad, flightTicks, false);
+        }
+
+        public LeadSolution(Vec3 aimPoint, double pitchDeg, double yawRad, int flightTicks, boolean analytic) {
             this.aimPoint = aimPoint;
             this.pitchDeg = pitchDeg;
             this.yawRad = yawRad;
             this.flightTicks = flightTicks;
+            this.analytic = analytic;
         }
     }
 
@@ -76,6 +87,9 @@ public class CannonLead {
      * Simple tick integrator using per-tick damping style drag.
      * NOTE: CBC's ballistic "drag" is not necessarily a damping coefficient; if you're matching CBC,
      * prefer a CBC-equivalent sim (see your simulateFlightTicksCBC).
+     * <p>
+     * When the shooter isn't moving the arc is read from {@link TrajectoryCache} instead of being
+     * integrated, so cannons of the same type share one integration per pitch.
      */
     public static SimResult simulateFlightTicks(
             Vec3 muzzlePos,
@@ -89,34 +103,54 @@ public class CannonLead {
             int maxTicks,
             boolean applyDrag
     ) {
-        Vec3 pos = muzzlePos;
-        Vec3 vel = shooterVelPerTickAtFire.add(dirUnit.scale(muzzleSpeedPerTick));
+        double dragUsed = applyDrag ? drag : 0.0;
+        double dirH = Math.sqrt(dirUnit.x * dirUnit.x + dirUnit.z * dirUnit.z);
+
+        if (shooterVelPerTickAtFire.lengthSqr() < 1.0e-12 && dragUsed >= 0.0 && dragUsed <= 1.0 && dirH > 1.0e-9) {
+            double pitchDeg = Math.toDegrees(Math.atan2(dirUnit.y, dirH));
+            TrajectoryCache.Arc arc = TrajectoryCache.get(muzzleSpeedPerTick, gravityPerTick, dragUsed, false, pitchDeg);
+            int n = TrajectoryCache.lookupAccelerateFirst(arc, targetHorizontalDist, maxTicks);
+            if (n >= 0) {
+                double cx = dirUnit.x / dirH, cz = dirUnit.z / dirH;
+                double h = arc.h[n + 1] - arc.vh[0];
+                double y = arc.y[n + 1] - arc.vy[0];
+                return new SimResult(n,
+                        new Vec3(muzzlePos.x + cx * h, muzzlePos.y + y, muzzlePos.z + cz * h),
+                        new Vec3(cx * arc.vh[n], arc.vy[n], cz * arc.vh[n]));
+            }
+        }
+
+        double px = muzzlePos.x, py = muzzlePos.y, pz = muzzlePos.z;
+        double vx = shooterVelPerTickAtFire.x + dirUnit.x * muzzleSpeedPerTick;
+        double vy = shooterVelPerTickAtFire.y + dirUnit.y * muzzleSpeedPerTick;
+        double vz = shooterVelPerTickAtFire.z + dirUnit.z * muzzleSpeedPerTick;
 
         double targetDistSqr = targetHorizontalDist * targetHorizontalDist;
+        double damp = 1.0 - dragUsed;
 
         for (int tick = 0; tick <= maxTicks; tick++) {
-            double dx = pos.x - muzzlePos.x;
-            double dz = pos.z - muzzlePos.z;
-            if (dx * dx + dz * dz >= targetDistSqr) {
-                return new SimResult(tick, pos, vel);
-            }
-
-            if (vel.lengthSqr() <= 1.0e-4) {
-                return new SimResult(tick, pos, vel);
+            double dx = px - muzzlePos.x;
+            double dz = pz - muzzlePos.z;
+            if (dx * dx + dz * dz >= targetDistSqr || vx * vx + vy * vy + vz * vz <= 1.0e-4) {
+                return new SimResult(tick, new Vec3(px, py, pz), new Vec3(vx, vy, vz));
             }
 
             // gravity per tick^2
-            vel = vel.add(0.0, gravityPerTick, 0.0);
+            vy += gravityPerTick;
 
             // per-tick damping style drag (only valid if drag is small, like 0..1)
-            if (applyDrag && drag != 0.0) {
-                vel = vel.scale(1.0 - drag);
+            if (dragUsed != 0.0) {
+                vx *= damp;
+                vy *= damp;
+                vz *= damp;
             }
 
-            pos = pos.add(vel);
+            px += vx;
+            py += vy;
+            pz += vz;
         }
 
-        return new SimResult(maxTicks, pos, vel);
+        return new SimResult(maxTicks, new Vec3(px, py, pz), new Vec3(vx, vy, vz));
     }
 
     // -------------------------
@@ -193,6 +227,16 @@ public class CannonLead {
         double horiz0 = Math.sqrt(dx0 * dx0 + dz0 * dz0);
         double tGuessTicks = horiz0 / Math.max(1.0e-6, muzzleSpeedPerTick);
 
+        if (!bp.isQuadraticDrag()) {
+            // target is predicted latencyTicks past impact, so shift its state forward by that much
+            Vec3 relPosLatency = predictPositionTicks(targetPosRel0, targetVelRel, targetAccelRel, latencyTicks);
+            Vec3 relVelLatency = predictVelocityTicks(targetVelRel, targetAccelRel, latencyTicks);
+            LeadSolution analytic = analyticLead(shooterPosAtFire, shooterVelAtFire, relPosLatency, relVelLatency,
+                    targetAccelRel, muzzleSpeedPerTick, gravityPerTick, formDrag, barrelLength,
+                    computeMaxSimTicks(horiz0, muzzleSpeedPerTick, maxSimDistanceBlocks));
+            if (analytic != null) return analytic;
+        }
+
         Vec3 aimPoint = targetPosNow;
         double chosenPitchDeg = 0.0;
         double chosenYawRad = 0.0;
@@ -315,8 +359,17 @@ public class CannonLead {
 
         // Initial time guess from horizontal distance / muzzle speed
         double horiz0 = Math.sqrt(relPos0.x * relPos0.x + relPos0.z * relPos0.z);
+
         double tGuessTicks = horiz0 / Math.max(1.0e-6, muzzleSpeedPerTick);
 
+        // linear/no drag has a closed form, only quadratic drag needs the pitch scan and the sim below
+        if (!bp.isQuadraticDrag()) {
+            LeadSolution analytic = analyticLead(shooterPosAtFire, shooterVelAtFire, relPos0, relVel, Vec3.ZERO,
+                    muzzleSpeedPerTick, gravityPerTick, drag, barrelLength,
+                    computeMaxSimTicks(horiz0, muzzleSpeedPerTick, maxSimDistanceBlocks));
+            if (analytic != null) return analytic;
+        }
+
         Vec3 aimPoint = targetPosAtFire;
         double chosenPitchDeg = 0.0;
         double chosenYawRad = 0.0;
@@ -382,6 +435,47 @@ public class CannonLead {
         return new LeadSolution(aimPoint, chosenPitchDeg, chosenYawRad, flightTicks);
     }
 
+    /**
+     * Lead straight from {@link AnalyticIntercept}: one solve from the mount, then one from the muzzle
+     * the first solve puts the barrel at. {@code relPos}/{@code relVel} are the target's state relative
+     * to the shooter at fire time. Null when there's no intercept, the caller then runs its iterative loop.
+     */
+    @Nullable
+    private static LeadSolution analyticLead(Vec3 shooterPosAtFire, Vec3 shooterVel, Vec3 relPos, Vec3 relVel, Vec3 relAccel,
+                                             double muzzleSpeedPerTick, double gravityPerTick, double drag,
+                                             int barrelLength, int maxTicks) {
+        AnalyticIntercept.Solution sol = intercept(relPos, relVel, relAccel, shooterVel, muzzleSpeedPerTick, gravityPerTick, drag, maxTicks);
+        if (sol != null && barrelLength > 0) {
+            Vec3 muzzle = directionFromYawPitch(sol.yawRad(), sol.pitchRad()).scale(barrelLength);
+            sol = intercept(relPos.subtract(muzzle), relVel, relAccel, shooterVel, muzzleSpeedPerTick, gravityPerTick, drag, maxTicks);
+        }
+        if (sol == null) {
+            analyticFallbacks++;
+            LOGGER.debug("[LEAD] no closed-form intercept (drag={}), using the iterative solve, {} so far", drag, analyticFallbacks);
+            return null;
+        }
+
+        double t = sol.ticks();
+        Vec3 aimPoint = shooterPosAtFire.add(predictPositionTicks(relPos, relVel, relAccel, t));
+        return new LeadSolution(aimPoint, Math.toDegrees(sol.pitchRad()), sol.yawRad(), (int) Math.round(t), true);
+    }
+
+    @Nullable
+    private static AnalyticIntercept.Solution intercept(Vec3 relPos, Vec3 relVel, Vec3 relAccel, Vec3 shooterVel,
+                                                        double muzzleSpeedPerTick, double gravityPerTick, double drag, int maxTicks) {
+        return AnalyticIntercept.solve(
+                relPos.x, relPos.y, relPos.z,
+                relVel.x, relVel.y, relVel.z,
+                relAccel.x, relAccel.y, relAccel.z,
+                shooterVel.x, shooterVel.y, shooterVel.z,
+                muzzleSpeedPerTick, gravityPerTick, drag, maxTicks);
+    }
+
+    /** How many linear/no drag lead solves fell back to the iterative loop since startup. */
+    public static long analyticFallbacks() {
+        return analyticFallbacks;
+    }
+
     private static int computeMaxSimTicks(double targetHorizontalDist, double muzzleSpeedPerTick, double maxSimDistanceBlocks) {
         final int HARD_MAX_TICKS = 8000;
 
@@ -0,0 +1,171 @@
+package com.happysg.radar.compat.cbc;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Shared, memoized projectile arcs.
+ * <p>
+ * With no inherited shooter velocity a shot's path in the (horizontal, vertical) plane only depends
+ * on muzzle speed, gravity, drag model and pitch, so every cannon of the same type firing at the same
+ * elevation flies the same arc. Arcs are integrated once per (ballistic profile, pitch bucket) and
+ * looked up by horizontal range afterwards.
+ * <p>
+ * Index {@code n} of an arc holds the displacement after {@code n} steps (the sum of v0..v(n-1)) and
+ * the velocity {@code v(n)}, where each step is {@code v = drag(v + gravity)}. Both tick orderings
+ * used in this package (move-then-accelerate and accelerate-then-move) can be read off that table.
+ * <p>
+ * Arcs are integrated lazily: a lookup only extends its arc until the shell is one step past the
+ * requested range (or out of ticks), and a later lookup further out resumes from where the last one
+ * stopped. Arcs are only touched under the class lock.
+ */
+public final class TrajectoryCache {
+
+    private TrajectoryCache() {}
+
+    public static final double PITCH_STEP_DEG = 0.1;
+    private static final int MAX_ENTRIES = 256;
+    private static final int HARD_MAX_TICKS = 8000;
+    // once a shell is this far below the muzzle nobody is aiming at it anymore
+    private static final double MAX_DROP = 512.0;
+    private static final double STALL_SPEED_SQR = 1.0e-4;
+
+    private record Key(double speed, double gravity, double drag, boolean quadratic, int pitchBucket) {}
+
+    public static final class Arc {
+        private final Key key;
+        double[] h = new double[64];
+        double[] y = new double[64];
+        double[] vh = new double[64];
+        double[] vy = new double[64];
+        int length;
+
+        // integrator state for the next entry
+        private double sh, sy, curVH, curVY;
+        private boolean finished;
+
+        private Arc(Key key) {
+            this.key = key;
+            double pitchRad = Math.toRadians(key.pitchBucket() * PITCH_STEP_DEG);
+            this.curVH = key.speed() * Math.cos(pitchRad);
+            this.curVY = key.speed() * Math.sin(pitchRad);
+            append();
+        }
+
+        /**
+         * Integrates until the entry after the first one reaching {@code range} exists, the arc ends
+         * (drop, stall, hard cap) or there are {@code maxEntries} entries.
+         */
+        private void extendTo(double range, int maxEntries) {
+            int limit = Math.min(HARD_MAX_TICKS + 1, maxEntries);
+            while (!finished && length < limit && (length < 2 || h[length - 2] < range)) {
+                append();
+            }
+        }
+
+        private void append() {
+            if (length == h.length) {
+                int cap = Math.min(length * 2, HARD_MAX_TICKS + 1);
+                h = Arrays.copyOf(h, cap);
+                y = Arrays.copyOf(y, cap);
+                vh = Arrays.copyOf(vh, cap);
+                vy = Arrays.copyOf(vy, cap);
+            }
+            h[length] = sh;
+            y[length] = sy;
+            vh[length] = curVH;
+            vy[length] = curVY;
+            length++;
+
+            if (length > HARD_MAX_TICKS
+                    || (sy < -MAX_DROP && curVY < 0)
+                    || curVH * curVH + curVY * curVY <= STALL_SPEED_SQR) {
+                finished = true;
+                return;
+            }
+
+            sh += curVH;
+            sy += curVY;
+
+            curVY += key.gravity();
+            double f = dragFactor(curVH, curVY, key.drag(), key.quadratic());
+            curVH *= f;
+            curVY *= f;
+        }
+
+        /** Smallest index {@code >= 1} whose horizontal displacement reaches {@code range}, or -1 past the end. */
+        int firstIndexAtRange(double range) {
+            int lo = 1, hi = length - 1;
+            if (hi < 1 || h[hi] < range) return -1;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (h[mid] >= range) hi = mid;
+                else lo = mid + 1;
+            }
+            return lo;
+        }
+    }
+
+    private static final Map<Key, Arc> CACHE = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Arc> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    public static synchronized void clear() {
+        CACHE.clear();
+    }
+
+    public static int quantizePitch(double pitchDeg) {
+        return (int) Math.round(pitchDeg / PITCH_STEP_DEG);
+    }
+
+    /**
+     * @param gravity signed, per tick² (CBC uses negative values)
+     * @param drag    per-tick drag; linear damps by {@code 1 - drag}, quadratic by {@code 1 / (1 + drag * speed)}
+     */
+    public static synchronized Arc get(double speed, double gravity, double drag, boolean quadratic, double pitchDeg) {
+        Key key = new Key(speed, gravity, drag, quadratic, quantizePitch(pitchDeg));
+        return CACHE.computeIfAbsent(key, Arc::new);
+    }
+
+    static double dragFactor(double vH, double vY, double drag, boolean quadratic) {
+        if (drag <= 0) return 1.0;
+        if (!quadratic) return Math.max(0.0, Math.min(1.0, 1.0 - drag));
+        double speed = Math.sqrt(vH * vH + vY * vY);
+        return speed < 1e-9 ? 1.0 : 1.0 / (1.0 + drag * speed);
+    }
+
+    /**
+     * Tick count, height and horizontal distance when an arc first reaches {@code range}, counting
+     * the way {@link CBCBallistics#estimateTofAndDrop} does (move, check, then accelerate).
+     * Null when the arc never gets there within {@code maxTicks}.
+     */
+    @Nullable
+    public static synchronized CBCBallistics.Result lookupMoveFirst(Arc arc, double range, int maxTicks) {
+        arc.extendTo(range, entriesFor(maxTicks));
+        int m = arc.firstIndexAtRange(range);
+        if (m < 0 || m - 1 >= maxTicks) return null;
+        return new CBCBallistics.Result(m - 1, arc.y[m], arc.h[m]);
+    }
+
+    /**
+     * Same lookup for the accelerate-then-move ordering of {@link CannonLead#simulateFlightTicks}:
+     * position there after n ticks is the table's displacement at n + 1 minus the initial velocity.
+     * Returns the tick index {@code n}, or -1.
+     */
+    public static synchronized int lookupAccelerateFirst(Arc arc, double range, int maxTicks) {
+        arc.extendTo(range + arc.vh[0], entriesFor(maxTicks));
+        int m = arc.firstIndexAtRange(range + arc.vh[0]);
+        if (m < 0 || m - 1 > maxTicks) return -1;
+        return m - 1;
+    }
+
+    // both orderings read at most index maxTicks + 1, keep one more for interpolation
+    private static int entriesFor(int maxTicks) {
+        return Math.min(maxTicks, HARD_MAX_TICKS) + 3;
+    }
+}
@@ -1,20 +1,26 @@
 package com.happysg.radar.compat.cbc;
 
-import net.minecraft.core.Direction;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.phys.Vec3;
-import org.joml.Vector3d;
 import org.valkyrienskies.core.api.ships.LoadedShip;
 import org.valkyrienskies.mod.common.VSGameUtilsKt;
 import rbasamoyai.createbigcannons.cannon_control.cannon_mount.CannonMountBlockEntity;
 import rbasamoyai.createbigcannons.cannon_control.contraption.AbstractMountedCannonContraption;
 import rbasamoyai.createbigcannons.cannon_control.contraption.PitchOrientedContraptionEntity;
 
+import javax.annotation.Nullable;
 import java.util.List;
 
 public class VS2CannonTargeting {
     public static List<List<Double>> calculatePitchAndYawVS2(CannonMountBlockEntity mount, Vec3 targetPos, ServerLevel level) {
+        return calculatePitchAndYawVS2(mount, targetPos, level, null);
+    }
+
+    /**
+     * @param warmStart last (pitch, yaw) solution for this mount, lets the solver converge in a couple of steps
+     */
+    public static List<List<Double>> calculatePitchAndYawVS2(CannonMountBlockEntity mount, Vec3 targetPos, ServerLevel level, @Nullable List<Double> warmStart) {
         if (mount == null || targetPos == null) {
             return null;
         }
@@ -25,49 +31,28 @@ public class VS2CannonTargeting {
         }
 
         Vec3 mountPos = mount.getBlockPos().getCenter();
+        Vec3 mountOffset = CannonUtil.getCannonMountOffset(mount);
         int barrelLength = CannonUtil.getBarrelLength(cannonContraption);
-        Direction initialDirection = cannonContraption.initialOrientation();
 
         if (CannonUtil.isLaserCannon(cannonContraption)) {
-            return calculatePitchAndYawVS2(level, 10000.0, targetPos, mountPos, barrelLength, initialDirection, 0.0, 0.0);
+            return calculatePitchAndYawVS2(level, 10000.0, targetPos, mountPos, mountOffset, barrelLength, 0.0, 0.0, warmStart);
         }
 
         float chargePower = CannonUtil.getInitialVelocity(cannonContraption, level);
         double drag = CannonUtil.getProjectileDrag(cannonContraption, level);
         double gravity = CannonUtil.getProjectileGravity(cannonContraption, level);
 
-        return calculatePitchAndYawVS2(level, chargePower, targetPos, mountPos, barrelLength, initialDirection, drag, gravity);
+        return calculatePitchAndYawVS2(level, chargePower, targetPos, mountPos, mountOffset, barrelLength, drag, gravity, warmStart);
     }
 
-    public static List<List<Double>> calculatePitchAndYawVS2(Level level, double speed, Vec3 targetPos, Vec3 mountPos, int barrelLength, Direction initialDirection, double drag, double gravity) {
+    public static List<List<Double>> calculatePitchAndYawVS2(Level level, double speed, Vec3 targetPos, Vec3 mountPos, Vec3 mountOffset, int barrelLength,
+                                                             double drag, double gravity, @Nullable List<Double> warmStart) {
         LoadedShip ship = VSGameUtilsKt.getShipObjectManagingPos(level,mountPos.x,mountPos.y,mountPos.z);
         if (ship == null) {
-            System.out.println("null");
             return null;
         }
-        Vector3d eulerAngles = new Vector3d();
-        ship.getTransform().getShipToWorldRotation().getEulerAnglesYXZ(eulerAngles);
-        double x = eulerAngles.x;
-        double z = eulerAngles.z;
-        double initialZeta = -eulerAngles.y; // Yaw
-        double initialPsi = 0; // Roll
-        double initialTheta = 0; // Pitch
-
-        if (initialDirection == Direction.NORTH) {
-            initialPsi = -z;
-            initialTheta = x;
-        } else if (initialDirection == Direction.SOUTH) {
-            initialPsi = z;
-            initialTheta = -x;
-        } else if (initialDirection == Direction.EAST) {
-            initialPsi = x;
-            initialTheta = z;
-        } else if (initialDirection == Direction.WEST) {
-            initialPsi = -x;
-            initialTheta = -z;
-        }
 
-        VS2TargetingSolver targetingSolver = new VS2TargetingSolver(level, speed, drag, gravity, barrelLength, mountPos, targetPos, initialTheta, initialZeta, initialPsi, ship);
-        return targetingSolver.solveThetaZeta();
+        VS2TargetingSolver targetingSolver = new VS2TargetingSolver(speed, drag, gravity, barrelLength, mountPos, mountOffset, targetPos, ship);
+        return targetingSolver.solveThetaZeta(warmStart);
     }
 }
@@ -1,161 +1,228 @@
 package com.happysg.radar.compat.cbc;
-import com.happysg.radar.math3.analysis.MultivariateFunction;
-import com.happysg.radar.math3.optim.InitialGuess;
-import com.happysg.radar.math3.optim.MaxEval;
-import com.happysg.radar.math3.optim.PointValuePair;
-import com.happysg.radar.math3.optim.SimpleBounds;
-import com.happysg.radar.math3.optim.nonlinear.scalar.GoalType;
-import com.happysg.radar.math3.optim.nonlinear.scalar.MultiStartMultivariateOptimizer;
-import com.happysg.radar.math3.optim.nonlinear.scalar.ObjectiveFunction;
-import com.happysg.radar.math3.optim.nonlinear.scalar.noderiv.BOBYQAOptimizer;
-import com.happysg.radar.math3.random.RandomVectorGenerator;
-import net.minecraft.world.level.Level;
+
 import net.minecraft.world.phys.Vec3;
 
 import org.joml.Matrix4dc;
-import org.joml.Vector3f;
+import org.joml.Vector3d;
 import org.valkyrienskies.core.api.ships.Ship;
 
+import javax.annotation.Nullable;
 import java.util.*;
 
-import static com.happysg.radar.compat.cbc.CannonUtil.getCannonMountOffset;
-import static com.happysg.radar.compat.vs2.VS2Utils.*;
 import static java.lang.Math.*;
 
+/**
+ * Finds the mount angles (θ pitch, ζ yaw, both in ship space, degrees) that put a ship-mounted
+ * cannon's shot on a world-space target.
+ * <p>
+ * Everything that doesn't depend on the angles (mount offset, pivot in world space, target in
+ * ship space) is worked out once in the constructor. The solve itself is a damped Newton iteration
+ * on the two miss distances (cross-track and height) with a finite-difference Jacobian, started
+ * from the previous tick's angles when there are any, then from a drag-free guess for the low and
+ * high arc. The objective doesn't allocate, so a typical warm solve is a handful of evaluations.
+ */
 public class VS2TargetingSolver {
     private final double u;
     private final double drag;
-    private final Vec3 targetPos;
-    private final Vec3 mountPos;
     private final double g;
-    private final Level level;
-    double initialTheta;
-    double initialZeta;
-    double initialPsi;
-    double l;
-    Matrix4dc shipToWorld;
-    Matrix4dc worldToShip;
+    private final double l;
+    private final Matrix4dc shipToWorld;
 
-    private static final double TOLERANCE = 1e-3;
+    // world-space target and barrel pivot, plus the target seen from the ship
+    private final double tx, ty, tz;
+    private final double px, py, pz;
+    private final double shipTargetX, shipTargetY, shipTargetZ;
+    private final double shipPivotX, shipPivotY, shipPivotZ;
 
+    private final Vector3d scratch = new Vector3d();
+    private final double[] residual = new double[2];
+    private int evaluations;
 
-    // Constructor to set up the known values
-    public VS2TargetingSolver(Level level, double u, double drag, double g, double barrelLength, Vec3 mountPos, Vec3 targetPos, double initialTheta, double initialZeta, double initialPsi, Ship ship ) {
-        this.level = level;
+    private static final double TOLERANCE = 1e-3;
+    private static final double DRAG_EPS = 1e-7;
+    private static final int MAX_ITERATIONS = 8;
+    private static final int MAX_HALVINGS = 4;
+    private static final double FD_STEP = 1e-4; // radians
+
+    /**
+     * @param mountPos    mount block center, shipyard coordinates
+     * @param mountOffset {@link CannonUtil#getCannonMountOffset} for that mount, looked up once by the caller
+     */
+    public VS2TargetingSolver(double u, double drag, double g, double barrelLength, Vec3 mountPos, Vec3 mountOffset, Vec3 targetPos, Ship ship) {
         this.u = u;
         this.drag = drag;
         this.g = abs(g);
-        this.initialTheta = initialTheta;
-        this.initialZeta = initialZeta;
-        this.initialPsi = initialPsi;
-        this.shipToWorld = ship.getShipToWorld();
-        this.worldToShip = ship.getWorldToShip();
-        this.targetPos = targetPos;
-        this.mountPos = mountPos; // shipyard coord
         this.l = barrelLength;
+        this.shipToWorld = ship.getShipToWorld();
+
+        this.shipPivotX = mountPos.x + mountOffset.x;
+        this.shipPivotY = mountPos.y + mountOffset.y;
+        this.shipPivotZ = mountPos.z + mountOffset.z;
+
+        shipToWorld.transformPosition(scratch.set(shipPivotX, shipPivotY, shipPivotZ));
+        this.px = scratch.x;
+        this.py = scratch.y;
+        this.pz = scratch.z;
 
+        this.tx = targetPos.x;
+        this.ty = targetPos.y;
+        this.tz = targetPos.z;
 
+        ship.getWorldToShip().transformPosition(scratch.set(tx, ty, tz));
+        this.shipTargetX = scratch.x;
+        this.shipTargetY = scratch.y;
+        this.shipTargetZ = scratch.z;
     }
 
-    private MultivariateFunction createFunction() { //TODO vypočítat čas z ZED a pak použít na vypočet y a x
-        return point -> {
-
-            double theta = point[0];
-            double zeta = point[1];
-            double thetaRad = toRadians(theta);
-            double zetaRad = toRadians(zeta);
-            Vec3 pivotPoint = mountPos;
-            Vec3 shipyardFrontOfBarrel = mountPos.add(cos(zetaRad+PI/2)*cos(thetaRad)*l, sin(thetaRad)*l, sin(zetaRad+PI/2)*cos(thetaRad)*l); //+90 degrees cuz used a space offset by that in my math and was too lazy to rewrite it all
-
-            Vec3 offset = getCannonMountOffset(level, getBlockPosFromVec3(mountPos));
-            pivotPoint = pivotPoint.add(offset);
-            shipyardFrontOfBarrel = shipyardFrontOfBarrel.add(offset);
-
-            Vec3 frontOfBarrel = getVec3FromVector(shipToWorld.transformPosition(getVector3dFromVec3(shipyardFrontOfBarrel)));
-            pivotPoint = getVec3FromVector(shipToWorld.transformPosition(getVector3dFromVec3(pivotPoint)));
-
-            Vec3 diffVec = targetPos.subtract(frontOfBarrel);
-            double dZ = diffVec.z;
-            double dY = diffVec.y;
-            double dX = diffVec.x;
-
-            Vector3f pivotVector = frontOfBarrel.subtract(pivotPoint).toVector3f();
-            pivotVector = pivotVector.normalize();
-            double pitch = asin(pivotVector.y);
-            double yaw = Math.atan2(pivotVector.z, pivotVector.x);
-            if (yaw < 0) {
-                yaw += 2 * Math.PI;
-            }
-            thetaRad = Double.isNaN(pitch) ? 0 : pitch;
-            zetaRad = Double.isNaN(yaw) ? 0 : yaw;
-
-            double log = 1-(drag*dZ)/(u*cos(thetaRad)*sin(zetaRad));
-            if(log <= 0) return Double.POSITIVE_INFINITY;
-            double time = log(log)/-drag;
-            if(time <= 0) return Double.POSITIVE_INFINITY;
-            double dragDecay = (1-exp(-drag*time));
-            double newX = u*cos(thetaRad)*cos(zetaRad)*dragDecay/drag;
-
-            double newY = (drag*u*sin(thetaRad)+g)*dragDecay/(drag*drag) - g*time/drag;
-            return abs(dY-newY)+abs(dX-newX);
-        };
+    /** Objective evaluations used by the last solve, handy when profiling. */
+    public int getEvaluations() {
+        return evaluations;
     }
-    RandomVectorGenerator randomVectorGenerator = new RandomVectorGenerator() {
-        private final Random random = new Random();
-        @Override
-        public double[] nextVector() {
-            // Define your bounds:
-            double thetaLower = -90;
-            double thetaUpper = 90;
-            double zetaLower = 0;
-            double zetaUpper = 360;
-            double theta = thetaLower + random.nextDouble() * (thetaUpper - thetaLower);
-            double zeta = zetaLower + random.nextDouble() * (zetaUpper - zetaLower);
-            return new double[]{theta, zeta};
-        }
-    };
 
     public List<List<Double>> solveThetaZeta() {
-        int numStarts = 2; // Number of starting points for multi-start optimization.
-        MultiStartMultivariateOptimizer optimizer = new MultiStartMultivariateOptimizer(
-                new BOBYQAOptimizer(5), numStarts, randomVectorGenerator
-        );
-
-        // Define search bounds (theta in [-90, 90] and zeta in [0, 360] degrees).
-        double[] lowerBounds = {-90, 0};
-        double[] upperBounds = {90, 360};
-        try {
-            optimizer.optimize(
-                    new MaxEval(200),
-                    new ObjectiveFunction(createFunction()),
-                    GoalType.MINIMIZE,
-                    new InitialGuess(new double[]{0, 0}),
-                    new SimpleBounds(lowerBounds, upperBounds)
-            );
-        } catch (Exception e) {
-            e.printStackTrace();
+        return solveThetaZeta(null);
+    }
+
+    /**
+     * @param warmStart previous (θ, ζ) in degrees, tried first when present
+     * @return at most one (θ, ζ) pair in degrees, θ in [-90, 90] and ζ in [0, 360); empty when unreachable
+     */
+    public List<List<Double>> solveThetaZeta(@Nullable List<Double> warmStart) {
+        evaluations = 0;
+        List<List<Double>> results = new ArrayList<>(1);
+
+        if (warmStart != null && warmStart.size() >= 2
+                && tryFrom(toRadians(warmStart.get(0)), toRadians(warmStart.get(1)), results)) {
+            return results;
         }
 
-        PointValuePair[] optima = optimizer.getOptima();
-        List<List<Double>> results = new ArrayList<>();
-        Set<String> uniqueSolutions = new HashSet<>();
-        for (PointValuePair opt : optima) {
-            if (opt == null) continue;
-            double error = opt.getValue();
-            if (error < TOLERANCE) {
-                double[] point = opt.getPoint();
-                double theta = point[0];
-                double zeta = point[1];
-                String key = String.format("%d_%d", (int) Math.floor(theta), (int) Math.floor(zeta));
-                if (!uniqueSolutions.contains(key)) {
-                    uniqueSolutions.add(key);
-                    List<Double> pair = new ArrayList<>();
-                    pair.add(theta);
-                    pair.add(zeta);
-                    results.add(pair);
-                }
+        // straight line to the target in ship space gives yaw and the line-of-sight pitch
+        double sx = shipTargetX - shipPivotX;
+        double sy = shipTargetY - shipPivotY;
+        double sz = shipTargetZ - shipPivotZ;
+        double shipHoriz = sqrt(sx * sx + sz * sz);
+        double zeta0 = atan2(-sx, sz);
+        double shipLos = atan2(sy, shipHoriz);
+
+        // drag-free elevation in world space, applied as a correction on top of the ship LOS pitch
+        double wx = tx - px, wy = ty - py, wz = tz - pz;
+        double worldHoriz = sqrt(wx * wx + wz * wz);
+        double worldLos = atan2(wy, worldHoriz);
+
+        double low = worldLos, high = PI / 4;
+        if (g > 0 && worldHoriz > 1e-6) {
+            double u2 = u * u;
+            double disc = u2 * u2 - g * (g * worldHoriz * worldHoriz + 2 * wy * u2);
+            if (disc >= 0) {
+                double root = sqrt(disc);
+                low = atan((u2 - root) / (g * worldHoriz));
+                high = atan((u2 + root) / (g * worldHoriz));
             }
         }
+
+        if (tryFrom(shipLos + (low - worldLos), zeta0, results)) return results;
+        tryFrom(shipLos + (high - worldLos), zeta0, results);
         return results;
     }
+
+    private boolean tryFrom(double theta, double zeta, List<List<Double>> out) {
+        theta = clampPitch(theta);
+        if (!evaluate(theta, zeta)) return false;
+        double r0 = residual[0], r1 = residual[1];
+        double err = abs(r0) + abs(r1);
+
+        for (int it = 0; it < MAX_ITERATIONS && err >= TOLERANCE; it++) {
+            // forward-difference jacobian, 2 extra evaluations
+            if (!evaluate(theta + FD_STEP, zeta)) return false;
+            double j00 = (residual[0] - r0) / FD_STEP, j10 = (residual[1] - r1) / FD_STEP;
+            if (!evaluate(theta, zeta + FD_STEP)) return false;
+            double j01 = (residual[0] - r0) / FD_STEP, j11 = (residual[1] - r1) / FD_STEP;
+
+            double det = j00 * j11 - j01 * j10;
+            if (abs(det) < 1e-12) return false;
+
+            double dTheta = -(j11 * r0 - j01 * r1) / det;
+            double dZeta = -(-j10 * r0 + j00 * r1) / det;
+
+            // halve the step until the miss actually shrinks
+            boolean improved = false;
+            for (int h = 0; h <= MAX_HALVINGS; h++) {
+                double nt = clampPitch(theta + dTheta);
+                double nz = zeta + dZeta;
+                if (evaluate(nt, nz)) {
+                    double nErr = abs(residual[0]) + abs(residual[1]);
+                    if (nErr < err) {
+                        theta = nt;
+                        zeta = nz;
+                        r0 = residual[0];
+                        r1 = residual[1];
+                        err = nErr;
+                        improved = true;
+                        break;
+                    }
+                }
+                dTheta *= 0.5;
+                dZeta *= 0.5;
+            }
+            if (!improved) return false;
+        }
+
+        if (err >= TOLERANCE) return false;
+
+        double zetaDeg = toDegrees(zeta) % 360.0;
+        if (zetaDeg < 0) zetaDeg += 360.0;
+        out.add(List.of(toDegrees(theta), zetaDeg));
+        return true;
+    }
+
+    /**
+     * Fills {@link #residual} with the cross-track and height miss for the given ship-space angles
+     * (radians). Returns false when the shot can't reach the target's range at all.
+     */
+    private boolean evaluate(double theta, double zeta) {
+        evaluations++;
+
+        // barrel direction in ship space (the +90° yaw offset from the original maths folded in)
+        double cosT = cos(theta);
+        shipToWorld.transformDirection(scratch.set(-sin(zeta) * cosT, sin(theta), cos(zeta) * cosT));
+        double len = scratch.length();
+        if (len < 1e-9) return false;
+
+        double dx = scratch.x / len, dy = scratch.y / len, dz = scratch.z / len;
+        double horiz = sqrt(dx * dx + dz * dz);
+        if (horiz < 1e-9) return false;
+
+        double hx = dx / horiz, hz = dz / horiz;
+
+        // shot starts at the muzzle, which sits barrelLength (ship-scaled) along the barrel
+        double diffX = tx - (px + scratch.x * l);
+        double diffY = ty - (py + scratch.y * l);
+        double diffZ = tz - (pz + scratch.z * l);
+
+        double along = diffX * hx + diffZ * hz;
+        double cross = diffX * hz - diffZ * hx;
+        if (along <= 0) return false;
+
+        double vh = u * horiz;
+        double vy = u * dy;
+
+        double yPred;
+        if (drag < DRAG_EPS) {
+            double t = along / vh;
+            yPred = vy * t - 0.5 * g * t * t;
+        } else {
+            double decay = drag * along / vh;
+            if (decay >= 1.0) return false;
+            double t = -log(1.0 - decay) / drag;
+            yPred = (drag * vy + g) * decay / (drag * drag) - g * t / drag;
+        }
+
+        residual[0] = cross;
+        residual[1] = diffY - yPred;
+        return true;
+    }
+
+    private static double clampPitch(double theta) {
+        return max(-PI / 2, min(PI / 2, theta));
+    }
 }
@@ -1,16 +1,15 @@
 package com.happysg.radar.compat.cbcwpf;
 
+import com.happysg.radar.compat.cbc.CannonGeometry;
 import net.ato.shupapium.blockentities.ShupapiumACBreechBlockEntity;
 import net.ato.shupapium.items.ShupapiumAmmoContainerItem;
 import net.ato.shupapium.items.ShupapiumAmmoItem;
 import net.ato.shupapium.utils.actypes.ShupapiumACProfile;
-import net.minecraft.core.BlockPos;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import rbasamoyai.createbigcannons.cannon_control.contraption.AbstractMountedCannonContraption;
 import rbasamoyai.createbigcannons.cannons.ItemCannonBehavior;
-import rbasamoyai.createbigcannons.cannons.autocannon.IAutocannonBlockEntity;
 import rbasamoyai.createbigcannons.cannons.autocannon.material.AutocannonMaterial;
 import rbasamoyai.createbigcannons.munitions.config.components.BallisticPropertiesComponent;
 
@@ -78,20 +77,13 @@ public final class CBCWPFShupapiumImpl {
         AutocannonMaterial mat = resolveMaterial(cannon);
         if (mat == null) return base;
 
+        CannonGeometry geometry = CannonGeometry.of(cannon);
+        if (geometry == null) return base;
+
+        // same count the old barrel walk produced: it stopped one past maxBarrelLength
         var props = mat.properties();
-        float speed = base;
-
-        BlockPos pos = cannon.getStartPos().relative(cannon.initialOrientation());
-        int barrelCount = 0;
-
-        while (cannon.presentBlockEntities.get(pos) instanceof IAutocannonBlockEntity) {
-            barrelCount++;
-            if (barrelCount <= props.maxSpeedIncreases())
-                speed += props.speedIncreasePerBarrel();
-            if (barrelCount > props.maxBarrelLength())
-                break;
-            pos = pos.relative(cannon.initialOrientation());
-        }
+        int barrelCount = Math.min(geometry.autocannonBarrels(), props.maxBarrelLength() + 1);
+        float speed = base + Math.min(barrelCount, props.maxSpeedIncreases()) * props.speedIncreasePerBarrel();
 
         return speed;
     }
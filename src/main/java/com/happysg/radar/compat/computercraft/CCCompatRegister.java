@@ -2,6 +2,7 @@ package com.happysg.radar.compat.computercraft;
 
 import com.happysg.radar.CreateRadar;
 import dan200.computercraft.api.ComputerCraftAPI;
+import net.minecraftforge.common.MinecraftForge;
 
 public class CCCompatRegister {
     public static void registerPeripherals(){
@@ -11,5 +12,8 @@ public class CCCompatRegister {
         ComputerCraftAPI.registerGenericSource(new YawControllerPeripheral());
         ComputerCraftAPI.registerGenericSource(new PitchControllerPeripheral());
         ComputerCraftAPI.registerGenericSource(new FireControllerPeripheral());
+        RadarEvents.setSink(ComputerEventHub.INSTANCE);
+        MinecraftForge.EVENT_BUS.addListener(ComputerEventHub::onServerTick);
+        MinecraftForge.EVENT_BUS.addListener(ComputerEventHub::onServerStopped);
     }
 }
\ No newline at end of file
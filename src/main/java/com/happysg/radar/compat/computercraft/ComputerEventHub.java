@@ -0,0 +1,223 @@
+package com.happysg.radar.compat.computercraft;
+
+import com.happysg.radar.block.radar.track.RadarTrack;
+import com.happysg.radar.block.radar.track.TrackCategory;
+import com.happysg.radar.block.radar.track.TrackSnapshot;
+import com.happysg.radar.config.RadarConfig;
+import dan200.computercraft.api.lua.LuaException;
+import dan200.computercraft.api.peripheral.IComputerAccess;
+import dan200.computercraft.api.peripheral.NotAttachedException;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.GlobalPos;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Computers subscribed to radar events, by the block they subscribed through.
+ * <p>
+ * Generic peripherals don't get attach/detach callbacks, so a subscription lives until the computer
+ * unsubscribes or is found detached (reboots and broken blocks end up there), either while queueing an
+ * event or by the once a second {@link #sweep}. Everything is dropped when the server stops.
+ * <p>
+ * Events over a subscription's rate cap are dropped, and the computer gets one
+ * {@code radar_events_dropped} (peripheral name, count) once the cap allows again, so a script
+ * tracking contacts knows to re-read {@code getTracks()}. Subscribing and posting both happen on the
+ * server thread.
+ */
+public final class ComputerEventHub implements RadarEvents.Sink {
+
+    public static final ComputerEventHub INSTANCE = new ComputerEventHub();
+
+    static final String OVERFLOW_EVENT = "radar_events_dropped";
+    private static final int SWEEP_INTERVAL = 20;
+
+    private final Map<GlobalPos, List<Subscription>> subscriptions = new HashMap<>();
+
+    private ComputerEventHub() {}
+
+    /**
+     * Filter table, every key optional:
+     * {@code { events = { "radar_contact_new" }, categories = { "VS2" }, maxPerSecond = 5 }}.
+     * Events outside {@code allowed} are rejected since the block would never raise them.
+     */
+    public void subscribe(Level level, BlockPos source, IComputerAccess computer, @Nullable Map<?, ?> filter,
+                          Set<RadarEvents.Type> allowed) throws LuaException {
+        Map<?, ?> table = filter == null ? Map.of() : filter;
+
+        Set<RadarEvents.Type> events = EnumSet.copyOf(allowed);
+        if (table.get("events") != null) {
+            events.clear();
+            for (String name : TrackQueries.strings(table.get("events"), "events")) {
+                RadarEvents.Type type = byName(name);
+                if (type == null || !allowed.contains(type))
+                    throw new LuaException("event '" + name + "' is not raised by this peripheral");
+                events.add(type);
+            }
+        }
+
+        Set<TrackCategory> categories = table.get("categories") != null
+                ? TrackQueries.categories(table.get("categories"), "categories") : null;
+
+        int cap = RadarConfig.server().computerEventRateCap.get();
+        double perSecond = table.get("maxPerSecond") != null ? TrackQueries.number(table.get("maxPerSecond"), "maxPerSecond") : cap;
+        if (perSecond <= 0) throw new LuaException("bad field 'maxPerSecond' (must be greater than 0)");
+
+        List<Subscription> list = subscriptions.computeIfAbsent(GlobalPos.of(level.dimension(), source), k -> new ArrayList<>());
+        list.removeIf(s -> s.computer == computer);
+        list.add(new Subscription(computer, events, categories, Math.min(perSecond, cap)));
+    }
+
+    public boolean unsubscribe(Level level, BlockPos source, IComputerAccess computer) {
+        GlobalPos key = GlobalPos.of(level.dimension(), source);
+        List<Subscription> list = subscriptions.get(key);
+        if (list == null) return false;
+
+        boolean removed = list.removeIf(s -> s.computer == computer);
+        if (list.isEmpty()) subscriptions.remove(key);
+        return removed;
+    }
+
+    /** Registered from {@link CCCompatRegister}, so nothing here is touched without CC installed. */
+    static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase == TickEvent.Phase.END && event.getServer().getTickCount() % SWEEP_INTERVAL == 0)
+            INSTANCE.sweep(event.getServer());
+    }
+
+    static void onServerStopped(ServerStoppedEvent event) {
+        INSTANCE.subscriptions.clear();
+    }
+
+    /** Drops detached computers and hands out overflow notices nothing else has flushed yet. */
+    private void sweep(MinecraftServer server) {
+        for (Iterator<Map.Entry<GlobalPos, List<Subscription>>> entries = subscriptions.entrySet().iterator(); entries.hasNext(); ) {
+            Map.Entry<GlobalPos, List<Subscription>> entry = entries.next();
+            ServerLevel level = server.getLevel(entry.getKey().dimension());
+            if (level == null) {
+                entries.remove();
+                continue;
+            }
+
+            long now = level.getGameTime();
+            List<Subscription> list = entry.getValue();
+            for (Iterator<Subscription> it = list.iterator(); it.hasNext(); ) {
+                Subscription sub = it.next();
+                try {
+                    String name = sub.computer.getAttachmentName();
+                    if (sub.dropped > 0 && sub.tryTake(now)) sub.flushOverflow(name);
+                } catch (NotAttachedException e) {
+                    it.remove();
+                }
+            }
+            if (list.isEmpty()) entries.remove();
+        }
+    }
+
+    @Override
+    public boolean isListening(Level level, BlockPos source) {
+        return !subscriptions.isEmpty() && subscriptions.containsKey(GlobalPos.of(level.dimension(), source));
+    }
+
+    @Override
+    public void post(Level level, BlockPos source, RadarEvents.Type type, @Nullable Object track, Object... args) {
+        GlobalPos key = GlobalPos.of(level.dimension(), source);
+        List<Subscription> list = subscriptions.get(key);
+        if (list == null) return;
+
+        TrackCategory category = track instanceof RadarTrack t ? t.trackCategory() : null;
+        Object table = null;
+        long now = level.getGameTime();
+
+        for (Iterator<Subscription> it = list.iterator(); it.hasNext(); ) {
+            Subscription sub = it.next();
+            if (!sub.wants(type, category)) continue;
+            if (!sub.tryTake(now)) {
+                sub.dropped++;
+                continue;
+            }
+
+            if (table == null && track instanceof RadarTrack t) table = TrackQueries.toLua(TrackSnapshot.Entry.of(t));
+
+            try {
+                String name = sub.computer.getAttachmentName();
+                // the notice goes first so the script sees the gap before the next event
+                if (sub.dropped > 0) sub.flushOverflow(name);
+
+                // name of the peripheral first, like modem_message, the track table last
+                Object[] payload = new Object[args.length + (track != null ? 2 : 1)];
+                payload[0] = name;
+                System.arraycopy(args, 0, payload, 1, args.length);
+                if (track != null) payload[payload.length - 1] = table;
+                sub.computer.queueEvent(type.eventName, payload);
+            } catch (NotAttachedException e) {
+                it.remove();
+            }
+        }
+        if (list.isEmpty()) subscriptions.remove(key);
+    }
+
+    @Nullable
+    private static RadarEvents.Type byName(String name) {
+        String lower = name.toLowerCase(Locale.ROOT);
+        for (RadarEvents.Type type : RadarEvents.Type.values()) {
+            if (type.eventName.equals(lower)) return type;
+        }
+        return null;
+    }
+
+    private static final class Subscription {
+        final IComputerAccess computer;
+        final Set<RadarEvents.Type> events;
+        final @Nullable Set<TrackCategory> categories;
+        final double perTick;
+        final double burst;
+
+        // token bucket, refilled by game time
+        double tokens;
+        long lastRefill = Long.MIN_VALUE;
+        // events refused by the bucket since the last overflow notice
+        int dropped;
+
+        Subscription(IComputerAccess computer, Set<RadarEvents.Type> events, @Nullable Set<TrackCategory> categories, double perSecond) {
+            this.computer = computer;
+            this.events = events;
+            this.categories = categories;
+            this.perTick = perSecond / 20.0;
+            this.burst = Math.max(1.0, perSecond);
+            this.tokens = burst;
+        }
+
+        boolean wants(RadarEvents.Type type, @Nullable TrackCategory category) {
+            if (!events.contains(type)) return false;
+            // only events about a track are filtered by category
+            return categories == null || category == null || categories.contains(category);
+        }
+
+        boolean tryTake(long now) {
+            if (lastRefill != Long.MIN_VALUE && now > lastRefill)
+                tokens = Math.min(burst, tokens + (now - lastRefill) * perTick);
+            lastRefill = now;
+
+            if (tokens < 1.0) return false;
+            tokens -= 1.0;
+            return true;
+        }
+
+        void flushOverflow(String name) {
+            computer.queueEvent(OVERFLOW_EVENT, name, dropped);
+            dropped = 0;
+        }
+    }
+}
@@ -2,8 +2,14 @@ package com.happysg.radar.compat.computercraft;
 
 import com.happysg.radar.CreateRadar;
 import com.happysg.radar.block.controller.firing.FireControllerBlockEntity;
+import dan200.computercraft.api.lua.LuaException;
 import dan200.computercraft.api.lua.LuaFunction;
 import dan200.computercraft.api.peripheral.GenericPeripheral;
+import dan200.computercraft.api.peripheral.IComputerAccess;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Optional;
 
 public class FireControllerPeripheral implements GenericPeripheral {
 
@@ -35,6 +41,18 @@ public class FireControllerPeripheral implements GenericPeripheral {
         be.setPowered(powered);
     }
 
+    // fire_controller_fired (name, gameTime) every time the output goes high, pulses included
+    @LuaFunction(mainThread = true)
+    public void subscribe(FireControllerBlockEntity be, IComputerAccess computer, Optional<Map<?, ?>> filter) throws LuaException {
+        ComputerEventHub.INSTANCE.subscribe(be.getLevel(), be.getBlockPos(), computer, filter.orElse(null),
+                EnumSet.of(RadarEvents.Type.FIRE_CONTROLLER_FIRED));
+    }
+
+    @LuaFunction(mainThread = true)
+    public boolean unsubscribe(FireControllerBlockEntity be, IComputerAccess computer) {
+        return ComputerEventHub.INSTANCE.unsubscribe(be.getLevel(), be.getBlockPos(), computer);
+    }
+
     // Keep firing pulse
     @LuaFunction(mainThread = true)
     public void keepFiring(FireControllerBlockEntity be) {
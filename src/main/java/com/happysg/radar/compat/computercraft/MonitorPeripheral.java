@@ -3,8 +3,10 @@ package com.happysg.radar.compat.computercraft;
 import com.happysg.radar.CreateRadar;
 import com.happysg.radar.block.monitor.MonitorBlockEntity;
 import com.happysg.radar.block.radar.track.RadarTrack;
+import dan200.computercraft.api.lua.LuaException;
 import dan200.computercraft.api.lua.LuaFunction;
 import dan200.computercraft.api.peripheral.GenericPeripheral;
+import dan200.computercraft.api.peripheral.IComputerAccess;
 
 import java.util.*;
 
@@ -17,28 +19,33 @@ public class MonitorPeripheral implements GenericPeripheral {
         return id == null ? "" : id;
     }
 
-    @LuaFunction(mainThread = true)
+    @LuaFunction
     public static List<Map<? super String, Object>> getTracks(MonitorBlockEntity monitorEntity){
-        MonitorBlockEntity controller = monitorEntity.getController();
-        if (controller == null) return new ArrayList<>();
+        return TrackQueries.all(monitorEntity.getTrackSnapshot());
+    }
 
-        List<Map<? super String, Object>> tracks = new ArrayList<>();
-        var controllerTracks = controller.getTracks();
-        if (controllerTracks == null) return tracks;
+    /**
+     * Filtered, paged track list, see {@link TrackQueries} for the filter table.
+     * The monitor has no position of its own to measure from, so maxRange needs an origin.
+     */
+    @LuaFunction
+    public static Map<String, Object> queryTracks(MonitorBlockEntity monitorEntity, Optional<Map<?, ?>> filter) throws LuaException {
+        return TrackQueries.query(monitorEntity.getTrackSnapshot(), filter.orElse(null), null);
+    }
 
-        for (RadarTrack track : controllerTracks) {
-            if (track == null) continue;
+    /**
+     * Queues radar_target_selected (name, id, auto, track) and radar_lock (name, id, locked, track) on this
+     * computer when the monitor's network picks, drops or locks a target. Subscribes for the whole monitor.
+     */
+    @LuaFunction(mainThread = true)
+    public static void subscribe(MonitorBlockEntity monitorEntity, IComputerAccess computer, Optional<Map<?, ?>> filter) throws LuaException {
+        ComputerEventHub.INSTANCE.subscribe(monitorEntity.getLevel(), monitorEntity.getControllerPos(), computer, filter.orElse(null),
+                EnumSet.of(RadarEvents.Type.TARGET_SELECTED, RadarEvents.Type.LOCK));
+    }
 
-            HashMap<? super String, Object> map = new HashMap<>();
-            map.put("position", RadarBearingPeripheral.getMapFromVector(track.position()));
-            map.put("velocity", RadarBearingPeripheral.getMapFromVector(track.velocity()));
-            map.put("category", track.trackCategory() == null ? "" : track.trackCategory().toString());
-            map.put("id", track.id() == null ? "" : track.id());
-            map.put("scannedTime", track.scannedTime());
-            map.put("entityType", track.entityType() == null ? "" : track.entityType());
-            tracks.add(map);
-        }
-        return tracks;
+    @LuaFunction(mainThread = true)
+    public static boolean unsubscribe(MonitorBlockEntity monitorEntity, IComputerAccess computer) {
+        return ComputerEventHub.INSTANCE.unsubscribe(monitorEntity.getLevel(), monitorEntity.getControllerPos(), computer);
     }
 
     @LuaFunction(mainThread = true)
@@ -2,15 +2,18 @@ package com.happysg.radar.compat.computercraft;
 
 import com.happysg.radar.CreateRadar;
 import com.happysg.radar.block.radar.bearing.RadarBearingBlockEntity;
-import com.happysg.radar.block.radar.track.RadarTrack;
+import com.happysg.radar.compat.vs2.PhysicsHandler;
+import dan200.computercraft.api.lua.LuaException;
 import dan200.computercraft.api.lua.LuaFunction;
 import dan200.computercraft.api.peripheral.GenericPeripheral;
+import dan200.computercraft.api.peripheral.IComputerAccess;
 import net.minecraft.world.phys.Vec3;
 
-import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 public class RadarBearingPeripheral implements GenericPeripheral {
     @Override
@@ -18,26 +21,39 @@ public class RadarBearingPeripheral implements GenericPeripheral {
         return CreateRadar.asResource("radar").toString();
     }
 
-    @LuaFunction(mainThread = true)
+    @LuaFunction
     public static List<Map<? super String, Object>> getTracks(RadarBearingBlockEntity radarEntity){
-        List<Map<? super String, Object>> tracks = new ArrayList<>();
-        for (RadarTrack track : radarEntity.getTracks()) {
-            HashMap<? super String, Object> map = new HashMap<>();
-            map.put("position", getMapFromVector(track.position()));
-            map.put("velocity", getMapFromVector(track.velocity()));
-            map.put("category", track.trackCategory().toString());
-            map.put("id", track.id());
-            map.put("scannedTime", track.scannedTime());
-            map.put("entityType", track.entityType());
-            tracks.add(map);
-        }
-        return tracks;
+        return TrackQueries.all(radarEntity.getTrackSnapshot());
+    }
+
+    /**
+     * Filtered, paged track list, see {@link TrackQueries} for the filter table.
+     * maxRange is measured from the radar unless an origin is given.
+     */
+    @LuaFunction
+    public static Map<String, Object> queryTracks(RadarBearingBlockEntity radarEntity, Optional<Map<?, ?>> filter) throws LuaException {
+        return TrackQueries.query(radarEntity.getTrackSnapshot(), filter.orElse(null), radarEntity.getSnapshotOrigin());
+    }
+
+    /**
+     * Queues radar_contact_new / radar_contact_lost (peripheral name, track) on this computer as contacts
+     * appear and drop off the scan. See {@link ComputerEventHub#subscribe} for the filter table.
+     */
+    @LuaFunction(mainThread = true)
+    public static void subscribe(RadarBearingBlockEntity radarEntity, IComputerAccess computer, Optional<Map<?, ?>> filter) throws LuaException {
+        ComputerEventHub.INSTANCE.subscribe(radarEntity.getLevel(), radarEntity.getBlockPos(), computer, filter.orElse(null),
+                EnumSet.of(RadarEvents.Type.CONTACT_NEW, RadarEvents.Type.CONTACT_LOST));
+    }
+
+    @LuaFunction(mainThread = true)
+    public static boolean unsubscribe(RadarBearingBlockEntity radarEntity, IComputerAccess computer) {
+        return ComputerEventHub.INSTANCE.unsubscribe(radarEntity.getLevel(), radarEntity.getBlockPos(), computer);
     }
 
     @LuaFunction(mainThread = true)
     public static HashMap<String, Double> getPosition(RadarBearingBlockEntity radarEntity){
         return getMapFromVector(
-                radarEntity.getWorldPos().getCenter()
+                PhysicsHandler.getWorldVec(radarEntity.getLevel(), radarEntity.getBlockPos().getCenter())
         );
     }
 
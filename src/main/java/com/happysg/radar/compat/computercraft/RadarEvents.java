@@ -0,0 +1,57 @@
+package com.happysg.radar.compat.computercraft;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.Level;
+
+import javax.annotation.Nullable;
+
+/**
+ * Entry point for pushing events to attached computers. Doesn't touch any ComputerCraft class itself,
+ * so block entities can call it whether or not CC is installed; without CC (or without subscribers at
+ * {@code source}) every call is a cheap no-op.
+ */
+public final class RadarEvents {
+
+    public enum Type {
+        CONTACT_NEW("radar_contact_new"),
+        CONTACT_LOST("radar_contact_lost"),
+        TARGET_SELECTED("radar_target_selected"),
+        LOCK("radar_lock"),
+        FIRE_CONTROLLER_FIRED("fire_controller_fired");
+
+        public final String eventName;
+
+        Type(String eventName) {
+            this.eventName = eventName;
+        }
+    }
+
+    /** Implemented on the CC side. */
+    public interface Sink {
+        boolean isListening(Level level, BlockPos source);
+
+        /**
+         * Queues {@code type} on the computers subscribed at {@code source}. {@code track} is a
+         * {@link com.happysg.radar.block.radar.track.RadarTrack} or null, the sink turns it into a table
+         * appended after {@code args} and uses its category for subscription filters.
+         */
+        void post(Level level, BlockPos source, Type type, @Nullable Object track, Object... args);
+    }
+
+    private static Sink sink;
+
+    private RadarEvents() {}
+
+    static void setSink(Sink sink) {
+        RadarEvents.sink = sink;
+    }
+
+    /** Lets callers skip building event data (diffs, lookups) nobody would receive. */
+    public static boolean isListening(@Nullable Level level, BlockPos source) {
+        return sink != null && level != null && !level.isClientSide && sink.isListening(level, source);
+    }
+
+    public static void post(Level level, BlockPos source, Type type, @Nullable Object track, Object... args) {
+        if (isListening(level, source)) sink.post(level, source, type, track, args);
+    }
+}
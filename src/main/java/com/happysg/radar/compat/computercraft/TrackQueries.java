@@ -0,0 +1,199 @@
+package com.happysg.radar.compat.computercraft;
+
+import com.happysg.radar.block.radar.track.TrackCategory;
+import com.happysg.radar.block.radar.track.TrackSnapshot;
+import dan200.computercraft.api.lua.LuaException;
+import net.minecraft.world.phys.Vec3;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Track queries for the radar and monitor peripherals, run against a {@link TrackSnapshot} so they
+ * don't need the server thread.
+ * <p>
+ * The filter table is optional and every key in it is too:
+ * <pre>
+ * {
+ *   categories = { "PLAYER", "VS2" },   -- only these categories
+ *   ids = { "..." },                    -- only these track ids
+ *   maxRange = 256,                     -- only tracks within this many blocks of origin
+ *   origin = { x = 0, y = 64, z = 0 },  -- defaults to the radar for radar peripherals
+ *   since = 12345,                      -- only tracks scanned at or after this game time
+ *   offset = 0, limit = 50              -- page through the (id sorted) matches
+ * }
+ * </pre>
+ * The result is {@code { tracks = {...}, total = n, version = v, tick = t }}, where {@code total} is the
+ * match count before paging and {@code version} only changes when the tracks do, so scripts can skip work.
+ * The per-track tables are built once per snapshot and reused until the next scan changes something.
+ */
+public final class TrackQueries {
+
+    private static final int MAX_LIMIT = 1024;
+
+    // snapshots are compared by identity, entries go away with the snapshot
+    private static final Map<TrackSnapshot, AtomicReferenceArray<Map<String, Object>>> LUA_CACHE = new WeakHashMap<>();
+
+    private TrackQueries() {}
+
+    /** Every track in the snapshot, in id order. */
+    public static List<Map<? super String, Object>> all(TrackSnapshot snapshot) {
+        AtomicReferenceArray<Map<String, Object>> cache = cacheFor(snapshot);
+        List<TrackSnapshot.Entry> entries = snapshot.entries();
+        List<Map<? super String, Object>> out = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) out.add(luaEntry(cache, entries, i));
+        return out;
+    }
+
+    /** The table for a single track, or an empty one when the id isn't in the snapshot. */
+    public static Map<? super String, Object> single(TrackSnapshot snapshot, @Nullable String id) {
+        int i = snapshot.indexOf(id);
+        if (i < 0) return new HashMap<>();
+        return luaEntry(cacheFor(snapshot), snapshot.entries(), i);
+    }
+
+    public static Map<String, Object> query(TrackSnapshot snapshot, @Nullable Map<?, ?> filter, @Nullable Vec3 defaultOrigin) throws LuaException {
+        Filter f = Filter.parse(filter == null ? Map.of() : filter, defaultOrigin);
+
+        AtomicReferenceArray<Map<String, Object>> cache = cacheFor(snapshot);
+        List<TrackSnapshot.Entry> entries = snapshot.entries();
+        List<Map<? super String, Object>> page = new ArrayList<>(Math.min(f.limit, entries.size()));
+
+        int total = 0;
+        for (int i = 0; i < entries.size(); i++) {
+            if (!f.test(entries.get(i))) continue;
+            if (total >= f.offset && page.size() < f.limit) page.add(luaEntry(cache, entries, i));
+            total++;
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("tracks", page);
+        result.put("total", total);
+        result.put("version", snapshot.version());
+        result.put("tick", snapshot.tick());
+        return result;
+    }
+
+    // -------------------------
+    // lua tables
+    // -------------------------
+
+    private static AtomicReferenceArray<Map<String, Object>> cacheFor(TrackSnapshot snapshot) {
+        synchronized (LUA_CACHE) {
+            return LUA_CACHE.computeIfAbsent(snapshot, s -> new AtomicReferenceArray<>(s.size()));
+        }
+    }
+
+    private static Map<String, Object> luaEntry(AtomicReferenceArray<Map<String, Object>> cache, List<TrackSnapshot.Entry> entries, int i) {
+        Map<String, Object> map = cache.get(i);
+        if (map != null) return map;
+
+        map = toLua(entries.get(i));
+
+        // two callers racing here build the same table, whichever lands first is kept
+        return cache.compareAndSet(i, null, map) ? map : cache.get(i);
+    }
+
+    /** Table for one track, same keys as {@code getTracks}. */
+    static Map<String, Object> toLua(TrackSnapshot.Entry e) {
+        HashMap<String, Object> map = new HashMap<>();
+        map.put("position", RadarBearingPeripheral.getMapFromVector(e.position()));
+        map.put("velocity", RadarBearingPeripheral.getMapFromVector(e.velocity()));
+        map.put("category", e.category() == null ? "" : e.category().toString());
+        map.put("id", e.id());
+        map.put("scannedTime", e.scannedTime());
+        map.put("entityType", e.entityType());
+        return Collections.unmodifiableMap(map);
+    }
+
+    // -------------------------
+    // filter
+    // -------------------------
+
+    static Set<TrackCategory> categories(Object raw, String key) throws LuaException {
+        Set<TrackCategory> categories = EnumSet.noneOf(TrackCategory.class);
+        for (Object o : listValues(raw, key)) {
+            if (!(o instanceof String s)) throw new LuaException("bad field '" + key + "' (expected strings)");
+            try {
+                categories.add(TrackCategory.valueOf(s.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException ex) {
+                throw new LuaException("unknown track category '" + s + "'");
+            }
+        }
+        return categories;
+    }
+
+    static Set<String> strings(Object raw, String key) throws LuaException {
+        Set<String> out = new HashSet<>();
+        for (Object o : listValues(raw, key)) {
+            if (!(o instanceof String s)) throw new LuaException("bad field '" + key + "' (expected strings)");
+            out.add(s);
+        }
+        return out;
+    }
+
+    static Iterable<?> listValues(Object raw, String key) throws LuaException {
+        if (!(raw instanceof Map<?, ?> list)) throw new LuaException("bad field '" + key + "' (expected table)");
+        return list.values();
+    }
+
+    static double number(Object raw, String key) throws LuaException {
+        if (!(raw instanceof Number n) || Double.isNaN(n.doubleValue()))
+            throw new LuaException("bad field '" + key + "' (expected number)");
+        return n.doubleValue();
+    }
+
+    private record Filter(@Nullable Set<TrackCategory> categories, @Nullable Set<String> ids,
+                          @Nullable Vec3 origin, double maxRangeSqr, long since, int offset, int limit) {
+
+        boolean test(TrackSnapshot.Entry e) {
+            if (categories != null && (e.category() == null || !categories.contains(e.category()))) return false;
+            if (ids != null && !ids.contains(e.id())) return false;
+            if (e.scannedTime() < since) return false;
+            return origin == null || e.position().distanceToSqr(origin) <= maxRangeSqr;
+        }
+
+        static Filter parse(Map<?, ?> table, @Nullable Vec3 defaultOrigin) throws LuaException {
+            Set<TrackCategory> categories = table.get("categories") != null ? categories(table.get("categories"), "categories") : null;
+            Set<String> ids = table.get("ids") != null ? strings(table.get("ids"), "ids") : null;
+
+            Vec3 origin = null;
+            double maxRangeSqr = Double.POSITIVE_INFINITY;
+            Object rawRange = table.get("maxRange");
+            if (rawRange != null) {
+                double range = number(rawRange, "maxRange");
+                if (range < 0) throw new LuaException("bad field 'maxRange' (must be positive)");
+                maxRangeSqr = range * range;
+
+                Object rawOrigin = table.get("origin");
+                origin = rawOrigin != null ? vector(rawOrigin) : defaultOrigin;
+                if (origin == null) throw new LuaException("field 'origin' is required with 'maxRange'");
+            }
+
+            long since = table.get("since") != null ? (long) number(table.get("since"), "since") : Long.MIN_VALUE;
+
+            int offset = table.get("offset") != null ? (int) number(table.get("offset"), "offset") : 0;
+            if (offset < 0) throw new LuaException("bad field 'offset' (must be positive)");
+
+            int limit = table.get("limit") != null ? (int) number(table.get("limit"), "limit") : MAX_LIMIT;
+            if (limit <= 0) throw new LuaException("bad field 'limit' (must be greater than 0)");
+
+            return new Filter(categories, ids, origin, maxRangeSqr, since, offset, Math.min(limit, MAX_LIMIT));
+        }
+
+        private static Vec3 vector(Object raw) throws LuaException {
+            if (!(raw instanceof Map<?, ?> map)) throw new LuaException("bad field 'origin' (expected table)");
+            return new Vec3(number(map.get("x"), "origin.x"), number(map.get("y"), "origin.y"), number(map.get("z"), "origin.z"));
+        }
+    }
+}
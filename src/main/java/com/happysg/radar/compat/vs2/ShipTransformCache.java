@@ -0,0 +1,133 @@
+package com.happysg.radar.compat.vs2;
+
+import com.happysg.radar.compat.Mods;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.phys.Vec3;
+import org.joml.Matrix4dc;
+import org.joml.Quaterniondc;
+import org.joml.Vector3d;
+import org.valkyrienskies.core.api.ships.LoadedShip;
+import org.valkyrienskies.mod.common.VSGameUtilsKt;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Per-level, per-tick view of the ships block entities sit on.
+ * <p>
+ * The first lookup in a shipyard chunk during a tick resolves its ship claim once; every other
+ * block in that chunk, and every chunk of the same ship, gets the same {@link Snapshot} with the
+ * transform matrices and euler angles already worked out. Positions outside the shipyard never
+ * touch the cache. Levels are held weakly and each level is only used from its own thread.
+ */
+public final class ShipTransformCache {
+
+    /**
+     * One ship's transform for the current tick. Angles are YXZ euler angles of the ship-to-world
+     * rotation in radians, so yaw is the heading of the ship's +Z in the world (0 = south, +90° = east).
+     */
+    public static final class Snapshot {
+        private final LoadedShip ship;
+        private final Matrix4dc shipToWorld;
+        private final Matrix4dc worldToShip;
+        private final Quaterniondc rotation;
+        private final double yaw;
+        private final double pitch;
+        private final double roll;
+
+        private Snapshot(LoadedShip ship) {
+            var transform = ship.getTransform();
+            this.ship = ship;
+            this.shipToWorld = transform.getShipToWorld();
+            this.worldToShip = transform.getWorldToShip();
+            this.rotation = transform.getShipToWorldRotation();
+
+            double qx = rotation.x(), qy = rotation.y(), qz = rotation.z(), qw = rotation.w();
+            // ship +Z in the world is (cos p sin y, -sin p, cos p cos y)
+            double fx = 2.0 * (qx * qz + qw * qy);
+            double fy = 2.0 * (qy * qz - qw * qx);
+            double fz = 1.0 - 2.0 * (qx * qx + qy * qy);
+            this.yaw = Math.atan2(fx, fz);
+            this.pitch = Math.asin(Math.max(-1.0, Math.min(1.0, -fy)));
+            this.roll = Math.atan2(2.0 * (qx * qy + qw * qz), 1.0 - 2.0 * (qx * qx + qz * qz));
+        }
+
+        public LoadedShip ship() { return ship; }
+        public long shipId() { return ship.getId(); }
+        public Matrix4dc shipToWorld() { return shipToWorld; }
+        public Matrix4dc worldToShip() { return worldToShip; }
+        public Quaterniondc rotation() { return rotation; }
+
+        public double yawRad() { return yaw; }
+        public double pitchRad() { return pitch; }
+        public double rollRad() { return roll; }
+        public double yawDeg() { return Math.toDegrees(yaw); }
+        public double pitchDeg() { return Math.toDegrees(pitch); }
+        public double rollDeg() { return Math.toDegrees(roll); }
+
+        public Vec3 toWorld(Vec3 shipPos) {
+            Vector3d v = shipToWorld.transformPosition(new Vector3d(shipPos.x, shipPos.y, shipPos.z));
+            return new Vec3(v.x, v.y, v.z);
+        }
+
+        public Vec3 toShip(Vec3 worldPos) {
+            Vector3d v = worldToShip.transformPosition(new Vector3d(worldPos.x, worldPos.y, worldPos.z));
+            return new Vec3(v.x, v.y, v.z);
+        }
+
+        public BlockPos toWorld(BlockPos shipPos) {
+            Vector3d v = shipToWorld.transformPosition(new Vector3d(shipPos.getX() + 0.5, shipPos.getY() + 0.5, shipPos.getZ() + 0.5));
+            return BlockPos.containing(v.x, v.y, v.z);
+        }
+
+        public BlockPos toShip(BlockPos worldPos) {
+            Vector3d v = worldToShip.transformPosition(new Vector3d(worldPos.getX() + 0.5, worldPos.getY() + 0.5, worldPos.getZ() + 0.5));
+            return BlockPos.containing(v.x, v.y, v.z);
+        }
+    }
+
+    private static final class LevelCache {
+        long tick = Long.MIN_VALUE;
+        // chunk -> snapshot, or null for a shipyard chunk nobody claims
+        final Map<Long, Snapshot> byChunk = new HashMap<>();
+        final Map<Long, Snapshot> byShip = new HashMap<>();
+    }
+
+    private static final Map<Level, LevelCache> CACHE = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private ShipTransformCache() {}
+
+    /** This tick's transform of the ship managing {@code pos}, or null off-ship or without VS2. */
+    @Nullable
+    public static Snapshot get(@Nullable Level level, BlockPos pos) {
+        if (level == null || !Mods.VALKYRIENSKIES.isLoaded()) return null;
+        if (!VSGameUtilsKt.isBlockInShipyard(level, pos)) return null;
+
+        LevelCache cache = CACHE.computeIfAbsent(level, l -> new LevelCache());
+        long now = level.getGameTime();
+        if (cache.tick != now) {
+            cache.tick = now;
+            cache.byChunk.clear();
+            cache.byShip.clear();
+        }
+
+        long chunk = ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4);
+        if (cache.byChunk.containsKey(chunk)) return cache.byChunk.get(chunk);
+
+        LoadedShip ship = VSGameUtilsKt.getShipObjectManagingPos(level, pos);
+        Snapshot snapshot = ship == null ? null : cache.byShip.computeIfAbsent(ship.getId(), id -> new Snapshot(ship));
+        cache.byChunk.put(chunk, snapshot);
+        return snapshot;
+    }
+
+    @Nullable
+    public static Snapshot get(BlockEntity blockEntity) {
+        return get(blockEntity.getLevel(), blockEntity.getBlockPos());
+    }
+}
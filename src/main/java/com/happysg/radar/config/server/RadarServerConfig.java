@@ -24,5 +24,17 @@ public class RadarServerConfig extends ConfigBase {
     public final ConfigFloat guidedFuzeMaxDegreesPerTick = f(3,1,"guidedFuzeMaxDegreesPerTick", "The maximum number of degrees per tick the guided fuze can correct its course");
     public final ConfigBool guidedFuzeSeekBeforeApex = b(false,"guidedFuzeSeekBeforeApex","Determines if the guided fuze can seek its target before it has began to fall");
     public final ConfigInt binoRaycastRange = i(512,1,1000,"binocularRange", "The range at which the binocular can acquire a target");
+    public final ConfigInt autoTargetRaycastBudget = i(64,1,4096,"autoTargetRaycastBudget", "Maximum shooter-to-track checks (one cannon engagement check, or one line-of-sight test) a single auto-target selection may spend before keeping its previous target");
+    public final ConfigBool distributeAutoTargets = b(true, "distributeAutoTargets", "If true, auto-targeting network groups with several cannons spread them across different tracks instead of stacking every cannon on one target");
+    public final ConfigInt controllerSyncInterval = i(4,1,40,"controllerSyncInterval", "Minimum ticks between client updates of a pitch/yaw controller or its cannon mount while it is slewing. Clients interpolate in between");
+    public final ConfigFloat controllerSyncDeadband = f(0.5f,0f,10f,"controllerSyncDeadband", "Commanded angle change in degrees below which pitch/yaw controllers don't resend their aim to clients");
+    public final ConfigInt dataLinkTransferInterval = i(4,1,200,"dataLinkTransferInterval", "Ticks between data link transfers for sources that can't report when their data changed");
+    public final ConfigInt maxRadarsPerNetwork = i(4,1,16,"maxRadarsPerNetwork", "How many radars one network filterer can link. Tracks from all of them are merged into a single picture");
+    public final ConfigInt computerEventRateCap = i(20,1,200,"computerEventRateCap", "Maximum radar events per second queued on a single subscribed computer. Scripts can ask for less, never more");
+    public final ConfigBool fireControllerDirectTrigger = b(true, "fireControllerDirectTrigger", "If true, fire controllers driven by a weapon network fire their Create Big Cannons mount directly instead of pulsing redstone at it");
+    public final ConfigBool fireControllerRedstoneOutput = b(false, "fireControllerRedstoneOutput", "If true, directly triggering fire controllers still emit a steady redstone signal while firing, for player circuits. Keep them away from the mount's fire input or it sees two triggers");
+    public final ConfigInt fireControllerVisualInterval = i(10,1,200,"fireControllerVisualInterval", "Minimum ticks between lit/unlit changes of a directly triggering fire controller without redstone output");
+    public final ConfigFloat radarGuidanceNavigationConstant = f(4f, 1f, 8f, "radarGuidanceNavigationConstant", "Navigation constant of the proportional navigation law radar-guided missiles fly. 3-5 is typical, higher reacts harder to target motion");
+    public final ConfigInt networkValidationPerTick = i(2,0,64,"networkValidationPerTick", "Radar and weapon network groups checked for broken links each tick, in loaded chunks only. 0 turns the background validator off");
 
 }
\ No newline at end of file
@@ -3,10 +3,8 @@ package com.happysg.radar.item;
 import com.happysg.radar.CreateRadar;
 import com.happysg.radar.block.behavior.networks.config.TargetingConfig;
 import com.happysg.radar.block.controller.networkcontroller.NetworkFiltererBlockEntity;
-import com.happysg.radar.block.monitor.MonitorBlockEntity;
 import com.happysg.radar.config.RadarConfig;
 import net.minecraft.core.BlockPos;
-import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.NbtUtils;
 import net.minecraft.network.chat.Component;
 import net.minecraft.world.InteractionResult;
@@ -42,8 +40,12 @@ public class GuidedFuzeItem extends FuzeItem {
     public boolean onProjectileTick(ItemStack stack, AbstractCannonProjectile projectile) {
         boolean detonate = super.onProjectileTick(stack, projectile);
 
-        CompoundTag tag = stack.getOrCreateTag();
-        if (!tag.contains("monitorPos"))
+        if (projectile.level().isClientSide)
+            return detonate;
+
+        // state lives in the side table, the stack's tag is only read the first time this shell ticks
+        GuidedShellTable.Shell shell = GuidedShellTable.shell(projectile, stack);
+        if (shell.controllerPos == null)
             return detonate;
 
         Vec3 vel = projectile.getDeltaMovement();
@@ -52,29 +54,20 @@ public class GuidedFuzeItem extends FuzeItem {
         if (vel.y > 0 && !RadarConfig.server().guidedFuzeSeekBeforeApex.get())
             return detonate;
 
-        BlockPos monitorPos = NbtUtils.readBlockPos(tag.getCompound("monitorPos"));
-        if (!(projectile.level().getBlockEntity(monitorPos) instanceof NetworkFiltererBlockEntity monitor))
-            return detonate;
-
-        if (monitor.activeTrackCache == null)
-            return detonate;
-
-        Vec3 target = monitor.activeTrackCache.getPosition();
+        Vec3 target = GuidedShellTable.target(projectile.level(), shell.controllerPos);
         if (target == null)
             return detonate;
 
         // --- store initial heading at the top of the arc (first descending tick) ---
-        if (!tag.contains("initialHeadingYaw")) {
-            double yaw = yawFromHorizontal(vel);
-            tag.putDouble("initialHeadingYaw", yaw);
+        if (Double.isNaN(shell.initialHeadingYaw)) {
+            shell.initialHeadingYaw = yawFromHorizontal(vel);
         }
 
         // --- enforce +/- 30 degree seeker cone from initial heading ---
-        double initialYaw = tag.getDouble("initialHeadingYaw");
         Vec3 toTarget = target.subtract(projectile.position());
 
         double targetYaw = yawFromHorizontal(toTarget);
-        double yawDelta = wrapDegrees(targetYaw - initialYaw);
+        double yawDelta = wrapDegrees(targetYaw - shell.initialHeadingYaw);
 
         if (Math.abs(yawDelta) > RadarConfig.server().guidedFuzeMaxSeekDegrees.get()) {
             // i refuse to seek anything outside the initial +/- 30 degree cone
@@ -86,8 +79,8 @@ public class GuidedFuzeItem extends FuzeItem {
         double dz = projectile.position().z - target.z;
         double horizontalDistance = Math.sqrt(dx * dx + dz * dz);
 
-        if (Math.abs(projectile.position().y - target.y) > horizontalDistance / 2 || tag.getBoolean("valid")) {
-            tag.putBoolean("valid", true);
+        if (Math.abs(projectile.position().y - target.y) > horizontalDistance / 2 || shell.valid) {
+            shell.valid = true;
         } else {
             return detonate;
         }
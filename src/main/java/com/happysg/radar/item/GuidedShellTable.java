@@ -0,0 +1,72 @@
+package com.happysg.radar.item;
+
+import com.happysg.radar.block.controller.networkcontroller.NetworkFiltererBlockEntity;
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.NbtUtils;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.phys.Vec3;
+import rbasamoyai.createbigcannons.munitions.AbstractCannonProjectile;
+
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Server-side guidance state for shells carrying a {@link GuidedFuzeItem}.
+ * <p>
+ * The fuze's tag is read once, the first time a shell ticks, and everything the seeker needs after
+ * that lives here instead of in the stack. Targets are resolved once per controller per tick, so a
+ * salvo linked to one filterer costs a single block entity lookup. Both tables hold their keys
+ * weakly and drop shells and levels on their own.
+ */
+final class GuidedShellTable {
+
+    static final class Shell {
+        @Nullable final BlockPos controllerPos;
+        double initialHeadingYaw = Double.NaN;
+        boolean valid;
+
+        private Shell(@Nullable BlockPos controllerPos) {
+            this.controllerPos = controllerPos;
+        }
+    }
+
+    private static final class TargetSample {
+        long tick = Long.MIN_VALUE;
+        @Nullable Vec3 position;
+    }
+
+    private static final Map<AbstractCannonProjectile, Shell> SHELLS = new WeakHashMap<>();
+    private static final Map<Level, Map<BlockPos, TargetSample>> TARGETS = new WeakHashMap<>();
+
+    private GuidedShellTable() {}
+
+    /** Guidance state for {@code projectile}, read from its fuze on first use. */
+    static Shell shell(AbstractCannonProjectile projectile, ItemStack fuze) {
+        return SHELLS.computeIfAbsent(projectile, p -> {
+            CompoundTag tag = fuze.getTag();
+            if (tag == null || !tag.contains("monitorPos")) return new Shell(null);
+            return new Shell(NbtUtils.readBlockPos(tag.getCompound("monitorPos")));
+        });
+    }
+
+    /** Where the filterer at {@code controllerPos} is pointing this tick, or null if it has no target. */
+    @Nullable
+    static Vec3 target(Level level, BlockPos controllerPos) {
+        TargetSample sample = TARGETS.computeIfAbsent(level, l -> new HashMap<>())
+                .computeIfAbsent(controllerPos, p -> new TargetSample());
+
+        long now = level.getGameTime();
+        if (sample.tick != now) {
+            sample.tick = now;
+            sample.position = level.getBlockEntity(controllerPos) instanceof NetworkFiltererBlockEntity filterer
+                    && filterer.activeTrackCache != null
+                    ? filterer.activeTrackCache.getPosition()
+                    : null;
+        }
+        return sample.position;
+    }
+}
@@ -2,12 +2,14 @@ package com.happysg.radar.item.binos;
 
 import com.happysg.radar.CreateRadar;
 import com.happysg.radar.networking.NetworkHandler;
-import com.happysg.radar.networking.packets.FirePacket;
-import com.happysg.radar.networking.packets.RaycastPacket;
+import com.happysg.radar.config.RadarConfig;
+import com.happysg.radar.networking.packets.DesignatePacket;
 import com.happysg.radar.registry.ModKeybinds;
 import com.mojang.logging.LogUtils;
 import net.minecraft.client.Minecraft;
+import net.minecraft.core.BlockPos;
 import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.phys.Vec3;
 import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.client.event.ComputeFovModifierEvent;
 import net.minecraftforge.client.event.RenderHandEvent;
@@ -17,6 +19,9 @@ import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
 import org.slf4j.Logger;
 
+import javax.annotation.Nullable;
+import java.util.Objects;
+
 @Mod.EventBusSubscriber(value = Dist.CLIENT, modid = CreateRadar.MODID)
 public class BinocularHandler {
     private static final Logger LOGGER = LogUtils.getLogger();
@@ -24,10 +29,15 @@ public class BinocularHandler {
     private static boolean pressWasValid = false;
     private static final float SENS_MULTIPLIER = 0.25f;
     private static final float BINOCULAR_FOV = .1f; // ~6–7x zoom
-    private static int updateCooldown = 0;
+    // at 512 blocks this is under a tenth of a block, so anything smaller isn't a new aim
+    private static final float AIM_EPS_DEG = 0.01f;
+    private static final double EYE_EPS_SQR = 0.05 * 0.05;
     private static float lastYaw;
     private static float lastPitch;
+    private static Vec3 lastEye;
+    private static boolean lastUsing;
     private static boolean hadLast;
+    private static @Nullable BlockPos lastSentHit;
 
     private static Double savedSensitivity = null;
     @SubscribeEvent
@@ -60,38 +70,38 @@ public class BinocularHandler {
             if (!player.isUsingItem()) return;
 
             if (!(player.getUseItem().getItem() instanceof Binoculars)) return;
-            NetworkHandler.CHANNEL.sendToServer(new RaycastPacket());
+            NetworkHandler.CHANNEL.sendToServer(new DesignatePacket(DesignatePacket.Mode.MARK, proposeHit(mc, player)));
         }
 
         // ───── key pressed ─────
         if (isDown && !wasDown) {
             pressWasValid = isValid(player);
             if (pressWasValid) {
-                NetworkHandler.CHANNEL.sendToServer(new FirePacket(true));
-
-                NetworkHandler.CHANNEL.sendToServer(new RaycastPacket());
-                updateCooldown = 5;
+                lastSentHit = proposeHit(mc, player);
+                rememberAim(player);
+                NetworkHandler.CHANNEL.sendToServer(new DesignatePacket(DesignatePacket.Mode.HOLD, lastSentHit));
             }
         }
 
         // ───── key held ─────
-        if (isDown && pressWasValid) {
-            if (--updateCooldown <= 0) {
-                // i refresh both the slave command and the target
-                NetworkHandler.CHANNEL.sendToServer(new FirePacket(true));
-                NetworkHandler.CHANNEL.sendToServer(new RaycastPacket());
-
-                updateCooldown = 2;
+        // nothing goes out while the aim is still; the server keeps the last designation on its own
+        else if (isDown && pressWasValid && aimMoved(player)) {
+            rememberAim(player);
+            BlockPos hit = proposeHit(mc, player);
+            if (!Objects.equals(hit, lastSentHit)) {
+                lastSentHit = hit;
+                NetworkHandler.CHANNEL.sendToServer(new DesignatePacket(DesignatePacket.Mode.HOLD, hit));
             }
         }
 
         // ───── key released ─────
         if (!isDown && wasDown) {
             if (pressWasValid) {
-                NetworkHandler.CHANNEL.sendToServer(new FirePacket(false));
+                NetworkHandler.CHANNEL.sendToServer(new DesignatePacket(DesignatePacket.Mode.RELEASE, null));
             }
             pressWasValid = false;
-            updateCooldown = 0;
+            hadLast = false;
+            lastSentHit = null;
         }
 
         wasDown = isDown;
@@ -99,6 +109,28 @@ public class BinocularHandler {
 
 
 
+    @Nullable
+    private static BlockPos proposeHit(Minecraft mc, Player player) {
+        if (mc.level == null || !player.isUsingItem()) return null;
+        return BinocularRaycast.firstOpaqueBlock(mc.level, player.getEyePosition(), player.getLookAngle(),
+                RadarConfig.server().binoRaycastRange.get());
+    }
+
+    private static boolean aimMoved(Player player) {
+        if (!hadLast || player.isUsingItem() != lastUsing) return true;
+        return Math.abs(player.getYRot() - lastYaw) > AIM_EPS_DEG
+                || Math.abs(player.getXRot() - lastPitch) > AIM_EPS_DEG
+                || player.getEyePosition().distanceToSqr(lastEye) > EYE_EPS_SQR;
+    }
+
+    private static void rememberAim(Player player) {
+        lastYaw = player.getYRot();
+        lastPitch = player.getXRot();
+        lastEye = player.getEyePosition();
+        lastUsing = player.isUsingItem();
+        hadLast = true;
+    }
+
     private static boolean isValid(Player player) {
         return (player.getMainHandItem().getItem() instanceof Binoculars || player.getOffhandItem().getItem() instanceof Binoculars );
     }
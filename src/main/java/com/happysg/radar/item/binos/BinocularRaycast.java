@@ -0,0 +1,115 @@
+package com.happysg.radar.item.binos;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.phys.Vec3;
+
+import javax.annotation.Nullable;
+
+/**
+ * Binocular look ray, shared by the client (to propose a hit) and the server (to check it).
+ * <p>
+ * Exact voxel traversal (Amanatides &amp; Woo): every block the ray passes through is visited once,
+ * in order. Block states are read straight from the chunk section the ray is currently in and the
+ * section is only looked up again when the ray crosses into a new one, so empty sky and air-only
+ * sections cost next to nothing.
+ */
+public final class BinocularRaycast {
+
+    private BinocularRaycast() {}
+
+    @Nullable
+    public static BlockPos firstOpaqueBlock(Level level, Vec3 start, Vec3 dir, double maxDistance) {
+        double len = dir.length();
+        if (len < 1e-9 || maxDistance <= 0) return null;
+
+        double dx = dir.x / len, dy = dir.y / len, dz = dir.z / len;
+
+        int x = floor(start.x), y = floor(start.y), z = floor(start.z);
+        int stepX = dx > 0 ? 1 : (dx < 0 ? -1 : 0);
+        int stepY = dy > 0 ? 1 : (dy < 0 ? -1 : 0);
+        int stepZ = dz > 0 ? 1 : (dz < 0 ? -1 : 0);
+
+        double tDeltaX = stepX != 0 ? Math.abs(1.0 / dx) : Double.POSITIVE_INFINITY;
+        double tDeltaY = stepY != 0 ? Math.abs(1.0 / dy) : Double.POSITIVE_INFINITY;
+        double tDeltaZ = stepZ != 0 ? Math.abs(1.0 / dz) : Double.POSITIVE_INFINITY;
+
+        double tMaxX = boundary(start.x, x, stepX, dx);
+        double tMaxY = boundary(start.y, y, stepY, dy);
+        double tMaxZ = boundary(start.z, z, stepZ, dz);
+
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+
+        long sectionKey = Long.MIN_VALUE;
+        LevelChunkSection section = null;
+        boolean sectionLoaded = false;
+
+        // the block the eye is in is skipped, same as before
+        while (true) {
+            double t;
+            if (tMaxX < tMaxY && tMaxX < tMaxZ) {
+                t = tMaxX;
+                x += stepX;
+                tMaxX += tDeltaX;
+            } else if (tMaxY < tMaxZ) {
+                t = tMaxY;
+                y += stepY;
+                tMaxY += tDeltaY;
+            } else {
+                t = tMaxZ;
+                z += stepZ;
+                tMaxZ += tDeltaZ;
+            }
+            if (t > maxDistance) return null;
+
+            if (level.isOutsideBuildHeight(y)) {
+                // heading further out of the world can't hit anything
+                if ((y < level.getMinBuildHeight() && stepY <= 0) || (y >= level.getMaxBuildHeight() && stepY >= 0)) return null;
+                continue;
+            }
+
+            long key = SectionPos.asLong(x >> 4, y >> 4, z >> 4);
+            if (key != sectionKey) {
+                sectionKey = key;
+                LevelChunk chunk = level.getChunkSource().getChunkNow(x >> 4, z >> 4);
+                sectionLoaded = chunk != null;
+                section = chunk != null ? chunk.getSection(chunk.getSectionIndex(y)) : null;
+            }
+
+            // unloaded chunks are looked through rather than treated as a wall
+            if (!sectionLoaded || section == null || section.hasOnlyAir()) continue;
+
+            BlockState state = section.getBlockState(x & 15, y & 15, z & 15);
+            if (state.isAir()) continue;
+
+            pos.set(x, y, z);
+            if (isTransparentPassThrough(level, pos, state)) continue;
+
+            return pos.immutable();
+        }
+    }
+
+    public static boolean isTransparentPassThrough(Level level, BlockPos pos, BlockState state) {
+        if (state.getCollisionShape(level, pos).isEmpty()) return true;
+
+        if (!state.canOcclude() || !state.isSolidRender(level, pos)) return true;
+        if (!state.getFluidState().isEmpty()) return true;
+
+        return false;
+    }
+
+    private static double boundary(double origin, int cell, int step, double d) {
+        if (step > 0) return (cell + 1 - origin) / d;
+        if (step < 0) return (origin - cell) / -d;
+        return Double.POSITIVE_INFINITY;
+    }
+
+    private static int floor(double v) {
+        int i = (int) v;
+        return v < i ? i - 1 : i;
+    }
+}
@@ -2,6 +2,9 @@ package com.happysg.radar.networking;
 
 import com.happysg.radar.CreateRadar;
 import com.happysg.radar.networking.packets.IDRecordPacket;
+import com.happysg.radar.networking.packets.IDRecordSyncPacket;
+import com.happysg.radar.networking.packets.IDSecretPacket;
+import com.happysg.radar.networking.packets.IDSecretRequestPacket;
 import com.simibubi.create.foundation.networking.SimplePacketBase;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.resources.ResourceLocation;
@@ -32,6 +35,9 @@ public class ModMessages {
                 .simpleChannel();
 
         c2s(IDRecordPacket.class);
+        s2c(IDRecordSyncPacket.class);
+        c2s(IDSecretRequestPacket.class);
+        s2c(IDSecretPacket.class);
     }
 
     private static <T extends SimplePacketBase> void s2c(Class<T> clazz) {
@@ -1,8 +1,7 @@
 package com.happysg.radar.networking;
 
 import com.happysg.radar.block.monitor.MonitorSelectionPacket;
-import com.happysg.radar.networking.packets.FirePacket;
-import com.happysg.radar.networking.packets.RaycastPacket;
+import com.happysg.radar.networking.packets.DesignatePacket;
 import com.happysg.radar.networking.packets.BoolListPacket;
 import com.happysg.radar.networking.packets.SaveListsPacket;
 import net.minecraftforge.network.NetworkRegistry;
@@ -12,7 +11,7 @@ import net.minecraft.resources.ResourceLocation;
 import static com.happysg.radar.CreateRadar.MODID;
 
 public class NetworkHandler {
-    private static final String PROTOCOL_VERSION = "1";
+    private static final String PROTOCOL_VERSION = "2";
     public static final SimpleChannel CHANNEL = NetworkRegistry.newSimpleChannel(
             new ResourceLocation(MODID, "main"),
             () -> PROTOCOL_VERSION,
@@ -39,15 +38,10 @@ public class NetworkHandler {
                 BoolListPacket::handle
 
         );
-        CHANNEL.registerMessage(packetId++, RaycastPacket.class,
-                RaycastPacket::encode,
-                RaycastPacket::decode,
-                RaycastPacket::handle
-        );
-        CHANNEL.registerMessage(packetId++, FirePacket.class,
-                FirePacket::encode,
-                FirePacket::decode,
-                FirePacket::handle
+        CHANNEL.registerMessage(packetId++, DesignatePacket.class,
+                DesignatePacket::encode,
+                DesignatePacket::decode,
+                DesignatePacket::handle
         );
         CHANNEL.registerMessage(packetId++, MonitorSelectionPacket.class,
                 MonitorSelectionPacket::encode,
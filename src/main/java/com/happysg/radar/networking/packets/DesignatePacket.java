@@ -0,0 +1,136 @@
+package com.happysg.radar.networking.packets;
+
+import com.happysg.radar.CreateRadar;
+import com.happysg.radar.block.controller.networkcontroller.NetworkFiltererBlockEntity;
+import com.happysg.radar.config.RadarConfig;
+import com.happysg.radar.item.binos.BinocularRaycast;
+import com.happysg.radar.item.binos.Binoculars;
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.NbtUtils;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.phys.Vec3;
+import net.minecraftforge.network.NetworkEvent;
+
+import javax.annotation.Nullable;
+import java.util.function.Supplier;
+
+/**
+ * Binocular designation, replaces the old FirePacket + RaycastPacket pair.
+ * The client sends its own raycast hit and only sends again when that hit changes; the server
+ * re-walks the ray up to the proposed block to confirm it before using it.
+ */
+public class DesignatePacket {
+
+    public enum Mode {
+        /** scope action: just remember the block */
+        MARK,
+        /** fire key held: remember the block and point the network at it */
+        HOLD,
+        /** fire key released */
+        RELEASE
+    }
+
+    private static final String TAG_FILTERER_POS = "filtererPos";
+    // look direction on the server can trail the client by a tick, so the check walks a bit past the proposal
+    private static final double VERIFY_MARGIN = 2.0;
+
+    private final Mode mode;
+    private final @Nullable BlockPos proposedHit;
+
+    public DesignatePacket(Mode mode, @Nullable BlockPos proposedHit) {
+        this.mode = mode;
+        this.proposedHit = proposedHit;
+    }
+
+    public static void encode(DesignatePacket msg, FriendlyByteBuf buf) {
+        buf.writeEnum(msg.mode);
+        buf.writeBoolean(msg.proposedHit != null);
+        if (msg.proposedHit != null) buf.writeBlockPos(msg.proposedHit);
+    }
+
+    public static DesignatePacket decode(FriendlyByteBuf buf) {
+        Mode mode = buf.readEnum(Mode.class);
+        BlockPos hit = buf.readBoolean() ? buf.readBlockPos() : null;
+        return new DesignatePacket(mode, hit);
+    }
+
+    public static void handle(DesignatePacket msg, Supplier<NetworkEvent.Context> ctx) {
+        ctx.get().enqueueWork(() -> {
+            Player player = ctx.get().getSender();
+            if (player == null) return;
+            if (!(player.level() instanceof ServerLevel serverLevel)) return;
+
+            if (msg.mode == Mode.RELEASE) {
+                NetworkFiltererBlockEntity filterer = getFilterer(serverLevel, player.getMainHandItem());
+                if (filterer == null) return;
+
+                // release: go back to normal
+                filterer.onBinocularsTriggered(player, player.getMainHandItem(), true);
+                filterer.setChanged();
+                return;
+            }
+
+            // the raycast needs the player scoped in; a held fire key re-triggers with whatever was last marked
+            if (player.isUsingItem() && player.getUseItem().getItem() instanceof Binoculars) {
+                BlockPos hit = verifyHit(serverLevel, player, msg.proposedHit);
+                if (hit != null) {
+                    Binoculars.setLastHit(player.getUseItem(), hit);
+                    player.displayClientMessage((Component.translatable(CreateRadar.MODID + ".binoculars.hit")).append(hit.toShortString()), true);
+                } else {
+                    Binoculars.clearLastHit(player.getUseItem());
+                    player.displayClientMessage(Component.translatable(CreateRadar.MODID + ".binoculars.out_of_range"), true);
+                }
+            }
+
+            if (msg.mode != Mode.HOLD) return;
+
+            ItemStack binos = player.getMainHandItem();
+            if (Binoculars.getLastHit(binos) == null) return;
+
+            NetworkFiltererBlockEntity filterer = getFilterer(serverLevel, binos);
+            if (filterer == null) return;
+
+            filterer.onBinocularsTriggered(player, binos, false);
+            filterer.setChanged();
+        });
+
+        ctx.get().setPacketHandled(true);
+    }
+
+    /**
+     * Walks the player's look ray only as far as the proposed block (plus a margin). If something
+     * opaque is there, that's the hit. Only when the proposal doesn't hold up does it walk the full range.
+     */
+    @Nullable
+    private static BlockPos verifyHit(ServerLevel level, Player player, @Nullable BlockPos proposed) {
+        double range = RadarConfig.server().binoRaycastRange.get();
+        Vec3 eye = player.getEyePosition();
+        Vec3 look = player.getLookAngle();
+
+        if (proposed != null) {
+            double reach = Math.min(range, Math.sqrt(proposed.distToCenterSqr(eye)) + VERIFY_MARGIN);
+            BlockPos hit = BinocularRaycast.firstOpaqueBlock(level, eye, look, reach);
+            if (hit != null) return hit;
+            if (reach >= range) return null;
+        }
+        return BinocularRaycast.firstOpaqueBlock(level, eye, look, range);
+    }
+
+    @Nullable
+    private static NetworkFiltererBlockEntity getFilterer(ServerLevel level, ItemStack binos) {
+        if (!(binos.getItem() instanceof Binoculars)) return null;
+
+        CompoundTag tag = binos.getTag();
+        if (tag == null || !tag.contains(TAG_FILTERER_POS)) return null;
+
+        BlockPos filtererPos = NbtUtils.readBlockPos(tag.getCompound(TAG_FILTERER_POS));
+        if (!level.isLoaded(filtererPos)) return null;
+
+        return level.getBlockEntity(filtererPos) instanceof NetworkFiltererBlockEntity filterer ? filterer : null;
+    }
+}
@@ -1,6 +1,8 @@
 package com.happysg.radar.networking.packets;
 
 import com.happysg.radar.block.controller.id.IDManager;
+import com.happysg.radar.block.controller.id.VS2IDHandler;
+import com.happysg.radar.compat.Mods;
 import com.mojang.logging.LogUtils;
 import com.simibubi.create.foundation.networking.SimplePacketBase;
 import net.minecraft.commands.CommandSourceStack;
@@ -12,23 +14,26 @@ import net.minecraftforge.network.NetworkEvent;
 import org.valkyrienskies.core.api.ships.Ship;
 import org.valkyrienskies.mod.common.VSGameUtilsKt;
 
+import javax.annotation.Nullable;
+
 public class IDRecordPacket extends SimplePacketBase {
     long shipId;
     String shipSlug;
-    String secretID;
+    // null keeps whatever secret the ship has, for a screen that never got to see it
+    @Nullable String secretID;
     String newSlug;
 
-    public IDRecordPacket(long shipId, String shipSlug, String secretID, String newName) {
+    public IDRecordPacket(long shipId, String shipSlug, @Nullable String secretID, String newName) {
         this.shipId = shipId;
         this.shipSlug = shipSlug == null ? "" : shipSlug;
-        this.secretID = secretID == null ? "" : secretID;
+        this.secretID = secretID;
         this.newSlug = newName == null ? "" : newName;
     }
 
     public IDRecordPacket(FriendlyByteBuf buffer) {
         this.shipId = buffer.readLong();
         this.shipSlug = buffer.readUtf(32767);
-        this.secretID = buffer.readUtf(32767);
+        this.secretID = buffer.readBoolean() ? buffer.readUtf(32767) : null;
         this.newSlug = buffer.readUtf(32767);
     }
 
@@ -36,14 +41,24 @@ public class IDRecordPacket extends SimplePacketBase {
     public void write(FriendlyByteBuf buffer) {
         buffer.writeLong(shipId);
         buffer.writeUtf(shipSlug, 32767);
-        buffer.writeUtf(secretID, 32767);
+        buffer.writeBoolean(secretID != null);
+        if (secretID != null) buffer.writeUtf(secretID, 32767);
         buffer.writeUtf(newSlug, 32767);
     }
 
     @Override
     public boolean handle(NetworkEvent.Context context) {
         context.enqueueWork(() -> {
-            IDManager.addIDRecord(shipId, secretID, newSlug);
+            ServerPlayer sender = context.getSender();
+            if (sender == null || !Mods.VALKYRIENSKIES.isLoaded() || !VS2IDHandler.mayEdit(sender, shipId)) return;
+
+            IDManager ids = IDManager.get(sender.server);
+            String secret = secretID;
+            if (secret == null) {
+                IDManager.IDRecord existing = ids.getIDRecordByShipId(shipId);
+                secret = existing == null ? "" : existing.secretID();
+            }
+            ids.addIDRecord(shipId, secret, newSlug);
         });
         return true;
     }
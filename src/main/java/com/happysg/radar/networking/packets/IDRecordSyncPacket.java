@@ -0,0 +1,79 @@
+package com.happysg.radar.networking.packets;
+
+import com.happysg.radar.block.controller.id.ClientIDRecords;
+import com.happysg.radar.block.controller.id.IDManager;
+import com.happysg.radar.block.controller.id.IDRecordTable;
+import com.simibubi.create.foundation.networking.SimplePacketBase;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraftforge.network.NetworkEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Server to client IFF record changes. A {@code reset} packet replaces the client's table outright
+ * (sent on login), anything else is applied on top of what the client already has.
+ * <p>
+ * Only names travel: a secret ID would let any player copy another team's transponder. The
+ * transponder screen asks for its own ship's secret with {@link IDSecretRequestPacket}.
+ */
+public class IDRecordSyncPacket extends SimplePacketBase {
+    private record Entry(long shipId, String name) {}
+
+    boolean reset;
+    List<Entry> puts;
+    long[] removes;
+
+    private IDRecordSyncPacket(boolean reset, List<Entry> puts, long[] removes) {
+        this.reset = reset;
+        this.puts = puts;
+        this.removes = removes;
+    }
+
+    public static IDRecordSyncPacket full(IDRecordTable table) {
+        List<Entry> puts = new ArrayList<>(table.size());
+        for (Map.Entry<Long, IDManager.IDRecord> e : table.view().entrySet())
+            puts.add(new Entry(e.getKey(), e.getValue().name()));
+        return new IDRecordSyncPacket(true, puts, new long[0]);
+    }
+
+    public static IDRecordSyncPacket put(long shipId, IDManager.IDRecord record) {
+        return new IDRecordSyncPacket(false, List.of(new Entry(shipId, record.name())), new long[0]);
+    }
+
+    public static IDRecordSyncPacket remove(long shipId) {
+        return new IDRecordSyncPacket(false, List.of(), new long[]{shipId});
+    }
+
+    public IDRecordSyncPacket(FriendlyByteBuf buffer) {
+        this.reset = buffer.readBoolean();
+        int count = buffer.readVarInt();
+        this.puts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+            puts.add(new Entry(buffer.readLong(), buffer.readUtf(32767)));
+        this.removes = buffer.readLongArray();
+    }
+
+    @Override
+    public void write(FriendlyByteBuf buffer) {
+        buffer.writeBoolean(reset);
+        buffer.writeVarInt(puts.size());
+        for (Entry e : puts) {
+            buffer.writeLong(e.shipId());
+            buffer.writeUtf(e.name(), 32767);
+        }
+        buffer.writeLongArray(removes);
+    }
+
+    @Override
+    public boolean handle(NetworkEvent.Context context) {
+        context.enqueueWork(() -> {
+            IDRecordTable table = ClientIDRecords.table();
+            if (reset) table.clear();
+            for (long shipId : removes) table.remove(shipId);
+            for (Entry e : puts) table.put(e.shipId(), new IDManager.IDRecord(e.name(), ""));
+        });
+        return true;
+    }
+}
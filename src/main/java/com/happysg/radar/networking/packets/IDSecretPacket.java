@@ -0,0 +1,34 @@
+package com.happysg.radar.networking.packets;
+
+import com.happysg.radar.block.controller.id.ClientIDRecords;
+import com.simibubi.create.foundation.networking.SimplePacketBase;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraftforge.network.NetworkEvent;
+
+/** Server to one client: the secret ID of the ship whose transponder screen that player has open. */
+public class IDSecretPacket extends SimplePacketBase {
+    long shipId;
+    String secretID;
+
+    public IDSecretPacket(long shipId, String secretID) {
+        this.shipId = shipId;
+        this.secretID = secretID == null ? "" : secretID;
+    }
+
+    public IDSecretPacket(FriendlyByteBuf buffer) {
+        this.shipId = buffer.readLong();
+        this.secretID = buffer.readUtf(32767);
+    }
+
+    @Override
+    public void write(FriendlyByteBuf buffer) {
+        buffer.writeLong(shipId);
+        buffer.writeUtf(secretID, 32767);
+    }
+
+    @Override
+    public boolean handle(NetworkEvent.Context context) {
+        context.enqueueWork(() -> ClientIDRecords.onSecretReceived(shipId, secretID));
+        return true;
+    }
+}
@@ -0,0 +1,43 @@
+package com.happysg.radar.networking.packets;
+
+import com.happysg.radar.block.controller.id.IDManager;
+import com.happysg.radar.block.controller.id.VS2IDHandler;
+import com.happysg.radar.compat.Mods;
+import com.happysg.radar.networking.ModMessages;
+import com.simibubi.create.foundation.networking.SimplePacketBase;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraftforge.network.NetworkEvent;
+
+/**
+ * Client to server: the transponder screen asking for its ship's secret ID. Answered with an
+ * {@link IDSecretPacket} to the asking player only, and only if they may edit that ship.
+ */
+public class IDSecretRequestPacket extends SimplePacketBase {
+    long shipId;
+
+    public IDSecretRequestPacket(long shipId) {
+        this.shipId = shipId;
+    }
+
+    public IDSecretRequestPacket(FriendlyByteBuf buffer) {
+        this.shipId = buffer.readLong();
+    }
+
+    @Override
+    public void write(FriendlyByteBuf buffer) {
+        buffer.writeLong(shipId);
+    }
+
+    @Override
+    public boolean handle(NetworkEvent.Context context) {
+        context.enqueueWork(() -> {
+            ServerPlayer sender = context.getSender();
+            if (sender == null || !Mods.VALKYRIENSKIES.isLoaded() || !VS2IDHandler.mayEdit(sender, shipId)) return;
+
+            IDManager.IDRecord record = IDManager.get(sender.server).getIDRecordByShipId(shipId);
+            ModMessages.sendToPlayer(new IDSecretPacket(shipId, record == null ? "" : record.secretID()), sender);
+        });
+        return true;
+    }
+}
@@ -67,6 +67,16 @@ public class AllDataBehaviors {
         }
     }
 
+    /** Undoes {@link #assignBlock}, leaving the block alone if something else has been assigned to it since. */
+    public static void unassignBlock(DataLinkBehavior behaviour, Block block) {
+        if (behaviour instanceof DataPeripheral source) {
+            SOURCES_BY_BLOCK.remove(block, source);
+        }
+        if (behaviour instanceof DataController target) {
+            TARGETS_BY_BLOCK.remove(block, target);
+        }
+    }
+
     public static void assignBlockEntity(DataLinkBehavior behaviour, BlockEntityType<?> beType) {
         if (behaviour instanceof DataPeripheral source) {
             SOURCES_BY_BLOCK_ENTITY.put(beType, source);
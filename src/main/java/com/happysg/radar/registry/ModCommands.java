@@ -1,6 +1,7 @@
 package com.happysg.radar.registry;
 
 import com.happysg.radar.block.behavior.networks.NetworkData;
+import com.happysg.radar.block.behavior.networks.NetworkValidator;
 import com.happysg.radar.block.behavior.networks.WeaponNetworkData;
 import com.happysg.radar.block.controller.id.IDManager;
 import com.happysg.radar.block.controller.pitch.AutoPitchControllerBlockEntity;
@@ -8,6 +9,7 @@ import com.happysg.radar.block.controller.yaw.AutoYawControllerBlockEntity;
 import com.happysg.radar.config.RadarConfig;
 import com.mojang.brigadier.CommandDispatcher;
 import com.mojang.brigadier.arguments.FloatArgumentType;
+import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
 import net.minecraft.ChatFormatting;
 import net.minecraft.commands.CommandSource;
@@ -83,6 +85,15 @@ public class  ModCommands {
                             )
                         )
         );
+        dispatcher.register(
+                Commands.literal("radar")
+                        .then(Commands.literal("debug")
+                            .requires(s -> s.hasPermission(2))
+                            .then(Commands.literal("validator")
+                                    .executes(ctx -> validatorProgress(ctx.getSource()))
+                            )
+                        )
+        );
         dispatcher.register(
                 Commands.literal("radar")
                         .then(Commands.literal("debug")
@@ -97,7 +108,10 @@ public class  ModCommands {
                         .then(Commands.literal("debug")
                         .then(Commands.literal("list_ship_ids")
                                 .requires(src -> src.hasPermission(2)) // OP only
-                                .executes(ctx -> listShipIds(ctx.getSource()))
+                                .executes(ctx -> listShipIds(ctx.getSource(), null))
+                                .then(Commands.argument("name", StringArgumentType.greedyString())
+                                        .executes(ctx -> listShipIds(ctx.getSource(), StringArgumentType.getString(ctx, "name")))
+                                )
                         ))
         );
         dispatcher.register(
@@ -240,8 +254,13 @@ public class  ModCommands {
         return 1;
     }
 
-    private static int listShipIds(CommandSourceStack source) {
-        if (IDManager.ID_RECORDS.isEmpty()) {
+    private static int listShipIds(CommandSourceStack source, @Nullable String name) {
+        IDManager ids = IDManager.get(source.getServer());
+        List<Long> shipIds = name == null
+                ? new ArrayList<>(ids.records().keySet())
+                : new ArrayList<>(ids.getShipIdsByName(name));
+
+        if (shipIds.isEmpty()) {
             source.sendSuccess(
                     () -> Component.literal("No VS2 ship ID records found.")
                             .withStyle(ChatFormatting.GRAY),
@@ -256,17 +275,19 @@ public class  ModCommands {
                 false
         );
 
-        IDManager.ID_RECORDS.forEach((slug, record) -> {
+        for (long shipId : shipIds) {
+            IDManager.IDRecord record = ids.getIDRecordByShipId(shipId);
+            if (record == null) continue;
             Component line = Component.literal("• ")
                     .withStyle(ChatFormatting.DARK_GRAY)
-                    .append(Component.literal(String.valueOf(slug)).withStyle(ChatFormatting.AQUA))
+                    .append(Component.literal(String.valueOf(shipId)).withStyle(ChatFormatting.AQUA))
                     .append(Component.literal(" | name="))
                     .append(Component.literal(record.name()).withStyle(ChatFormatting.GREEN))
                     .append(Component.literal(" | secret="))
                     .append(Component.literal(record.secretID()).withStyle(ChatFormatting.RED));
             source.sendSuccess(() -> line, false);
-        });
-        return IDManager.ID_RECORDS.size();
+        }
+        return shipIds.size();
     }
 
 
@@ -416,6 +437,34 @@ public class  ModCommands {
 
         return 1;
     }
+    private static int validatorProgress(CommandSourceStack source) {
+        ServerLevel level = source.getLevel();
+        NetworkValidator.Progress p = NetworkValidator.progress(level);
+
+        if (p == null) {
+            int budget = RadarConfig.server().networkValidationPerTick.get();
+            source.sendSuccess(() -> Component.literal(budget <= 0
+                    ? "Background network validator is disabled (networkValidationPerTick = 0)."
+                    : "Background network validator hasn't run in this dimension yet.")
+                    .withStyle(ChatFormatting.GRAY), false);
+            return 1;
+        }
+
+        int done = p.sweepSize() - p.sweepRemaining();
+        source.sendSuccess(() -> Component.literal(
+                "Network validator: sweep " + (p.sweeps() + 1) + " at " + done + "/" + p.sweepSize() +
+                        " groups, " + p.groupsChecked() + " checked total, " + p.repairs() + " repairs. " +
+                        "NetworkData: groupsRemoved=" + p.radarGroupsRemoved() +
+                        ", endpointsRemoved=" + p.endpointsRemoved() +
+                        ", mountsRemoved=" + p.mountsRemoved() +
+                        ", dataLinksRemoved=" + p.radarDataLinksRemoved() +
+                        " | WeaponNetworkData: groupsRemoved=" + p.weaponGroupsRemoved() +
+                        ", controllersCleared=" + p.controllersCleared() +
+                        ", dataLinksRemoved=" + p.weaponDataLinksRemoved()
+        ), false);
+
+        return 1;
+    }
     private static int dumpWeaponEndpoints(CommandSourceStack source) {
         ServerLevel level = source.getLevel();
         NetworkData data = NetworkData.get(level);
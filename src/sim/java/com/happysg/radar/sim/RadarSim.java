@@ -0,0 +1,298 @@
+package com.happysg.radar.sim;
+
+import com.happysg.radar.block.behavior.networks.config.AutoTargetingHelper;
+import com.happysg.radar.block.behavior.networks.config.IdentificationConfig;
+import com.happysg.radar.block.behavior.networks.config.RaycastBudget;
+import com.happysg.radar.block.behavior.networks.config.SafeZoneSet;
+import com.happysg.radar.block.behavior.networks.config.TargetingConfig;
+import com.happysg.radar.block.radar.behavior.RadarScanner;
+import com.happysg.radar.block.radar.track.RadarTrack;
+import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.Vec3;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * Headless scan -> target -> fire loop for sizing installations and catching regressions offline.
+ * <p>
+ * N radars run the real {@link RadarScanner} against M scripted targets, their tracks are merged by
+ * id like a network group does, and K cannons pick targets through the real
+ * {@link AutoTargetingHelper}. Aiming uses a constant velocity intercept (the real lead needs a CBC
+ * mount), every shot is scored against where its target actually was on arrival.
+ * <p>
+ * Args are {@code key=value}: radars, targets, cannons, obstacles, ticks, seed, range, shellSpeed, los, warmup.
+ */
+public final class RadarSim {
+
+    // same cadence as in game: radars scan on gameTime % 5 == 1, filterers retarget every 4 ticks
+    private static final int SCAN_INTERVAL = 5;
+    private static final int TARGET_INTERVAL = 4;
+    private static final int FIRE_INTERVAL = 20;
+    private static final double HIT_RADIUS = 2.5;
+    private static final double GROUND_Y = 63;
+
+    private record Shot(ScriptedTarget target, Vec3 aim, long impactTick) {}
+
+    private static final class Cannon {
+        final Vec3 pos;
+        String targetId;
+        long lastShot = -FIRE_INTERVAL;
+
+        Cannon(Vec3 pos) {
+            this.pos = pos;
+        }
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> opts = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq > 0) opts.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+
+        int radarCount = intOpt(opts, "radars", 8);
+        int targetCount = intOpt(opts, "targets", 200);
+        int cannonCount = intOpt(opts, "cannons", 16);
+        int obstacleCount = intOpt(opts, "obstacles", 24);
+        int ticks = intOpt(opts, "ticks", 6000);
+        int warmup = intOpt(opts, "warmup", 200);
+        long seed = Long.parseLong(opts.getOrDefault("seed", "1"));
+        double range = Double.parseDouble(opts.getOrDefault("range", "256"));
+        double shellSpeed = Double.parseDouble(opts.getOrDefault("shellSpeed", "8"));
+        boolean los = Boolean.parseBoolean(opts.getOrDefault("los", "true"));
+
+        new RadarSim(radarCount, targetCount, cannonCount, obstacleCount, warmup + ticks, seed, range, shellSpeed, los).run(ticks, warmup);
+    }
+
+    private static int intOpt(Map<String, String> opts, String key, int def) {
+        return Integer.parseInt(opts.getOrDefault(key, String.valueOf(def)));
+    }
+
+    private final List<ScriptedTarget> targets = new ArrayList<>();
+    private final Map<String, ScriptedTarget> targetsById = new HashMap<>();
+    private final List<RadarScanner> radars = new ArrayList<>();
+    private final List<Cannon> cannons = new ArrayList<>();
+    private final SyntheticWorldView world;
+    private final TargetingConfig targeting;
+    private final double shellSpeed;
+    private final double yScanRange;
+
+    private final PriorityQueue<Shot> inFlight = new PriorityQueue<>(Comparator.comparingLong(Shot::impactTick));
+    private final List<Double> missDistances = new ArrayList<>();
+    private final List<Double> trackErrors = new ArrayList<>();
+    private int shots, hits, engagedTicks, cannonTicks;
+
+    private RadarSim(int radarCount, int targetCount, int cannonCount, int obstacleCount, int scenarioTicks, long seed, double range, double shellSpeed, boolean los) {
+        Random rnd = new Random(seed);
+        this.shellSpeed = shellSpeed;
+        this.yScanRange = range;
+
+        for (int i = 0; i < targetCount; i++) {
+            ScriptedTarget target = ScriptedTarget.random(i, rnd, range * 1.5, scenarioTicks);
+            targets.add(target);
+            targetsById.put(target.id, target);
+        }
+
+        // radars on a ring, each sweeping from a different start angle
+        for (int i = 0; i < radarCount; i++) {
+            double a = 2 * Math.PI * i / Math.max(1, radarCount);
+            double r = radarCount == 1 ? 0 : range * 0.5;
+            RadarScanner scanner = new RadarScanner();
+            scanner.setScanPos(new Vec3(Math.sin(a) * r, 70, Math.cos(a) * r));
+            scanner.setRange(range);
+            scanner.setFov(90);
+            scanner.setAngle(Math.toDegrees(a));
+            scanner.setRunning(true);
+            radars.add(scanner);
+        }
+
+        // buildings scattered outside the battery, tall enough to hide ground targets and low ships
+        List<AABB> obstacles = new ArrayList<>();
+        for (int i = 0; i < obstacleCount; i++) {
+            double a = rnd.nextDouble() * Math.PI * 2;
+            double r = 32 + rnd.nextDouble() * (range - 32);
+            double halfWidth = 3 + rnd.nextDouble() * 9;
+            double height = 6 + rnd.nextDouble() * 24;
+            double x = Math.sin(a) * r, z = Math.cos(a) * r;
+            AABB box = new AABB(x - halfWidth, GROUND_Y, z - halfWidth, x + halfWidth, GROUND_Y + height, z + halfWidth);
+            // a radar buried in a building would see nothing at all, keep the sites clear
+            if (radars.stream().noneMatch(radar -> box.inflate(2).contains(radar.getScanPos())))
+                obstacles.add(box);
+        }
+        world = new SyntheticWorldView(targets, GROUND_Y, obstacles);
+
+        for (int i = 0; i < cannonCount; i++) {
+            double a = 2 * Math.PI * i / Math.max(1, cannonCount);
+            cannons.add(new Cannon(new Vec3(Math.sin(a) * 16, 66, Math.cos(a) * 16)));
+        }
+
+        // hostiles, players and ships, no projectiles, line of sight against the ground and buildings
+        targeting = new TargetingConfig(true, true, true, true, false, true, true, los);
+    }
+
+    private void run(int ticks, int warmup) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        boolean allocSupported = threads.isThreadAllocatedMemorySupported();
+        if (allocSupported) threads.setThreadAllocatedMemoryEnabled(true);
+
+        long[] tickNanos = new long[ticks];
+        long[] tickBytes = new long[ticks];
+
+        for (long t = 0; t < warmup + ticks; t++) {
+            boolean measured = t >= warmup;
+            long bytesBefore = allocSupported ? threads.getThreadAllocatedBytes(threadId) : 0;
+            long start = System.nanoTime();
+
+            tick(t, measured);
+
+            long nanos = System.nanoTime() - start;
+            if (measured) {
+                int i = (int) (t - warmup);
+                tickNanos[i] = nanos;
+                tickBytes[i] = allocSupported ? threads.getThreadAllocatedBytes(threadId) - bytesBefore : -1;
+            }
+        }
+
+        report(tickNanos, tickBytes, allocSupported);
+    }
+
+    private void tick(long now, boolean measured) {
+        world.setGameTime(now);
+
+        // radars turn 4.5 degrees a tick, a full sweep every 80 ticks
+        for (RadarScanner radar : radars) {
+            radar.setAngle((radar.getAngle() + 4.5) % 360);
+            if (now % SCAN_INTERVAL == 1) radar.scan(world, yScanRange, null);
+        }
+
+        if (now % TARGET_INTERVAL == 0) {
+            List<RadarTrack> picture = fuse();
+            if (measured) scoreTracks(picture, now);
+
+            for (Cannon cannon : cannons) {
+                RadarTrack pick = AutoTargetingHelper.pickAutoTarget(targeting, cannon.pos, picture, SafeZoneSet.EMPTY,
+                        IdentificationConfig.DEFAULT, null, world, cannon.targetId, new RaycastBudget(32));
+                cannon.targetId = pick == null ? null : pick.id();
+
+                if (pick != null && now - cannon.lastShot >= FIRE_INTERVAL) {
+                    fire(cannon, pick, now, measured);
+                }
+            }
+        }
+
+        if (measured) {
+            for (Cannon cannon : cannons) {
+                cannonTicks++;
+                if (cannon.targetId != null) engagedTicks++;
+            }
+        }
+
+        // shells are scored on arrival against the real trajectory
+        while (!inFlight.isEmpty() && inFlight.peek().impactTick() <= now) {
+            Shot shot = inFlight.poll();
+            double miss = shot.target().position(shot.impactTick()).add(0, shot.target().height / 2.0, 0).distanceTo(shot.aim());
+            missDistances.add(miss);
+            if (miss <= HIT_RADIUS && shot.target().isAlive(shot.impactTick())) hits++;
+        }
+    }
+
+    /** Freshest sample per id, same rule as a multi-radar network group. */
+    private List<RadarTrack> fuse() {
+        Map<String, RadarTrack> fused = new LinkedHashMap<>();
+        for (RadarScanner radar : radars) {
+            for (RadarTrack track : radar.getRadarTracks())
+                fused.merge(track.id(), track, (a, b) -> b.scannedTime() > a.scannedTime() ? b : a);
+        }
+        return new ArrayList<>(fused.values());
+    }
+
+    private void scoreTracks(List<RadarTrack> picture, long now) {
+        for (RadarTrack track : picture) {
+            ScriptedTarget target = targetsById.get(track.id());
+            if (target == null || !target.isAlive(now)) continue;
+            trackErrors.add(track.position().distanceTo(target.position(now)));
+        }
+    }
+
+    private void fire(Cannon cannon, RadarTrack track, long now, boolean measured) {
+        // extrapolate the stale track sample to now, then solve |p + v t - o| = s t
+        long age = now - track.scannedTime();
+        Vec3 vel = track.velocity();
+        Vec3 pos = track.position().add(vel.scale(age)).add(0, track.getEnityHeight() / 2.0, 0);
+        Vec3 rel = pos.subtract(cannon.pos);
+
+        double a = vel.lengthSqr() - shellSpeed * shellSpeed;
+        double b = 2 * rel.dot(vel);
+        double c = rel.lengthSqr();
+        double flight;
+        if (Math.abs(a) < 1e-9) {
+            flight = b < 0 ? -c / b : -1;
+        } else {
+            double disc = b * b - 4 * a * c;
+            if (disc < 0) return;
+            double sqrt = Math.sqrt(disc);
+            double t1 = (-b - sqrt) / (2 * a), t2 = (-b + sqrt) / (2 * a);
+            flight = Math.min(t1, t2) > 0 ? Math.min(t1, t2) : Math.max(t1, t2);
+        }
+        if (flight <= 0) return;
+
+        cannon.lastShot = now;
+        if (!measured) return;
+
+        ScriptedTarget target = targetsById.get(track.id());
+        if (target == null) return;
+        shots++;
+        inFlight.add(new Shot(target, pos.add(vel.scale(flight)), now + Math.round(flight)));
+    }
+
+    private void report(long[] tickNanos, long[] tickBytes, boolean allocSupported) {
+        long[] sorted = tickNanos.clone();
+        Arrays.sort(sorted);
+        double totalMs = Arrays.stream(tickNanos).sum() / 1e6;
+
+        System.out.printf(Locale.ROOT, "radars=%d targets=%d cannons=%d ticks=%d%n",
+                radars.size(), targets.size(), cannons.size(), tickNanos.length);
+        System.out.printf(Locale.ROOT, "tick ms   p50=%.3f p90=%.3f p99=%.3f max=%.3f mean=%.3f%n",
+                pct(sorted, 0.50) / 1e6, pct(sorted, 0.90) / 1e6, pct(sorted, 0.99) / 1e6,
+                sorted[sorted.length - 1] / 1e6, totalMs / tickNanos.length);
+
+        if (allocSupported) {
+            long[] bytes = tickBytes.clone();
+            Arrays.sort(bytes);
+            System.out.printf(Locale.ROOT, "alloc KiB p50=%.1f p99=%.1f mean=%.1f%n",
+                    pct(bytes, 0.50) / 1024.0, pct(bytes, 0.99) / 1024.0,
+                    Arrays.stream(tickBytes).average().orElse(0) / 1024.0);
+        } else {
+            System.out.println("alloc     n/a (thread allocation counter not supported by this jvm)");
+        }
+
+        double[] errors = trackErrors.stream().mapToDouble(Double::doubleValue).sorted().toArray();
+        double[] misses = missDistances.stream().mapToDouble(Double::doubleValue).sorted().toArray();
+        System.out.printf(Locale.ROOT, "tracks    samples=%d error p50=%.2f p95=%.2f blocks%n",
+                errors.length, pct(errors, 0.50), pct(errors, 0.95));
+        System.out.printf(Locale.ROOT, "engage    busy=%.1f%% shots=%d scored=%d hits=%d (%.1f%%) miss p50=%.2f p95=%.2f blocks%n",
+                cannonTicks == 0 ? 0 : 100.0 * engagedTicks / cannonTicks, shots, misses.length, hits,
+                misses.length == 0 ? 0 : 100.0 * hits / misses.length, pct(misses, 0.50), pct(misses, 0.95));
+    }
+
+    private static double pct(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        return sorted[Math.min(sorted.length - 1, (int) Math.floor(p * sorted.length))];
+    }
+
+    private static double pct(double[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        return sorted[Math.min(sorted.length - 1, (int) Math.floor(p * sorted.length))];
+    }
+}
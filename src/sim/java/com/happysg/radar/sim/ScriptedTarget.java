@@ -0,0 +1,96 @@
+package com.happysg.radar.sim;
+
+import com.happysg.radar.block.radar.track.TrackCategory;
+import net.minecraft.world.phys.Vec3;
+
+import java.util.Random;
+
+/**
+ * A synthetic contact flying a fixed path. Position is a pure function of the tick, so the simulator
+ * knows exactly where a target really was when a shell would have arrived.
+ */
+public final class ScriptedTarget {
+
+    public interface Trajectory {
+        Vec3 at(double tick);
+    }
+
+    final String id;
+    final TrackCategory category;
+    final float height;
+    final long spawnTick;
+    final long despawnTick;
+    private final Trajectory path;
+
+    ScriptedTarget(String id, TrackCategory category, float height, long spawnTick, long despawnTick, Trajectory path) {
+        this.id = id;
+        this.category = category;
+        this.height = height;
+        this.spawnTick = spawnTick;
+        this.despawnTick = despawnTick;
+        this.path = path;
+    }
+
+    public Vec3 position(double tick) {
+        return path.at(tick);
+    }
+
+    /** Blocks per tick, like an entity's delta movement. */
+    public Vec3 velocity(double tick) {
+        return path.at(tick + 1).subtract(path.at(tick));
+    }
+
+    public boolean isAlive(long tick) {
+        return tick >= spawnTick && tick < despawnTick;
+    }
+
+    /**
+     * Random mix of straight passes, orbits and weaving runs inside {@code radius} of the origin.
+     * Ground targets stay at y=64, fliers between 80 and 160.
+     */
+    static ScriptedTarget random(int index, Random rnd, double radius, long ticks) {
+        TrackCategory category = switch (rnd.nextInt(4)) {
+            case 0 -> TrackCategory.VS2;
+            case 1 -> TrackCategory.PLAYER;
+            default -> TrackCategory.HOSTILE;
+        };
+        float height = category == TrackCategory.VS2 ? 4 + rnd.nextInt(12) : 2;
+        double y = category == TrackCategory.VS2 ? 80 + rnd.nextDouble() * 80 : 64;
+        double speed = category == TrackCategory.VS2 ? 0.3 + rnd.nextDouble() * 1.2 : 0.1 + rnd.nextDouble() * 0.25;
+
+        // staggered spawns so contacts keep appearing and dropping over the run
+        long spawn = (long) (rnd.nextDouble() * ticks * 0.25);
+        long despawn = spawn + (long) (ticks * (0.5 + rnd.nextDouble() * 0.5));
+
+        double startAngle = rnd.nextDouble() * Math.PI * 2;
+        double startR = radius * (0.3 + rnd.nextDouble() * 0.7);
+        Vec3 start = new Vec3(Math.sin(startAngle) * startR, y, Math.cos(startAngle) * startR);
+
+        Trajectory path = switch (rnd.nextInt(3)) {
+            case 0 -> {
+                // straight pass through the middle
+                Vec3 dir = new Vec3(-start.x, 0, -start.z).normalize().scale(speed);
+                yield t -> start.add(dir.scale(t - spawn));
+            }
+            case 1 -> {
+                // orbit, angular speed picked so the ground speed matches
+                double omega = speed / startR;
+                yield t -> {
+                    double a = startAngle + omega * (t - spawn);
+                    return new Vec3(Math.sin(a) * startR, y, Math.cos(a) * startR);
+                };
+            }
+            default -> {
+                // weaving run, the hard case for a constant velocity lead
+                Vec3 dir = new Vec3(-start.x, 0, -start.z).normalize();
+                Vec3 side = new Vec3(-dir.z, 0, dir.x);
+                double amplitude = 8 + rnd.nextDouble() * 16;
+                double period = 60 + rnd.nextDouble() * 120;
+                yield t -> start.add(dir.scale(speed * (t - spawn)))
+                        .add(side.scale(amplitude * Math.sin((t - spawn) * 2 * Math.PI / period)));
+            }
+        };
+
+        return new ScriptedTarget("sim-" + index, category, height, spawn, despawn, path);
+    }
+}
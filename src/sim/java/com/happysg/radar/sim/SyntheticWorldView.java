@@ -0,0 +1,67 @@
+package com.happysg.radar.sim;
+
+import com.happysg.radar.block.radar.behavior.RadarContact;
+import com.happysg.radar.block.radar.behavior.RadarWorldView;
+import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.Vec3;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * {@link RadarWorldView} over a list of scripted targets and a flat world with a few solid boxes on it.
+ * A segment is blocked if it dips below the ground plane at {@code groundY} or passes through any
+ * obstacle, so ground targets behind a building really are out of sight.
+ */
+public final class SyntheticWorldView implements RadarWorldView {
+
+    private final List<ScriptedTarget> targets;
+    private final double groundY;
+    private final List<AABB> obstacles;
+    private long gameTime;
+
+    public SyntheticWorldView(List<ScriptedTarget> targets, double groundY, List<AABB> obstacles) {
+        this.targets = targets;
+        this.groundY = groundY;
+        this.obstacles = obstacles;
+    }
+
+    void setGameTime(long gameTime) {
+        this.gameTime = gameTime;
+    }
+
+    @Override
+    public long getGameTime() {
+        return gameTime;
+    }
+
+    @Override
+    public void collectContacts(Vec3 center, double horizontalRange, double verticalRange, ScanFlags flags, Consumer<RadarContact> out) {
+        for (ScriptedTarget target : targets) {
+            if (!target.isAlive(gameTime) || !flags.allows(target.category)) continue;
+
+            Vec3 pos = target.position(gameTime);
+            if (Math.abs(pos.x - center.x) > horizontalRange || Math.abs(pos.z - center.z) > horizontalRange
+                    || Math.abs(pos.y - center.y) > verticalRange) continue;
+
+            out.accept(new RadarContact(target.id, pos, target.velocity(gameTime), target.category,
+                    "sim:" + target.category.name().toLowerCase(Locale.ROOT), target.height, -1, target));
+        }
+    }
+
+    @Override
+    public boolean stillExists(RadarContact contact) {
+        return contact.handle() instanceof ScriptedTarget target && target.isAlive(gameTime);
+    }
+
+    @Override
+    public boolean isClear(Vec3 from, Vec3 to) {
+        // both ends above the ground plane means the straight segment is too
+        if (from.y < groundY || to.y < groundY) return false;
+        for (AABB box : obstacles) {
+            if (box.contains(from) || box.contains(to) || box.clip(from, to).isPresent()) return false;
+        }
+        return true;
+    }
+}